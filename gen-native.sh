@@ -5,9 +5,7 @@ FILES=$1
 shift
 
 echo "Generating $FILES files"
+$JAVA_HOME/bin/java -jar jbgenerator.jar -count "$FILES" -filename "$PREFIX" "$@" >/dev/null
 for i in `seq 1 $FILES`; do
-  FILENAME="$PREFIX$i"
-  $JAVA_HOME/bin/java -jar jbgenerator.jar -filename "$FILENAME" "$@" >/dev/null
-  mx native-image "$FILENAME"
+  mx native-image "$PREFIX$i"
 done
-
@@ -6,6 +6,4 @@ FILES=$1
 shift
 
 echo "Generating $FILES files"
-for i in `seq 1 $FILES`; do
-  $JAVA_HOME/bin/java -jar jbgenerator.jar -filename "MyGeneratedClass$i" "$@"
-done
+$JAVA_HOME/bin/java -jar jbgenerator.jar -count "$FILES" -filename "MyGeneratedClass" "$@"
@@ -0,0 +1,215 @@
+package at.jku.ssw.java.bytecode.generator.events;
+
+import jdk.jfr.*;
+
+/**
+ * {@link GenerationEvents} implementation that emits the event types
+ * below. This class is only loaded if the JVM provides the JFR API,
+ * and it is only built on JDKs that provide it (see {@code src/jfr}).
+ * <p>
+ * The duration events are only committed if they take at least their
+ * threshold. The thresholds (as well as whether the events are enabled
+ * at all) are configured like the settings of any other event, e.g. in a
+ * recording configuration (see {@code jbgenerator.jfc}).
+ */
+final class JfrEvents extends GenerationEvents {
+
+    static final String CATEGORY = "Java Bytecode Generator";
+
+    static final String PREFIX = "at.jku.ssw.java.bytecode.generator.";
+
+    //-------------------------------------------------------------------------
+    // region Event types
+
+    @Name(PREFIX + "ClassGeneration")
+    @Label("Class Generation")
+    @Description("The generation of a single class (without writing its class file)")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Threshold("0 ms")
+    static final class ClassGeneration extends Event implements Span {
+        @Label("Class Name")
+        String className;
+
+        @Label("Seed")
+        int seed;
+    }
+
+    @Name(PREFIX + "MethodBody")
+    @Label("Method Body")
+    @Description("The generation and compilation of a method body")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static final class MethodBody extends Event implements Span {
+        @Label("Class Name")
+        String className;
+
+        @Label("Method")
+        String method;
+    }
+
+    @Name(PREFIX + "StatementInsertion")
+    @Label("Statement Insertion")
+    @Description("A statement that was appended to a method body")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class StatementInsertion extends Event {
+        @Label("Class Name")
+        String className;
+
+        @Label("Method")
+        String method;
+
+        @Label("Generator")
+        String generator;
+
+        @Label("Length")
+        @Description("The length of the source code (or of the bytecode if the statement is emitted directly)")
+        int length;
+    }
+
+    @Name(PREFIX + "CompileFailure")
+    @Label("Compile Failure")
+    @Description("Source code that the Javassist compiler rejected")
+    @Category(CATEGORY)
+    static final class CompileFailure extends Event {
+        @Label("Class Name")
+        String className;
+
+        @Label("Method")
+        String method;
+
+        @Label("Source")
+        String source;
+
+        @Label("Message")
+        String message;
+    }
+
+    @Name(PREFIX + "StackMapRebuild")
+    @Label("Stack Map Rebuild")
+    @Description("The computation of the stack map frames of a method")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static final class StackMapRebuild extends Event implements Span {
+        @Label("Class Name")
+        String className;
+
+        @Label("Method")
+        String method;
+
+        @Label("Code Length")
+        int codeLength;
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Emission
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public Span beginClass() {
+        ClassGeneration event = new ClassGeneration();
+        if (!event.isEnabled())
+            return null;
+
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endClass(Span span, String className, int seed) {
+        if (span == null)
+            return;
+
+        ClassGeneration event = (ClassGeneration) span;
+        event.end();
+        if (event.shouldCommit()) {
+            event.className = className;
+            event.seed = seed;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Span beginMethodBody() {
+        MethodBody event = new MethodBody();
+        if (!event.isEnabled())
+            return null;
+
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endMethodBody(Span span, String className, String method) {
+        if (span == null)
+            return;
+
+        MethodBody event = (MethodBody) span;
+        event.end();
+        if (event.shouldCommit()) {
+            event.className = className;
+            event.method = method;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void statementInserted(String className, String method, String generator, int length) {
+        StatementInsertion event = new StatementInsertion();
+        if (event.shouldCommit()) {
+            event.className = className;
+            event.method = method;
+            event.generator = generator;
+            event.length = length;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void compileFailed(String className, String method, String source, Throwable cause) {
+        CompileFailure event = new CompileFailure();
+        if (event.shouldCommit()) {
+            event.className = className;
+            event.method = method;
+            event.source = source;
+            event.message = cause.getMessage();
+            event.commit();
+        }
+    }
+
+    @Override
+    public Span beginStackMap() {
+        StackMapRebuild event = new StackMapRebuild();
+        if (!event.isEnabled())
+            return null;
+
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endStackMap(Span span, String className, String method, int codeLength) {
+        if (span == null)
+            return;
+
+        StackMapRebuild event = (StackMapRebuild) span;
+        event.end();
+        if (event.shouldCommit()) {
+            event.className = className;
+            event.method = method;
+            event.codeLength = codeLength;
+            event.commit();
+        }
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
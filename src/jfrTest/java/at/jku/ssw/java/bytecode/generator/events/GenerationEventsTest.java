@@ -0,0 +1,115 @@
+package at.jku.ssw.java.bytecode.generator.events;
+
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.generators.RandomCodeGenerator;
+import at.jku.ssw.java.bytecode.generator.sinks.MemorySink;
+import at.jku.ssw.java.bytecode.generator.types.TypeCache;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static at.jku.ssw.java.bytecode.generator.events.GenerationEvents.EVENTS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenerationEventsTest {
+
+    private static final Path OUTPUT_DIR = Paths.get(".tmp").resolve(GenerationEventsTest.class.getSimpleName());
+
+    @BeforeEach
+    void setUp() throws IOException {
+        TypeCache.CACHE.reset();
+        Files.createDirectories(OUTPUT_DIR);
+    }
+
+    /**
+     * Records the events of the generator (without thresholds) while
+     * executing the given action.
+     */
+    private static List<RecordedEvent> record(String name, Runnable action) throws IOException {
+        final Path file = OUTPUT_DIR.resolve(name + ".jfr");
+
+        try (Recording recording = new Recording()) {
+            Stream.of("ClassGeneration", "MethodBody", "StatementInsertion", "CompileFailure", "StackMapRebuild")
+                    .forEach(e -> recording.enable(JfrEvents.PREFIX + e).withThreshold(Duration.ZERO));
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String type) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(JfrEvents.PREFIX + type))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void testEventsAreAvailable() {
+        assertTrue(EVENTS.isAvailable());
+        // without a recording, no events are created
+        assertNull(EVENTS.beginClass());
+    }
+
+    @Test
+    void testGenerationEvents() throws IOException {
+        final String name = "ARecordedClass";
+
+        List<RecordedEvent> events = record(name, () -> {
+            RandomCodeGenerator generator = new RandomCodeGenerator(name,
+                    new ControlValueParser(new String[]{"-filename", name, "-seed", "42", "-l", "20", "-m", "100"}).parse());
+            generator.generate();
+            generator.writeTo(new MemorySink());
+            generator.release();
+        });
+
+        List<RecordedEvent> classes = ofType(events, "ClassGeneration");
+        assertEquals(1, classes.size());
+        assertEquals(name, classes.get(0).getString("className"));
+        assertEquals(42, classes.get(0).getInt("seed"));
+
+        assertThat(ofType(events, "MethodBody"), is(not(empty())));
+        assertThat(ofType(events, "StackMapRebuild"), is(not(empty())));
+
+        List<RecordedEvent> statements = ofType(events, "StatementInsertion");
+        assertThat(statements, is(not(empty())));
+        for (RecordedEvent e : statements) {
+            assertEquals(name, e.getString("className"));
+            assertThat(e.getString("generator"), endsWith("Generator"));
+        }
+        assertThat(statements.stream().mapToInt(e -> e.getInt("length")).sum(), is(greaterThan(0)));
+
+        // all statements are within the class generation
+        for (RecordedEvent e : statements)
+            assertFalse(e.getStartTime().isBefore(classes.get(0).getStartTime()));
+
+        assertThat(ofType(events, "CompileFailure"), is(empty()));
+    }
+
+    @Test
+    void testCompileFailureEvent() throws IOException {
+        List<RecordedEvent> events = record("AFailingClass", () ->
+                EVENTS.compileFailed("AFailingClass", "run", "int x = ;", new IllegalStateException("syntax error")));
+
+        List<RecordedEvent> failures = ofType(events, "CompileFailure");
+        assertEquals(1, failures.size());
+        assertEquals("run", failures.get(0).getString("method"));
+        assertEquals("int x = ;", failures.get(0).getString("source"));
+        assertEquals("syntax error", failures.get(0).getString("message"));
+    }
+}
@@ -0,0 +1,74 @@
+package at.jku.ssw.java.bytecode.generator.benchmarks;
+
+import at.jku.ssw.java.bytecode.generator.logger.ClazzLogger;
+import at.jku.ssw.java.bytecode.generator.logger.MethodLogger;
+import at.jku.ssw.java.bytecode.generator.metamodel.expressions.Expression;
+import at.jku.ssw.java.bytecode.generator.types.base.MetaType;
+import at.jku.ssw.java.bytecode.generator.utils.ParamWrapper;
+import at.jku.ssw.java.bytecode.generator.utils.RandomSupplier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static at.jku.ssw.java.bytecode.generator.types.TypeCache.CACHE;
+
+/**
+ * Measures the selection of values from the scope of a method, i.e.
+ * {@link ClazzLogger#valueOf(MetaType, MethodLogger)} and
+ * {@link ClazzLogger#randomParameterValues(MetaType[], MethodLogger)},
+ * for scopes that contain the given number of initialized local
+ * variables of primitive types.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ClazzLoggerBenchmark {
+
+    /**
+     * The number of parameters of the parameter lists.
+     */
+    private static final int PARAMETERS = 5;
+
+    @Param({"10", "100", "1000"})
+    public int scope;
+
+    private ClazzLogger clazz;
+
+    private MethodLogger<?> method;
+
+    private MetaType<?> type;
+
+    private MetaType<?>[] parameterTypes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rand = Fixtures.random();
+        RandomSupplier supplier = Fixtures.supplier(rand);
+
+        CACHE.reset();
+        clazz = ClazzLogger.generate(rand, "ABenchmarkedClass", supplier);
+        method = clazz.run();
+
+        for (int i = 0; i < scope; i++)
+            method.logVariable(supplier.getVarName(), clazz.name(), Fixtures.primitiveType(rand), 0, true, false);
+
+        type = Fixtures.primitiveType(rand);
+        parameterTypes = new MetaType<?>[PARAMETERS];
+        for (int i = 0; i < PARAMETERS; i++)
+            parameterTypes[i] = Fixtures.primitiveType(rand);
+    }
+
+    @Benchmark
+    public Expression<?> valueOf() {
+        return clazz.valueOf(type, method);
+    }
+
+    @Benchmark
+    public ParamWrapper<?>[] randomParameterValues() {
+        return clazz.randomParameterValues(parameterTypes, method);
+    }
+}
@@ -0,0 +1,68 @@
+package at.jku.ssw.java.bytecode.generator.benchmarks;
+
+import at.jku.ssw.java.bytecode.generator.types.base.MetaType;
+import at.jku.ssw.java.bytecode.generator.types.base.PrimitiveType;
+import at.jku.ssw.java.bytecode.generator.utils.RandomSupplier;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reproducible inputs for the component benchmarks.
+ * All fixtures are derived from the same fixed seed, so every fork and
+ * every run of a benchmark operates on the same inputs.
+ */
+final class Fixtures {
+
+    /**
+     * The seed of all fixtures.
+     */
+    static final long SEED = 42;
+
+    /**
+     * The primitive types that the fixtures pick from.
+     */
+    static final List<PrimitiveType<?>> PRIMITIVES = Collections.unmodifiableList(Arrays.asList(
+            PrimitiveType.BYTE,
+            PrimitiveType.SHORT,
+            PrimitiveType.INT,
+            PrimitiveType.LONG,
+            PrimitiveType.FLOAT,
+            PrimitiveType.DOUBLE,
+            PrimitiveType.BOOLEAN,
+            PrimitiveType.CHAR
+    ));
+
+    private Fixtures() {
+    }
+
+    /**
+     * @return a new random instance that is initialized with {@link #SEED}
+     */
+    static Random random() {
+        return new Random(SEED);
+    }
+
+    /**
+     * Creates a supplier that uses the given random instance and permits
+     * all kinds of types.
+     *
+     * @param rand The random instance
+     * @return the supplier
+     */
+    static RandomSupplier supplier(Random rand) {
+        return new RandomSupplier(rand, 3, 10, 40, 30, 20, 5, 5);
+    }
+
+    /**
+     * Picks a primitive type.
+     *
+     * @param rand The random instance
+     * @return one of {@link #PRIMITIVES}
+     */
+    static MetaType<?> primitiveType(Random rand) {
+        return PRIMITIVES.get(rand.nextInt(PRIMITIVES.size()));
+    }
+}
@@ -0,0 +1,157 @@
+package at.jku.ssw.java.bytecode.generator.benchmarks;
+
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.generators.RandomCodeGenerator;
+import at.jku.ssw.java.bytecode.generator.sinks.MemorySink;
+import at.jku.ssw.java.bytecode.generator.types.TypeCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the end-to-end throughput of the generation of single classes
+ * (generation, stack map computation and writing to an in-memory sink)
+ * for several representative generator profiles, both with computed
+ * stack map frames and with the legacy class file version that skips
+ * the frame computation ({@code -legacy}), and both with the Javassist
+ * source compiler and with directly emitted bytecode ({@code -bytecode}).
+ * One operation generates one class, i.e. the throughput is reported in
+ * classes per second. Run with {@code -prof gc} (the default of the
+ * {@code jmh} task) to report the allocated bytes per class
+ * ({@code gc.alloc.rate.norm}).
+ * <p>
+ * Each operation uses the next seed of a fixed sequence, so all forks
+ * generate the same classes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class GenerationBenchmark {
+
+    /**
+     * The name of all generated classes (the sink only keeps the latest).
+     */
+    private static final String CLASS_NAME = "ABenchmarkedClass";
+
+    /**
+     * The first seed of the sequence.
+     */
+    private static final int SEED = 0;
+
+    /**
+     * Generator options that stress different parts of the generator.
+     */
+    public enum Profile {
+        /**
+         * Long programs.
+         */
+        LONG("-l", "50"),
+        /**
+         * Deeply nested control flow.
+         */
+        DEEP("-l", "10", "-cf", "60", "-cl", "3", "-cd", "8"),
+        /**
+         * Many and long methods.
+         */
+        METHODS("-l", "10", "-m", "90", "-ml", "20"),
+        /**
+         * Many statements with many operators.
+         */
+        OPERATORS("-l", "20", "-os", "100", "-mops", "15");
+
+        private final String[] options;
+
+        Profile(String... options) {
+            this.options = options;
+        }
+
+        public GenerationController controller(Frames frames, Backend backend) {
+            return new ControlValueParser(
+                    Stream.of(options, frames.options, backend.options)
+                            .flatMap(Stream::of)
+                            .toArray(String[]::new)
+            ).parse();
+        }
+    }
+
+    /**
+     * The handling of the stack map frames of the written class files.
+     */
+    public enum Frames {
+        /**
+         * The frames are computed for each changed method.
+         */
+        COMPUTED,
+        /**
+         * The classes keep the legacy class file version and no frames
+         * are computed.
+         */
+        LEGACY("-legacy");
+
+        private final String[] options;
+
+        Frames(String... options) {
+            this.options = options;
+        }
+    }
+
+    /**
+     * The way in which the generated statements are compiled.
+     */
+    public enum Backend {
+        /**
+         * All statements are compiled from source code.
+         */
+        SOURCE,
+        /**
+         * Supported statements are emitted as bytecode directly.
+         */
+        BYTECODE("-bytecode");
+
+        private final String[] options;
+
+        Backend(String... options) {
+            this.options = options;
+        }
+    }
+
+    @Param
+    public Profile profile;
+
+    @Param
+    public Frames frames;
+
+    @Param
+    public Backend backend;
+
+    private GenerationController controller;
+
+    private MemorySink sink;
+
+    private int seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TypeCache.CACHE.reset();
+        controller = profile.controller(frames, backend);
+        sink = new MemorySink();
+        seed = SEED;
+    }
+
+    @Benchmark
+    public MemorySink generate() {
+        RandomCodeGenerator generator = new RandomCodeGenerator(CLASS_NAME, controller.derive(CLASS_NAME, seed++));
+        try {
+            generator.generate();
+            generator.writeTo(sink);
+        } finally {
+            generator.release();
+        }
+        return sink;
+    }
+}
@@ -0,0 +1,67 @@
+package at.jku.ssw.java.bytecode.generator.benchmarks;
+
+import at.jku.ssw.java.bytecode.generator.utils.Randomizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the random selections of {@link Randomizer} on collections
+ * of the given size.
+ * The randomizer is seeded once per trial, so every run draws the same
+ * sequence of choices.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RandomizerBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private Randomizer randomizer;
+
+    private List<Integer> values;
+
+    private int[] probabilities;
+
+    private Supplier<Integer>[] suppliers;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Random rand = Fixtures.random();
+
+        randomizer = new Randomizer(rand);
+        values = rand.ints(size).boxed().collect(Collectors.toList());
+        probabilities = rand.ints(size, 1, 100).toArray();
+        suppliers = values.stream()
+                .map(v -> (Supplier<Integer>) () -> v)
+                .toArray(Supplier[]::new);
+    }
+
+    @Benchmark
+    public Optional<Integer> oneOf() {
+        return randomizer.oneOf(values);
+    }
+
+    @Benchmark
+    public Optional<Integer> withProbabilities() {
+        return randomizer.withProbabilities(probabilities, suppliers);
+    }
+
+    @Benchmark
+    public Optional<Integer> shuffle() {
+        // the first element requires the whole stream to be shuffled
+        return randomizer.shuffle(IntStream.range(0, size).boxed()).findFirst();
+    }
+}
@@ -0,0 +1,100 @@
+package at.jku.ssw.java.bytecode.generator.benchmarks;
+
+import at.jku.ssw.java.bytecode.generator.logger.FieldVarLogger;
+import at.jku.ssw.java.bytecode.generator.metamodel.expressions.Expression;
+import at.jku.ssw.java.bytecode.generator.metamodel.expressions.operations.BinaryOp;
+import at.jku.ssw.java.bytecode.generator.metamodel.expressions.operations.MethodCall;
+import at.jku.ssw.java.bytecode.generator.metamodel.resolvers.JavassistResolver;
+import at.jku.ssw.java.bytecode.generator.utils.Operator;
+import at.jku.ssw.java.bytecode.generator.utils.RandomSupplier;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static at.jku.ssw.java.bytecode.generator.types.base.PrimitiveType.INT;
+
+/**
+ * Measures the resolution of expression trees to Javassist source code
+ * ({@link JavassistResolver#resolve(Expression)}).
+ * The trees are complete binary trees of the given depth, i.e. each
+ * tree contains {@code 2^depth - 1} inner nodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ResolverBenchmark {
+
+    /**
+     * The arithmetic operators of the binary operations.
+     */
+    private static final List<Operator> OPERATORS =
+            Arrays.asList(Operator.PLUS, Operator.MINUS, Operator.MUL, Operator.DIV, Operator.MOD);
+
+    @Param({"4", "8", "12"})
+    public int depth;
+
+    private JavassistResolver resolver;
+
+    private Expression<Integer> binaryOps;
+
+    private Expression<Integer> methodCalls;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rand = Fixtures.random();
+        RandomSupplier supplier = Fixtures.supplier(rand);
+
+        resolver = new JavassistResolver();
+        binaryOps = binaryOps(rand, supplier, depth);
+        methodCalls = methodCalls(supplier, new FieldVarLogger<>("o", "ABenchmarkedClass", Modifier.STATIC, INT, true, true), depth);
+    }
+
+    @Benchmark
+    public String resolveBinaryOps() {
+        return resolver.resolve(binaryOps);
+    }
+
+    @Benchmark
+    public String resolveMethodCalls() {
+        return resolver.resolve(methodCalls);
+    }
+
+    private static Expression<Integer> binaryOps(Random rand, RandomSupplier supplier, int depth) {
+        if (depth == 0)
+            return constant(supplier);
+
+        return new BinaryOp<>(
+                INT,
+                OPERATORS.get(rand.nextInt(OPERATORS.size())),
+                binaryOps(rand, supplier, depth - 1),
+                binaryOps(rand, supplier, depth - 1)
+        );
+    }
+
+    private static Expression<Integer> methodCalls(RandomSupplier supplier, FieldVarLogger<?> sender, int depth) {
+        if (depth == 0)
+            return constant(supplier);
+
+        return new MethodCall<>(
+                "method" + depth,
+                INT,
+                sender,
+                Arrays.asList(
+                        methodCalls(supplier, sender, depth - 1),
+                        methodCalls(supplier, sender, depth - 1)
+                )
+        );
+    }
+
+    private static Expression<Integer> constant(RandomSupplier supplier) {
+        return supplier.constantOf(INT)
+                .orElseThrow(() -> new AssertionError("No int constant available"));
+    }
+}
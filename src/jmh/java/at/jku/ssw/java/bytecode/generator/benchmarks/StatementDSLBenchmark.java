@@ -0,0 +1,81 @@
+package at.jku.ssw.java.bytecode.generator.benchmarks;
+
+import at.jku.ssw.java.bytecode.generator.utils.RandomSupplier;
+import at.jku.ssw.java.bytecode.generator.utils.StatementDSL;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static at.jku.ssw.java.bytecode.generator.utils.StatementDSL.Blocks.For;
+import static at.jku.ssw.java.bytecode.generator.utils.StatementDSL.Blocks.If;
+
+/**
+ * Measures the formatting helpers of {@link StatementDSL} that are used
+ * for almost every generated statement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StatementDSLBenchmark {
+
+    private String variable;
+
+    private String condition;
+
+    private String owner;
+
+    private List<String> arguments;
+
+    private List<Integer> listDims;
+
+    private int[] arrayDims;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rand = Fixtures.random();
+        RandomSupplier supplier = Fixtures.supplier(rand);
+
+        variable = supplier.getVarName();
+        condition = variable + " < " + rand.nextInt(100);
+        owner = supplier.getString();
+        arguments = Arrays.asList(supplier.getVarName(), supplier.getVarName(), supplier.getVarName());
+        listDims = Arrays.asList(rand.nextInt(10), rand.nextInt(10), rand.nextInt(10));
+        arrayDims = new int[]{rand.nextInt(10), rand.nextInt(10), rand.nextInt(10)};
+    }
+
+    @Benchmark
+    public String ifBlock() {
+        return If(condition);
+    }
+
+    @Benchmark
+    public String forBlock() {
+        return For("int " + variable + " = 0", condition, variable + "++");
+    }
+
+    @Benchmark
+    public String methodWithoutArguments() {
+        return StatementDSL.method(owner, "methodA");
+    }
+
+    @Benchmark
+    public String methodWithArguments() {
+        return StatementDSL.method(owner, "methodA", arguments);
+    }
+
+    @Benchmark
+    public String arrayOfList() {
+        return StatementDSL.array(variable, listDims);
+    }
+
+    @Benchmark
+    public String arrayOfInts() {
+        return StatementDSL.array(variable, arrayDims);
+    }
+}
@@ -2,19 +2,22 @@ package at.jku.ssw.java.bytecode.generator;
 
 import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
 import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
-import at.jku.ssw.java.bytecode.generator.generators.RandomCodeGenerator;
+import at.jku.ssw.java.bytecode.generator.generators.BatchGenerator;
+import at.jku.ssw.java.bytecode.generator.generators.ParallelBatchGenerator;
+import at.jku.ssw.java.bytecode.generator.generators.PipelinedBatchGenerator;
 
 public class JBGenerator {
 
     public static void main(String[] args) {
         ControlValueParser parser = new ControlValueParser(args);
         GenerationController controller = parser.parse();
-        RandomCodeGenerator randomCodeGenerator = new RandomCodeGenerator(controller.getFileName(), controller);
-        randomCodeGenerator.generate();
-        if (controller.getLocation() != null) {
-            randomCodeGenerator.writeFile(controller.getLocation());
-        } else {
-            randomCodeGenerator.writeFile();
-        }
+        BatchGenerator generator;
+        if (controller.getIOThreads() > 0)
+            generator = new PipelinedBatchGenerator(controller, controller.getThreads(), controller.getIOThreads());
+        else if (controller.getThreads() > 1)
+            generator = new ParallelBatchGenerator(controller, controller.getThreads());
+        else
+            generator = new BatchGenerator(controller);
+        generator.generate();
     }
 }
@@ -34,8 +34,14 @@ enum CLIOptions {
     MOPS,
     OF,
     DZ,
+    BYTECODE,
+    CHECKSUM,
+    LEGACY,
+    TIMINGS,
     FILENAME,
     DIRECTORY,
+    SINK,
+    STORE,
     XRUNS,
     SNIPPET,
     BREAK,
@@ -48,6 +54,10 @@ enum CLIOptions {
     MAXDIMSIZE,
     CAST,
     SEED,
+    COUNT,
+    THREADS,
+    IO_THREADS,
+    RETRIES,
     ARRAY_ACCESS,
     ARRAY_RESTRICTION;
 
@@ -1,5 +1,6 @@
 package at.jku.ssw.java.bytecode.generator.cli;
 
+import at.jku.ssw.java.bytecode.generator.sinks.ClassSink;
 import org.apache.commons.cli.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -69,6 +70,14 @@ public class ControlValueParser {
                 false, "Disable avoidance of overflow exceptions in the generated file");
         options.addOption(CLIOptions.DZ.toString(), "divided_by_zero",
                 false, "Disable avoidance of divided_by_zero-exceptions in the generated file");
+        options.addOption(CLIOptions.BYTECODE.toString(), "bytecode_emission",
+                false, "Emit supported statements directly as bytecode instead of compiling source code");
+        options.addOption(CLIOptions.LEGACY.toString(), "legacy_class_version",
+                false, "Generate class files of version 49 (Java 5), which do not contain stack map frames");
+        options.addOption(CLIOptions.TIMINGS.toString(), "timing_report",
+                true, "Record the durations of the generation phases and write them to the given JSON file");
+        options.addOption(CLIOptions.CHECKSUM.toString(), "checksum_only",
+                false, "Fold the values of print-statements into a checksum that is only printed with the global hash");
         options.addOption(CLIOptions.OS.toString(), "operator_statement",
                 true, "The probability to generate statements using operators");
         options.addOption(CLIOptions.AS.toString(), "arithmetic",
@@ -99,6 +108,10 @@ public class ControlValueParser {
                 true, "The name of the class-file generated by JBGenerator");
         options.addOption(CLIOptions.DIRECTORY.toString(), "directory",
                 true, "The location to which the generated class-file is written");
+        options.addOption(CLIOptions.SINK.toString(), "output_sink",
+                true, "The output format of the generated classes: 'directory' (one class-file each), 'jar' (a single archive named after the file name) or 'memory' (no output)");
+        options.addOption(CLIOptions.STORE.toString(), "store_uncompressed",
+                false, "Store the entries of jar archives without compression");
         options.addOption(CLIOptions.PRIMITIVES.toString(), "primitives",
                 true, "The probability to use a primitive type");
         options.addOption(CLIOptions.OBJECTS.toString(), "objects",
@@ -119,6 +132,14 @@ public class ControlValueParser {
                 true, "The probability to generate arrays with restricted access ranges (e.g. only access 3rd to 5th index positions");
         options.addOption(CLIOptions.SEED.toString(), "seed",
                 true, "The seed to use for the random generation");
+        options.addOption(CLIOptions.COUNT.toString(), "count",
+                true, "The number of classes to generate in this run. If given, the file name is used as prefix (suffixed by the 1-based class index) and the seed is incremented per class");
+        options.addOption(CLIOptions.THREADS.toString(), "threads",
+                true, "The number of threads that generate the classes of a batch in parallel (0 uses one thread per processor)");
+        options.addOption(CLIOptions.IO_THREADS.toString(), "io_threads",
+                true, "The number of threads that write the generated classes asynchronously (0 writes them on the generating threads)");
+        options.addOption(CLIOptions.RETRIES.toString(), "statement_retries",
+                true, "The number of generated statements per class that may fail to compile and are rolled back and re-rolled before the generation of the class is aborted");
         return options;
     }
 
@@ -170,6 +191,10 @@ public class ControlValueParser {
         defaultValues.put(CLIOptions.ARRAY_ACCESS.toString(), 10);
         defaultValues.put(CLIOptions.ARRAY_RESTRICTION.toString(), 5);
         defaultValues.put(CLIOptions.SEED.toString(), new Random().nextInt());
+        defaultValues.put(CLIOptions.COUNT.toString(), 1);
+        defaultValues.put(CLIOptions.THREADS.toString(), 1);
+        defaultValues.put(CLIOptions.IO_THREADS.toString(), 0);
+        defaultValues.put(CLIOptions.RETRIES.toString(), 10);
         return defaultValues;
     }
 
@@ -207,6 +232,35 @@ public class ControlValueParser {
                             generationController.setAvoidDivByZero(false);
                             logger.debug("Not avoiding Divisions by zero");
                             break;
+                        case BYTECODE:
+                            generationController.setEmitBytecode(true);
+                            logger.debug("Emitting bytecode directly");
+                            break;
+                        case LEGACY:
+                            generationController.setLegacyClassVersion(true);
+                            logger.debug("Generating class files without stack map frames");
+                            break;
+                        case TIMINGS:
+                            generationController.setTimingReport(cmd.getOptionValue(signature));
+                            logger.debug("Writing timing report to {}", cmd.getOptionValue(signature));
+                            break;
+                        case CHECKSUM:
+                            generationController.setChecksumOnly(true);
+                            logger.debug("Folding printed values into a checksum");
+                            break;
+                        case SINK:
+                            generationController.setSinkKind(ClassSink.Kind.valueOf(cmd.getOptionValue(signature).toUpperCase()));
+                            logger.debug("Output sink: {}", cmd.getOptionValue(signature));
+                            break;
+                        case STORE:
+                            generationController.setStoreUncompressed(true);
+                            logger.debug("Storing archive entries without compression");
+                            break;
+                        case COUNT:
+                            generationController.addControlValue(optionKind, Integer.parseInt(cmd.getOptionValue(signature)));
+                            generationController.setBatch(true);
+                            logger.debug("Generating {} classes with prefix", cmd.getOptionValue(signature));
+                            break;
                         default:
                             int value = Integer.parseInt(cmd.getOptionValue(signature));
                             generationController.addControlValue(optionKind, value);
@@ -230,6 +284,24 @@ public class ControlValueParser {
                         case DZ:
                             logger.debug("Avoiding Divisions by zero (use -dz to disable)");
                             break;
+                        case BYTECODE:
+                            logger.debug("Compiling source code (use -bytecode to emit bytecode directly)");
+                            break;
+                        case LEGACY:
+                            logger.debug("Generating class files with stack map frames (use -legacy to disable)");
+                            break;
+                        case TIMINGS:
+                            logger.debug("Not recording timings (use -timings to enable)");
+                            break;
+                        case CHECKSUM:
+                            logger.debug("Printing values (use -checksum to fold them into a checksum)");
+                            break;
+                        case SINK:
+                            logger.debug("Default output sink: {}", ClassSink.Kind.DIRECTORY);
+                            break;
+                        case STORE:
+                            logger.debug("Compressing archive entries (use -store to disable)");
+                            break;
                         default:
                             generationController.addControlValue(optionKind, defaultValues.get(signature));
                             logger.debug(
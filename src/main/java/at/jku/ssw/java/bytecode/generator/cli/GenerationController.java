@@ -1,5 +1,7 @@
 package at.jku.ssw.java.bytecode.generator.cli;
 
+import at.jku.ssw.java.bytecode.generator.sinks.ClassSink;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -8,9 +10,45 @@ public class GenerationController {
 
     private boolean avoidOverflows = true;
     private boolean avoidDivByZero = true;
+    private boolean emitBytecode = false;
+    private boolean checksumOnly = false;
+    private boolean legacyClassVersion = false;
+    private boolean storeUncompressed = false;
+    private boolean batch = false;
+
+    private ClassSink.Kind sinkKind = ClassSink.Kind.DIRECTORY;
 
     private String fileName;
     private String location;
+    private String timingReport;
+
+    /**
+     * Creates a copy of this controller that only differs in the seed
+     * and file name.
+     * This is used to derive the controllers of the individual classes
+     * in batch runs.
+     *
+     * @param fileName The file name of the derived class
+     * @param seed     The seed of the derived class
+     * @return a new controller that shares all other settings
+     */
+    public GenerationController derive(String fileName, int seed) {
+        GenerationController derived = new GenerationController();
+        derived.controlValues.putAll(controlValues);
+        derived.controlValues.put(CLIOptions.SEED, seed);
+        derived.avoidOverflows = avoidOverflows;
+        derived.avoidDivByZero = avoidDivByZero;
+        derived.emitBytecode = emitBytecode;
+        derived.checksumOnly = checksumOnly;
+        derived.legacyClassVersion = legacyClassVersion;
+        derived.storeUncompressed = storeUncompressed;
+        derived.batch = batch;
+        derived.sinkKind = sinkKind;
+        derived.fileName = fileName;
+        derived.location = location;
+        derived.timingReport = timingReport;
+        return derived;
+    }
 
     void addControlValue(CLIOptions option, int value) {
         controlValues.put(option, value);
@@ -40,6 +78,58 @@ public class GenerationController {
         this.avoidDivByZero = avoidDivByZero;
     }
 
+    public boolean emitBytecode() {
+        return emitBytecode;
+    }
+
+    public void setEmitBytecode(boolean emitBytecode) {
+        this.emitBytecode = emitBytecode;
+    }
+
+    public boolean checksumOnly() {
+        return checksumOnly;
+    }
+
+    public void setChecksumOnly(boolean checksumOnly) {
+        this.checksumOnly = checksumOnly;
+    }
+
+    public boolean legacyClassVersion() {
+        return legacyClassVersion;
+    }
+
+    public void setLegacyClassVersion(boolean legacyClassVersion) {
+        this.legacyClassVersion = legacyClassVersion;
+    }
+
+    public boolean storeUncompressed() {
+        return storeUncompressed;
+    }
+
+    public void setStoreUncompressed(boolean storeUncompressed) {
+        this.storeUncompressed = storeUncompressed;
+    }
+
+    /**
+     * @return {@code true} if the number of classes is given explicitly,
+     * in which case the file name is used as class name prefix
+     */
+    public boolean isBatch() {
+        return batch;
+    }
+
+    public void setBatch(boolean batch) {
+        this.batch = batch;
+    }
+
+    public ClassSink.Kind getSinkKind() {
+        return sinkKind;
+    }
+
+    public void setSinkKind(ClassSink.Kind sinkKind) {
+        this.sinkKind = sinkKind;
+    }
+
     public String getFileName() {
         return fileName;
     }
@@ -48,6 +138,22 @@ public class GenerationController {
         return location;
     }
 
+    /**
+     * @return the file to which the phase timings of the generated
+     * classes are written or {@code null} if they are not recorded
+     */
+    public String getTimingReport() {
+        return timingReport;
+    }
+
+    public void setTimingReport(String timingReport) {
+        this.timingReport = timingReport;
+    }
+
+    public boolean recordsTimings() {
+        return timingReport != null;
+    }
+
     public int getLocalVariableProbability() {
         return controlValues.get(CLIOptions.LV);
     }
@@ -223,4 +329,21 @@ public class GenerationController {
     public int getArrayRestrictionProbability() {
         return controlValues.get(CLIOptions.ARRAY_RESTRICTION);
     }
+
+    public int getCount() {
+        return controlValues.get(CLIOptions.COUNT);
+    }
+
+    public int getThreads() {
+        int threads = controlValues.get(CLIOptions.THREADS);
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getIOThreads() {
+        return controlValues.get(CLIOptions.IO_THREADS);
+    }
+
+    public int getStatementRetries() {
+        return controlValues.get(CLIOptions.RETRIES);
+    }
 }
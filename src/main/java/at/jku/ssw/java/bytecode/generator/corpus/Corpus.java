@@ -0,0 +1,173 @@
+package at.jku.ssw.java.bytecode.generator.corpus;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Read-only view of a corpus file, which stores many generated classes
+ * together with their seeds, generator options and expected global
+ * hashes (see {@link CorpusWriter}).
+ * <p>
+ * A corpus file consists of
+ * <ol>
+ * <li>a header: {@link #MAGIC}, {@link #VERSION}, the window size and
+ * the offset of the payload section</li>
+ * <li>the index: the table of generator options (which are shared by
+ * all classes of a batch) and one entry per class (name, seed, options
+ * index, expected hash, payload offset and length)</li>
+ * <li>the payload section: the class files</li>
+ * </ol>
+ * The payload section is memory-mapped in windows of the given size
+ * (class files never cross a window boundary), so the class files are
+ * accessed in place, without opening or copying any files.
+ */
+public final class Corpus implements Closeable {
+
+    /**
+     * Marks the start of a corpus file ("JBCO").
+     */
+    static final int MAGIC = 0x4A42434F;
+
+    /**
+     * The version of the file format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The default size of the mapped windows of the payload section.
+     */
+    static final long WINDOW_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+
+    /**
+     * The entries in the order in which they were added.
+     */
+    private final List<CorpusEntry> entries;
+
+    /**
+     * The entries by class name.
+     */
+    private final Map<String, CorpusEntry> index;
+
+    private final long windowSize;
+
+    /**
+     * The mapped windows of the payload section.
+     */
+    private final MappedByteBuffer[] windows;
+
+    /**
+     * Opens the given corpus file and reads its index.
+     *
+     * @param path The path of the corpus file
+     * @throws IOException if the file cannot be read or is not a corpus
+     */
+    public Corpus(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            // the stream is not closed, as it would also close the channel
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+
+            if (in.readInt() != MAGIC)
+                throw new IOException(path + " is not a corpus file");
+            final int version = in.readInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported corpus version " + version);
+
+            this.windowSize = in.readLong();
+            final long payloads = in.readLong();
+
+            String[] options = new String[in.readInt()];
+            for (int i = 0; i < options.length; i++)
+                options[i] = in.readUTF();
+
+            final int count = in.readInt();
+            this.entries = new ArrayList<>(count);
+            this.index = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                CorpusEntry entry = new CorpusEntry(
+                        in.readUTF(),
+                        in.readInt(),
+                        options[in.readInt()],
+                        in.readBoolean() ? in.readUTF() : null,
+                        in.readLong(),
+                        in.readInt()
+                );
+                entries.add(entry);
+                index.put(entry.className, entry);
+            }
+
+            final long size = channel.size() - payloads;
+            this.windows = new MappedByteBuffer[(int) ((size + windowSize - 1) / windowSize)];
+            for (int i = 0; i < windows.length; i++) {
+                final long start = i * windowSize;
+                windows[i] = channel.map(
+                        FileChannel.MapMode.READ_ONLY,
+                        payloads + start,
+                        Math.min(windowSize, size - start)
+                );
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return all entries in the order in which they were added
+     */
+    public List<CorpusEntry> entries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Looks up the entry of the given class.
+     *
+     * @param className The binary name of the class
+     * @return the entry or {@code null} if the corpus does not contain
+     * the class
+     */
+    public CorpusEntry entry(String className) {
+        return index.get(className);
+    }
+
+    /**
+     * Returns the class file of the given entry.
+     * The buffer is a read-only view of the mapped file, i.e. the class
+     * file is not copied.
+     *
+     * @param entry The entry
+     * @return the class file
+     */
+    public ByteBuffer payload(CorpusEntry entry) {
+        final int position = (int) (entry.offset % windowSize);
+
+        ByteBuffer buffer = windows[(int) (entry.offset / windowSize)].duplicate();
+        buffer.position(position);
+        buffer.limit(position + entry.length);
+        return buffer.slice();
+    }
+
+    /**
+     * Closes the file. The mapped windows remain valid until they are
+     * garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
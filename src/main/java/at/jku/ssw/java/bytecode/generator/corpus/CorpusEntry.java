@@ -0,0 +1,52 @@
+package at.jku.ssw.java.bytecode.generator.corpus;
+
+/**
+ * Describes a single class of a {@link Corpus}.
+ */
+public final class CorpusEntry {
+
+    /**
+     * The binary name of the class.
+     */
+    public final String className;
+
+    /**
+     * The seed that generated the class.
+     */
+    public final int seed;
+
+    /**
+     * The generator options of the batch that contained the class.
+     */
+    public final String options;
+
+    /**
+     * The global hash line that the class printed when the corpus was
+     * created or {@code null} if it did not print one.
+     */
+    public final String expectedHash;
+
+    /**
+     * The offset of the class file within the payload section.
+     */
+    final long offset;
+
+    /**
+     * The length of the class file.
+     */
+    final int length;
+
+    CorpusEntry(String className, int seed, String options, String expectedHash, long offset, int length) {
+        this.className = className;
+        this.seed = seed;
+        this.options = options;
+        this.expectedHash = expectedHash;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public String toString() {
+        return className + " (seed " + seed + ")";
+    }
+}
@@ -0,0 +1,162 @@
+package at.jku.ssw.java.bytecode.generator.corpus;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Creates a corpus file (see {@link Corpus} for the format).
+ * As the index precedes the class files, the class files are collected
+ * in a temporary file next to the corpus and appended to the index
+ * when the writer is closed. Classes may be added concurrently.
+ */
+public final class CorpusWriter implements Closeable {
+
+    /**
+     * The path of the corpus file.
+     */
+    private final Path path;
+
+    /**
+     * The temporary file that collects the class files.
+     */
+    private final Path payloads;
+
+    private final OutputStream out;
+
+    private final long windowSize;
+
+    /**
+     * The distinct generator options and their indices in the
+     * options table.
+     */
+    private final Map<String, Integer> options = new LinkedHashMap<>();
+
+    private final List<CorpusEntry> entries = new ArrayList<>();
+
+    private final Set<String> classNames = new HashSet<>();
+
+    /**
+     * The current length of the payload section.
+     */
+    private long position;
+
+    /**
+     * Creates a writer for the given corpus file (replacing any existing
+     * file when the writer is closed).
+     *
+     * @param path The path of the corpus file
+     * @throws IOException if the temporary file cannot be created
+     */
+    public CorpusWriter(Path path) throws IOException {
+        this(path, Corpus.WINDOW_SIZE);
+    }
+
+    CorpusWriter(Path path, long windowSize) throws IOException {
+        this.path = path;
+        this.windowSize = windowSize;
+
+        Path directory = path.toAbsolutePath().getParent();
+        this.payloads = Files.createTempFile(directory, path.getFileName().toString(), ".payloads");
+        this.out = new BufferedOutputStream(Files.newOutputStream(payloads));
+    }
+
+    /**
+     * Adds a class to the corpus.
+     *
+     * @param className    The binary name of the class
+     * @param seed         The seed that generated the class
+     * @param options      The generator options of the batch
+     * @param expectedHash The global hash line that the class prints
+     *                     ({@code null} if it does not print one)
+     * @param bytes        The class file
+     * @throws IOException if the class file cannot be written
+     */
+    public synchronized void add(String className, int seed, String options, String expectedHash, byte[] bytes)
+            throws IOException {
+
+        assert bytes.length <= windowSize : "Class file exceeds the window size";
+
+        if (!classNames.add(className))
+            throw new IllegalArgumentException("Duplicate class " + className);
+
+        // class files must not cross the boundaries of mapped windows
+        final long remaining = windowSize - position % windowSize;
+        if (bytes.length > remaining) {
+            for (long i = 0; i < remaining; i++)
+                out.write(0);
+            position += remaining;
+        }
+
+        this.options.putIfAbsent(options, this.options.size());
+        entries.add(new CorpusEntry(className, seed, options, expectedHash, position, bytes.length));
+
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+    /**
+     * @return the number of classes that were added so far
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the header and the index followed by the collected class
+     * files to the corpus file and removes the temporary file.
+     *
+     * @throws IOException if the corpus cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+
+        try {
+            ByteArrayOutputStream index = new ByteArrayOutputStream();
+            try (DataOutputStream data = new DataOutputStream(index)) {
+                data.writeInt(options.size());
+                for (String o : options.keySet())
+                    data.writeUTF(o);
+
+                data.writeInt(entries.size());
+                for (CorpusEntry e : entries) {
+                    data.writeUTF(e.className);
+                    data.writeInt(e.seed);
+                    data.writeInt(options.get(e.options));
+                    data.writeBoolean(e.expectedHash != null);
+                    if (e.expectedHash != null)
+                        data.writeUTF(e.expectedHash);
+                    data.writeLong(e.offset);
+                    data.writeInt(e.length);
+                }
+            }
+
+            // magic, version, window size and payload offset
+            final int headerSize = 2 * Integer.BYTES + 2 * Long.BYTES;
+
+            try (FileChannel target = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 FileChannel source = FileChannel.open(payloads, StandardOpenOption.READ)) {
+
+                DataOutputStream header = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(target)));
+                header.writeInt(Corpus.MAGIC);
+                header.writeInt(Corpus.VERSION);
+                header.writeLong(windowSize);
+                header.writeLong(headerSize + index.size());
+                index.writeTo(header);
+                header.flush();
+
+                final long size = source.size();
+                for (long transferred = 0; transferred < size; )
+                    transferred += source.transferTo(transferred, size - transferred, target);
+            }
+        } finally {
+            Files.deleteIfExists(payloads);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package at.jku.ssw.java.bytecode.generator.events;
+
+/**
+ * Emits Java Flight Recorder events for the internals of the generation
+ * (see {@code JfrEvents} for the event types).
+ * This class does not depend on the JFR API, so the generator still builds
+ * and runs on JDKs that do not provide it ({@code jdk.jfr} is available
+ * since JDK 8u262 and JDK 11). {@code JfrEvents} is kept in the separate
+ * source set {@code src/jfr}, which is only built if the JDK provides the
+ * API. If it is missing, {@link #EVENTS} does not emit anything.
+ * <p>
+ * Duration events are emitted as follows:
+ * <pre>{@code
+ * final Span span = EVENTS.beginClass();
+ * ...
+ * EVENTS.endClass(span, className, seed);
+ * }</pre>
+ * If no recording is running (or the event is disabled), {@code begin}
+ * returns {@code null} and {@code end} returns immediately, so the
+ * events cost close to nothing unless they are recorded.
+ */
+public class GenerationEvents {
+
+    /**
+     * A duration event that is in progress.
+     */
+    public interface Span {
+    }
+
+    /**
+     * The events of the current JVM.
+     */
+    public static final GenerationEvents EVENTS = create();
+
+    GenerationEvents() {
+    }
+
+    private static GenerationEvents create() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return Class.forName(GenerationEvents.class.getPackage().getName() + ".JfrEvents")
+                    .asSubclass(GenerationEvents.class)
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new GenerationEvents();
+        }
+    }
+
+    /**
+     * @return {@code true} if this JVM supports the events
+     */
+    public boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * Begins the generation of a class.
+     *
+     * @return the event or {@code null} if it is not recorded
+     */
+    public Span beginClass() {
+        return null;
+    }
+
+    /**
+     * Ends the generation of a class.
+     *
+     * @param span      The event that was returned by {@link #beginClass()}
+     * @param className The name of the class
+     * @param seed      The seed of the class
+     */
+    public void endClass(Span span, String className, int seed) {
+    }
+
+    /**
+     * Begins the generation of a method body.
+     *
+     * @return the event or {@code null} if it is not recorded
+     */
+    public Span beginMethodBody() {
+        return null;
+    }
+
+    /**
+     * Ends the generation of a method body.
+     *
+     * @param span      The event that was returned by {@link #beginMethodBody()}
+     * @param className The name of the class
+     * @param method    The name of the method
+     */
+    public void endMethodBody(Span span, String className, String method) {
+    }
+
+    /**
+     * Signals that a statement was appended to a method body.
+     *
+     * @param className The name of the class
+     * @param method    The name of the method
+     * @param generator The kind of the generator that generated the
+     *                  statement
+     * @param length    The length of the source code (or of the bytecode
+     *                  if the statement is emitted directly)
+     */
+    public void statementInserted(String className, String method, String generator, int length) {
+    }
+
+    /**
+     * Signals that the Javassist compiler rejected some source code.
+     *
+     * @param className The name of the class
+     * @param method    The name of the method
+     * @param source    The source code
+     * @param cause     The reason of the failure
+     */
+    public void compileFailed(String className, String method, String source, Throwable cause) {
+    }
+
+    /**
+     * Begins the computation of the stack map frames of a method.
+     *
+     * @return the event or {@code null} if it is not recorded
+     */
+    public Span beginStackMap() {
+        return null;
+    }
+
+    /**
+     * Ends the computation of the stack map frames of a method.
+     *
+     * @param span       The event that was returned by {@link #beginStackMap()}
+     * @param className  The name of the class
+     * @param method     The name of the method
+     * @param codeLength The length of the code of the method
+     */
+    public void endStackMap(Span span, String className, String method, int codeLength) {
+    }
+}
@@ -0,0 +1,115 @@
+package at.jku.ssw.java.bytecode.generator.execution;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Target that builds and executes classes via arbitrary local commands
+ * (e.g. {@code mx native-image {class}} and {@code ./{lowerclass}},
+ * or {@code /opt/jdk11/bin/java -Xint {class}}).
+ * The commands are split at whitespace and run in the directory of the
+ * class file. The placeholders {@code {class}} and {@code {lowerclass}}
+ * are replaced by the class name and its lower case variant.
+ */
+public final class CommandTarget implements Target {
+
+    private final String name;
+
+    /**
+     * The build command or {@code null} if the classes are executed
+     * directly.
+     */
+    private final String buildCommand;
+
+    /**
+     * The execution command.
+     */
+    private final String runCommand;
+
+    /**
+     * Creates a new command target.
+     *
+     * @param name         The name of the target
+     * @param buildCommand The build command (or {@code null})
+     * @param runCommand   The execution command
+     */
+    public CommandTarget(String name, String buildCommand, String runCommand) {
+        assert runCommand != null;
+        this.name = name;
+        this.buildCommand = buildCommand;
+        this.runCommand = runCommand;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public boolean build(Path directory, String className, long timeoutMillis)
+            throws IOException, InterruptedException {
+        if (buildCommand == null)
+            return true;
+
+        WorkerResult result = execute(directory, className, buildCommand, name + ".build", timeoutMillis);
+        return result.status == WorkerResult.Status.COMPLETED && result.exitStatus == 0;
+    }
+
+    @Override
+    public WorkerResult run(Path directory, String className, byte[] bytes, long timeoutMillis)
+            throws IOException, InterruptedException {
+        return execute(directory, className, runCommand, name, timeoutMillis);
+    }
+
+    /**
+     * Runs the given command in the given directory.
+     * The output streams are redirected to files, which avoids blocking
+     * the process if it prints more than the pipe buffer can hold.
+     *
+     * @param directory     The working directory
+     * @param className     The name of the class
+     * @param template      The command template
+     * @param prefix        The prefix of the output files
+     * @param timeoutMillis The maximum duration of the command
+     * @return the outcome of the command
+     */
+    private static WorkerResult execute(Path directory, String className, String template, String prefix, long timeoutMillis)
+            throws IOException, InterruptedException {
+
+        File out = directory.resolve(prefix + ".out.txt").toFile();
+        File err = directory.resolve(prefix + ".err.txt").toFile();
+
+        Process process = new ProcessBuilder(command(template, className))
+                .directory(directory.toFile())
+                .redirectOutput(out)
+                .redirectError(err)
+                .start();
+
+        if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly().waitFor();
+            return new WorkerResult(className, WorkerResult.Status.TIMED_OUT, -1, read(out), read(err));
+        }
+
+        return new WorkerResult(className, WorkerResult.Status.COMPLETED, process.exitValue(), read(out), read(err));
+    }
+
+    private static List<String> command(String template, String className) {
+        return Arrays.stream(template.trim().split("\\s+"))
+                .map(s -> s
+                        .replace("{class}", className)
+                        .replace("{lowerclass}", className.toLowerCase(Locale.ROOT)))
+                .collect(Collectors.toList());
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,584 @@
+package at.jku.ssw.java.bytecode.generator.execution;
+
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.generators.BatchGenerator;
+import at.jku.ssw.java.bytecode.generator.utils.Stages;
+import org.apache.commons.cli.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Generates classes and compares their behaviour on a reference runtime
+ * and a target runtime (e.g. HotSpot and a native image).
+ * <p>
+ * Each class passes through the following stages, which run concurrently
+ * on separate thread pools with bounded queues:
+ * <ol>
+ * <li>generation,</li>
+ * <li>the build of the target (e.g. the native image compilation),</li>
+ * <li>the execution on the reference and the target runtime and</li>
+ * <li>the comparison of both outcomes.</li>
+ * </ol>
+ * A full queue blocks the preceding stage, which bounds the number of
+ * classes that are in flight. Each stage has its own timeout.
+ * <p>
+ * All classes that do not behave identically are listed in a results
+ * index ({@link #INDEX}) in the output directory, together with their
+ * seeds. Their class files and outputs are kept in a subdirectory per
+ * class, whereas those of matching classes are deleted.
+ * <p>
+ * Optionally, classes are deduplicated by their {@link Fingerprints}
+ * before they are built and executed.
+ */
+public class DifferentialTester {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The name of the results index within the output directory.
+     */
+    public static final String INDEX = "results.tsv";
+
+    /**
+     * The possible verdicts for a single class.
+     */
+    public enum Verdict {
+        /**
+         * Both runtimes produced the same output and exit status.
+         */
+        MATCH,
+        /**
+         * The runtimes produced different outputs, exit statuses, or only
+         * one of them terminated.
+         */
+        MISMATCH,
+        /**
+         * The class could not be compared, as its generation exceeded
+         * the timeout or its execution timed out on both runtimes.
+         */
+        TIMEOUT,
+        /**
+         * The class could not be generated.
+         */
+        GENERATION_FAILED,
+        /**
+         * The target could not be built (including builds that exceeded
+         * the timeout).
+         */
+        BUILD_FAILED,
+        /**
+         * An execution could not be started.
+         */
+        ERROR,
+        /**
+         * The class was skipped, as an identical class (except for its
+         * name) was already tested.
+         */
+        DUPLICATE
+    }
+
+    /**
+     * The verdict for a single class.
+     */
+    public static final class Outcome {
+        public final int seed;
+        public final String className;
+        public final Verdict verdict;
+        public final String detail;
+
+        /**
+         * The results of both runtimes (if the class was executed).
+         */
+        final WorkerResult expected;
+        final WorkerResult actual;
+
+        Outcome(int seed, String className, Verdict verdict, String detail) {
+            this(seed, className, verdict, detail, null, null);
+        }
+
+        Outcome(int seed, String className, Verdict verdict, String detail, WorkerResult expected, WorkerResult actual) {
+            this.seed = seed;
+            this.className = className;
+            this.verdict = verdict;
+            this.detail = detail;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        @Override
+        public String toString() {
+            return seed + "\t" + className + "\t" + verdict + "\t" + detail;
+        }
+    }
+
+    /**
+     * Signals that a stage failed for the given class.
+     */
+    private static final class StageFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final Verdict verdict;
+
+        StageFailure(Verdict verdict, String message) {
+            super(message, null, false, false);
+            this.verdict = verdict;
+        }
+    }
+
+    /**
+     * Generates the classes (also determines their names and seeds).
+     */
+    private final BatchGenerator batch;
+
+    private final Target reference;
+    private final Target target;
+
+    /**
+     * The output directory.
+     */
+    private final Path directory;
+
+    private int generationThreads = Runtime.getRuntime().availableProcessors();
+    private int buildThreads = 1;
+    private int executionThreads = 1;
+
+    private long generationTimeoutMillis = TimeUnit.MINUTES.toMillis(1);
+    private long buildTimeoutMillis = TimeUnit.MINUTES.toMillis(10);
+    private long executionTimeoutMillis = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * The fingerprints of the classes that were already tested
+     * ({@code null} disables the deduplication).
+     */
+    private Fingerprints fingerprints;
+
+    /**
+     * Creates a new differential tester.
+     *
+     * @param controller The controller of the generated batch (i.e. the
+     *                   number of classes, their names and seeds)
+     * @param reference  The reference runtime
+     * @param target     The runtime under test
+     * @param directory  The output directory
+     */
+    public DifferentialTester(GenerationController controller, Target reference, Target target, Path directory) {
+        this.batch = new BatchGenerator(controller);
+        this.reference = reference;
+        this.target = target;
+        this.directory = directory;
+    }
+
+    public void setGenerationThreads(int generationThreads) {
+        assert generationThreads > 0;
+        this.generationThreads = generationThreads;
+    }
+
+    public void setBuildThreads(int buildThreads) {
+        assert buildThreads > 0;
+        this.buildThreads = buildThreads;
+    }
+
+    /**
+     * Sets the number of concurrent executions per runtime.
+     * If the reference is a {@link WorkerTarget}, this should match the
+     * size of its pool.
+     *
+     * @param executionThreads The number of threads per runtime
+     */
+    public void setExecutionThreads(int executionThreads) {
+        assert executionThreads > 0;
+        this.executionThreads = executionThreads;
+    }
+
+    public void setGenerationTimeout(long timeout, TimeUnit unit) {
+        this.generationTimeoutMillis = unit.toMillis(timeout);
+    }
+
+    public void setBuildTimeout(long timeout, TimeUnit unit) {
+        this.buildTimeoutMillis = unit.toMillis(timeout);
+    }
+
+    public void setExecutionTimeout(long timeout, TimeUnit unit) {
+        this.executionTimeoutMillis = unit.toMillis(timeout);
+    }
+
+    public void setFingerprints(Fingerprints fingerprints) {
+        this.fingerprints = fingerprints;
+    }
+
+    //-------------------------------------------------------------------------
+    // region Command line
+
+    /**
+     * Runs a differential test from the command line.
+     * All arguments after {@code --} are passed to the generator
+     * (e.g. {@code -count}, {@code -seed} and {@code -filename}).
+     * The reference runtime is a pool of worker JVMs, the target is
+     * defined by its build and run commands (see {@link CommandTarget}).
+     * The process exits with status {@code 1} if any class did not match.
+     *
+     * @param args The command line arguments
+     * @throws Exception if the test cannot be run
+     */
+    public static void main(String[] args) throws Exception {
+        Options options = new Options();
+        options.addOption(null, "out", true, "The output directory (default: differential)");
+        options.addOption(null, "jobs", true, "The number of generator threads (default: one per processor)");
+        options.addOption(null, "build_jobs", true, "The number of concurrent target builds (default: 1)");
+        options.addOption(null, "run_jobs", true, "The number of concurrent executions per runtime (default: 1)");
+        options.addOption(null, "generation_timeout", true, "The generation timeout in seconds (default: 60)");
+        options.addOption(null, "build_timeout", true, "The build timeout in seconds (default: 600)");
+        options.addOption(null, "run_timeout", true, "The execution timeout in seconds (default: 60)");
+        options.addOption(null, "reference_java", true, "The java executable of the reference runtime (default: the current one)");
+        options.addOption(null, "reference_options", true, "Additional JVM options of the reference runtime");
+        options.addOption(null, "fingerprints", true, "The index file of the fingerprints of tested classes (skips duplicates across runs)");
+        options.addOption(null, "dedup", false, "Skip duplicate classes within this run");
+        options.addOption(null, "target_name", true, "The name of the target runtime (default: target)");
+        options.addOption(null, "target_build", true, "The build command of the target, e.g. 'mx native-image {class}'");
+        options.addOption(Option.builder().longOpt("target_run").hasArg().required()
+                .desc("The run command of the target, e.g. './{lowerclass}'").build());
+
+        CommandLine cmd;
+        try {
+            cmd = new DefaultParser().parse(options, args);
+        } catch (ParseException e) {
+            new HelpFormatter().printHelp("differential [options] -- [generator options]", options);
+            System.exit(2);
+            return;
+        }
+
+        GenerationController controller = new ControlValueParser(cmd.getArgs()).parse();
+
+        final int runJobs = Integer.parseInt(cmd.getOptionValue("run_jobs", "1"));
+        final long runTimeout = Long.parseLong(cmd.getOptionValue("run_timeout", "60"));
+        final List<String> referenceOptions = cmd.hasOption("reference_options")
+                ? Arrays.asList(cmd.getOptionValue("reference_options").trim().split("\\s+"))
+                : Collections.emptyList();
+
+        try (WorkerPool pool = new WorkerPool(
+                runJobs,
+                runTimeout,
+                TimeUnit.SECONDS,
+                cmd.getOptionValue("reference_java", WorkerPool.currentJava()),
+                referenceOptions);
+             Fingerprints fingerprints = cmd.hasOption("fingerprints")
+                     ? new Fingerprints(Paths.get(cmd.getOptionValue("fingerprints")))
+                     : cmd.hasOption("dedup") ? new Fingerprints() : null) {
+
+            DifferentialTester tester = new DifferentialTester(
+                    controller,
+                    new WorkerTarget("reference", pool),
+                    new CommandTarget(
+                            cmd.getOptionValue("target_name", "target"),
+                            cmd.getOptionValue("target_build"),
+                            cmd.getOptionValue("target_run")),
+                    Paths.get(cmd.getOptionValue("out", "differential"))
+            );
+
+            if (cmd.hasOption("jobs"))
+                tester.setGenerationThreads(Integer.parseInt(cmd.getOptionValue("jobs")));
+            tester.setBuildThreads(Integer.parseInt(cmd.getOptionValue("build_jobs", "1")));
+            tester.setExecutionThreads(runJobs);
+            tester.setGenerationTimeout(Long.parseLong(cmd.getOptionValue("generation_timeout", "60")), TimeUnit.SECONDS);
+            tester.setBuildTimeout(Long.parseLong(cmd.getOptionValue("build_timeout", "600")), TimeUnit.SECONDS);
+            tester.setExecutionTimeout(runTimeout, TimeUnit.SECONDS);
+            tester.setFingerprints(fingerprints);
+
+            boolean allMatch = tester.run().stream()
+                    .allMatch(o -> o.verdict == Verdict.MATCH || o.verdict == Verdict.DUPLICATE);
+            System.exit(allMatch ? 0 : 1);
+        }
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Pipeline
+
+    /**
+     * Tests all classes of the configured batch.
+     *
+     * @return the outcomes of all classes (in order of their seeds)
+     * @throws IOException if the output directory or index cannot be
+     *                     written
+     */
+    public List<Outcome> run() throws IOException {
+        Files.createDirectories(directory);
+
+        final int count = batch.getController().getCount();
+
+        ThreadPoolExecutor generation = Stages.bounded("generation", generationThreads);
+        ThreadPoolExecutor building = Stages.bounded("build", buildThreads);
+        ThreadPoolExecutor referenceExecution = Stages.bounded(reference.name(), executionThreads);
+        ThreadPoolExecutor targetExecution = Stages.bounded(target.name(), executionThreads);
+        ThreadPoolExecutor reporting = Stages.bounded("report", 1);
+        ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(Stages.daemon("watchdog"));
+
+        try (BufferedWriter index = Files.newBufferedWriter(directory.resolve(INDEX), StandardCharsets.UTF_8)) {
+            index.write("seed\tclass\tverdict\tdetail");
+            index.newLine();
+
+            List<CompletableFuture<Outcome>> outcomes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final String name = batch.className(i);
+                final int seed = batch.seed(i);
+                final int classIndex = i;
+                final Path dir = directory.resolve(name);
+
+                CompletableFuture<byte[]> generated = timed(
+                        timedOut -> generate(classIndex, timedOut),
+                        generationTimeoutMillis,
+                        generation,
+                        watchdog,
+                        "generation"
+                );
+
+                outcomes.add(generated
+                        .thenApplyAsync(bytes -> build(dir, name, bytes), building)
+                        .thenCompose(bytes -> {
+                            CompletableFuture<WorkerResult> expected = CompletableFuture.supplyAsync(
+                                    () -> execute(reference, dir, name, bytes), referenceExecution);
+                            CompletableFuture<WorkerResult> actual = CompletableFuture.supplyAsync(
+                                    () -> execute(target, dir, name, bytes), targetExecution);
+
+                            return expected.thenCombine(actual, (e, a) -> compare(seed, name, e, a));
+                        })
+                        .handleAsync((outcome, failure) -> report(index, seed, name, dir, outcome, failure), reporting));
+            }
+
+            List<Outcome> results = new ArrayList<>(count);
+            for (CompletableFuture<Outcome> outcome : outcomes)
+                results.add(outcome.join());
+
+            summarize(results);
+            if (fingerprints != null)
+                logger.info("Fingerprints: {}", fingerprints);
+            return results;
+        } finally {
+            Stream.of(generation, building, referenceExecution, targetExecution, reporting, watchdog)
+                    .forEach(ExecutorService::shutdownNow);
+        }
+    }
+
+    /**
+     * Generates the class with the given index.
+     * A class whose generation already timed out is discarded (and not
+     * recorded as tested), as its outcome was reported already.
+     */
+    private byte[] generate(int index, BooleanSupplier timedOut) {
+        final byte[] bytes;
+        try {
+            bytes = batch.toBytecode(index);
+        } catch (Throwable t) {
+            throw new StageFailure(Verdict.GENERATION_FAILED, t.toString());
+        }
+
+        if (timedOut.getAsBoolean())
+            throw new CancellationException();
+
+        if (fingerprints != null && !fingerprints.add(bytes))
+            throw new StageFailure(Verdict.DUPLICATE, "already tested");
+
+        return bytes;
+    }
+
+    /**
+     * Writes the class to the class' directory and builds it for the
+     * target runtime.
+     * This only happens once the generation completed in time, so
+     * timed out generations never touch the directory.
+     */
+    private byte[] build(Path dir, String name, byte[] bytes) {
+        try {
+            Files.createDirectories(dir);
+            Files.write(dir.resolve(name + ".class"), bytes);
+
+            if (!target.build(dir, name, buildTimeoutMillis))
+                throw new StageFailure(Verdict.BUILD_FAILED, target.name() + " build failed");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        }
+        return bytes;
+    }
+
+    /**
+     * Executes the class on the given runtime.
+     */
+    private WorkerResult execute(Target runtime, Path dir, String name, byte[] bytes) {
+        try {
+            return runtime.run(dir, name, bytes, executionTimeoutMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        }
+    }
+
+    /**
+     * Compares the outcomes of both runtimes.
+     * Only the first line of the standard error streams (i.e. the uncaught
+     * exception, if any) is compared, as stack traces are runtime-specific.
+     */
+    Outcome compare(int seed, String name, WorkerResult expected, WorkerResult actual) {
+        final WorkerResult.Status e = expected.status;
+        final WorkerResult.Status a = actual.status;
+
+        final Verdict verdict;
+        final String detail;
+        if (e == WorkerResult.Status.TIMED_OUT && a == WorkerResult.Status.TIMED_OUT) {
+            verdict = Verdict.TIMEOUT;
+            detail = "execution timed out on both runtimes";
+        } else if (e != a) {
+            verdict = Verdict.MISMATCH;
+            detail = reference.name() + " " + e + ", " + target.name() + " " + a;
+        } else if (expected.exitStatus != actual.exitStatus) {
+            verdict = Verdict.MISMATCH;
+            detail = "exit status " + expected.exitStatus + " <> " + actual.exitStatus;
+        } else if (!lines(expected.out).equals(lines(actual.out))) {
+            verdict = Verdict.MISMATCH;
+            detail = "standard output differs";
+        } else if (!firstLine(expected.err).equals(firstLine(actual.err))) {
+            verdict = Verdict.MISMATCH;
+            detail = "uncaught exception differs";
+        } else {
+            verdict = Verdict.MATCH;
+            detail = "";
+        }
+
+        return new Outcome(seed, name, verdict, detail, expected, actual);
+    }
+
+    /**
+     * Records the outcome of a single class.
+     * Classes that did not match are added to the index and their
+     * outputs are kept, all other artifacts are deleted.
+     */
+    private Outcome report(BufferedWriter index, int seed, String name, Path dir, Outcome outcome, Throwable failure) {
+        if (outcome == null)
+            outcome = failed(seed, name, failure);
+
+        try {
+            if (outcome.verdict == Verdict.MATCH || outcome.verdict == Verdict.DUPLICATE) {
+                delete(dir);
+            } else {
+                logger.warn(outcome);
+                if (outcome.expected != null) {
+                    write(dir, reference.name(), outcome.expected);
+                    write(dir, target.name(), outcome.actual);
+                }
+                index.write(outcome.toString());
+                index.newLine();
+                index.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return outcome;
+    }
+
+    private static void write(Path dir, String runtime, WorkerResult result) throws IOException {
+        Files.write(dir.resolve(runtime + ".out.txt"), result.out.getBytes(StandardCharsets.UTF_8));
+        Files.write(dir.resolve(runtime + ".err.txt"), result.err.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Outcome failed(int seed, String name, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+
+        if (cause instanceof StageFailure)
+            return new Outcome(seed, name, ((StageFailure) cause).verdict, cause.getMessage());
+
+        return new Outcome(seed, name, Verdict.ERROR, String.valueOf(cause));
+    }
+
+    private static void summarize(List<Outcome> outcomes) {
+        Map<Verdict, Integer> counts = new EnumMap<>(Verdict.class);
+        outcomes.forEach(o -> counts.merge(o.verdict, 1, Integer::sum));
+        logger.info("Tested {} classes: {}", outcomes.size(), counts);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Utilities
+
+    /**
+     * Runs the given task on the executor and fails the returned future
+     * if the task does not complete within the timeout.
+     * The timeout starts when the task begins running, so the time that
+     * the task waits in the executor's queue does not count. The task
+     * receives a flag that tells whether its timeout expired.
+     */
+    private static <T> CompletableFuture<T> timed(Function<BooleanSupplier, T> task, long timeoutMillis,
+                                                  Executor executor, ScheduledExecutorService watchdog, String stage) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            final long start = System.nanoTime();
+            final BooleanSupplier timedOut = () -> System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+            // fails tasks that do not return at all
+            ScheduledFuture<?> timer = watchdog.schedule(
+                    () -> result.completeExceptionally(new StageFailure(Verdict.TIMEOUT, stage + " timed out")),
+                    timeoutMillis,
+                    TimeUnit.MILLISECONDS
+            );
+
+            try {
+                T value = task.apply(timedOut);
+                if (timedOut.getAsBoolean())
+                    result.completeExceptionally(new StageFailure(Verdict.TIMEOUT, stage + " timed out"));
+                else
+                    result.complete(value);
+            } catch (Throwable t) {
+                // tasks that give up because of the timeout count as timed out
+                result.completeExceptionally(timedOut.getAsBoolean()
+                        ? new StageFailure(Verdict.TIMEOUT, stage + " timed out")
+                        : t);
+            } finally {
+                timer.cancel(false);
+            }
+        });
+
+        return result;
+    }
+
+    private static List<String> lines(String s) {
+        return Arrays.asList(s.split("\\R"));
+    }
+
+    private static String firstLine(String s) {
+        return s.split("\\R", 2)[0].trim();
+    }
+
+    private static void delete(Path dir) throws IOException {
+        if (!Files.exists(dir))
+            return;
+
+        try (Stream<Path> paths = Files.walk(dir)) {
+            Iterator<Path> it = paths.sorted(Comparator.reverseOrder()).iterator();
+            while (it.hasNext())
+                Files.delete(it.next());
+        }
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
@@ -0,0 +1,458 @@
+package at.jku.ssw.java.bytecode.generator.execution;
+
+import at.jku.ssw.java.bytecode.generator.utils.ErrorUtils;
+import javassist.bytecode.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Content-addressed index of the classes that were already tested.
+ * Each class is identified by the hash of a name-independent rendering
+ * of its class file (see {@link #of(byte[])}), so that classes that only
+ * differ in their
+ * names (e.g. identical classes that were generated by different seeds)
+ * are only tested once.
+ * <p>
+ * If the index is backed by a file, the fingerprints of previous runs
+ * are loaded on creation and new fingerprints are appended to the file
+ * (one per line), which skips the duplicates across runs.
+ */
+public final class Fingerprints implements Closeable {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The name that replaces the class name during normalization.
+     */
+    private static final String NORMALIZED_NAME = "GeneratedClass";
+
+    private static final String ALGORITHM = "SHA-256";
+
+    /**
+     * The fingerprints of all classes that were seen so far.
+     */
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The file that receives new fingerprints (if any).
+     */
+    private final BufferedWriter index;
+
+    private final AtomicInteger unique = new AtomicInteger();
+    private final AtomicInteger duplicates = new AtomicInteger();
+
+    /**
+     * Creates an in-memory index that only skips duplicates within
+     * the same run.
+     */
+    public Fingerprints() {
+        this.index = null;
+    }
+
+    /**
+     * Creates an index that is backed by the given file.
+     * The file is created if it does not exist yet.
+     *
+     * @param file The index file
+     * @throws IOException if the file cannot be read or opened
+     */
+    public Fingerprints(Path file) throws IOException {
+        if (Files.exists(file)) {
+            List<String> previous = Files.readAllLines(file, StandardCharsets.UTF_8);
+            previous.stream().map(String::trim).filter(l -> !l.isEmpty()).forEach(seen::add);
+            logger.info("Loaded {} fingerprints from {}", seen.size(), file);
+        }
+
+        this.index = Files.newBufferedWriter(
+                file,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND
+        );
+    }
+
+    /**
+     * Computes the fingerprint of the given class file.
+     * The class file is not hashed as is, as the layout of its constant
+     * pool depends on the class name (e.g. a class named {@code I} shares
+     * the constant of its name with the descriptor {@code I}, which shifts
+     * all subsequent constants and may turn {@code ldc} into
+     * {@code ldc_w}). Instead, the hash covers a rendering of the class in
+     * which the class name is replaced by a fixed name and each constant
+     * pool reference is replaced by the referenced constant. Branch
+     * targets are rendered as instruction indices, and debugging
+     * attributes (source file, line numbers, local variable tables)
+     * as well as the stack maps, which are derived from the code,
+     * are ignored.
+     *
+     * @param classFile The class file
+     * @return the hexadecimal hash of the rendered class
+     */
+    public static String of(byte[] classFile) {
+        try {
+            ClassFile cf = new ClassFile(new DataInputStream(new ByteArrayInputStream(classFile)));
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(classFile.length);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                new Rendering(cf, out).render();
+            }
+
+            return hex(MessageDigest.getInstance(ALGORITHM).digest(bytes.toByteArray()));
+        } catch (IOException | BadBytecode | NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Adds the fingerprint of the given class file.
+     *
+     * @param classFile The class file
+     * @return {@code true} if the class was not seen before; {@code false}
+     * if it is a duplicate
+     */
+    public boolean add(byte[] classFile) {
+        final String fingerprint = of(classFile);
+
+        if (!seen.add(fingerprint)) {
+            duplicates.incrementAndGet();
+            return false;
+        }
+
+        unique.incrementAndGet();
+        if (index != null) {
+            synchronized (index) {
+                try {
+                    index.write(fingerprint);
+                    index.newLine();
+                    index.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of new classes that were added in this run
+     */
+    public int unique() {
+        return unique.get();
+    }
+
+    /**
+     * @return the number of duplicates that were rejected in this run
+     */
+    public int duplicates() {
+        return duplicates.get();
+    }
+
+    /**
+     * Returns the share of duplicates among all classes that were added
+     * in this run.
+     *
+     * @return the deduplication ratio (between {@code 0} and {@code 1})
+     */
+    public double ratio() {
+        final int d = duplicates();
+        final int total = d + unique();
+        return total == 0 ? 0 : d / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d unique classes, %d duplicates (%.1f%% deduplicated)",
+                unique(), duplicates(), ratio() * 100);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (index != null)
+            index.close();
+    }
+
+    private static String hex(byte[] hash) {
+        StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash)
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return sb.toString();
+    }
+
+    //-------------------------------------------------------------------------
+    // region Rendering
+
+    /**
+     * Writes the name-independent rendering of a class file
+     * (see {@link #of(byte[])}).
+     */
+    private static final class Rendering {
+        private final ClassFile cf;
+        private final ConstPool cp;
+        private final DataOutputStream out;
+
+        /**
+         * The internal name of the class, which is replaced by
+         * {@link #NORMALIZED_NAME}.
+         */
+        private final String name;
+
+        Rendering(ClassFile cf, DataOutputStream out) {
+            this.cf = cf;
+            this.cp = cf.getConstPool();
+            this.out = out;
+            this.name = Descriptor.toJvmName(cf.getName());
+        }
+
+        void render() throws IOException, BadBytecode {
+            out.writeShort(cf.getMajorVersion());
+            out.writeShort(cf.getMinorVersion());
+            out.writeShort(cf.getAccessFlags());
+            out.writeUTF(className(cf.getSuperclass()));
+
+            String[] interfaces = cf.getInterfaces();
+            out.writeShort(interfaces.length);
+            for (String i : interfaces)
+                out.writeUTF(className(i));
+
+            List<FieldInfo> fields = cf.getFields();
+            out.writeShort(fields.size());
+            for (FieldInfo field : fields) {
+                out.writeShort(field.getAccessFlags());
+                out.writeUTF(field.getName());
+                out.writeUTF(type(field.getDescriptor()));
+                int constant = field.getConstantValue();
+                out.writeBoolean(constant != 0);
+                if (constant != 0)
+                    constant(constant);
+            }
+
+            List<MethodInfo> methods = cf.getMethods();
+            out.writeShort(methods.size());
+            for (MethodInfo method : methods) {
+                out.writeShort(method.getAccessFlags());
+                out.writeUTF(method.getName());
+                out.writeUTF(type(method.getDescriptor()));
+
+                ExceptionsAttribute exceptions = method.getExceptionsAttribute();
+                String[] thrown = exceptions == null ? new String[0] : exceptions.getExceptions();
+                out.writeShort(thrown.length);
+                for (String e : thrown)
+                    out.writeUTF(className(e));
+
+                CodeAttribute code = method.getCodeAttribute();
+                out.writeBoolean(code != null);
+                if (code != null)
+                    code(code);
+            }
+        }
+
+        private void code(CodeAttribute code) throws IOException, BadBytecode {
+            out.writeShort(code.getMaxStack());
+            out.writeShort(code.getMaxLocals());
+
+            // instruction indices replace the offsets of branch targets,
+            // which depend on the length of the preceding instructions
+            Map<Integer, Integer> indices = new HashMap<>();
+            CodeIterator it = code.iterator();
+            while (it.hasNext())
+                indices.put(it.next(), indices.size());
+            indices.put(code.getCodeLength(), indices.size());
+
+            out.writeInt(indices.size());
+            it.begin();
+            while (it.hasNext()) {
+                int pos = it.next();
+                instruction(it, pos, indices);
+            }
+
+            ExceptionTable handlers = code.getExceptionTable();
+            out.writeShort(handlers.size());
+            for (int i = 0; i < handlers.size(); i++) {
+                out.writeInt(indices.get(handlers.startPc(i)));
+                out.writeInt(indices.get(handlers.endPc(i)));
+                out.writeInt(indices.get(handlers.handlerPc(i)));
+                int catchType = handlers.catchType(i);
+                out.writeUTF(catchType == 0 ? "" : className(cp.getClassInfo(catchType)));
+            }
+        }
+
+        private void instruction(CodeIterator it, int pos, Map<Integer, Integer> indices) throws IOException {
+            final int opcode = it.byteAt(pos);
+
+            switch (opcode) {
+                case Opcode.LDC:
+                case Opcode.LDC_W:
+                    // the wide form only depends on the constant pool size
+                    out.writeByte(Opcode.LDC);
+                    constant(opcode == Opcode.LDC ? it.byteAt(pos + 1) : it.u16bitAt(pos + 1));
+                    break;
+                case Opcode.LDC2_W:
+                case Opcode.GETSTATIC:
+                case Opcode.PUTSTATIC:
+                case Opcode.GETFIELD:
+                case Opcode.PUTFIELD:
+                case Opcode.INVOKEVIRTUAL:
+                case Opcode.INVOKESPECIAL:
+                case Opcode.INVOKESTATIC:
+                case Opcode.INVOKEINTERFACE:
+                case Opcode.INVOKEDYNAMIC:
+                case Opcode.NEW:
+                case Opcode.ANEWARRAY:
+                case Opcode.CHECKCAST:
+                case Opcode.INSTANCEOF:
+                    out.writeByte(opcode);
+                    constant(it.u16bitAt(pos + 1));
+                    break;
+                case Opcode.MULTIANEWARRAY:
+                    out.writeByte(opcode);
+                    constant(it.u16bitAt(pos + 1));
+                    out.writeByte(it.byteAt(pos + 3));
+                    break;
+                case Opcode.IFEQ:
+                case Opcode.IFNE:
+                case Opcode.IFLT:
+                case Opcode.IFGE:
+                case Opcode.IFGT:
+                case Opcode.IFLE:
+                case Opcode.IF_ICMPEQ:
+                case Opcode.IF_ICMPNE:
+                case Opcode.IF_ICMPLT:
+                case Opcode.IF_ICMPGE:
+                case Opcode.IF_ICMPGT:
+                case Opcode.IF_ICMPLE:
+                case Opcode.IF_ACMPEQ:
+                case Opcode.IF_ACMPNE:
+                case Opcode.GOTO:
+                case Opcode.JSR:
+                case Opcode.IFNULL:
+                case Opcode.IFNONNULL:
+                    out.writeByte(opcode);
+                    out.writeInt(indices.get(pos + it.s16bitAt(pos + 1)));
+                    break;
+                case Opcode.GOTO_W:
+                case Opcode.JSR_W:
+                    out.writeByte(opcode);
+                    out.writeInt(indices.get(pos + it.s32bitAt(pos + 1)));
+                    break;
+                case Opcode.TABLESWITCH: {
+                    // skip the padding to the next multiple of four
+                    int table = (pos & ~3) + 4;
+                    int low = it.s32bitAt(table + 4);
+                    int high = it.s32bitAt(table + 8);
+                    out.writeByte(opcode);
+                    out.writeInt(indices.get(pos + it.s32bitAt(table)));
+                    out.writeInt(low);
+                    out.writeInt(high);
+                    for (int i = 0; i <= high - low; i++)
+                        out.writeInt(indices.get(pos + it.s32bitAt(table + 12 + i * 4)));
+                    break;
+                }
+                case Opcode.LOOKUPSWITCH: {
+                    int table = (pos & ~3) + 4;
+                    int pairs = it.s32bitAt(table + 4);
+                    out.writeByte(opcode);
+                    out.writeInt(indices.get(pos + it.s32bitAt(table)));
+                    out.writeInt(pairs);
+                    for (int i = 0; i < pairs; i++) {
+                        out.writeInt(it.s32bitAt(table + 8 + i * 8));
+                        out.writeInt(indices.get(pos + it.s32bitAt(table + 12 + i * 8)));
+                    }
+                    break;
+                }
+                default:
+                    // all other operands are independent of the constant pool
+                    for (int i = pos; i < it.lookAhead(); i++)
+                        out.writeByte(it.byteAt(i));
+            }
+        }
+
+        /**
+         * Writes the constant with the given index (including the
+         * constants that it refers to).
+         *
+         * @param index The constant pool index
+         */
+        private void constant(int index) throws IOException {
+            final int tag = cp.getTag(index);
+            out.writeByte(tag);
+
+            switch (tag) {
+                case ConstPool.CONST_Class:
+                    out.writeUTF(type(cp.getClassInfoByDescriptor(index)));
+                    break;
+                case ConstPool.CONST_String:
+                    out.writeUTF(cp.getStringInfo(index));
+                    break;
+                case ConstPool.CONST_Integer:
+                    out.writeInt(cp.getIntegerInfo(index));
+                    break;
+                case ConstPool.CONST_Float:
+                    out.writeFloat(cp.getFloatInfo(index));
+                    break;
+                case ConstPool.CONST_Long:
+                    out.writeLong(cp.getLongInfo(index));
+                    break;
+                case ConstPool.CONST_Double:
+                    out.writeDouble(cp.getDoubleInfo(index));
+                    break;
+                case ConstPool.CONST_Fieldref:
+                case ConstPool.CONST_Methodref:
+                case ConstPool.CONST_InterfaceMethodref:
+                    constant(cp.getMemberClass(index));
+                    nameAndType(cp.getMemberNameAndType(index));
+                    break;
+                case ConstPool.CONST_MethodHandle:
+                    out.writeByte(cp.getMethodHandleKind(index));
+                    constant(cp.getMethodHandleIndex(index));
+                    break;
+                case ConstPool.CONST_MethodType:
+                    out.writeUTF(type(cp.getUtf8Info(cp.getMethodTypeInfo(index))));
+                    break;
+                case ConstPool.CONST_InvokeDynamic:
+                    out.writeShort(cp.getInvokeDynamicBootstrap(index));
+                    nameAndType(cp.getInvokeDynamicNameAndType(index));
+                    break;
+                default:
+                    throw ErrorUtils.shouldNotReachHere("Unexpected constant pool tag " + tag);
+            }
+        }
+
+        private void nameAndType(int index) throws IOException {
+            out.writeUTF(cp.getUtf8Info(cp.getNameAndTypeName(index)));
+            out.writeUTF(type(cp.getUtf8Info(cp.getNameAndTypeDescriptor(index))));
+        }
+
+        /**
+         * @param descriptor A type or method descriptor
+         * @return the descriptor in which the class name is replaced
+         */
+        private String type(String descriptor) {
+            return Descriptor.rename(descriptor, name, NORMALIZED_NAME);
+        }
+
+        /**
+         * @param className A fully qualified class name
+         * @return the normalized name if the given name is the name of
+         * the class; the given name otherwise
+         */
+        private String className(String className) {
+            return className.equals(cf.getName()) ? NORMALIZED_NAME : className;
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,157 @@
+package at.jku.ssw.java.bytecode.generator.execution;
+
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.corpus.Corpus;
+import at.jku.ssw.java.bytecode.generator.corpus.CorpusEntry;
+import at.jku.ssw.java.bytecode.generator.corpus.CorpusWriter;
+import at.jku.ssw.java.bytecode.generator.generators.BatchGenerator;
+import at.jku.ssw.java.bytecode.generator.loaders.ExecutionResult;
+import at.jku.ssw.java.bytecode.generator.loaders.GeneratedClassLoader;
+import at.jku.ssw.java.bytecode.generator.loaders.InMemoryClassLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates and replays regression corpora (see {@link Corpus}).
+ * Creating a corpus generates a batch of classes, executes each class
+ * in the current JVM and stores the class files together with their
+ * seeds, the generator options and the global hashes that they printed.
+ * Replaying a corpus executes all classes straight from the mapped
+ * corpus file (without generating them again) and reports the classes
+ * whose global hashes differ from the stored ones.
+ */
+public final class RegressionCorpus {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private RegressionCorpus() {
+    }
+
+    //-------------------------------------------------------------------------
+    // region Command line
+
+    /**
+     * Creates or replays a corpus from the command line:
+     * <ul>
+     * <li>{@code build FILE [generator options]} creates the corpus
+     * {@code FILE} from the batch that is described by the generator
+     * options (e.g. {@code -count}, {@code -seed} and {@code -filename})</li>
+     * <li>{@code replay FILE} replays the corpus {@code FILE} and exits
+     * with status {@code 1} if any class does not match</li>
+     * </ul>
+     *
+     * @param args The command line arguments
+     * @throws IOException if the corpus cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !Arrays.asList("build", "replay").contains(args[0])) {
+            System.err.println("usage: corpus build FILE [generator options] | corpus replay FILE");
+            System.exit(2);
+            return;
+        }
+
+        final Path file = Paths.get(args[1]);
+
+        if (args[0].equals("build")) {
+            String[] options = Arrays.copyOfRange(args, 2, args.length);
+            build(new ControlValueParser(options).parse(), String.join(" ", options), file);
+        } else {
+            try (Corpus corpus = new Corpus(file)) {
+                System.exit(replay(corpus).isEmpty() ? 0 : 1);
+            }
+        }
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Corpus
+
+    /**
+     * Generates the batch that is described by the given controller and
+     * stores the classes in a new corpus.
+     *
+     * @param controller The controller of the batch
+     * @param options    The generator options that are recorded for
+     *                   the classes
+     * @param file       The corpus file
+     * @return the number of stored classes
+     * @throws IOException if the corpus cannot be written
+     */
+    public static int build(GenerationController controller, String options, Path file) throws IOException {
+        final BatchGenerator batch = new BatchGenerator(controller);
+        final int count = controller.getCount();
+        final long start = System.nanoTime();
+
+        try (CorpusWriter writer = new CorpusWriter(file)) {
+            for (int i = 0; i < count; i++) {
+                final String name = batch.className(i);
+                final byte[] bytes = batch.toBytecode(i);
+
+                String hash;
+                try {
+                    hash = new InMemoryClassLoader(name, bytes).runMain(name).hash();
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    logger.warn("Class {} cannot be executed: {}", name, e);
+                    hash = null;
+                }
+
+                writer.add(name, batch.seed(i), options, hash, bytes);
+            }
+        }
+
+        logger.info("Stored {} classes in {} ms", count, elapsedMillis(start));
+        return count;
+    }
+
+    /**
+     * Executes all classes of the given corpus and compares the printed
+     * global hashes with the expected ones.
+     * Each class is defined by a separate class loader, which allows the
+     * classes to be unloaded once they were executed.
+     *
+     * @param corpus The corpus
+     * @return the entries of the classes whose global hashes differ
+     */
+    public static List<CorpusEntry> replay(Corpus corpus) {
+        final long start = System.nanoTime();
+        List<CorpusEntry> mismatches = new ArrayList<>();
+
+        for (CorpusEntry entry : corpus.entries()) {
+            String hash;
+            try {
+                ExecutionResult result = new GeneratedClassLoader(corpus).runMain(entry.className);
+                hash = result.hash();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                logger.warn("Class {} cannot be executed: {}", entry.className, e);
+                hash = null;
+            }
+
+            if (!Objects.equals(entry.expectedHash, hash)) {
+                logger.error("Class {} printed '{}' instead of '{}' ({})",
+                        entry, hash, entry.expectedHash, entry.options);
+                mismatches.add(entry);
+            }
+        }
+
+        logger.info("Replayed {} classes in {} ms, {} mismatches",
+                corpus.size(), elapsedMillis(start), mismatches.size());
+        return mismatches;
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
@@ -0,0 +1,53 @@
+package at.jku.ssw.java.bytecode.generator.execution;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A runtime on which generated classes are executed during differential
+ * testing (see {@link DifferentialTester}).
+ */
+public interface Target {
+
+    /**
+     * Returns a short name of this target that is used in reports.
+     *
+     * @return the name of the target
+     */
+    String name();
+
+    /**
+     * Prepares the given class for execution on this target
+     * (e.g. compiles a native image). Does nothing by default.
+     *
+     * @param directory     The directory that contains the class file and
+     *                      that may be used for build artifacts
+     * @param className     The name of the class
+     * @param timeoutMillis The maximum duration of the build
+     * @return {@code true} if the class was built successfully;
+     * {@code false} otherwise
+     * @throws IOException          if the build cannot be started
+     * @throws InterruptedException if the thread is interrupted while
+     *                              waiting for the build
+     */
+    default boolean build(Path directory, String className, long timeoutMillis)
+            throws IOException, InterruptedException {
+        return true;
+    }
+
+    /**
+     * Executes the {@code main} method of the given class.
+     *
+     * @param directory     The directory that contains the class file and
+     *                      the build artifacts
+     * @param className     The name of the class
+     * @param bytes         The class file
+     * @param timeoutMillis The maximum duration of the execution
+     * @return the outcome of the execution
+     * @throws IOException          if the execution cannot be started
+     * @throws InterruptedException if the thread is interrupted while
+     *                              waiting for the execution
+     */
+    WorkerResult run(Path directory, String className, byte[] bytes, long timeoutMillis)
+            throws IOException, InterruptedException;
+}
@@ -0,0 +1,380 @@
+package at.jku.ssw.java.bytecode.generator.execution;
+
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.generators.BatchGenerator;
+import at.jku.ssw.java.bytecode.generator.utils.Stages;
+import org.apache.commons.cli.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Executes each generated class under a matrix of JVM flag sets
+ * ("tiers", e.g. interpreter only, C1 only, C2 only and {@code -Xcomp})
+ * and reports the classes whose results differ between the tiers,
+ * which indicates a miscompilation.
+ * <p>
+ * Each tier is backed by its own {@link WorkerPool}, and the executions
+ * of all tiers run concurrently. The tiers are compared by the global hash
+ * that the generated programs print at the end (see
+ * {@link WorkerResult#hash()}), the exit status and the uncaught exception
+ * (if any). Classes that agree on all tiers are discarded right away,
+ * only the class files and the full outputs of disagreeing classes are
+ * written to the output directory and listed in the index ({@link #INDEX}).
+ * Optionally, classes are deduplicated by their {@link Fingerprints}
+ * before they are executed.
+ */
+public class TierMatrix {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The name of the index of disagreeing classes within the output
+     * directory.
+     */
+    public static final String INDEX = "disagreements.tsv";
+
+    /**
+     * A named set of JVM options.
+     */
+    public static final class Tier {
+        public final String name;
+        public final List<String> options;
+
+        public Tier(String name, List<String> options) {
+            this.name = name;
+            this.options = Collections.unmodifiableList(new ArrayList<>(options));
+        }
+
+        /**
+         * Parses a tier definition of the form
+         * {@code name=option1 option2 ...}.
+         *
+         * @param definition The tier definition
+         * @return the tier
+         */
+        public static Tier parse(String definition) {
+            int eq = definition.indexOf('=');
+            if (eq <= 0)
+                throw new IllegalArgumentException("Invalid tier definition '" + definition + "' (expected name=options)");
+
+            String options = definition.substring(eq + 1).trim();
+            return new Tier(
+                    definition.substring(0, eq).trim(),
+                    options.isEmpty() ? Collections.emptyList() : Arrays.asList(options.split("\\s+"))
+            );
+        }
+
+        @Override
+        public String toString() {
+            return name + "=" + String.join(" ", options);
+        }
+    }
+
+    /**
+     * The tiers that are used by default.
+     */
+    public static final List<Tier> DEFAULT_TIERS = Collections.unmodifiableList(Arrays.asList(
+            new Tier("int", Collections.singletonList("-Xint")),
+            new Tier("c1", Collections.singletonList("-XX:TieredStopAtLevel=1")),
+            new Tier("c2", Collections.singletonList("-XX:-TieredCompilation")),
+            new Tier("comp", Collections.singletonList("-Xcomp"))
+    ));
+
+    /**
+     * Generates the classes (also determines their names and seeds).
+     */
+    private final BatchGenerator batch;
+
+    private final List<Tier> tiers;
+
+    /**
+     * The output directory.
+     */
+    private final Path directory;
+
+    private String java = WorkerPool.currentJava();
+    private int generationThreads = 1;
+    private int workersPerTier = 1;
+    private long timeoutMillis = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * The fingerprints of the classes that were already executed
+     * ({@code null} disables the deduplication).
+     */
+    private Fingerprints fingerprints;
+
+    /**
+     * Creates a new tier matrix.
+     *
+     * @param controller The controller of the generated batch
+     * @param tiers      The JVM flag sets to compare (at least two)
+     * @param directory  The output directory
+     */
+    public TierMatrix(GenerationController controller, List<Tier> tiers, Path directory) {
+        assert tiers.size() > 1 : "At least two tiers are required";
+        this.batch = new BatchGenerator(controller);
+        this.tiers = tiers;
+        this.directory = directory;
+    }
+
+    public void setJava(String java) {
+        this.java = java;
+    }
+
+    public void setGenerationThreads(int generationThreads) {
+        assert generationThreads > 0;
+        this.generationThreads = generationThreads;
+    }
+
+    public void setWorkersPerTier(int workersPerTier) {
+        assert workersPerTier > 0;
+        this.workersPerTier = workersPerTier;
+    }
+
+    public void setTimeout(long timeout, TimeUnit unit) {
+        this.timeoutMillis = unit.toMillis(timeout);
+    }
+
+    public void setFingerprints(Fingerprints fingerprints) {
+        this.fingerprints = fingerprints;
+    }
+
+    //-------------------------------------------------------------------------
+    // region Command line
+
+    /**
+     * Runs the tier matrix from the command line.
+     * All arguments after {@code --} are passed to the generator
+     * (e.g. {@code -count}, {@code -seed} and {@code -filename}).
+     * The process exits with status {@code 1} if any class disagreed.
+     *
+     * @param args The command line arguments
+     * @throws Exception if the matrix cannot be run
+     */
+    public static void main(String[] args) throws Exception {
+        Options options = new Options();
+        options.addOption(null, "out", true, "The output directory (default: tiers)");
+        options.addOption(null, "tier", true, "A tier definition 'name=JVM options' (repeatable, default: "
+                + DEFAULT_TIERS.stream().map(Tier::toString).collect(Collectors.joining(", ")) + ")");
+        options.addOption(null, "java", true, "The java executable (default: the current one)");
+        options.addOption(null, "jobs", true, "The number of generator threads (default: 1)");
+        options.addOption(null, "workers", true, "The number of worker JVMs per tier (default: 1)");
+        options.addOption(null, "timeout", true, "The execution timeout in seconds (default: 60)");
+        options.addOption(null, "fingerprints", true, "The index file of the fingerprints of executed classes (skips duplicates across runs)");
+        options.addOption(null, "dedup", false, "Skip duplicate classes within this run");
+
+        CommandLine cmd;
+        try {
+            cmd = new DefaultParser().parse(options, args);
+        } catch (ParseException e) {
+            new HelpFormatter().printHelp("tiers [options] -- [generator options]", options);
+            System.exit(2);
+            return;
+        }
+
+        List<Tier> tiers = cmd.hasOption("tier")
+                ? Stream.of(cmd.getOptionValues("tier")).map(Tier::parse).collect(Collectors.toList())
+                : DEFAULT_TIERS;
+
+        TierMatrix matrix = new TierMatrix(
+                new ControlValueParser(cmd.getArgs()).parse(),
+                tiers,
+                Paths.get(cmd.getOptionValue("out", "tiers"))
+        );
+        matrix.setJava(cmd.getOptionValue("java", WorkerPool.currentJava()));
+        matrix.setGenerationThreads(Integer.parseInt(cmd.getOptionValue("jobs", "1")));
+        matrix.setWorkersPerTier(Integer.parseInt(cmd.getOptionValue("workers", "1")));
+        matrix.setTimeout(Long.parseLong(cmd.getOptionValue("timeout", "60")), TimeUnit.SECONDS);
+
+        try (Fingerprints fingerprints = cmd.hasOption("fingerprints")
+                ? new Fingerprints(Paths.get(cmd.getOptionValue("fingerprints")))
+                : cmd.hasOption("dedup") ? new Fingerprints() : null) {
+            matrix.setFingerprints(fingerprints);
+            System.exit(matrix.run().isEmpty() ? 0 : 1);
+        }
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Matrix
+
+    /**
+     * Executes all classes of the configured batch on all tiers.
+     *
+     * @return the seeds of the classes whose results differ between tiers
+     * (or that could not be executed)
+     * @throws IOException if the workers cannot be started or the output
+     *                     cannot be written
+     */
+    public List<Integer> run() throws IOException {
+        Files.createDirectories(directory);
+
+        final int count = batch.getController().getCount();
+
+        List<WorkerPool> pools = new ArrayList<>(tiers.size());
+        ThreadPoolExecutor generation = Stages.bounded("generation", generationThreads);
+        ThreadPoolExecutor execution = Stages.bounded("execution", tiers.size() * workersPerTier);
+        ThreadPoolExecutor reporting = Stages.bounded("report", 1);
+
+        try (BufferedWriter index = Files.newBufferedWriter(directory.resolve(INDEX), StandardCharsets.UTF_8)) {
+            for (Tier tier : tiers)
+                pools.add(new WorkerPool(workersPerTier, timeoutMillis, TimeUnit.MILLISECONDS, java, tier.options));
+
+            index.write("seed\tclass\t" + tiers.stream().map(t -> t.name).collect(Collectors.joining("\t")));
+            index.newLine();
+
+            List<CompletableFuture<Boolean>> agreements = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final int classIndex = i;
+                final String name = batch.className(i);
+                final int seed = batch.seed(i);
+
+                agreements.add(CompletableFuture
+                        .supplyAsync(() -> batch.toBytecode(classIndex), generation)
+                        .thenCompose(bytes -> {
+                            if (fingerprints != null && !fingerprints.add(bytes))
+                                return CompletableFuture.completedFuture(true);
+
+                            List<CompletableFuture<WorkerResult>> results = pools.stream()
+                                    .map(pool -> CompletableFuture.supplyAsync(() -> execute(pool, name, bytes), execution))
+                                    .collect(Collectors.toList());
+
+                            return CompletableFuture
+                                    .allOf(results.toArray(new CompletableFuture<?>[0]))
+                                    .thenApply(__ -> results.stream()
+                                            .map(CompletableFuture::join)
+                                            .collect(Collectors.toList()))
+                                    .thenApplyAsync(r -> report(index, seed, name, bytes, r), reporting);
+                        })
+                        .exceptionally(failure -> failed(index, seed, name, failure)));
+            }
+
+            List<Integer> disagreements = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                if (!agreements.get(i).join())
+                    disagreements.add(batch.seed(i));
+            }
+
+            logger.info("Executed {} classes on {} tiers, {} disagreements", count, tiers.size(), disagreements.size());
+            if (fingerprints != null)
+                logger.info("Fingerprints: {}", fingerprints);
+            return disagreements;
+        } finally {
+            Stream.of(generation, execution, reporting).forEach(ExecutorService::shutdownNow);
+            pools.forEach(WorkerPool::close);
+        }
+    }
+
+    private static WorkerResult execute(WorkerPool pool, String name, byte[] bytes) {
+        try {
+            return pool.execute(name, bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Returns the part of a result that is compared across tiers.
+     * This is the global hash if the program printed it, and the uncaught
+     * exception (i.e. the first line of the standard error) otherwise.
+     *
+     * @param result The result of a single tier
+     * @return the signature of the result
+     */
+    static String signature(WorkerResult result) {
+        if (result.status != WorkerResult.Status.COMPLETED)
+            return result.status.toString();
+
+        String hash = result.hash();
+        String exception = result.err.split("\\R", 2)[0].trim();
+
+        return result.exitStatus + ":" + (hash != null ? hash : "") + ":" + exception;
+    }
+
+    /**
+     * Checks whether all results agree.
+     *
+     * @param results The results of all tiers
+     * @return {@code true} if all signatures are equal; {@code false}
+     * otherwise
+     */
+    static boolean agree(List<WorkerResult> results) {
+        return results.stream().map(TierMatrix::signature).distinct().count() == 1;
+    }
+
+    /**
+     * Discards the results of agreeing classes. The class file and the
+     * full outputs of disagreeing classes are written to a subdirectory.
+     */
+    private boolean report(BufferedWriter index, int seed, String name, byte[] bytes, List<WorkerResult> results) {
+        if (agree(results))
+            return true;
+
+        try {
+            Path dir = directory.resolve(name);
+            Files.createDirectories(dir);
+            Files.write(dir.resolve(name + ".class"), bytes);
+
+            for (int i = 0; i < tiers.size(); i++) {
+                WorkerResult result = results.get(i);
+                Files.write(dir.resolve(tiers.get(i).name + ".out.txt"), result.out.getBytes(StandardCharsets.UTF_8));
+                Files.write(dir.resolve(tiers.get(i).name + ".err.txt"), result.err.getBytes(StandardCharsets.UTF_8));
+            }
+
+            String line = seed + "\t" + name + "\t" + results.stream()
+                    .map(TierMatrix::signature)
+                    .collect(Collectors.joining("\t"));
+
+            logger.warn("Tiers disagree: {}", line);
+            append(index, line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return false;
+    }
+
+    private static boolean failed(BufferedWriter index, int seed, String name, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+
+        logger.error("Class {} (seed {}) could not be executed: {}", name, seed, cause);
+        try {
+            append(index, seed + "\t" + name + "\tFAILED: " + cause);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return false;
+    }
+
+    private static void append(BufferedWriter index, String line) throws IOException {
+        synchronized (index) {
+            index.write(line);
+            index.newLine();
+            index.flush();
+        }
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
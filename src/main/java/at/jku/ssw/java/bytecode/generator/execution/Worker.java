@@ -0,0 +1,128 @@
+package at.jku.ssw.java.bytecode.generator.execution;
+
+import at.jku.ssw.java.bytecode.generator.loaders.ExecutionResult;
+import at.jku.ssw.java.bytecode.generator.loaders.InMemoryClassLoader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Entry point of the worker JVMs that are managed by a {@link WorkerPool}.
+ * A worker repeatedly reads a class from its standard input, loads it in
+ * a fresh class loader, invokes its {@code main} method and writes the
+ * captured output back to the original standard output.
+ * <p>
+ * Requests consist of the class name (modified UTF-8), the length of the
+ * class file and the class file itself. Responses start with
+ * {@link #MAGIC}, followed by the exit status as well as the length and
+ * contents of the captured standard output and error streams.
+ * The magic number allows the pool to skip anything else that the JVM
+ * prints to the standard output (e.g. diagnostic output of VM flags).
+ */
+public final class Worker {
+
+    /**
+     * Marks the start of each response.
+     */
+    static final int MAGIC = 0x4A424752;
+
+    /**
+     * The exit status that the {@code java} launcher reports if the main
+     * method terminates with an exception.
+     */
+    static final int EXCEPTION_EXIT_STATUS = 1;
+
+    private Worker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        // responses are written to the actual standard output, as System.out
+        // is redirected while the generated classes are executed
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+
+        while (true) {
+            final String className;
+            try {
+                className = in.readUTF();
+            } catch (EOFException e) {
+                // the pool closed the connection
+                return;
+            }
+
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+
+            execute(className, bytes, out);
+            out.flush();
+        }
+    }
+
+    /**
+     * Executes the given class and writes the response.
+     *
+     * @param className The name of the class
+     * @param bytes     The class file
+     * @param out       The response stream
+     * @throws IOException if the response cannot be written
+     */
+    private static void execute(String className, byte[] bytes, DataOutputStream out) throws IOException {
+        int status = 0;
+        String stdout = "";
+        String stderr = "";
+
+        try {
+            ExecutionResult result = new InMemoryClassLoader(className, bytes).runMain(className);
+            stdout = result.out;
+            stderr = result.err;
+            if (!result.completedNormally()) {
+                status = EXCEPTION_EXIT_STATUS;
+                stderr += uncaught(className, result.exception);
+            }
+        } catch (Throwable t) {
+            // e.g. verification errors or a missing main method
+            status = EXCEPTION_EXIT_STATUS;
+            stderr += uncaught(className, t);
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(status);
+        write(out, stdout);
+        write(out, stderr);
+    }
+
+    /**
+     * Formats the given exception like the default uncaught exception
+     * handler of the main thread.
+     * The frames of the worker itself (i.e. below the main method of the
+     * executed class) are omitted to match the output of a separate
+     * {@code java} process.
+     *
+     * @param className The name of the executed class
+     * @param t         The uncaught exception
+     * @return the message that is printed to the standard error stream
+     */
+    private static String uncaught(String className, Throwable t) {
+        StackTraceElement[] frames = t.getStackTrace();
+        for (int i = frames.length - 1; i >= 0; i--) {
+            if (frames[i].getClassName().equals(className) && frames[i].getMethodName().equals("main")) {
+                t.setStackTrace(Arrays.copyOf(frames, i + 1));
+                break;
+            }
+        }
+
+        StringWriter trace = new StringWriter();
+        try (PrintWriter w = new PrintWriter(trace)) {
+            w.print("Exception in thread \"main\" ");
+            t.printStackTrace(w);
+        }
+        return trace.toString();
+    }
+
+    private static void write(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,316 @@
+package at.jku.ssw.java.bytecode.generator.execution;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes generated classes on a fixed number of persistent worker JVMs
+ * (see {@link Worker}), which avoids the startup cost of a separate
+ * {@code java} process per class.
+ * Each class is loaded by a fresh class loader within the worker, so
+ * classes of previous executions do not interfere. A worker that exceeds
+ * the timeout or terminates during an execution is replaced by a new one.
+ * If a replacement fails to start, the pool shrinks; once no worker is
+ * left, all executions fail.
+ * The pool may be used by multiple threads at once; each execution
+ * occupies one worker.
+ */
+public class WorkerPool implements Closeable {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The interval in which threads that wait for an idle worker check
+     * whether any workers are left (in milliseconds).
+     */
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    /**
+     * The available (idle) workers.
+     */
+    private final BlockingQueue<WorkerProcess> idle;
+
+    /**
+     * The number of running workers (idle or executing).
+     */
+    private final AtomicInteger live = new AtomicInteger();
+
+    /**
+     * The command that starts a worker JVM.
+     */
+    private final List<String> command;
+
+    /**
+     * The maximum execution time per class in milliseconds.
+     */
+    private final long timeoutMillis;
+
+    /**
+     * Whether the pool was closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Starts a pool of worker JVMs that use the current JVM's
+     * executable.
+     *
+     * @param size       The number of workers
+     * @param timeout    The maximum execution time per class
+     * @param unit       The unit of the timeout
+     * @param jvmOptions Additional options for the worker JVMs
+     *                   (e.g. {@code -Xint})
+     * @throws IOException if a worker cannot be started
+     */
+    public WorkerPool(int size, long timeout, TimeUnit unit, List<String> jvmOptions) throws IOException {
+        this(size, timeout, unit, currentJava(), jvmOptions);
+    }
+
+    /**
+     * Starts a pool of worker JVMs that use the given executable.
+     *
+     * @param size       The number of workers
+     * @param timeout    The maximum execution time per class
+     * @param unit       The unit of the timeout
+     * @param java       The path of the {@code java} executable
+     *                   (e.g. of a different JDK)
+     * @param jvmOptions Additional options for the worker JVMs
+     * @throws IOException if a worker cannot be started
+     */
+    public WorkerPool(int size, long timeout, TimeUnit unit, String java, List<String> jvmOptions) throws IOException {
+        assert size > 0 : "Number of workers must be positive";
+
+        this.command = command(java, jvmOptions);
+        this.timeoutMillis = unit.toMillis(timeout);
+        this.idle = new ArrayBlockingQueue<>(size);
+
+        try {
+            for (int i = 0; i < size; i++) {
+                idle.add(new WorkerProcess(command));
+                live.incrementAndGet();
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the {@code java} executable of the current JVM.
+     *
+     * @return the path of the executable
+     */
+    public static String currentJava() {
+        return Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    /**
+     * Builds the command that starts a worker with the given executable.
+     * The class path only consists of the location of the worker class,
+     * as the worker does not need any other libraries.
+     *
+     * @param java       The {@code java} executable
+     * @param jvmOptions Additional JVM options
+     * @return the command line
+     */
+    private static List<String> command(String java, List<String> jvmOptions) {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        try {
+            command.add(Paths.get(Worker.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+        } catch (URISyntaxException e) {
+            throw new AssertionError(e);
+        }
+        command.add(Worker.class.getName());
+        return command;
+    }
+
+    /**
+     * Executes the {@code main} method of the given class on the next
+     * available worker.
+     *
+     * @param className The binary name of the class
+     * @param bytes     The class file
+     * @return the outcome of the execution
+     * @throws InterruptedException if the thread is interrupted while
+     *                              waiting for a worker or the result
+     * @throws IOException          if a replacement worker cannot be started
+     *                              or no worker is left
+     */
+    public WorkerResult execute(String className, byte[] bytes) throws InterruptedException, IOException {
+        WorkerProcess worker = take();
+        try {
+            WorkerResult result = worker.execute(className, bytes, timeoutMillis);
+
+            if (result.status != WorkerResult.Status.COMPLETED) {
+                logger.warn("Replacing worker after execution of {}", result);
+                worker.destroy();
+                worker = null;
+                worker = new WorkerProcess(command);
+            }
+
+            return result;
+        } catch (InterruptedException e) {
+            worker.destroy();
+            worker = null;
+            try {
+                worker = new WorkerProcess(command);
+            } catch (IOException replacement) {
+                e.addSuppressed(replacement);
+            }
+            throw e;
+        } finally {
+            if (worker == null) {
+                // the replacement failed to start, so the pool shrinks
+                logger.error("Dropped worker, {} workers left", live.decrementAndGet());
+            } else if (closed) {
+                worker.destroy();
+            } else {
+                idle.add(worker);
+            }
+        }
+    }
+
+    /**
+     * Waits for the next idle worker.
+     *
+     * @return the worker
+     * @throws InterruptedException if the thread is interrupted while
+     *                              waiting
+     * @throws IOException          if no worker is left, as all
+     *                              replacements failed to start
+     */
+    private WorkerProcess take() throws InterruptedException, IOException {
+        WorkerProcess worker;
+        do {
+            if (closed)
+                throw new IllegalStateException("Worker pool is closed");
+            if (live.get() == 0)
+                throw new IOException("No worker left, all replacements failed to start");
+
+            worker = idle.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        } while (worker == null);
+
+        return worker;
+    }
+
+    /**
+     * Terminates all idle workers. Workers that are still executing
+     * a class are terminated as soon as they finish.
+     */
+    @Override
+    public void close() {
+        closed = true;
+
+        List<WorkerProcess> workers = new ArrayList<>();
+        idle.drainTo(workers);
+        workers.forEach(WorkerProcess::close);
+    }
+
+    /**
+     * Handle to a single worker JVM.
+     */
+    private static final class WorkerProcess {
+        private final Process process;
+        private final DataOutputStream requests;
+        private final DataInputStream responses;
+
+        /**
+         * Reads the responses, which allows to wait for them with a timeout.
+         */
+        private final ExecutorService reader = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "worker-reader");
+            t.setDaemon(true);
+            return t;
+        });
+
+        WorkerProcess(List<String> command) throws IOException {
+            process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            requests = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            responses = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        }
+
+        WorkerResult execute(String className, byte[] bytes, long timeoutMillis) throws InterruptedException {
+            Future<WorkerResult> response;
+            try {
+                requests.writeUTF(className);
+                requests.writeInt(bytes.length);
+                requests.write(bytes);
+                requests.flush();
+
+                response = reader.submit(() -> read(className));
+            } catch (IOException e) {
+                return crashed(className, e);
+            }
+
+            try {
+                return response.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                response.cancel(true);
+                return new WorkerResult(className, WorkerResult.Status.TIMED_OUT, -1, "", "");
+            } catch (ExecutionException e) {
+                return crashed(className, e.getCause());
+            }
+        }
+
+        private WorkerResult read(String className) throws IOException {
+            // skip any output of the JVM itself
+            int header = responses.readInt();
+            while (header != Worker.MAGIC)
+                header = (header << 8) | responses.readUnsignedByte();
+
+            int status = responses.readInt();
+            String out = readString();
+            String err = readString();
+
+            return new WorkerResult(className, WorkerResult.Status.COMPLETED, status, out, err);
+        }
+
+        private String readString() throws IOException {
+            byte[] bytes = new byte[responses.readInt()];
+            responses.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private WorkerResult crashed(String className, Throwable cause) throws InterruptedException {
+            // wait for the exit status, the process is terminated anyway
+            if (!process.waitFor(1, TimeUnit.SECONDS))
+                process.destroyForcibly();
+
+            int exitStatus = process.isAlive() ? -1 : process.exitValue();
+            return new WorkerResult(className, WorkerResult.Status.CRASHED, exitStatus, "", String.valueOf(cause));
+        }
+
+        /**
+         * Closes the connection, which lets the worker terminate normally.
+         */
+        void close() {
+            try {
+                requests.close();
+            } catch (IOException e) {
+                process.destroyForcibly();
+            }
+            reader.shutdownNow();
+        }
+
+        /**
+         * Terminates the worker immediately.
+         */
+        void destroy() {
+            process.destroyForcibly();
+            reader.shutdownNow();
+        }
+    }
+}
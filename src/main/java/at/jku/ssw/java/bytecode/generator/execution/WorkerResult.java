@@ -0,0 +1,80 @@
+package at.jku.ssw.java.bytecode.generator.execution;
+
+import at.jku.ssw.java.bytecode.generator.loaders.ExecutionResult;
+
+/**
+ * The outcome of executing a generated class on a worker JVM.
+ */
+public final class WorkerResult {
+
+    /**
+     * Describes how the execution ended.
+     */
+    public enum Status {
+        /**
+         * The main method returned or threw an exception.
+         */
+        COMPLETED,
+        /**
+         * The execution exceeded the timeout and the worker was terminated.
+         */
+        TIMED_OUT,
+        /**
+         * The worker JVM terminated during the execution
+         * (e.g. due to {@link System#exit(int)} or a VM crash).
+         */
+        CRASHED
+    }
+
+    /**
+     * The name of the executed class.
+     */
+    public final String className;
+
+    /**
+     * Describes how the execution ended.
+     */
+    public final Status status;
+
+    /**
+     * The exit status that a separate {@code java} process would report
+     * (i.e. {@code 0} on normal completion, {@code 1} for uncaught
+     * exceptions and the exit value of the worker if it crashed).
+     * Undefined ({@code -1}) if the execution timed out.
+     */
+    public final int exitStatus;
+
+    /**
+     * Everything that was printed to the standard output.
+     */
+    public final String out;
+
+    /**
+     * Everything that was printed to the standard error.
+     */
+    public final String err;
+
+    WorkerResult(String className, Status status, int exitStatus, String out, String err) {
+        this.className = className;
+        this.status = status;
+        this.exitStatus = exitStatus;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Returns the global hash line that the program printed before
+     * it terminated.
+     *
+     * @return the hash line or {@code null} if the program did not print it
+     * (e.g. because it was terminated by an exception)
+     */
+    public String hash() {
+        return ExecutionResult.hash(out);
+    }
+
+    @Override
+    public String toString() {
+        return className + ": " + status + " (exit status " + exitStatus + ")";
+    }
+}
@@ -0,0 +1,30 @@
+package at.jku.ssw.java.bytecode.generator.execution;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Executes classes on a {@link WorkerPool}. The timeout is enforced by
+ * the pool itself.
+ */
+public final class WorkerTarget implements Target {
+
+    private final String name;
+    private final WorkerPool pool;
+
+    public WorkerTarget(String name, WorkerPool pool) {
+        this.name = name;
+        this.pool = pool;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public WorkerResult run(Path directory, String className, byte[] bytes, long timeoutMillis)
+            throws IOException, InterruptedException {
+        return pool.execute(className, bytes);
+    }
+}
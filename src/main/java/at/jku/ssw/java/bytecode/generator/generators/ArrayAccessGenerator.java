@@ -29,8 +29,13 @@ import static java.util.Arrays.stream;
  * Those arrays already have to be generated.
  */
 public class ArrayAccessGenerator extends MethodCaller {
+
+    private final Randomizer randomizer;
+
     public ArrayAccessGenerator(Random rand, ClazzFileContainer clazzContainer) {
         super(rand, clazzContainer);
+
+        this.randomizer = new Randomizer(rand);
     }
 
 
@@ -105,7 +110,7 @@ public class ArrayAccessGenerator extends MethodCaller {
      * @return a string that contains the source code of the expression
      */
     public String srcGenerateArrayReadAccess(MethodLogger<?> method) {
-        return new Randomizer(rand).shuffle(
+        return randomizer.oneOf(
                 getClazzLogger()
                         .getInitializedVarsUsableInMethod(method)
                         // only array variables
@@ -133,8 +138,7 @@ public class ArrayAccessGenerator extends MethodCaller {
 
                                     );
                         })
-        ).findFirst()
-                .map(Supplier::get)
+        ).map(Supplier::get)
                 .orElse("");
     }
 
@@ -146,7 +150,7 @@ public class ArrayAccessGenerator extends MethodCaller {
      * @return a string that contains the source code of the expression
      */
     public String srcGenerateArrayWriteAccess(MethodLogger<?> method) {
-        return new Randomizer(rand).shuffle(
+        return randomizer.oneOf(
                 getClazzLogger()
                         .getNonFinalVarsUsableInMethod(method)
                         .filter(v -> v.getType().kind() == ARRAY)
@@ -172,8 +176,7 @@ public class ArrayAccessGenerator extends MethodCaller {
                                             )
                                     );
                         })
-        ).findFirst()
-                .map(Supplier::get)
+        ).map(Supplier::get)
                 .orElse("");
     }
 }
@@ -0,0 +1,186 @@
+package at.jku.ssw.java.bytecode.generator.generators;
+
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.sinks.ClassSink;
+import at.jku.ssw.java.bytecode.generator.sinks.DirectorySink;
+import at.jku.ssw.java.bytecode.generator.timing.TimingReport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Generates multiple classes within the same JVM.
+ * Each class is generated by a separate {@link RandomCodeGenerator}
+ * that is released as soon as the class is written, so the memory
+ * consumption does not depend on the number of generated classes.
+ * All classes of a batch are written to the same {@link ClassSink}
+ * (e.g. a single archive).
+ */
+public class BatchGenerator {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The base controller that is used to derive the controllers
+     * for the individual classes.
+     */
+    private final GenerationController controller;
+
+    /**
+     * The phase timings of the generated classes
+     * ({@code null} if they are not recorded).
+     */
+    private final TimingReport timings;
+
+    public BatchGenerator(GenerationController controller) {
+        this.controller = controller;
+        this.timings = controller.recordsTimings() ? new TimingReport() : null;
+    }
+
+    public GenerationController getController() {
+        return controller;
+    }
+
+    /**
+     * @return the phase timings of the classes that were generated so far
+     * or {@code null} if the controller does not record timings
+     */
+    public TimingReport getTimings() {
+        return timings;
+    }
+
+    /**
+     * Determines the name of the class with the given index.
+     * If the number of classes is given explicitly (even if it is 1),
+     * the file name is suffixed by the (1-based) class index.
+     * Otherwise the single class uses the file name as is.
+     *
+     * @param index The 0-based index of the class within the batch
+     * @return the name of the generated class
+     */
+    public String className(int index) {
+        return controller.isBatch()
+                ? controller.getFileName() + (index + 1)
+                : controller.getFileName();
+    }
+
+    /**
+     * Determines the seed of the class with the given index.
+     * The seeds of a batch form a consecutive range that starts at
+     * the configured seed.
+     *
+     * @param index The 0-based index of the class within the batch
+     * @return the seed for the generated class
+     */
+    public int seed(int index) {
+        return controller.getSeedValue() + index;
+    }
+
+    /**
+     * Generates the class with the given index and writes it to the
+     * given sink.
+     *
+     * @param index The 0-based index of the class within the batch
+     * @param sink  The destination of the class file
+     */
+    void generate(int index, ClassSink sink) {
+        RandomCodeGenerator generator = generator(index);
+        try {
+            generator.generate();
+            generator.writeTo(sink);
+            record(index, generator);
+        } finally {
+            generator.release();
+        }
+    }
+
+    /**
+     * Generates the class with the given index and returns its class file.
+     *
+     * @param index The 0-based index of the class within the batch
+     * @return the class file
+     */
+    public byte[] toBytecode(int index) {
+        RandomCodeGenerator generator = generator(index);
+        try {
+            generator.generate();
+            final byte[] bytes = generator.toBytecode();
+            record(index, generator);
+            return bytes;
+        } finally {
+            generator.release();
+        }
+    }
+
+    RandomCodeGenerator generator(int index) {
+        final String name = className(index);
+        return new RandomCodeGenerator(name, controller.derive(name, seed(index)));
+    }
+
+    /**
+     * Adds the phase timings of the given (complete) class to the report
+     * if timings are recorded.
+     *
+     * @param index     The 0-based index of the class within the batch
+     * @param generator The generator of the class
+     */
+    void record(int index, RandomCodeGenerator generator) {
+        if (timings != null)
+            timings.add(className(index), seed(index), generator.getTimer());
+    }
+
+    /**
+     * Generates all classes of this batch and writes them to the
+     * given sink. The sink is not closed.
+     *
+     * @param sink The destination of the class files
+     */
+    public void generate(ClassSink sink) {
+        final int count = controller.getCount();
+        for (int i = 0; i < count; i++) {
+            generate(i, sink);
+        }
+        logger.info("Generated {} classes", count);
+    }
+
+    /**
+     * Generates all classes of this batch and writes them to the
+     * given directory.
+     *
+     * @param directory The output directory
+     */
+    public void generate(String directory) {
+        generate(new DirectorySink(Paths.get(directory)));
+    }
+
+    /**
+     * Generates all classes of this batch and writes them to the
+     * configured sink in the configured location or the current
+     * working directory.
+     * If timings are recorded, the timing report is written to the
+     * configured file once the batch is complete.
+     */
+    public void generate() {
+        final String location = controller.getLocation() != null ? controller.getLocation() : ".";
+        try (ClassSink sink = ClassSink.of(
+                controller.getSinkKind(),
+                Paths.get(location),
+                controller.getFileName(),
+                controller.storeUncompressed())) {
+            generate(sink);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+
+        if (timings != null) {
+            try {
+                timings.write(Paths.get(controller.getTimingReport()));
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+            logger.info("Wrote the timings of {} classes to {}", timings.size(), controller.getTimingReport());
+        }
+    }
+}
@@ -1,11 +1,8 @@
 package at.jku.ssw.java.bytecode.generator.generators;
 
-import at.jku.ssw.java.bytecode.generator.exceptions.MethodCompilationFailedException;
 import at.jku.ssw.java.bytecode.generator.logger.MethodLogger;
 import at.jku.ssw.java.bytecode.generator.utils.RandomSupplier;
 import at.jku.ssw.java.bytecode.generator.utils.Randomizer;
-import javassist.CannotCompileException;
-import javassist.CtMethod;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -200,19 +197,12 @@ class ControlFlowGenerator extends Generator {
     //==================================================COMMON==========================================================
 
     private void generateBody(MethodLogger<?> method) {
-        RandomCodeGenerator.Context.CONTROL_CONTEXT.setContextMethod(method);
-        randomCodeGenerator.generate(RandomCodeGenerator.Context.CONTROL_CONTEXT);
+        randomCodeGenerator.generate(RandomCodeGenerator.Context.CONTROL_CONTEXT, method);
     }
 
     private void insertControlSrcIntoMethod(MethodLogger<?> method) {
-        CtMethod ctMethod = getCtMethod(method);
-        try {
-            ctMethod.insertAfter(controlSrc.toString());
-            controlSrc.setLength(0);
-        } catch (CannotCompileException e) {
-            logger.fatal("Could not compile control flow source: {}", controlSrc.toString());
-            throw new MethodCompilationFailedException(method, e);
-        }
+        insertIntoMethodBody(method, controlSrc.toString());
+        controlSrc.setLength(0);
     }
 
     public void addCodeToControlSrc(String code) {
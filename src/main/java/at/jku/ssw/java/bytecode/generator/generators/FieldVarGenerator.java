@@ -4,6 +4,8 @@ import at.jku.ssw.java.bytecode.generator.exceptions.CompilationFailedException;
 import at.jku.ssw.java.bytecode.generator.exceptions.MethodCompilationFailedException;
 import at.jku.ssw.java.bytecode.generator.logger.FieldVarLogger;
 import at.jku.ssw.java.bytecode.generator.logger.MethodLogger;
+import at.jku.ssw.java.bytecode.generator.metamodel.expressions.Assignment;
+import at.jku.ssw.java.bytecode.generator.metamodel.expressions.Expression;
 import at.jku.ssw.java.bytecode.generator.types.base.MetaType;
 import at.jku.ssw.java.bytecode.generator.utils.ClazzFileContainer;
 import at.jku.ssw.java.bytecode.generator.utils.JavassistUtils;
@@ -13,6 +15,7 @@ import javassist.CtMethod;
 
 import java.util.Random;
 
+import static at.jku.ssw.java.bytecode.generator.logger.VariableStore.*;
 import static at.jku.ssw.java.bytecode.generator.utils.StatementDSL.*;
 
 class FieldVarGenerator extends Generator {
@@ -25,7 +28,7 @@ class FieldVarGenerator extends Generator {
 
     private void generateField(String name, MetaType<?> type, int modifiers, String value) {
         try {
-            CtField f = new CtField(JavassistUtils.toCtClass(type), name, this.getClazzContainer().getClazzFile());
+            CtField f = new CtField(JavassistUtils.toCtClass(clazzContainer.getClassPool(), type), name, this.getClazzContainer().getClazzFile());
             if (value == null) {
                 this.getClazzFile().addField(f);
             } else {
@@ -50,6 +53,19 @@ class FieldVarGenerator extends Generator {
         this.generateField(getRandomSupplier().getVarName(), ft, getRandomSupplier().getFieldModifiers(), value);
     }
 
+    /**
+     * Adds the static checksum field that replaces print-statements.
+     * The field is not logged and therefore never assigned by other
+     * generated statements.
+     */
+    public void generateChecksumField() {
+        try {
+            this.getClazzFile().addField(CtField.make("private static long " + ClazzFileContainer.CHECKSUM + ";", this.getClazzFile()));
+        } catch (CannotCompileException e) {
+            throw new CompilationFailedException(e);
+        }
+    }
+
     //==========================================LOCAL VARIABLE GENERATION===============================================
 
     private void generateLocalVariable(String name, MetaType<?> type, MethodLogger<?> method, String value) {
@@ -59,18 +75,26 @@ class FieldVarGenerator extends Generator {
 
     public void generateLocalVariable(MethodLogger<?> method) {
         MetaType<?> ft = getRandomSupplier().type();
-        String value = clazzContainer.resolver().resolve(getClazzLogger().valueOf(ft, method));
+        Expression<?> value = getClazzLogger().valueOf(ft, method);
         String name = getRandomSupplier().getVarName();
-        this.generateLocalVariable(name, ft, method, value);
+        if (clazzContainer.emitsBytecode()) {
+            declareLocalVariable(name, ft, method);
+            insertIntoMethodBody(method, assignment(new FieldVarLogger<>(name, clazzContainer.getFileName(), 0, ft, true, false), value));
+        } else {
+            this.generateLocalVariable(name, ft, method, clazzContainer.resolver().resolve(value));
+        }
     }
 
     private String srcGenerateLocalVariable(String name, MetaType<?> type, MethodLogger<?> method, String value) {
+        declareLocalVariable(name, type, method);
+        return name + " = " + value + ";";
+    }
+
+    private void declareLocalVariable(String name, MetaType<?> type, MethodLogger<?> method) {
         CtMethod ctMethod = this.getCtMethod(method);
         try {
-            ctMethod.addLocalVariable(name, JavassistUtils.toCtClass(type));
-            String src = name + " = " + value + ";";
+            ctMethod.addLocalVariable(name, JavassistUtils.toCtClass(clazzContainer.getClassPool(), type));
             method.logVariable(name, clazzContainer.getFileName(), type, 0, true, false);
-            return src;
         } catch (CannotCompileException e) {
             throw new MethodCompilationFailedException(method, e);
         }
@@ -79,6 +103,9 @@ class FieldVarGenerator extends Generator {
     //=============================================PRINT VARIABLES======================================================
 
     private <T> String srcGeneratePrintStatement(FieldVarLogger<T> variable) {
+        if (clazzContainer.checksumOnly())
+            return clazzContainer.checksum(variable.getType(), variable.getType().getHashCode(variable));
+
         return Statement(
                 SystemOutPrintln(
                         concat(
@@ -96,7 +123,7 @@ class FieldVarGenerator extends Generator {
 
     public String srcGeneratePrintStatement(MethodLogger<?> method) {
         if (rand.nextBoolean()) { //print local Variable
-            FieldVarLogger<?> fvl = method.getVariableWithPredicate(FieldVarLogger::isInitialized);
+            FieldVarLogger<?> fvl = method.getVariableWithFlags(INITIALIZED, NONE);
             if (fvl == null) {
                 return null;
             } else {
@@ -105,9 +132,9 @@ class FieldVarGenerator extends Generator {
         } else { //print global Variable
             FieldVarLogger<?> fvl;
             if (method.isStatic()) {
-                fvl = getClazzLogger().getVariableWithPredicate(v -> v.isInitialized() && v.isStatic());
+                fvl = getClazzLogger().getVariableWithFlags(INITIALIZED | STATIC, NONE);
             } else {
-                fvl = getClazzLogger().getVariableWithPredicate(FieldVarLogger::isInitialized);
+                fvl = getClazzLogger().getVariableWithFlags(INITIALIZED, NONE);
             }
             if (fvl != null) {
                 return this.srcGeneratePrintStatement(fvl);
@@ -125,6 +152,21 @@ class FieldVarGenerator extends Generator {
         insertIntoMethodBody(method, src);
     }
 
+    private void setVarValue(FieldVarLogger<?> fieldVar, MethodLogger<?> method) {
+        Expression<?> value = getClazzLogger().valueOf(fieldVar.getType(), method);
+        if (clazzContainer.emitsBytecode()) {
+            fieldVar.setInitialized();
+            insertIntoMethodBody(method, assignment(fieldVar, value));
+        } else {
+            setVarValue(fieldVar, method, clazzContainer.resolver().resolve(value));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Assignment<T> assignment(FieldVarLogger<T> dest, Expression<?> value) {
+        return new Assignment<>(dest, (Expression<T>) value);
+    }
+
     private String srcSetVarValue(FieldVarLogger<?> fieldVar, String value) {
         if (value != null) {
             fieldVar.setInitialized();
@@ -136,7 +178,7 @@ class FieldVarGenerator extends Generator {
         if (getClazzLogger().hasVariables()) {
             FieldVarLogger<?> f = this.getClazzLogger().getNonFinalFieldUsableInMethod(method);
             if (f != null) {
-                setVarValue(f, method, clazzContainer.resolver().resolve(getClazzLogger().valueOf(f.getType(), method)));
+                setVarValue(f, method);
             }
         }
     }
@@ -159,7 +201,7 @@ class FieldVarGenerator extends Generator {
         }
         FieldVarLogger<?> f = this.getClazzLogger().getNonFinalLocalVar(method);
         if (f != null) {
-            setVarValue(f, method, clazzContainer.resolver().resolve(getClazzLogger().valueOf(f.getType(), method)));
+            setVarValue(f, method);
         }
     }
 
@@ -2,29 +2,58 @@ package at.jku.ssw.java.bytecode.generator.generators;
 
 import at.jku.ssw.java.bytecode.generator.exceptions.MethodCompilationFailedException;
 import at.jku.ssw.java.bytecode.generator.logger.ClazzLogger;
+import at.jku.ssw.java.bytecode.generator.logger.FieldVarLogger;
 import at.jku.ssw.java.bytecode.generator.logger.MethodLogger;
+import at.jku.ssw.java.bytecode.generator.logger.PendingStatement;
+import at.jku.ssw.java.bytecode.generator.metamodel.expressions.Expression;
+import at.jku.ssw.java.bytecode.generator.metamodel.resolvers.BytecodeResolver;
+import at.jku.ssw.java.bytecode.generator.sinks.ClassSink;
+import at.jku.ssw.java.bytecode.generator.sinks.DirectorySink;
+import at.jku.ssw.java.bytecode.generator.timing.Phase;
+import at.jku.ssw.java.bytecode.generator.timing.PhaseTimer;
+import at.jku.ssw.java.bytecode.generator.types.base.MetaType;
 import at.jku.ssw.java.bytecode.generator.utils.ClazzFileContainer;
+import at.jku.ssw.java.bytecode.generator.utils.ErrorUtils;
 import at.jku.ssw.java.bytecode.generator.utils.JavassistUtils;
 import at.jku.ssw.java.bytecode.generator.utils.RandomSupplier;
+import at.jku.ssw.java.bytecode.generator.utils.StatementDSL;
 import javassist.*;
-import javassist.bytecode.BadBytecode;
+import javassist.bytecode.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.stream.Collectors;
+
+import static at.jku.ssw.java.bytecode.generator.events.GenerationEvents.EVENTS;
+import static at.jku.ssw.java.bytecode.generator.utils.StatementDSL.Assignments.assign;
+import static at.jku.ssw.java.bytecode.generator.utils.StatementDSL.Statement;
 
 abstract class Generator {
 
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * The local variable whose assignments mark the positions of the
+     * directly emitted statements in the compiled method body
+     * (see {@link #compileMethodBody(MethodLogger)}).
+     */
+    private static final String EMITTED_STATEMENT = "emitted$statement";
+
     final ClazzFileContainer clazzContainer;
     protected final Random rand;
 
+    /**
+     * The kind of this generator in events.
+     */
+    private final String kind = getClass().getSimpleName();
+
     public Generator(Random rand, ClazzFileContainer clazzContainer) {
         this.rand = rand;
         this.clazzContainer = clazzContainer;
@@ -43,23 +72,53 @@ abstract class Generator {
     }
 
     public void writeFile(String pathname) {
-        getClazzFile().getClassFile().getMethods()
-                .forEach(m -> {
-                    try {
-                        m.rebuildStackMap(ClassPool.getDefault());
-                    } catch (BadBytecode badBytecode) {
-                        badBytecode.printStackTrace();
-                    }
-                });
-
-        final Path path = Paths.get(pathname).resolve(getClazzFile().getName() + ".class");
-        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(path.toFile()))) {
-            this.getClazzFile()
-                    .getClassFile()
-                    .write(out);
+        writeTo(new DirectorySink(Paths.get(pathname)));
+    }
+
+    /**
+     * Writes the generated class to the given sink.
+     *
+     * @param sink The destination of the class file
+     */
+    public void writeTo(ClassSink sink) {
+        writeTo(sink, toBytecode());
+    }
+
+    /**
+     * Writes the given class file of the generated class to the given sink.
+     *
+     * @param sink  The destination of the class file
+     * @param bytes The class file (see {@link #toBytecode()})
+     */
+    void writeTo(ClassSink sink, byte[] bytes) {
+        final PhaseTimer timer = clazzContainer.getTimer();
+        final long start = timer.start();
+        try {
+            sink.write(getClazzFile().getName(), bytes);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        } finally {
+            timer.stop(Phase.WRITE, start);
+        }
+    }
+
+    /**
+     * Computes the pending stack maps (see
+     * {@link ClazzFileContainer#toClassFile()}) and returns the contents
+     * of the resulting class file.
+     *
+     * @return the class file
+     */
+    byte[] toBytecode() {
+        ClassFile classFile = clazzContainer.toClassFile();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            classFile.write(out);
         } catch (IOException e) {
             throw new AssertionError(e);
         }
+        return bytes.toByteArray();
     }
 
     public ClazzLogger getClazzLogger() {
@@ -74,7 +133,7 @@ abstract class Generator {
                 return getClazzFile().getDeclaredMethod(
                         method.name(),
                         method.argumentTypes().stream()
-                                .map(JavassistUtils::toCtClass)
+                                .map(t -> JavassistUtils.toCtClass(clazzContainer.getClassPool(), t))
                                 .toArray(CtClass[]::new));
             }
         } catch (NotFoundException e) {
@@ -86,18 +145,380 @@ abstract class Generator {
         return getClazzContainer().getRandomSupplier();
     }
 
-    // TODO change parameter to expression and append to method body
+    public PhaseTimer getTimer() {
+        return getClazzContainer().getTimer();
+    }
+
+    /**
+     * Appends the given source code statement to the method body.
+     * The statement is only buffered and compiled together with all other
+     * statements of the method in {@link #compileMethodBody(MethodLogger)}.
+     *
+     * @param method The method to which the statement is appended
+     * @param src    The source code of the statement
+     */
     void insertIntoMethodBody(MethodLogger<?> method, String src) {
         if (src == null) {
             return;
         }
+        method.bufferStatement(src, kind);
+        EVENTS.statementInserted(clazzContainer.getFileName(), method.name(), kind, src.length());
+    }
+
+    /**
+     * Compiles all buffered statements of the given method into its body
+     * at once. Each statement forms a separate block to preserve the
+     * scoping of individually inserted statements.
+     * Directly emitted statements are compiled as placeholders (assignments
+     * of their index to {@link #EMITTED_STATEMENT}), which are then
+     * replaced by their bytecode, so that the method body is compiled
+     * once regardless of the backend.
+     * If the compilation fails, the statements are compiled one by one
+     * and the offending statements are rolled back
+     * (see {@link #compileStatement(MethodLogger, CtMethod, PendingStatement)}).
+     *
+     * @param method The method whose buffered statements are compiled
+     */
+    void compileMethodBody(MethodLogger<?> method) {
+        List<PendingStatement> statements = method.drainStatements();
+        if (statements.isEmpty())
+            return;
+
+        CtMethod ctMethod = getCtMethod(method);
+        List<Bytecode> emitted = new ArrayList<>();
+        StringBuilder src = new StringBuilder();
+        for (PendingStatement statement : statements) {
+            if (statement.isBytecode()) {
+                src.append(StatementDSL.Blocks.Block(
+                        Statement(assign(String.valueOf(emitted.size())).to(EMITTED_STATEMENT))
+                ));
+                emitted.add(statement.bytecode);
+            } else {
+                src.append(StatementDSL.Blocks.Block(statement.source));
+            }
+        }
+
+        try {
+            if (emitted.isEmpty()) {
+                insertAfter(ctMethod, src.toString());
+            } else {
+                int marker = declareMarker(method, ctMethod);
+                insertAfter(ctMethod, src.toString());
+                replacePlaceholders(method, ctMethod, marker, emitted);
+            }
+        } catch (CannotCompileException e) {
+            for (PendingStatement statement : statements) {
+                if (statement.isBytecode())
+                    insertBeforeReturns(method, ctMethod, statement.bytecode);
+                else
+                    compileStatement(method, ctMethod, statement);
+            }
+        }
+    }
+
+    /**
+     * Compiles a single buffered statement into the method body.
+     * If the statement does not compile, the code of the method is
+     * restored and the statement is re-rolled (see
+     * {@link #reroll(PendingStatement)}) until it compiles or the retry
+     * budget of the class is exhausted. Each failure is counted for the
+     * generator of the statement (see {@link ClazzFileContainer#getFailures()}).
+     *
+     * @param method    The method
+     * @param ctMethod  The compiled method
+     * @param statement The buffered statement
+     * @throws MethodCompilationFailedException if the retry budget
+     *                                          is exhausted
+     */
+    private void compileStatement(MethodLogger<?> method, CtMethod ctMethod, PendingStatement statement) {
+        final MethodInfo info = ctMethod.getMethodInfo();
+        String src = statement.source;
+        while (!src.isEmpty()) {
+            CodeAttribute code = (CodeAttribute) info.getCodeAttribute().copy(info.getConstPool(), null);
+            try {
+                insertAfter(ctMethod, src);
+                return;
+            } catch (CannotCompileException cause) {
+                info.setCodeAttribute(code);
+                if (!clazzContainer.getFailures().retry(statement.generator)) {
+                    logger.fatal(src);
+                    throw new MethodCompilationFailedException(method, src, cause);
+                }
+                logger.warn("Rolled back statement of {} in {}: {}", statement.generator, method.name(), src);
+                src = reroll(statement);
+            }
+        }
+    }
+
+    /**
+     * Generates a replacement for a statement that does not compile.
+     * As the subsequent statements may rely on the local variables that
+     * the statement initializes, the replacement initializes them with
+     * random constants instead. Statements that do not initialize any
+     * local variables are omitted.
+     *
+     * @param statement The statement that does not compile
+     * @return the source code of the replacement (which is empty if the
+     * statement is omitted)
+     */
+    private String reroll(PendingStatement statement) {
+        return statement.initialized.stream()
+                // parameters ($1, $2 etc.) are always initialized
+                .filter(v -> !v.isField() && !v.name.startsWith("$"))
+                .map(v -> getRandomSupplier().constantOf(v.getType())
+                        .map(c -> v.access() + " = " + clazzContainer.resolver().resolve(c) + ";")
+                        .orElse(""))
+                .collect(Collectors.joining());
+    }
+
+    /**
+     * Compiles the given source code and inserts it at the end of the
+     * given method (see {@link CtMethod#insertAfter(String)}).
+     * The compilation is timed as {@link Phase#COMPILE} and failures are
+     * emitted as events.
+     *
+     * @param method The method
+     * @param src    The source code
+     * @throws CannotCompileException if the source code does not compile
+     */
+    void insertAfter(CtMethod method, String src) throws CannotCompileException {
+        final PhaseTimer timer = getTimer();
+        final long start = timer.start();
+        try {
+            method.insertAfter(src);
+        } catch (CannotCompileException e) {
+            EVENTS.compileFailed(clazzContainer.getFileName(), method.getName(), src, e);
+            throw e;
+        } finally {
+            timer.stop(Phase.COMPILE, start);
+        }
+    }
+
+    /**
+     * Compiles the given method declaration for the generated class
+     * (see {@link CtNewMethod#make(String, CtClass)}).
+     * The compilation is timed as {@link Phase#COMPILE} and failures are
+     * emitted as events.
+     *
+     * @param src The source code of the method
+     * @return the compiled method (which is not yet added to the class)
+     * @throws CannotCompileException if the source code does not compile
+     */
+    CtMethod makeMethod(String src) throws CannotCompileException {
+        final PhaseTimer timer = getTimer();
+        final long start = timer.start();
+        try {
+            return CtNewMethod.make(src, getClazzFile());
+        } catch (CannotCompileException e) {
+            // the method is not declared yet
+            EVENTS.compileFailed(clazzContainer.getFileName(), null, src, e);
+            throw e;
+        } finally {
+            timer.stop(Phase.COMPILE, start);
+        }
+    }
+
+    /**
+     * Emits the given statement directly as bytecode and appends it to
+     * the method body.
+     * This is equivalent to {@link CtMethod#insertAfter(String)}
+     * but skips the Javassist source compiler. Like source code statements,
+     * the bytecode is only buffered and inserted together with all other
+     * statements of the method in {@link #compileMethodBody(MethodLogger)}.
+     * Stack map frames are not updated, as they are rebuilt before the
+     * class is written anyway (see {@link #writeFile(String)}).
+     *
+     * @param method    The method to which the statement is appended
+     * @param statement The statement that is appended
+     */
+    void insertIntoMethodBody(MethodLogger<?> method, Expression<?> statement) {
+        MethodInfo info = getCtMethod(method).getMethodInfo();
+        // the slots of all local variables are already allocated
+        LocalVariableAttribute locals = (LocalVariableAttribute) info.getCodeAttribute()
+                .getAttribute(LocalVariableAttribute.tag);
+
+        Bytecode bytecode = new BytecodeResolver(info.getConstPool(), v -> slotOf(method, locals, v))
+                .resolve(statement);
+
+        method.bufferStatement(bytecode, kind);
+        EVENTS.statementInserted(clazzContainer.getFileName(), method.name(), kind, bytecode.length());
+    }
+
+    /**
+     * Declares the local variable {@link #EMITTED_STATEMENT} in the given
+     * method (unless it is already declared).
+     *
+     * @param method   The method
+     * @param ctMethod The compiled method
+     * @return the slot of the variable
+     */
+    private static int declareMarker(MethodLogger<?> method, CtMethod ctMethod) {
+        CodeAttribute ca = ctMethod.getMethodInfo().getCodeAttribute();
+        int slot = localSlot((LocalVariableAttribute) ca.getAttribute(LocalVariableAttribute.tag), EMITTED_STATEMENT);
+        if (slot >= 0)
+            return slot;
+
         try {
-            CtMethod ctMethod = this.getCtMethod(method);
-            ctMethod.insertAfter(src);
+            ctMethod.addLocalVariable(EMITTED_STATEMENT, CtClass.intType);
         } catch (CannotCompileException e) {
-            logger.fatal(src);
             throw new MethodCompilationFailedException(method, e);
         }
+        return localSlot((LocalVariableAttribute) ca.getAttribute(LocalVariableAttribute.tag), EMITTED_STATEMENT);
+    }
+
+    /**
+     * Replaces the placeholders of the directly emitted statements
+     * (i.e. the assignments {@code emitted$statement = index}) in the
+     * compiled method body by the bytecode of the statements.
+     * The bytecode is inserted in front of the placeholder, which is
+     * overwritten by {@code nop}s.
+     *
+     * @param method   The method
+     * @param ctMethod The compiled method
+     * @param marker   The slot of {@link #EMITTED_STATEMENT}
+     * @param emitted  The bytecode of the emitted statements by index
+     */
+    private static void replacePlaceholders(MethodLogger<?> method, CtMethod ctMethod, int marker, List<Bytecode> emitted) {
+        CodeAttribute ca = ctMethod.getMethodInfo().getCodeAttribute();
+        int maxStack = 0;
+        try {
+            CodeIterator it = ca.iterator();
+            int previous = -1;
+            while (it.hasNext()) {
+                int pos = it.next();
+                if (storesTo(it, pos, marker)) {
+                    // the index is pushed by the previous instruction
+                    Bytecode bytecode = emitted.get(intConstant(it, previous, ca.getConstPool()));
+                    int placeholder = it.lookAhead() - previous;
+
+                    // branches to the placeholder now target the bytecode
+                    it.insert(previous, bytecode.get());
+                    for (int i = it.lookAhead() - placeholder; i < it.lookAhead(); i++)
+                        it.writeByte(Opcode.NOP, i);
+
+                    maxStack = Math.max(maxStack, bytecode.getMaxStack());
+                }
+                previous = pos;
+            }
+        } catch (BadBytecode e) {
+            throw new MethodCompilationFailedException(method, e);
+        }
+
+        ca.setMaxStack(ca.getMaxStack() + maxStack);
+    }
+
+    /**
+     * @return {@code true} if the instruction at the given position stores
+     * an {@code int} into the given slot
+     */
+    private static boolean storesTo(CodeIterator it, int pos, int slot) {
+        int opcode = it.byteAt(pos);
+        if (opcode >= Opcode.ISTORE_0 && opcode <= Opcode.ISTORE_3)
+            return opcode - Opcode.ISTORE_0 == slot;
+        if (opcode == Opcode.ISTORE)
+            return it.byteAt(pos + 1) == slot;
+        return opcode == Opcode.WIDE && it.byteAt(pos + 1) == Opcode.ISTORE && it.u16bitAt(pos + 2) == slot;
     }
-}
 
+    /**
+     * @return the {@code int} constant that the instruction at the given
+     * position pushes onto the stack
+     */
+    private static int intConstant(CodeIterator it, int pos, ConstPool cp) {
+        int opcode = it.byteAt(pos);
+        switch (opcode) {
+            case Opcode.ICONST_0:
+            case Opcode.ICONST_1:
+            case Opcode.ICONST_2:
+            case Opcode.ICONST_3:
+            case Opcode.ICONST_4:
+            case Opcode.ICONST_5:
+                return opcode - Opcode.ICONST_0;
+            case Opcode.BIPUSH:
+                return it.signedByteAt(pos + 1);
+            case Opcode.SIPUSH:
+                return it.s16bitAt(pos + 1);
+            case Opcode.LDC:
+                return cp.getIntegerInfo(it.byteAt(pos + 1));
+            case Opcode.LDC_W:
+                return cp.getIntegerInfo(it.u16bitAt(pos + 1));
+            default:
+                throw ErrorUtils.shouldNotReachHere("Unexpected placeholder instruction " + opcode);
+        }
+    }
+
+    /**
+     * Inserts the given bytecode at the end of the method body,
+     * i.e. in front of every return instruction.
+     *
+     * @param method   The method
+     * @param ctMethod The compiled method
+     * @param bytecode The bytecode of the statement
+     */
+    private static void insertBeforeReturns(MethodLogger<?> method, CtMethod ctMethod, Bytecode bytecode) {
+        CodeAttribute ca = ctMethod.getMethodInfo().getCodeAttribute();
+        byte[] code = bytecode.get();
+
+        try {
+            CodeIterator it = ca.iterator();
+            while (it.hasNext()) {
+                int pos = it.next();
+                int opcode = it.byteAt(pos);
+                if (opcode >= Opcode.IRETURN && opcode <= Opcode.RETURN)
+                    it.insert(pos, code);
+            }
+        } catch (BadBytecode e) {
+            throw new MethodCompilationFailedException(method, e);
+        }
+
+        ca.setMaxStack(ca.getMaxStack() + bytecode.getMaxStack());
+    }
+
+    /**
+     * Determines the slot of the given local variable or parameter.
+     *
+     * @param method   The method that declares the variable
+     * @param locals   The local variable table of the method
+     * @param variable The variable
+     * @return the index of the local variable slot
+     */
+    private static int slotOf(MethodLogger<?> method, LocalVariableAttribute locals, FieldVarLogger<?> variable) {
+        // parameters are named $1, $2 etc.
+        if (variable.name.startsWith("$")) {
+            int n = Integer.parseInt(variable.name.substring(1));
+            int slot = method.isStatic() ? 0 : 1;
+            List<MetaType<?>> params = method.argumentTypes();
+            for (int i = 0; i < n - 1; i++) {
+                MetaType.Kind kind = params.get(i).kind();
+                slot += kind == MetaType.Kind.LONG || kind == MetaType.Kind.DOUBLE ? 2 : 1;
+            }
+            return slot;
+        }
+
+        int slot = localSlot(locals, variable.name);
+        if (slot < 0)
+            throw new AssertionError("Unknown local variable " + variable.name + " in " + method);
+
+        return slot;
+    }
+
+    /**
+     * Looks up the slot of the local variable with the given name.
+     *
+     * @param locals The local variable table of the method
+     * @param name   The name of the variable
+     * @return the index of the local variable slot or {@code -1} if
+     * no such variable is declared
+     */
+    private static int localSlot(LocalVariableAttribute locals, String name) {
+        if (locals == null)
+            return -1;
+
+        // later declarations shadow earlier ones (as in the Javassist compiler)
+        for (int i = locals.tableLength() - 1; i >= 0; i--)
+            if (locals.variableName(i).equals(name))
+                return locals.index(i);
+
+        return -1;
+    }
+}
@@ -22,22 +22,21 @@ class MathGenerator extends MethodCaller {
                     "java.lang.Math.random()"
             );
 
-    private static boolean noDivByZero;
-    private static boolean noOverflow;
+    private final boolean noDivByZero;
+    private final boolean noOverflow;
 
     private final static Map<String, String> OVERFLOW_METHODS = new HashMap<>();
 
     private final Set<String> checkForDivByZero = new HashSet<>();
     private final Set<FieldVarLogger<?>> incDecrementOperands = new HashSet<>();
 
-    private static final CtClass mathClazz;
+    /**
+     * The public and deterministic methods of {@link Math}.
+     * They are looked up in the generation's class pool.
+     */
+    private final CtMethod[] mathMethods;
 
     static {
-        try {
-            mathClazz = ClassPool.getDefault().get("java.lang.Math");
-        } catch (NotFoundException e) {
-            throw new AssertionError(e);
-        }
         OVERFLOW_METHODS.put("java.lang.Math.addExact(int,int)", "if(%2$s > 0 ? " +
                 "Integer.MAX_VALUE - %2$s > %1$s : Integer.MIN_VALUE - %2$s < %1$s) {");
         OVERFLOW_METHODS.put("java.lang.Math.addExact(long,long)", "if(%2$s > 0 ? " +
@@ -71,8 +70,16 @@ class MathGenerator extends MethodCaller {
 
     public MathGenerator(Random rand, ClazzFileContainer cf, boolean noOverflow, boolean noDivByZero) {
         super(rand, cf);
-        MathGenerator.noOverflow = noOverflow;
-        MathGenerator.noDivByZero = noDivByZero;
+        this.noOverflow = noOverflow;
+        this.noDivByZero = noDivByZero;
+        try {
+            this.mathMethods = Arrays.stream(cf.getClassPool().get("java.lang.Math").getDeclaredMethods())
+                    .filter(m -> !NON_DETERMINISTIC_MATH_METHODS.contains(m.getLongName()))
+                    .filter(m -> (m.getModifiers() & Modifier.PUBLIC) == 1)
+                    .toArray(CtMethod[]::new);
+        } catch (NotFoundException e) {
+            throw new AssertionError(e);
+        }
     }
 
     //===============================================CALL MATH METHODS==================================================
@@ -242,14 +249,10 @@ class MathGenerator extends MethodCaller {
     //================================================UTILITY===========================================================
 
     private CtMethod getMathMethod() {
-        CtMethod[] methods = Arrays.stream(mathClazz.getDeclaredMethods())
-                .filter(m -> !NON_DETERMINISTIC_MATH_METHODS.contains(m.getLongName()))
-                .filter(m -> (m.getModifiers() & Modifier.PUBLIC) == 1)
-                .toArray(CtMethod[]::new);
-        return methods[rand.nextInt(methods.length)];
+        return mathMethods[rand.nextInt(mathMethods.length)];
     }
 
-    private static String getNoExceptionIf(String longName, ParamWrapper[] paramValues, PrimitiveType[] paramTypes) {
+    private String getNoExceptionIf(String longName, ParamWrapper[] paramValues, PrimitiveType[] paramTypes) {
         String[] params = new String[2];
         params[0] = paramValues[0].getParamValue().toString();
         if (paramTypes.length == 2) {
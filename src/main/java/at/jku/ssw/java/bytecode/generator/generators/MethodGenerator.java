@@ -1,12 +1,14 @@
 package at.jku.ssw.java.bytecode.generator.generators;
 
+import at.jku.ssw.java.bytecode.generator.events.GenerationEvents.Span;
 import at.jku.ssw.java.bytecode.generator.exceptions.CompilationFailedException;
-import at.jku.ssw.java.bytecode.generator.exceptions.MethodCompilationFailedException;
 import at.jku.ssw.java.bytecode.generator.logger.FieldVarLogger;
 import at.jku.ssw.java.bytecode.generator.logger.MethodLogger;
 import at.jku.ssw.java.bytecode.generator.metamodel.builders.MethodBuilder;
 import at.jku.ssw.java.bytecode.generator.metamodel.resolvers.JavassistResolver;
+import at.jku.ssw.java.bytecode.generator.timing.Phase;
 import at.jku.ssw.java.bytecode.generator.types.base.MetaType;
+import at.jku.ssw.java.bytecode.generator.utils.ClazzFileContainer;
 import at.jku.ssw.java.bytecode.generator.utils.ParamWrapper;
 import at.jku.ssw.java.bytecode.generator.utils.Randomizer;
 import javassist.*;
@@ -20,6 +22,9 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static at.jku.ssw.java.bytecode.generator.events.GenerationEvents.EVENTS;
+import static at.jku.ssw.java.bytecode.generator.logger.VariableStore.FINAL;
+import static at.jku.ssw.java.bytecode.generator.logger.VariableStore.NONE;
 import static at.jku.ssw.java.bytecode.generator.types.base.VoidType.VOID;
 import static at.jku.ssw.java.bytecode.generator.utils.StatementDSL.Assignments.pAssign;
 import static at.jku.ssw.java.bytecode.generator.utils.StatementDSL.Casts.cast;
@@ -32,9 +37,12 @@ class MethodGenerator extends MethodCaller {
 
     private final RandomCodeGenerator randomCodeGenerator;
 
+    private final Randomizer randomizer;
+
     public MethodGenerator(Random rand, RandomCodeGenerator randomCodeGenerator) {
         super(rand, randomCodeGenerator.getClazzFileContainer());
         this.randomCodeGenerator = randomCodeGenerator;
+        this.randomizer = new Randomizer(rand);
     }
 
     public MetaType[] getParameterTypes(int maxParameters) {
@@ -79,7 +87,7 @@ class MethodGenerator extends MethodCaller {
                 returnType + " " + name + "(" + paramsStr.toString() + ") {" + returnStatement +
                 "} ";
         try {
-            newMethod = CtNewMethod.make(methodStr, this.getClazzFile());
+            newMethod = makeMethod(methodStr);
             this.getClazzFile().addMethod(newMethod);
             return ml;
         } catch (CannotCompileException e) {
@@ -89,9 +97,15 @@ class MethodGenerator extends MethodCaller {
     }
 
     public void generateMethodBody(MethodLogger<?> method) {
-        RandomCodeGenerator.Context.METHOD_CONTEXT.setContextMethod(method);
-        randomCodeGenerator.generate(RandomCodeGenerator.Context.METHOD_CONTEXT);
-        this.insertReturn(method);
+        final Span span = EVENTS.beginMethodBody();
+        final long start = getTimer().start();
+        try {
+            randomCodeGenerator.generate(RandomCodeGenerator.Context.METHOD_CONTEXT, method);
+            this.insertReturn(method);
+        } finally {
+            getTimer().stop(Phase.METHOD_BODY, start);
+            EVENTS.endMethodBody(span, clazzContainer.getFileName(), method.name());
+        }
     }
 
     public MethodLogger<?> generateMethod(int maximumParameters) {
@@ -116,30 +130,20 @@ class MethodGenerator extends MethodCaller {
     }
 
     public <T> void insertReturn(MethodLogger<T> method) {
-        CtMethod ctMethod = getCtMethod(method);
         MetaType<T> returnType = method.returns();
 
         if (returnType == VOID) {
-            try {
-                ctMethod.insertAfter(Return);
-            } catch (CannotCompileException e) {
-                e.printStackTrace();
-            }
+            insertIntoMethodBody(method, Return);
         } else {
 
-            new Randomizer(rand).<FieldVarLogger<?>>oneNotNullOf(
+            randomizer.<FieldVarLogger<?>>oneNotNullOf(
                     () -> getClazzLogger().getInitializedLocalVarOfType(method, returnType),
                     () -> getClazzLogger().getInitializedFieldOfTypeUsableInMethod(method, returnType)
-            ).ifPresent(
-                    f -> {
-                        try {
-                            ctMethod.insertAfter(Return(f.access()));
-                        } catch (CannotCompileException e) {
-                            throw new MethodCompilationFailedException(method, e);
-                        }
-                    }
-            );
+            ).ifPresent(f -> insertIntoMethodBody(method, Return(f.access())));
         }
+
+        // the method is complete - compile all buffered statements at once
+        compileMethodBody(method);
     }
 
     //===============================================Method Calling=====================================================
@@ -209,7 +213,7 @@ class MethodGenerator extends MethodCaller {
     public String srcSetLocalVarToReturnValue(MethodLogger<?> method) {
 
         if (method.hasVariables()) {
-            FieldVarLogger<?> fieldVar = method.getVariableWithPredicate(v -> !v.isFinal());
+            FieldVarLogger<?> fieldVar = method.getVariableWithFlags(NONE, FINAL);
             if (fieldVar != null)
                 return setVariableToReturnValue(fieldVar, method);
         }
@@ -219,7 +223,7 @@ class MethodGenerator extends MethodCaller {
 
     void generateRunMethod() {
         try {
-            this.getClazzFile().addMethod(CtNewMethod.make("private void run() {}", this.getClazzFile()));
+            this.getClazzFile().addMethod(makeMethod("private void run() {}"));
             CtConstructor constructor = CtNewConstructor.defaultConstructor(this.getClazzFile());
             this.getClazzFile().addConstructor(constructor);
         } catch (CannotCompileException e) {
@@ -238,6 +242,15 @@ class MethodGenerator extends MethodCaller {
     }
 
     public void generateHashMethod() {
+        final long start = getTimer().start();
+        try {
+            generateHashMethodBody();
+        } finally {
+            getTimer().stop(Phase.HASH_METHOD, start);
+        }
+    }
+
+    private void generateHashMethodBody() {
         StringBuilder src = new StringBuilder("long hashValue = 0; ");
         List<FieldVarLogger<?>> initGlobals = this.getClazzLogger().getVariablesWithPredicate(FieldVarLogger::isInitialized);
         if (this.getClazzLogger().hasVariables()) {
@@ -247,6 +260,8 @@ class MethodGenerator extends MethodCaller {
                             .collect(Collectors.joining())
             );
         }
+        if (getClazzContainer().checksumOnly())
+            src.append(Statement(pAssign(ClazzFileContainer.CHECKSUM).to("hashValue")));
         String computeHashStr =
                 spaced(
                         src.toString(),
@@ -262,8 +277,8 @@ class MethodGenerator extends MethodCaller {
                 );
 
         try {
-            CtMethod computeHash = CtNewMethod.make("private void computeHash() {}", this.getClazzFile());
-            computeHash.insertAfter(computeHashStr);
+            CtMethod computeHash = makeMethod("private void computeHash() {}");
+            insertAfter(computeHash, computeHashStr);
             this.getClazzFile().addMethod(computeHash);
         } catch (CannotCompileException e) {
             logger.fatal("Could not compile code to compute the hash value: {}", computeHashStr);
@@ -276,11 +291,11 @@ class MethodGenerator extends MethodCaller {
         CtMethod main = this.getCtMethod(this.getClazzLogger().main());
         try {
             if (xRuns <= 1) {
-                main.insertAfter(fileName + " " + fileName.toLowerCase() + " = new " + fileName + "();"
+                insertAfter(main, fileName + " " + fileName.toLowerCase() + " = new " + fileName + "();"
                         + fileName.toLowerCase() + ".run();" +
                         fileName.toLowerCase() + ".computeHash();");
             } else {
-                main.insertAfter(fileName + " " + fileName.toLowerCase() + " = new " + fileName + "();" +
+                insertAfter(main, fileName + " " + fileName.toLowerCase() + " = new " + fileName + "();" +
                         "for(int xRuns = 0; xRuns < " + xRuns + "; xRuns++) {" + fileName.toLowerCase() + ".run();" +
                         "}" +
                         fileName.toLowerCase() + ".computeHash();");
@@ -0,0 +1,90 @@
+package at.jku.ssw.java.bytecode.generator.generators;
+
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.sinks.ClassSink;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Batch generator that distributes the classes of a batch among a pool of
+ * worker threads.
+ * Each class is generated and written on a single worker thread, which
+ * keeps the generation-specific state (e.g. the registered types) confined
+ * to that thread.
+ */
+public class ParallelBatchGenerator extends BatchGenerator {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The number of worker threads.
+     */
+    private final int threads;
+
+    /**
+     * Creates a new parallel batch generator that uses one worker thread
+     * per available processor.
+     *
+     * @param controller The base controller for all generated classes
+     */
+    public ParallelBatchGenerator(GenerationController controller) {
+        this(controller, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new parallel batch generator.
+     *
+     * @param controller The base controller for all generated classes
+     * @param threads    The number of worker threads
+     */
+    public ParallelBatchGenerator(GenerationController controller, int threads) {
+        super(controller);
+        assert threads > 0 : "Number of threads must be positive";
+        this.threads = threads;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The classes are generated concurrently. If the generation of any
+     * class fails, all pending generations are cancelled and the failure
+     * is propagated.
+     */
+    @Override
+    public void generate(ClassSink sink) {
+        final int count = getController().getCount();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<?>> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final int index = i;
+                results.add(executor.submit(() -> generate(index, sink)));
+            }
+
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new AssertionError(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logger.info("Generated {} classes using {} threads", count, threads);
+    }
+}
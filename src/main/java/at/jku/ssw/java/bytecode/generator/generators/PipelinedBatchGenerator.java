@@ -0,0 +1,166 @@
+package at.jku.ssw.java.bytecode.generator.generators;
+
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.sinks.ClassSink;
+import at.jku.ssw.java.bytecode.generator.utils.Stages;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Batch generator that splits the generation of each class into a
+ * pipeline of three stages:
+ * <ol>
+ * <li>generate: generates the class (on one of the generation threads,
+ * which keeps the registered types confined to that thread)</li>
+ * <li>finalize: rebuilds the stack maps and serializes the class file</li>
+ * <li>persist: writes the class file to the sink (on a dedicated pool of
+ * I/O threads)</li>
+ * </ol>
+ * The stages hand the classes over via bounded queues. A stage that
+ * falls behind (e.g. because of a slow disk) therefore throttles the
+ * preceding stages instead of accumulating generated classes in memory.
+ * The latencies and queue depths of each stage are collected in
+ * {@link StageStatistics} and logged when the batch is complete.
+ */
+public class PipelinedBatchGenerator extends BatchGenerator {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The number of generation (and finalization) threads.
+     */
+    private final int threads;
+
+    /**
+     * The number of I/O threads.
+     */
+    private final int ioThreads;
+
+    private final StageStatistics generation = new StageStatistics("generate");
+    private final StageStatistics finalization = new StageStatistics("finalize");
+    private final StageStatistics persistence = new StageStatistics("persist");
+
+    /**
+     * Creates a new pipelined batch generator.
+     *
+     * @param controller The base controller for all generated classes
+     * @param threads    The number of generation threads (the same number
+     *                   of threads finalizes the class files)
+     * @param ioThreads  The number of threads that write the class files
+     */
+    public PipelinedBatchGenerator(GenerationController controller, int threads, int ioThreads) {
+        super(controller);
+        assert threads > 0 : "Number of threads must be positive";
+        assert ioThreads > 0 : "Number of I/O threads must be positive";
+        this.threads = threads;
+        this.ioThreads = ioThreads;
+    }
+
+    /**
+     * Returns the statistics of all stages (in pipeline order).
+     *
+     * @return the statistics of the generate, finalize and persist stages
+     */
+    public List<StageStatistics> statistics() {
+        return Arrays.asList(generation, finalization, persistence);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The classes pass through the stages concurrently. As soon as any
+     * class fails, no further classes are submitted, all pending tasks
+     * are cancelled and the first failure is propagated.
+     */
+    @Override
+    public void generate(ClassSink sink) {
+        final int count = getController().getCount();
+
+        ThreadPoolExecutor generators = Stages.bounded("generate", threads);
+        ThreadPoolExecutor finalizers = Stages.bounded("finalize", threads);
+        ThreadPoolExecutor writers = Stages.bounded("persist", ioThreads);
+
+        // completed with the first failure of any class
+        final CompletableFuture<Void> failure = new CompletableFuture<>();
+        final AtomicBoolean failed = new AtomicBoolean();
+
+        try {
+            List<CompletableFuture<Void>> results = new ArrayList<>(count);
+            for (int i = 0; i < count && !failed.get(); i++) {
+                final int index = i;
+
+                results.add(
+                        generation.submit(generators, () -> generateClass(index))
+                                .thenCompose(g -> finalization.submit(finalizers, () -> finalizeClass(g))
+                                        .thenCompose(bytes -> persistence.submit(writers, () -> write(sink, index, g, bytes))))
+                                .whenComplete((v, t) -> {
+                                    if (t != null && failed.compareAndSet(false, true))
+                                        failure.completeExceptionally(t);
+                                })
+                );
+            }
+
+            CompletableFuture.anyOf(
+                    CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])),
+                    failure
+            ).join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new AssertionError(cause);
+        } finally {
+            Stream.of(generators, finalizers, writers).forEach(ExecutorService::shutdownNow);
+        }
+
+        logger.info("Generated {} classes using {} threads and {} I/O threads", count, threads, ioThreads);
+        statistics().forEach(s -> logger.info("Stage {}", s));
+    }
+
+    /**
+     * Generates the class with the given index.
+     * The class pool of the generator is kept until the class file is
+     * finalized, whereas the types are released right away, as they are
+     * bound to the generating thread.
+     */
+    private RandomCodeGenerator generateClass(int index) {
+        RandomCodeGenerator generator = generator(index);
+        try {
+            generator.generate();
+        } catch (RuntimeException | Error e) {
+            generator.release();
+            throw e;
+        }
+        generator.releaseTypes();
+        return generator;
+    }
+
+    private static byte[] finalizeClass(RandomCodeGenerator generator) {
+        try {
+            return generator.toBytecode();
+        } finally {
+            generator.releaseClassPool();
+        }
+    }
+
+    /**
+     * Writes the finalized class file to the sink (the class pool of the
+     * generator is already released at this point).
+     */
+    private Void write(ClassSink sink, int index, RandomCodeGenerator generator, byte[] bytes) {
+        generator.writeTo(sink, bytes);
+        record(index, generator);
+        return null;
+    }
+}
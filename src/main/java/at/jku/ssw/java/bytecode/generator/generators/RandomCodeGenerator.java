@@ -1,11 +1,17 @@
 package at.jku.ssw.java.bytecode.generator.generators;
 
 import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.events.GenerationEvents.Span;
 import at.jku.ssw.java.bytecode.generator.exceptions.CompilationFailedException;
 import at.jku.ssw.java.bytecode.generator.logger.ClazzLogger;
 import at.jku.ssw.java.bytecode.generator.logger.MethodLogger;
+import at.jku.ssw.java.bytecode.generator.sinks.ClassSink;
+import at.jku.ssw.java.bytecode.generator.timing.Phase;
+import at.jku.ssw.java.bytecode.generator.timing.PhaseTimer;
 import at.jku.ssw.java.bytecode.generator.types.TypeCache;
+import at.jku.ssw.java.bytecode.generator.utils.ClassPoolProvider;
 import at.jku.ssw.java.bytecode.generator.utils.ClazzFileContainer;
+import at.jku.ssw.java.bytecode.generator.utils.CompileFailures;
 import at.jku.ssw.java.bytecode.generator.utils.Randomizer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -14,6 +20,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Random;
 
+import static at.jku.ssw.java.bytecode.generator.events.GenerationEvents.EVENTS;
 import static at.jku.ssw.java.bytecode.generator.generators.RandomCodeGenerator.Context.CONTROL_CONTEXT;
 import static at.jku.ssw.java.bytecode.generator.generators.RandomCodeGenerator.Context.METHOD_CONTEXT;
 import static at.jku.ssw.java.bytecode.generator.utils.Operator.OpStatKind;
@@ -27,14 +34,7 @@ public class RandomCodeGenerator {
     enum Context {
         PROGRAM_CONTEXT,
         METHOD_CONTEXT,
-        CONTROL_CONTEXT;
-
-        private int lengthWeighting;
-        private MethodLogger<?> contextMethod;
-
-        public void setContextMethod(MethodLogger<?> contextMethod) {
-            this.contextMethod = contextMethod;
-        }
+        CONTROL_CONTEXT
     }
 
     private final GenerationController controller;
@@ -47,6 +47,7 @@ public class RandomCodeGenerator {
     private final TypeCastGenerator typeCastGenerator;
     private final ControlFlowGenerator controlFlowGenerator;
     private final ArrayAccessGenerator arrayAccessGenerator;
+    private final Randomizer randomizer;
     private final int maxOpProbability;
 
     /**
@@ -60,8 +61,18 @@ public class RandomCodeGenerator {
      */
     private final int seed;
 
+    /**
+     * The provider of this generation's class pool.
+     */
+    private final ClassPoolProvider classPoolProvider;
+
     public RandomCodeGenerator(String fileName, GenerationController controller) {
+        this(fileName, controller, ClassPoolProvider.SHARED);
+    }
+
+    public RandomCodeGenerator(String fileName, GenerationController controller, ClassPoolProvider classPoolProvider) {
         this.controller = controller;
+        this.classPoolProvider = classPoolProvider;
 
         this.seed = controller.getSeedValue();
 
@@ -73,7 +84,7 @@ public class RandomCodeGenerator {
 
         this.rand = new Random(seed);
 
-        ClazzFileContainer container = new ClazzFileContainer(rand, controller, fileName);
+        ClazzFileContainer container = new ClazzFileContainer(rand, controller, fileName, classPoolProvider.acquire());
         maxOpProbability = Collections.max(Arrays.asList(controller.getBitwiseProbability(),
                 controller.getArithmeticBitwiseProbability(),
                 controller.getArithmeticLogicalBitwiseProbability(),
@@ -87,12 +98,11 @@ public class RandomCodeGenerator {
         this.typeCastGenerator = new TypeCastGenerator(rand, this);
         this.controlFlowGenerator = new ControlFlowGenerator(rand, this, mathGenerator);
         this.arrayAccessGenerator = new ArrayAccessGenerator(rand, container);
+        this.randomizer = new Randomizer(rand);
 
         this.methodGenerator.generateRunMethod();
-        Context.PROGRAM_CONTEXT.lengthWeighting = controller.getProgramLengthWeighting();
-        Context.PROGRAM_CONTEXT.contextMethod = getClazzLogger().run();
-        METHOD_CONTEXT.lengthWeighting = controller.getMethodLengthWeighting();
-        CONTROL_CONTEXT.lengthWeighting = controller.getControlLengthWeighting();
+        if (controller.checksumOnly())
+            this.fieldVarGenerator.generateChecksumField();
     }
 
     public GenerationController getController() {
@@ -109,15 +119,21 @@ public class RandomCodeGenerator {
     }
 
     public void generate() {
+        final Span span = EVENTS.beginClass();
         try {
             // generate code in run()-method
-            generate(Context.PROGRAM_CONTEXT);
+            generate(Context.PROGRAM_CONTEXT, getClazzLogger().run());
+            methodGenerator.compileMethodBody(getClazzLogger().run());
             // generate method bodies for pre-registerd methods
             getClazzLogger().methods()
                     .forEach(methodGenerator::generateMethodBody);
             // compute HashValue of all globals
             this.methodGenerator.generateHashMethod();
             this.methodGenerator.callRunAndHashMethods(controller.executeRunXTimes());
+
+            if (getFailures().total() > 0)
+                logger.warn("Rolled back {} statements of class {}: {}",
+                        getFailures().total(), getClazzFileContainer().getFileName(), getFailures());
         } catch (CompilationFailedException e) {
             logger.fatal("Could not finish generation of class {} due to compilation errors", getClazzFileContainer().getFileName());
             logger.fatal("The seed that was used to initialize the random generator was {}", seed);
@@ -126,15 +142,62 @@ public class RandomCodeGenerator {
             logger.fatal("--------------------------------------------------------");
             e.printStackTrace();
             throw e;
+        } finally {
+            EVENTS.endClass(span, getClazzFileContainer().getFileName(), seed);
+        }
+    }
+
+    /**
+     * Determines the length weighting for the given context.
+     *
+     * @param context The generation context
+     * @return the configured length weighting for the context
+     */
+    private int lengthWeighting(Context context) {
+        switch (context) {
+            case METHOD_CONTEXT:
+                return controller.getMethodLengthWeighting();
+            case CONTROL_CONTEXT:
+                return controller.getControlLengthWeighting();
+            default:
+                return controller.getProgramLengthWeighting();
         }
     }
 
-    void generate(Context context) {
+    /**
+     * Generates random code for the given context.
+     * The generation is timed as the phase that corresponds to the context.
+     *
+     * @param context       The generation context
+     * @param contextMethod The method that the generated code is placed in
+     */
+    void generate(Context context, MethodLogger<?> contextMethod) {
+        final PhaseTimer timer = getTimer();
+        final long start = timer.start();
+        try {
+            generateCode(context, contextMethod);
+        } finally {
+            timer.stop(phase(context), start);
+        }
+    }
+
+    private static Phase phase(Context context) {
+        switch (context) {
+            case METHOD_CONTEXT:
+                return Phase.GENERATE_METHOD;
+            case CONTROL_CONTEXT:
+                return Phase.GENERATE_CONTROL;
+            default:
+                return Phase.GENERATE_PROGRAM;
+        }
+    }
+
+    private void generateCode(Context context, MethodLogger<?> contextMethod) {
         int l;
         if (context == CONTROL_CONTEXT || context == METHOD_CONTEXT) {
-            l = rand.nextInt(context.lengthWeighting + 1);
+            l = rand.nextInt(lengthWeighting(context) + 1);
         } else {
-            l = context.lengthWeighting;
+            l = lengthWeighting(context);
         }
         for (int i = 0; i < l; i++) {
             int r = 1 + rand.nextInt(100);
@@ -144,7 +207,7 @@ public class RandomCodeGenerator {
             }
 
             if (r <= controller.getLocalVariableProbability() && context != CONTROL_CONTEXT) {
-                fieldVarGenerator.generateLocalVariable(context.contextMethod);
+                fieldVarGenerator.generateLocalVariable(contextMethod);
             }
 
             if (r <= controller.getGlobalAssignProbability()) {
@@ -153,23 +216,23 @@ public class RandomCodeGenerator {
                 switch (assignKind) {
                     case 0: //set field to RANDOM value
                         if (context == CONTROL_CONTEXT) {
-                            src = fieldVarGenerator.srcSetFieldValue(context.contextMethod);
+                            src = fieldVarGenerator.srcSetFieldValue(contextMethod);
                         } else {
-                            fieldVarGenerator.setFieldValue(context.contextMethod);
+                            fieldVarGenerator.setFieldValue(contextMethod);
                         }
                         break;
                     case 1: //assign field to field
                         if (context == CONTROL_CONTEXT) {
-                            src = fieldVarGenerator.srcAssignFieldToField(context.contextMethod);
+                            src = fieldVarGenerator.srcAssignFieldToField(contextMethod);
                         } else {
-                            fieldVarGenerator.assignFieldToField(context.contextMethod);
+                            fieldVarGenerator.assignFieldToField(contextMethod);
                         }
                         break;
                     case 2: // assign local var to field
                         if (context == CONTROL_CONTEXT) {
-                            src = fieldVarGenerator.srcAssignLocalVarToField(context.contextMethod);
+                            src = fieldVarGenerator.srcAssignLocalVarToField(contextMethod);
                         } else {
-                            fieldVarGenerator.assignLocalVarToField(context.contextMethod);
+                            fieldVarGenerator.assignLocalVarToField(contextMethod);
                         }
                         break;
 
@@ -180,11 +243,11 @@ public class RandomCodeGenerator {
             }
 
             if (context != CONTROL_CONTEXT && r <= controller.getArrayAccessProbability()) {
-                new Randomizer(rand).oneOf(
-                        () -> arrayAccessGenerator.srcGenerateArrayReadAccess(context.contextMethod),
-                        () -> arrayAccessGenerator.srcGenerateArrayWriteAccess(context.contextMethod))
+                randomizer.oneOf(
+                        () -> arrayAccessGenerator.srcGenerateArrayReadAccess(contextMethod),
+                        () -> arrayAccessGenerator.srcGenerateArrayWriteAccess(contextMethod))
                         .ifPresent(src ->
-                                arrayAccessGenerator.insertIntoMethodBody(context.contextMethod, src));//, Arrays.asList(ArrayIndexOutOfBoundsException.class, NullPointerException.class)));
+                                arrayAccessGenerator.insertIntoMethodBody(contextMethod, src));//, Arrays.asList(ArrayIndexOutOfBoundsException.class, NullPointerException.class)));
             }
 
             if (r <= controller.getLocalAssignProbability() && context != CONTROL_CONTEXT) {
@@ -193,23 +256,23 @@ public class RandomCodeGenerator {
                 switch (assignKind) {
                     case 0: //set local variable to RANDOM value
                         if (context == CONTROL_CONTEXT) {
-                            src = fieldVarGenerator.srcSetLocalVarValue(context.contextMethod);
+                            src = fieldVarGenerator.srcSetLocalVarValue(contextMethod);
                         } else {
-                            fieldVarGenerator.setLocalVarValue(context.contextMethod);
+                            fieldVarGenerator.setLocalVarValue(contextMethod);
                         }
                         break;
                     case 1: //assign local variable to local variable
                         if (context == CONTROL_CONTEXT) {
-                            src = fieldVarGenerator.srcAssignLocalVarToLocalVar(context.contextMethod);
+                            src = fieldVarGenerator.srcAssignLocalVarToLocalVar(contextMethod);
                         } else {
-                            fieldVarGenerator.assignLocalVarToLocalVar(context.contextMethod);
+                            fieldVarGenerator.assignLocalVarToLocalVar(contextMethod);
                         }
                         break;
                     case 2: // assign field to local variable
                         if (context == CONTROL_CONTEXT) {
-                            src = fieldVarGenerator.srcAssignFieldToLocalVar(context.contextMethod);
+                            src = fieldVarGenerator.srcAssignFieldToLocalVar(contextMethod);
                         } else {
-                            fieldVarGenerator.assignFieldToLocalVar(context.contextMethod);
+                            fieldVarGenerator.assignFieldToLocalVar(contextMethod);
                         }
                         break;
                 }
@@ -232,23 +295,23 @@ public class RandomCodeGenerator {
                 switch (callKind) {
                     case 0: //call method
                         if (context == CONTROL_CONTEXT) {
-                            src = methodGenerator.srcGenerateMethodCall(context.contextMethod);
+                            src = methodGenerator.srcGenerateMethodCall(contextMethod);
                         } else {
-                            methodGenerator.generateMethodCall(context.contextMethod);
+                            methodGenerator.generateMethodCall(contextMethod);
                         }
                         break;
                     case 1: //assign return value of called method to field
                         if (context == CONTROL_CONTEXT && r <= controller.getGlobalAssignProbability())
-                            src = methodGenerator.srcSetFieldToReturnValue(context.contextMethod);
+                            src = methodGenerator.srcSetFieldToReturnValue(contextMethod);
                         else {
-                            methodGenerator.setFieldToReturnValue(context.contextMethod);
+                            methodGenerator.setFieldToReturnValue(contextMethod);
                         }
                         break;
                     case 2: //assign return value of called method to local variable
                         if (context == CONTROL_CONTEXT && r <= controller.getLocalAssignProbability()) {
-                            src = methodGenerator.srcSetLocalVarToReturnValue(context.contextMethod);
+                            src = methodGenerator.srcSetLocalVarToReturnValue(contextMethod);
                         } else {
-                            methodGenerator.setLocalVarToReturnValue(context.contextMethod);
+                            methodGenerator.setLocalVarToReturnValue(contextMethod);
                         }
                         break;
                 }
@@ -262,23 +325,23 @@ public class RandomCodeGenerator {
                 switch (callKind) {
                     case 0: //call method
                         if (context == CONTROL_CONTEXT) {
-                            src = mathGenerator.srcGenerateMathMethodCall(context.contextMethod);
+                            src = mathGenerator.srcGenerateMathMethodCall(contextMethod);
                         } else {
-                            mathGenerator.generateMathMethodCall(context.contextMethod);
+                            mathGenerator.generateMathMethodCall(contextMethod);
                         }
                         break;
                     case 1: //assign return value of called method to field
                         if (context == CONTROL_CONTEXT)
-                            src = mathGenerator.srcSetFieldToMathReturnValue(context.contextMethod);
+                            src = mathGenerator.srcSetFieldToMathReturnValue(contextMethod);
                         else {
-                            mathGenerator.setFieldToMathReturnValue(context.contextMethod);
+                            mathGenerator.setFieldToMathReturnValue(contextMethod);
                         }
                         break;
                     case 2: //assign return value of called method to local variable
                         if (context == CONTROL_CONTEXT) {
-                            src = mathGenerator.srcSetLocalVarToMathReturnValue(context.contextMethod);
+                            src = mathGenerator.srcSetLocalVarToMathReturnValue(contextMethod);
                         } else {
-                            mathGenerator.setLocalVarToMathReturnValue(context.contextMethod);
+                            mathGenerator.setLocalVarToMathReturnValue(contextMethod);
                         }
                         break;
                 }
@@ -290,9 +353,9 @@ public class RandomCodeGenerator {
             if (r <= controller.getPrintProbability()) {
                 String src = null;
                 if (context == CONTROL_CONTEXT) {
-                    src = fieldVarGenerator.srcGeneratePrintStatement(context.contextMethod);
+                    src = fieldVarGenerator.srcGeneratePrintStatement(contextMethod);
                 } else {
-                    fieldVarGenerator.generatePrintStatement(context.contextMethod);
+                    fieldVarGenerator.generatePrintStatement(contextMethod);
                 }
                 if (src != null) {
                     controlFlowGenerator.addCodeToControlSrc(src);
@@ -307,7 +370,7 @@ public class RandomCodeGenerator {
                     switch (controlKind) {
                         case 0:
                             if (ctrlTypeProb <= controller.getIfProbability()) {
-                                controlFlowGenerator.generateIfElseStatement(context.contextMethod);
+                                controlFlowGenerator.generateIfElseStatement(contextMethod);
                                 noStatementGenerated = false;
                             } else {
                                 controlKind = 1;
@@ -315,7 +378,7 @@ public class RandomCodeGenerator {
                             break;
                         case 1:
                             if (ctrlTypeProb <= controller.getWhileProbability()) {
-                                controlFlowGenerator.generateWhileStatement(context.contextMethod);
+                                controlFlowGenerator.generateWhileStatement(contextMethod);
                                 noStatementGenerated = false;
                             } else {
                                 controlKind = 2;
@@ -323,7 +386,7 @@ public class RandomCodeGenerator {
                             break;
                         case 2:
                             if (ctrlTypeProb <= controller.getDoWhileProbability()) {
-                                controlFlowGenerator.generateDoWhileStatement(context.contextMethod);
+                                controlFlowGenerator.generateDoWhileStatement(contextMethod);
                                 noStatementGenerated = false;
                             } else {
                                 controlKind = 3;
@@ -331,7 +394,7 @@ public class RandomCodeGenerator {
                             break;
                         case 3:
                             if (ctrlTypeProb <= controller.getForProbability()) {
-                                controlFlowGenerator.generateForStatement(context.contextMethod);
+                                controlFlowGenerator.generateForStatement(contextMethod);
                                 noStatementGenerated = false;
                             } else {
                                 controlKind = 0;
@@ -365,23 +428,23 @@ public class RandomCodeGenerator {
                 switch (globalOrLocalOrNotAssign) {
                     case 0:
                         if (context == CONTROL_CONTEXT) {
-                            src = mathGenerator.srcSetFieldToOperatorStatement(context.contextMethod, maxOperations, opStatKind);
+                            src = mathGenerator.srcSetFieldToOperatorStatement(contextMethod, maxOperations, opStatKind);
                         } else {
-                            mathGenerator.setFieldToOperatorStatement(context.contextMethod, maxOperations, opStatKind);
+                            mathGenerator.setFieldToOperatorStatement(contextMethod, maxOperations, opStatKind);
                         }
                         break;
                     case 1:
                         if (context == CONTROL_CONTEXT) {
-                            src = mathGenerator.srcSetLocalVarToOperatorStatement(context.contextMethod, maxOperations, opStatKind);
+                            src = mathGenerator.srcSetLocalVarToOperatorStatement(contextMethod, maxOperations, opStatKind);
                         } else {
-                            mathGenerator.setLocalVarToOperatorStatement(context.contextMethod, maxOperations, opStatKind);
+                            mathGenerator.setLocalVarToOperatorStatement(contextMethod, maxOperations, opStatKind);
                         }
                         break;
                     case 2:
                         if (context == CONTROL_CONTEXT) {
-                            src = mathGenerator.srcGenerateOperatorStatement(context.contextMethod, maxOperations, opStatKind);
+                            src = mathGenerator.srcGenerateOperatorStatement(contextMethod, maxOperations, opStatKind);
                         } else {
-                            mathGenerator.generateOperatorStatement(context.contextMethod, maxOperations, opStatKind);
+                            mathGenerator.generateOperatorStatement(contextMethod, maxOperations, opStatKind);
                         }
                 }
                 if (src != null) {
@@ -390,16 +453,16 @@ public class RandomCodeGenerator {
             }
 
             if (r <= controller.getSnippetProbability())
-                snippetGenerator.generate(context.contextMethod);
+                snippetGenerator.generate(contextMethod);
 
             if (r <= controller.getTypeCastProbability())
-                typeCastGenerator.generatePrimitiveTypeCast(context.contextMethod);
+                typeCastGenerator.generatePrimitiveTypeCast(contextMethod);
 
             if (r <= controller.getBreakProbability())
                 controlFlowGenerator.insertBreak();
 
             if (r <= controller.getPreemptiveReturnProbability()) {
-                methodGenerator.insertReturn(context.contextMethod);
+                methodGenerator.insertReturn(contextMethod);
             }
         }
     }
@@ -471,8 +534,83 @@ public class RandomCodeGenerator {
         fieldVarGenerator.writeFile(directoryName);
     }
 
+    /**
+     * Writes the generated class to the given sink.
+     *
+     * @param sink The destination of the class file
+     */
+    public void writeTo(ClassSink sink) {
+        fieldVarGenerator.writeTo(sink);
+    }
+
+    /**
+     * Writes the given class file of the generated class to the given sink.
+     *
+     * @param sink  The destination of the class file
+     * @param bytes The class file (see {@link #toBytecode()})
+     */
+    void writeTo(ClassSink sink, byte[] bytes) {
+        fieldVarGenerator.writeTo(sink, bytes);
+    }
+
+    /**
+     * Returns the contents of the class file of the generated class
+     * without writing it anywhere.
+     *
+     * @return the class file
+     */
+    public byte[] toBytecode() {
+        return fieldVarGenerator.toBytecode();
+    }
+
     public int getSeed() {
         return seed;
     }
+
+    /**
+     * @return the timer that records the generation phases of this class
+     */
+    public PhaseTimer getTimer() {
+        return getClazzFileContainer().getTimer();
+    }
+
+    /**
+     * @return the statements of this class that were rolled back because
+     * they did not compile
+     */
+    public CompileFailures getFailures() {
+        return getClazzFileContainer().getFailures();
+    }
+
+    /**
+     * Releases all resources that are held for the generated class.
+     * Detaches the class from its class pool, returns the class pool to
+     * its provider and clears the type cache, which otherwise keep the class
+     * and its logger reachable.
+     * The generator must not be used after calling this method.
+     */
+    public void release() {
+        releaseTypes();
+        releaseClassPool();
+    }
+
+    /**
+     * Clears the type cache of the generating thread.
+     * Must be called on the thread that generated the class.
+     */
+    void releaseTypes() {
+        TypeCache.CACHE.invalidate();
+    }
+
+    /**
+     * Detaches the class from its class pool and returns the class pool
+     * to its provider. This may be called on a different thread than the
+     * generation (e.g. after the class file was finalized), as the class
+     * pool is exclusive to this generator.
+     */
+    void releaseClassPool() {
+        getClazzFileContainer().getClazzFile().detach();
+        classPoolProvider.release(getClazzFileContainer().getClassPool());
+    }
 }
 
@@ -34,6 +34,11 @@ public class SnippetGenerator extends Generator {
      */
     private final List<? extends Snippet> snippets;
 
+    /**
+     * Randomizer that selects the snippets.
+     */
+    private final Randomizer randomizer;
+
     /**
      * Instantiates the snippet generator and passes on the random instance
      * to get the seed and the code generator.
@@ -54,6 +59,8 @@ public class SnippetGenerator extends Generator {
                     }
                 })
                 .collect(Collectors.toList());
+
+        randomizer = new Randomizer(rand);
     }
 
     /**
@@ -62,14 +69,12 @@ public class SnippetGenerator extends Generator {
      * @param method The method to which the snippet is added
      */
     public void generate(MethodLogger<?> method) {
-        new Randomizer(rand)
-                .shuffle(snippets.stream())
-                .filter(s -> s.isPossible(method))
+        randomizer
+                .firstMatch(snippets, s -> s.isPossible(method))
                 .map(s -> s.generate(
                         getRandomSupplier(),
                         getClazzContainer(),
                         method))
-                .findFirst()
                 .ifPresent(src -> insertIntoMethodBody(method, src));
     }
 
@@ -0,0 +1,123 @@
+package at.jku.ssw.java.bytecode.generator.generators;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Collects the statistics of a single stage of the
+ * {@link PipelinedBatchGenerator}: the number of processed classes,
+ * the time the classes spent waiting in the queue of the stage and being
+ * processed by the stage, and the maximum depth of the queue.
+ */
+public final class StageStatistics {
+
+    /**
+     * The name of the stage.
+     */
+    public final String name;
+
+    private long count;
+    private long waitNanos;
+    private long maxWaitNanos;
+    private long busyNanos;
+    private long maxBusyNanos;
+    private int maxQueueDepth;
+
+    StageStatistics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Submits a task to the given stage and records its latencies.
+     * Submission blocks while the queue of the stage is full
+     * (see {@link at.jku.ssw.java.bytecode.generator.utils.Stages#bounded(String, int)}).
+     *
+     * @param stage The thread pool of the stage
+     * @param task  The task
+     * @param <T>   The type of the result
+     * @return the future result of the task
+     */
+    <T> CompletableFuture<T> submit(ThreadPoolExecutor stage, Supplier<T> task) {
+        final long submitted = System.nanoTime();
+
+        CompletableFuture<T> result = CompletableFuture.supplyAsync(() -> {
+            final long started = System.nanoTime();
+            try {
+                return task.get();
+            } finally {
+                record(started - submitted, System.nanoTime() - started);
+            }
+        }, stage);
+
+        queued(stage.getQueue().size());
+        return result;
+    }
+
+    private synchronized void record(long wait, long busy) {
+        count++;
+        waitNanos += wait;
+        maxWaitNanos = Math.max(maxWaitNanos, wait);
+        busyNanos += busy;
+        maxBusyNanos = Math.max(maxBusyNanos, busy);
+    }
+
+    private synchronized void queued(int depth) {
+        maxQueueDepth = Math.max(maxQueueDepth, depth);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the average time (in nanoseconds) that a class waited
+     * in the queue of this stage
+     */
+    public synchronized long getAverageWaitNanos() {
+        return count == 0 ? 0 : waitNanos / count;
+    }
+
+    public synchronized long getMaxWaitNanos() {
+        return maxWaitNanos;
+    }
+
+    /**
+     * @return the average time (in nanoseconds) that this stage spent
+     * processing a class
+     */
+    public synchronized long getAverageBusyNanos() {
+        return count == 0 ? 0 : busyNanos / count;
+    }
+
+    public synchronized long getMaxBusyNanos() {
+        return maxBusyNanos;
+    }
+
+    /**
+     * @return the maximum number of classes that were waiting in the
+     * queue of this stage at the same time
+     */
+    public synchronized int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(
+                "%s: %d classes, processing %.2f ms (max %.2f ms), waiting %.2f ms (max %.2f ms), max queue depth %d",
+                name,
+                count,
+                millis(getAverageBusyNanos()),
+                millis(maxBusyNanos),
+                millis(getAverageWaitNanos()),
+                millis(maxWaitNanos),
+                maxQueueDepth
+        );
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -33,7 +33,7 @@ public class TypeCastGenerator extends Generator {
                         v.getType().kind() != MetaType.Kind.VOID &&
                         v.getType().kind() != MetaType.Kind.ARRAY;
 
-        randomizer.shuffle(
+        randomizer.oneOf(
                 cl.getNonFinalVarsUsableInMethod(method)
                         .filter(isPrimitiveCastable)
                         .flatMap(dest ->
@@ -45,8 +45,7 @@ public class TypeCastGenerator extends Generator {
                                             dest.setInitialized();
                                             return Statement(assign(cast(v.access()).to(dest.getType().descriptor())).to(dest.access()));
                                         }))
-        ).findFirst()
-                .map(Supplier::get)
+        ).map(Supplier::get)
                 .ifPresent(statement -> insertIntoMethodBody(method, statement));
 
     }
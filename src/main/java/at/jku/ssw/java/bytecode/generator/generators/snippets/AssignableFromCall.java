@@ -21,7 +21,7 @@ public class AssignableFromCall implements Snippet {
     }
 
     @Override
-    public String generate(RandomSupplier randomSupplier, ClazzFileContainer __, MethodLogger ___) {
+    public String generate(RandomSupplier randomSupplier, ClazzFileContainer container, MethodLogger __) {
         MetaType<?> t1 = randomSupplier.type();
         MetaType<?> t2 = randomSupplier.types()
                 .filter(t -> !t.equals(t1))
@@ -29,6 +29,14 @@ public class AssignableFromCall implements Snippet {
                 .orElseThrow(ErrorUtils::shouldNotReachHere);
         String c1 = t1.descriptor();
         String c2 = t2.descriptor();
+        String check = String.format(
+                "%s.class.isAssignableFrom(%s.class)",
+                c1,
+                c2
+        );
+
+        if (container.checksumOnly())
+            return container.checksum(ternary(check, 1, 0));
 
         return Statement(
                 SystemOutPrintln(
@@ -39,11 +47,7 @@ public class AssignableFromCall implements Snippet {
                                                 c1,
                                                 c2)
                                 ),
-                                String.format(
-                                        "%s.class.isAssignableFrom(%s.class)",
-                                        c1,
-                                        c2
-                                )
+                                check
                         )
                 )
         );
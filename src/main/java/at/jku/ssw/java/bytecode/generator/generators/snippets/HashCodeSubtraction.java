@@ -13,15 +13,20 @@ public class HashCodeSubtraction implements Snippet {
     }
 
     @Override
-    public String generate(RandomSupplier __, ClazzFileContainer ___, MethodLogger ____) {
+    public String generate(RandomSupplier __, ClazzFileContainer container, MethodLogger ___) {
+        String difference = inPar(subtract(
+                call("hashCode"),
+                call("hashCode")
+        ));
+
+        if (container.checksumOnly())
+            return container.checksum(difference);
+
         return Statement(
                 SystemOutPrintln(
                         concat(
                                 asStr("hash difference = "),
-                                inPar(subtract(
-                                        call("hashCode"),
-                                        call("hashCode")
-                                ))
+                                difference
                         )
                 )
         );
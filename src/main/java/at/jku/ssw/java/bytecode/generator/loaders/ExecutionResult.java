@@ -0,0 +1,78 @@
+package at.jku.ssw.java.bytecode.generator.loaders;
+
+import java.util.stream.Stream;
+
+/**
+ * The outcome of executing a generated class in-process
+ * (see {@link InMemoryClassLoader#runMain(String, String...)}).
+ */
+public final class ExecutionResult {
+
+    /**
+     * The prefix of the line that the generated programs print last.
+     */
+    private static final String HASH_PREFIX = "#############   GLOBAL HASH:";
+
+    /**
+     * The name of the executed class.
+     */
+    public final String className;
+
+    /**
+     * Everything that was printed to the standard output.
+     */
+    public final String out;
+
+    /**
+     * Everything that was printed to the standard error.
+     */
+    public final String err;
+
+    /**
+     * The exception that terminated the execution or {@code null} if
+     * the main method completed normally.
+     */
+    public final Throwable exception;
+
+    public ExecutionResult(String className, String out, String err, Throwable exception) {
+        this.className = className;
+        this.out = out;
+        this.err = err;
+        this.exception = exception;
+    }
+
+    /**
+     * Checks whether the main method completed normally.
+     *
+     * @return {@code true} if no exception was thrown; {@code false}
+     * otherwise
+     */
+    public boolean completedNormally() {
+        return exception == null;
+    }
+
+    /**
+     * Returns the global hash line that the program printed before
+     * it terminated.
+     *
+     * @return the hash line or {@code null} if the program did not print it
+     * (e.g. because it was terminated by an exception)
+     */
+    public String hash() {
+        return hash(out);
+    }
+
+    /**
+     * Returns the last global hash line of the given program output.
+     *
+     * @param out The standard output of a generated program
+     * @return the hash line or {@code null} if the output does not
+     * contain it
+     */
+    public static String hash(String out) {
+        return Stream.of(out.split("\\R"))
+                .filter(l -> l.startsWith(HASH_PREFIX))
+                .reduce((a, b) -> b)
+                .orElse(null);
+    }
+}
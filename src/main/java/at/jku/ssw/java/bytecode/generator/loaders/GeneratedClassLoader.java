@@ -1,9 +1,13 @@
 package at.jku.ssw.java.bytecode.generator.loaders;
 
+import at.jku.ssw.java.bytecode.generator.corpus.Corpus;
+import at.jku.ssw.java.bytecode.generator.corpus.CorpusEntry;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.ProtectionDomain;
 
 /**
  * Custom class loader that allows for generated classes to be used
@@ -13,17 +17,66 @@ public class GeneratedClassLoader extends ClassLoader {
 
     private final String generationDirectory;
 
+    /**
+     * The corpus that contains the classes (if the classes are not
+     * loaded from the generation directory).
+     */
+    private final Corpus corpus;
+
     public GeneratedClassLoader(String generationDirectory) {
         this.generationDirectory = generationDirectory;
+        this.corpus = null;
+    }
+
+    /**
+     * Creates a class loader that defines the classes of the given corpus
+     * straight from the mapped corpus file.
+     *
+     * @param corpus The corpus that contains the classes
+     */
+    public GeneratedClassLoader(Corpus corpus) {
+        this.generationDirectory = null;
+        this.corpus = corpus;
     }
 
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException {
+        if (corpus != null) {
+            CorpusEntry entry = corpus.entry(name);
+            if (entry == null)
+                throw new ClassNotFoundException(String.format(
+                        "Generated class '%s' is not contained in the corpus",
+                        name
+                ));
+
+            return defineClass(name, corpus.payload(entry), (ProtectionDomain) null);
+        }
+
         byte[] b = loadGeneratedClassFile(name);
 
         return defineClass(name, b, 0, b.length);
     }
 
+    /**
+     * Invokes the {@code main} method of the given class in the current
+     * JVM and captures its output
+     * (see {@link InMemoryClassLoader#runMain(String, String...)}).
+     *
+     * @param className The binary name of the class
+     * @param args      The arguments that are passed to the main method
+     * @return the captured output and the exception that was thrown by
+     * the main method (if any)
+     * @throws ClassNotFoundException if the class is not available
+     * @throws NoSuchMethodException  if the class does not declare a
+     *                                main method
+     * @throws IllegalAccessException if the main method is not accessible
+     */
+    public ExecutionResult runMain(String className, String... args)
+            throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException {
+
+        return InMemoryClassLoader.runMain(this, className, args);
+    }
+
     private byte[] loadGeneratedClassFile(String name) throws ClassNotFoundException {
         final String classFileName = name + ".class";
         // assume that the class is in the generated directory
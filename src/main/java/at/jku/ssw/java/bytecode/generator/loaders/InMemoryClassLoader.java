@@ -0,0 +1,116 @@
+package at.jku.ssw.java.bytecode.generator.loaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class loader that defines generated classes directly from their class
+ * files in memory (e.g. as produced by
+ * {@link at.jku.ssw.java.bytecode.generator.generators.RandomCodeGenerator#toBytecode()}),
+ * which allows to execute generated classes without writing them to disk.
+ */
+public class InMemoryClassLoader extends ClassLoader {
+
+    /**
+     * Guards the redirection of the standard streams, which are shared
+     * by all threads of the JVM.
+     */
+    private static final Object OUTPUT_LOCK = new Object();
+
+    /**
+     * The class files by binary class name.
+     */
+    private final Map<String, byte[]> classes;
+
+    /**
+     * Creates a new class loader for the given class files.
+     *
+     * @param classes The class files by binary class name
+     */
+    public InMemoryClassLoader(Map<String, byte[]> classes) {
+        this.classes = new HashMap<>(classes);
+    }
+
+    /**
+     * Creates a new class loader for a single class.
+     *
+     * @param className The binary name of the class
+     * @param bytes     The class file
+     */
+    public InMemoryClassLoader(String className, byte[] bytes) {
+        this(Collections.singletonMap(className, bytes));
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        byte[] b = classes.get(name);
+
+        if (b == null)
+            throw new ClassNotFoundException(String.format(
+                    "Generated class '%s' is not available in memory",
+                    name
+            ));
+
+        return defineClass(name, b, 0, b.length);
+    }
+
+    /**
+     * Invokes the {@code main} method of the given class in the current
+     * JVM and captures everything that is printed to the standard output
+     * and error streams in the meantime.
+     * Since those streams are global, concurrent invocations are
+     * serialized and any output of other threads during the execution
+     * is captured as well.
+     *
+     * @param className The binary name of the class
+     * @param args      The arguments that are passed to the main method
+     * @return the captured output and the exception that was thrown by
+     * the main method (if any)
+     * @throws ClassNotFoundException if the class is not available
+     * @throws NoSuchMethodException  if the class does not declare a
+     *                                main method
+     * @throws IllegalAccessException if the main method is not accessible
+     */
+    public ExecutionResult runMain(String className, String... args)
+            throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException {
+
+        return runMain(this, className, args);
+    }
+
+    /**
+     * Invokes the {@code main} method of the given class of the given
+     * class loader (see {@link #runMain(String, String...)}).
+     */
+    static ExecutionResult runMain(ClassLoader loader, String className, String... args)
+            throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException {
+
+        Method main = loader.loadClass(className).getMethod("main", String[].class);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        Throwable thrown = null;
+
+        synchronized (OUTPUT_LOCK) {
+            PrintStream stdout = System.out;
+            PrintStream stderr = System.err;
+            try (PrintStream o = new PrintStream(out, true);
+                 PrintStream e = new PrintStream(err, true)) {
+                System.setOut(o);
+                System.setErr(e);
+                main.invoke(null, (Object) args);
+            } catch (InvocationTargetException e) {
+                thrown = e.getCause();
+            } finally {
+                System.setOut(stdout);
+                System.setErr(stderr);
+            }
+        }
+
+        return new ExecutionResult(className, out.toString(), err.toString(), thrown);
+    }
+}
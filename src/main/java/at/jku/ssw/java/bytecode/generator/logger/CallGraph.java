@@ -0,0 +1,90 @@
+package at.jku.ssw.java.bytecode.generator.logger;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Keeps track of the methods of a generated class that must not be
+ * called from within each other.
+ * Each registered method is assigned a consecutive identifier and the
+ * transitive closure of its exclusions is stored as a bit set over those
+ * identifiers. The closures are updated incrementally whenever a new
+ * exclusion is added, which turns the lookup of whether a method
+ * is excluded into a constant time operation.
+ */
+final class CallGraph {
+
+    /**
+     * The registered methods (indexed by their identifier).
+     */
+    private final List<MethodLogger<?>> methods = new ArrayList<>();
+
+    /**
+     * The transitive exclusions of each method (indexed by identifier).
+     * Each closure also contains the method itself.
+     */
+    private final List<BitSet> closures = new ArrayList<>();
+
+    /**
+     * Registers the given method and assigns it an identifier.
+     * Exclusions that were added before the registration are included.
+     *
+     * @param method The method to register
+     */
+    void add(MethodLogger<?> method) {
+        assert method.graph == null : "Method " + method + " is already registered";
+
+        method.graph = this;
+        method.id = methods.size();
+
+        BitSet closure = new BitSet();
+        closure.set(method.id);
+
+        methods.add(method);
+        closures.add(closure);
+
+        // replay exclusions that reference the new method
+        for (MethodLogger<?> m : methods)
+            if (m != method && m.exclusions().contains(method))
+                exclude(m, method);
+
+        for (MethodLogger<?> e : method.exclusions())
+            exclude(method, e);
+    }
+
+    /**
+     * Excludes the given method (and everything it excludes) from being
+     * called by the method and by all methods that already exclude it.
+     *
+     * @param method   The method that must not call the excluded method
+     * @param excluded The excluded method
+     */
+    void exclude(MethodLogger<?> method, MethodLogger<?> excluded) {
+        if (method.graph != this || excluded.graph != this)
+            return;
+
+        if (closures.get(method.id).get(excluded.id))
+            return;
+
+        BitSet added = closures.get(excluded.id);
+        for (BitSet closure : closures)
+            if (closure.get(method.id))
+                closure.or(added);
+    }
+
+    /**
+     * Checks whether the given method must not be called by the caller.
+     * Both methods must be registered in this graph.
+     *
+     * @param caller The calling method
+     * @param callee The called method
+     * @return {@code true} if the callee is transitively excluded by the
+     * caller; {@code false} otherwise
+     */
+    boolean isExcluded(MethodLogger<?> caller, MethodLogger<?> callee) {
+        assert caller.graph == this && callee.graph == this;
+
+        return closures.get(caller.id).get(callee.id);
+    }
+}
@@ -18,6 +18,7 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static at.jku.ssw.java.bytecode.generator.logger.VariableStore.*;
 import static at.jku.ssw.java.bytecode.generator.types.TypeCache.CACHE;
 import static at.jku.ssw.java.bytecode.generator.utils.StatementDSL.Conditions.notNull;
 import static at.jku.ssw.java.bytecode.generator.utils.StatementDSL.method;
@@ -51,6 +52,17 @@ public class ClazzLogger
      */
     private final List<MethodLogger<?>> methods;
 
+    /**
+     * The generated methods grouped by their return type.
+     */
+    private final Map<MetaType<?>, List<MethodLogger<?>>> methodsByReturnType;
+
+    /**
+     * The call graph that tracks which generated methods
+     * must not call each other.
+     */
+    private final CallGraph callGraph;
+
     /**
      * The main method.
      */
@@ -114,11 +126,16 @@ public class ClazzLogger
 
         this.fields = new ArrayList<>();
         this.methods = new ArrayList<>();
+        this.methodsByReturnType = new IdentityHashMap<>();
+        this.callGraph = new CallGraph();
         this.randomizer = new Randomizer(rand);
 
         // generate the main method
         this.main = MethodLogger.generateMainMethod(rand, this);
         this.run = MethodLogger.generateRunMethod(rand, this);
+
+        callGraph.add(main);
+        callGraph.add(run);
     }
 
     // endregion
@@ -220,6 +237,10 @@ public class ClazzLogger
      */
     public final <T> ClazzLogger register(MethodLogger<T> method) {
         methods.add(method);
+        methodsByReturnType
+                .computeIfAbsent(method.returns(), __ -> new ArrayList<>())
+                .add(method);
+        callGraph.add(method);
         return this;
     }
 
@@ -326,66 +347,54 @@ public class ClazzLogger
     //-------------------------------------------------------------------------
     // region Random field access
 
+    /**
+     * Returns the flags that fields must have to be usable
+     * in the given method.
+     *
+     * @param method The method that accesses the field
+     * @return {@link VariableStore#STATIC} for static methods,
+     * no flags otherwise
+     */
+    private static int fieldFlags(MethodLogger<?> method) {
+        return method.isStatic() ? STATIC : NONE;
+    }
+
     public FieldVarLogger<?> getNonFinalFieldUsableInMethod(MethodLogger<?> method) {
-        if (method.isStatic())
-            return getVariableWithPredicate(v -> v.isStatic() && !v.isFinal());
-        else
-            return getVariableWithPredicate(v -> !v.isFinal());
+        return getVariableWithFlags(fieldFlags(method), FINAL);
     }
 
     @SuppressWarnings("unchecked")
     public <T> FieldVarLogger<? extends T> getNonFinalCompatibleFieldUsableInMethod(MethodLogger<?> method, MetaType<T> type) {
-        if (method.isStatic())
-            return (FieldVarLogger<T>) getVariableWithPredicate(v ->
-                    v.isStatic() && !v.isFinal() &&
-                            type.isAssignableFrom(v.getType()));
-        else
-            return (FieldVarLogger<T>) getVariableWithPredicate(v ->
-                    !v.isFinal() && type.isAssignableFrom(v.getType()));
+        return (FieldVarLogger<? extends T>) getVariableAssignableTo(type, fieldFlags(method), FINAL);
     }
 
     @SuppressWarnings("unchecked")
     public <T> FieldVarLogger<? extends T> getNonFinalInitializedCompatibleFieldUsableInMethod(MethodLogger<?> method, MetaType<T> type) {
-        if (method.isStatic())
-            return (FieldVarLogger<? extends T>) getVariableWithPredicate(v ->
-                    v.isStatic() && v.isInitialized() && !v.isFinal() &&
-                            type.isAssignableFrom(v.getType()));
-        else
-            return (FieldVarLogger<? extends T>) getVariableWithPredicate(v ->
-                    !v.isFinal() && v.isInitialized() &&
-                            type.isAssignableFrom(v.getType()));
+        return (FieldVarLogger<? extends T>) getVariableAssignableTo(type, fieldFlags(method) | INITIALIZED, FINAL);
     }
 
     @SuppressWarnings("unchecked")
     public <T> FieldVarLogger<? extends T> getInitializedLocalVarOfType(MethodLogger<?> method, MetaType<T> type) {
-        return (FieldVarLogger<? extends T>) method.getVariableWithPredicate(v ->
-                v.isInitialized() && v.getType() == type);
+        return (FieldVarLogger<? extends T>) method.getVariableOfType(type, INITIALIZED, NONE);
     }
 
     @SuppressWarnings("unchecked")
     public <T> FieldVarLogger<? extends T> getInitializedCompatibleLocalVar(MethodLogger<?> method, MetaType<T> type) {
-        return (FieldVarLogger<? extends T>) method.getVariableWithPredicate(v ->
-                v.isInitialized() && type.isAssignableFrom(v.getType()));
+        return (FieldVarLogger<? extends T>) method.getVariableAssignableTo(type, INITIALIZED, NONE);
     }
 
     public FieldVarLogger<?> getNonFinalLocalVar(MethodLogger<?> method) {
-        return method.getVariableWithPredicate(v -> !v.isFinal());
+        return method.getVariableWithFlags(NONE, FINAL);
     }
 
     @SuppressWarnings("unchecked")
     public <T> FieldVarLogger<? extends T> getNonFinalCompatibleLocalVar(MethodLogger<?> method, MetaType<T> type) {
-        return (FieldVarLogger<? extends T>) method.getVariableWithPredicate(v ->
-                !v.isFinal() && type.isAssignableFrom(v.getType()));
+        return (FieldVarLogger<? extends T>) method.getVariableAssignableTo(type, NONE, FINAL);
     }
 
     @SuppressWarnings("unchecked")
     public <T> FieldVarLogger<? extends T> getInitializedFieldOfTypeUsableInMethod(MethodLogger<?> method, MetaType<T> type) {
-        if (method.isStatic())
-            return (FieldVarLogger<? extends T>) getVariableWithPredicate(v ->
-                    v.isInitialized() && v.isStatic() && v.getType() == type);
-        else
-            return (FieldVarLogger<? extends T>) getVariableWithPredicate(v ->
-                    v.isInitialized() && v.getType() == type);
+        return (FieldVarLogger<? extends T>) getVariableOfType(type, fieldFlags(method) | INITIALIZED, NONE);
     }
 
     public <T> FieldVarLogger<? extends T> getGlobalOrLocalVarInitializedOfTypeUsableInMethod(MethodLogger<?> method, MetaType<T> type) {
@@ -413,62 +422,24 @@ public class ClazzLogger
 
     @SuppressWarnings("unchecked")
     public <T> FieldVarLogger<? extends T> getNonFinalFieldOfTypeUsableInMethod(MethodLogger<?> method, MetaType<T> type) {
-        if (method.isStatic())
-            return (FieldVarLogger<? extends T>) getVariableWithPredicate(v ->
-                    v.isStatic() && !v.isFinal() && v.getType() == type);
-        else
-            return (FieldVarLogger<? extends T>) getVariableWithPredicate(v ->
-                    !v.isFinal() && v.getType() == type);
+        return (FieldVarLogger<? extends T>) getVariableOfType(type, fieldFlags(method), FINAL);
     }
 
     @SuppressWarnings("unchecked")
     public <T> FieldVarLogger<? extends T> getNonFinalLocalVarOfType(MethodLogger<?> method, MetaType<T> type) {
-        return (FieldVarLogger<? extends T>) method.getVariableWithPredicate(v ->
-                !v.isFinal() && v.getType() == type);
+        return (FieldVarLogger<? extends T>) method.getVariableOfType(type, NONE, FINAL);
     }
 
     // endregion
     //-------------------------------------------------------------------------
     // region Random method access
 
-    /**
-     * Gets all methods that are available to this type
-     * (e.g. all standard library methods, generated methods etc).
-     *
-     * @return a stream of all {@link MethodBuilder}s that are available
-     * in this scope
-     */
-    public final Stream<? extends MethodBuilder<?>> allMethods() {
-        return CACHE.refTypes()
-                .map(RefType::methods)
-                .flatMap(List::stream);
-    }
-
-
     public List<MethodLogger<?>> getOverloadedMethods(String name) {
         return methods.stream()
                 .filter(m -> m.name().equals(name))
                 .collect(Collectors.toList());
     }
 
-    /**
-     * Selects an arbitrary method of all available generated methods
-     * and library methods defined for standard types.
-     *
-     * @param filter An optional filter to preselect applicable methods
-     * @return a randomly picked method that is available for this class
-     */
-    public Optional<? extends MethodBuilder<?>> randomMethod(Predicate<? super MethodBuilder<?>> filter) {
-        return randomizer.oneOf(allMethods().filter(filter));
-    }
-
-    /**
-     * @see #randomMethod(Predicate)
-     */
-    public Optional<? extends MethodBuilder<?>> randomMethod() {
-        return randomizer.oneOf(allMethods());
-    }
-
     /**
      * Selects one of the generated methods of this class and returns it.
      *
@@ -477,7 +448,7 @@ public class ClazzLogger
      * if no methods are generated yet
      */
     public final Optional<? extends MethodLogger<?>> randomGeneratedMethod(Predicate<? super MethodBuilder<?>> filter) {
-        return randomizer.oneOf(methods.stream().filter(filter));
+        return randomizer.oneOf(methods, filter);
     }
 
     /**
@@ -490,39 +461,40 @@ public class ClazzLogger
     /**
      * Returns a randomly selected method that is callable from within the
      * given method.
+     * Only generated methods are considered, as the generated calls
+     * are always invoked on this class or the current instance.
      *
      * @return a method that is callable from within this class
      * or nothing if no methods can be found
      */
     public final Optional<? extends MethodBuilder<?>> randomCallableMethod(MethodLogger<?> caller) {
-        return randomizer.oneOf(callableMethods(caller));
+        return Optional.ofNullable(randomCallableMethod(caller, methods));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> MethodLogger<T> getRandomCallableMethodOfType(MethodLogger<?> callingMethod, MetaType<T> metaType) {
+        return (MethodLogger<T>) randomCallableMethod(
+                callingMethod,
+                methodsByReturnType.getOrDefault(metaType, Collections.emptyList()));
     }
 
     /**
-     * Returns all methods that are callable withing the given calling method
-     * (e.g. only static methods for static calls, preventing recursions).
+     * Selects one of the given generated methods that is callable within
+     * the given calling method (e.g. only static methods for static calls,
+     * preventing recursions).
      *
-     * @param caller The calling method
-     * @return a stream of {@link MethodBuilder}s which are callable
-     * from within the given method
-     */
-    private Stream<? extends MethodBuilder<?>> callableMethods(MethodLogger<?> caller) {
-        Set<? extends Builder<?>> exclusions = caller.allExclusions();
-
-        return allMethods()
+     * @param caller     The calling method
+     * @param candidates The candidates
+     * @return a randomly selected method or {@code null}
+     * if no method is callable
+     */
+    private MethodLogger<?> randomCallableMethod(MethodLogger<?> caller,
+                                                 List<? extends MethodLogger<?>> candidates) {
+        return randomizer.oneOf(candidates, m ->
                 // if caller is static, exclude non-static methods
-                // otherwise consider all
-                .filter(m -> !caller.isStatic() || m.isStatic())
-                // if called method is generated, check if it is excluded
-                .filter(m -> !(m instanceof MethodLogger) || !exclusions.contains(m));
-    }
-
-    @SuppressWarnings("unchecked")
-    public <T> MethodLogger<T> getRandomCallableMethodOfType(MethodLogger<?> callingMethod, MetaType<T> metaType) {
-        return (MethodLogger<T>) randomizer
-                .oneOf(callableMethods(callingMethod)
-                        .filter(m -> m.returns() == metaType))
-                .orElse(null);
+                // and check if the called method is excluded
+                (!caller.isStatic() || m.isStatic()) && !caller.isExcluded(m)
+        ).orElse(null);
     }
 
     // endregion
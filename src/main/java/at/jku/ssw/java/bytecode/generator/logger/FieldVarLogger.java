@@ -15,6 +15,14 @@ public class FieldVarLogger<T> implements Expression<T> {
     public final boolean isField;
     public final String clazz;
 
+    /**
+     * The store that indexes this variable (if any) as well as
+     * the state and positions within it.
+     */
+    VariableStore store;
+    int state;
+    final int[] positions = new int[2];
+
     public FieldVarLogger(String name, String clazz, int modifiers, MetaType<T> type, boolean initialized, boolean isField) {
         this.type = type;
         this.name = name;
@@ -45,7 +53,12 @@ public class FieldVarLogger<T> implements Expression<T> {
     }
 
     public void setInitialized() {
+        if (initialized)
+            return;
+
         this.initialized = true;
+        if (store != null)
+            store.update(this);
     }
 
     public int getModifiers() {
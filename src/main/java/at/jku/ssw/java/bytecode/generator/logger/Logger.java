@@ -2,9 +2,7 @@ package at.jku.ssw.java.bytecode.generator.logger;
 
 import at.jku.ssw.java.bytecode.generator.types.base.MetaType;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -29,7 +27,7 @@ abstract class Logger {
      */
     protected Logger(Random rand) {
         this.rand = rand;
-        this.variables = new HashMap<>();
+        this.variables = new VariableStore();
     }
 
     /**
@@ -39,11 +37,29 @@ abstract class Logger {
         this(null);
     }
 
-    private final Map<String, FieldVarLogger<?>> variables;
+    private final VariableStore variables;
 
     public <T> void logVariable(String name, String clazz, MetaType<T> type, int modifiers, boolean initialized, boolean isField) {
         FieldVarLogger<T> f = new FieldVarLogger<>(name, clazz, modifiers, type, initialized, isField);
-        variables.put(name, f);
+        variables.add(f);
+    }
+
+    /**
+     * Starts to record the variables of this scope that become initialized
+     * (see {@link #drainInitialized()}).
+     */
+    void recordInitialized() {
+        variables.recordInitialized();
+    }
+
+    /**
+     * Removes and returns the variables of this scope that were declared
+     * as initialized or became initialized since the last invocation.
+     *
+     * @return the initialized variables (in order)
+     */
+    List<FieldVarLogger<?>> drainInitialized() {
+        return variables.drainInitialized();
     }
 
     public boolean hasVariables() {
@@ -61,12 +77,52 @@ abstract class Logger {
         return predicateVars.get(rand.nextInt(predicateVars.size()));
     }
 
+    /**
+     * Selects a random variable by its flags
+     * (see {@link VariableStore#STATIC}, {@link VariableStore#FINAL}
+     * and {@link VariableStore#INITIALIZED}).
+     *
+     * @param required The flags that the variable must have
+     * @param excluded The flags that the variable must not have
+     * @return a random variable or {@code null} if none matches
+     */
+    public FieldVarLogger<?> getVariableWithFlags(int required, int excluded) {
+        return variables.random(rand, required, excluded);
+    }
+
+    /**
+     * Selects a random variable of exactly the given type by its flags.
+     *
+     * @param type     The type of the variable
+     * @param required The flags that the variable must have
+     * @param excluded The flags that the variable must not have
+     * @return a random variable or {@code null} if none matches
+     * @see #getVariableWithFlags(int, int)
+     */
+    public FieldVarLogger<?> getVariableOfType(MetaType<?> type, int required, int excluded) {
+        return variables.randomOfType(rand, type, required, excluded);
+    }
+
+    /**
+     * Selects a random variable that is assignable to the given type
+     * by its flags.
+     *
+     * @param type     The type that the variable is assigned to
+     * @param required The flags that the variable must have
+     * @param excluded The flags that the variable must not have
+     * @return a random variable or {@code null} if none matches
+     * @see #getVariableWithFlags(int, int)
+     */
+    public FieldVarLogger<?> getVariableAssignableTo(MetaType<?> type, int required, int excluded) {
+        return variables.randomAssignableTo(rand, type, required, excluded);
+    }
+
     public List<FieldVarLogger<?>> getVariablesWithPredicate(Predicate<FieldVarLogger<?>> predicate) {
-        return variables.values().stream().filter(
+        return variables.stream().filter(
                 predicate).collect(Collectors.toList());
     }
 
     public Stream<FieldVarLogger<?>> streamVariables() {
-        return variables.values().stream();
+        return variables.stream();
     }
 }
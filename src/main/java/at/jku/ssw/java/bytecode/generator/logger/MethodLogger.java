@@ -7,6 +7,7 @@ import at.jku.ssw.java.bytecode.generator.types.base.ArrayType;
 import at.jku.ssw.java.bytecode.generator.types.base.MetaType;
 import at.jku.ssw.java.bytecode.generator.types.base.RefType;
 import at.jku.ssw.java.bytecode.generator.types.specializations.StringType;
+import javassist.bytecode.Bytecode;
 
 import java.lang.reflect.Modifier;
 import java.util.*;
@@ -73,11 +74,24 @@ public class MethodLogger<T> extends Logger implements MethodBuilder<T> {
      */
     private final Set<MethodLogger<?>> exclusions;
 
+    /**
+     * The call graph that caches the transitive exclusions
+     * (if this method is registered) and the identifier within it.
+     */
+    CallGraph graph;
+    int id;
+
     /**
      * The method body.
      */
     private final List<Expression<?>> body;
 
+    /**
+     * Statements that are generated for this method but not yet
+     * compiled into the actual method body (in order).
+     */
+    private List<PendingStatement> pendingStatements;
+
     // endregion
     //-------------------------------------------------------------------------
     // region Initialization
@@ -107,6 +121,8 @@ public class MethodLogger<T> extends Logger implements MethodBuilder<T> {
         this.paramTypes = Arrays.asList(paramTypes);
         this.exclusions = new HashSet<>();
         this.body = new ArrayList<>();
+        this.pendingStatements = new ArrayList<>();
+        recordInitialized();
     }
 
     // endregion
@@ -222,7 +238,8 @@ public class MethodLogger<T> extends Logger implements MethodBuilder<T> {
      * @param generator The generator that is to be excluded
      */
     public void exclude(MethodLogger<?> generator) {
-        exclusions.add(generator);
+        if (exclusions.add(generator) && graph != null)
+            graph.exclude(this, generator);
     }
 
     /**
@@ -245,6 +262,22 @@ public class MethodLogger<T> extends Logger implements MethodBuilder<T> {
         return buildExclusions(new HashSet<>(Collections.singleton(this)));
     }
 
+    /**
+     * Checks whether the given method must not be called from within
+     * this builder. Uses the cached exclusions of the call graph if both
+     * methods are registered in the same class and falls back to
+     * {@link #allExclusions()} otherwise.
+     *
+     * @param method The method that is to be called
+     * @return {@code true} if the method is (transitively) excluded;
+     * {@code false} otherwise
+     */
+    public final boolean isExcluded(MethodLogger<?> method) {
+        return graph != null && method.graph == graph
+                ? graph.isExcluded(this, method)
+                : allExclusions().contains(method);
+    }
+
     /**
      * Mutates the given set of generators and adds all this builder's
      * exclusions if it is not already excluded.
@@ -326,6 +359,46 @@ public class MethodLogger<T> extends Logger implements MethodBuilder<T> {
         return body;
     }
 
+    /**
+     * Buffers the given source code statement until the method body
+     * is compiled. The variables that were initialized since the previous
+     * statement are attributed to this statement.
+     *
+     * @param statement The source code of the statement
+     * @param generator The kind of the generator that generated
+     *                  the statement
+     */
+    public void bufferStatement(String statement, String generator) {
+        assert statement != null;
+        pendingStatements.add(new PendingStatement(statement, null, generator, drainInitialized()));
+    }
+
+    /**
+     * Buffers the given directly emitted statement until the method body
+     * is compiled (in the same order as the source code statements).
+     *
+     * @param statement The bytecode of the statement
+     * @param generator The kind of the generator that generated
+     *                  the statement
+     * @see #bufferStatement(String, String)
+     */
+    public void bufferStatement(Bytecode statement, String generator) {
+        assert statement != null;
+        pendingStatements.add(new PendingStatement(null, statement, generator, drainInitialized()));
+    }
+
+    /**
+     * Removes and returns all statements that were buffered since the
+     * last invocation.
+     *
+     * @return the buffered statements (in order)
+     */
+    public List<PendingStatement> drainStatements() {
+        List<PendingStatement> statements = pendingStatements;
+        pendingStatements = new ArrayList<>();
+        return statements;
+    }
+
     // endregion
     //-------------------------------------------------------------------------
 }
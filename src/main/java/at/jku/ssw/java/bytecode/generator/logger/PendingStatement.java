@@ -0,0 +1,60 @@
+package at.jku.ssw.java.bytecode.generator.logger;
+
+import javassist.bytecode.Bytecode;
+
+import java.util.List;
+
+/**
+ * A statement that is buffered until the body of its method is compiled
+ * (see {@link MethodLogger#bufferStatement(String, String)}).
+ * The statement is either given as source code or as directly emitted
+ * bytecode (see {@link MethodLogger#bufferStatement(Bytecode, String)}).
+ * Besides the code, the statement describes which generator
+ * produced it and which local variables are initialized by it, which
+ * allows to roll back the statement if it does not compile.
+ */
+public final class PendingStatement {
+
+    /**
+     * The source code of the statement
+     * (or {@code null} if the statement is emitted as bytecode).
+     */
+    public final String source;
+
+    /**
+     * The emitted bytecode of the statement
+     * (or {@code null} if the statement is given as source code).
+     */
+    public final Bytecode bytecode;
+
+    /**
+     * The kind of the generator that generated the statement.
+     */
+    public final String generator;
+
+    /**
+     * The variables of the method that were declared as initialized
+     * or became initialized when the statement was generated.
+     */
+    public final List<FieldVarLogger<?>> initialized;
+
+    PendingStatement(String source, Bytecode bytecode, String generator, List<FieldVarLogger<?>> initialized) {
+        this.source = source;
+        this.bytecode = bytecode;
+        this.generator = generator;
+        this.initialized = initialized;
+    }
+
+    /**
+     * @return {@code true} if the statement is emitted as bytecode;
+     * {@code false} if it is given as source code
+     */
+    public boolean isBytecode() {
+        return bytecode != null;
+    }
+
+    @Override
+    public String toString() {
+        return isBytecode() ? "<bytecode of " + generator + ">" : source;
+    }
+}
@@ -0,0 +1,372 @@
+package at.jku.ssw.java.bytecode.generator.logger;
+
+import at.jku.ssw.java.bytecode.generator.types.base.MetaType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static at.jku.ssw.java.bytecode.generator.utils.ErrorUtils.shouldNotReachHere;
+
+/**
+ * Indexed storage of the variables that are declared in a scope.
+ * Variables are partitioned by their exact type as well as their
+ * static / final / initialized state, which allows to select a random
+ * variable that fulfills certain criteria without inspecting
+ * all variables of the scope.
+ * Assignability queries only inspect each distinct type once.
+ * The store is updated incrementally whenever a variable is added
+ * or becomes initialized.
+ */
+public final class VariableStore {
+
+    // region Flags
+
+    /**
+     * Flag that describes static variables.
+     */
+    public static final int STATIC = 1;
+
+    /**
+     * Flag that describes final variables.
+     */
+    public static final int FINAL = 1 << 1;
+
+    /**
+     * Flag that describes initialized variables.
+     */
+    public static final int INITIALIZED = 1 << 2;
+
+    /**
+     * No flags.
+     */
+    public static final int NONE = 0;
+
+    /**
+     * The number of distinct flag combinations.
+     */
+    private static final int STATES = 1 << 3;
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Properties
+
+    /**
+     * All variables by name in order of their declaration.
+     */
+    private final Map<String, FieldVarLogger<?>> variables = new LinkedHashMap<>();
+
+    /**
+     * All variables partitioned by their state only.
+     */
+    private final Bucket all = new Bucket(null);
+
+    /**
+     * The buckets of the exact types in order of their first occurrence.
+     */
+    private final List<Bucket> types = new ArrayList<>();
+
+    /**
+     * Lookup of the bucket of an exact type.
+     */
+    private final Map<MetaType<?>, Bucket> byType = new IdentityHashMap<>();
+
+    /**
+     * The variables that became initialized since the journal was last
+     * drained ({@code null} if the journal is not recorded).
+     */
+    private List<FieldVarLogger<?>> initialized;
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Modification
+
+    /**
+     * Adds the given variable to this store. An existing variable
+     * of the same name is replaced.
+     *
+     * @param variable The variable to add
+     */
+    void add(FieldVarLogger<?> variable) {
+        assert variable.store == null : "Variable is already registered";
+
+        FieldVarLogger<?> previous = variables.put(variable.name, variable);
+        if (previous != null)
+            remove(previous);
+
+        variable.store = this;
+        variable.state = stateOf(variable);
+        all.add(variable, Bucket.ALL);
+        byType.computeIfAbsent(variable.getType(), t -> {
+            Bucket b = new Bucket(t);
+            types.add(b);
+            return b;
+        }).add(variable, Bucket.TYPE);
+
+        if (initialized != null && variable.isInitialized())
+            initialized.add(variable);
+    }
+
+    /**
+     * Removes the given variable from the buckets.
+     *
+     * @param variable The variable to remove
+     */
+    private void remove(FieldVarLogger<?> variable) {
+        all.remove(variable, Bucket.ALL);
+        byType.get(variable.getType()).remove(variable, Bucket.TYPE);
+        variable.store = null;
+    }
+
+    /**
+     * Moves the given variable to the buckets that correspond to its
+     * current state. Invoked whenever the state of a registered
+     * variable changes.
+     *
+     * @param variable The variable whose state changed
+     */
+    void update(FieldVarLogger<?> variable) {
+        assert variable.store == this;
+
+        int state = stateOf(variable);
+        if (state == variable.state)
+            return;
+
+        if (initialized != null && (state & ~variable.state & INITIALIZED) != 0)
+            initialized.add(variable);
+
+        Bucket type = byType.get(variable.getType());
+        all.remove(variable, Bucket.ALL);
+        type.remove(variable, Bucket.TYPE);
+        variable.state = state;
+        all.add(variable, Bucket.ALL);
+        type.add(variable, Bucket.TYPE);
+    }
+
+    /**
+     * Starts to record the variables that become initialized
+     * (see {@link #drainInitialized()}).
+     */
+    void recordInitialized() {
+        if (initialized == null)
+            initialized = new ArrayList<>();
+    }
+
+    /**
+     * Removes and returns the variables that were added as initialized
+     * or became initialized since the last invocation.
+     *
+     * @return the initialized variables (in order)
+     */
+    List<FieldVarLogger<?>> drainInitialized() {
+        assert initialized != null : "Initializations are not recorded";
+
+        if (initialized.isEmpty())
+            return Collections.emptyList();
+
+        List<FieldVarLogger<?>> variables = initialized;
+        initialized = new ArrayList<>();
+        return variables;
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Access
+
+    /**
+     * @return {@code true} if no variables are stored; {@code false} otherwise
+     */
+    boolean isEmpty() {
+        return variables.isEmpty();
+    }
+
+    /**
+     * @return a stream of all variables in order of their declaration
+     */
+    Stream<FieldVarLogger<?>> stream() {
+        return variables.values().stream();
+    }
+
+    /**
+     * Selects a random variable that has all of the required
+     * and none of the excluded flags.
+     *
+     * @param rand     The random instance
+     * @param required The flags that the variable must have
+     * @param excluded The flags that the variable must not have
+     * @return a random variable or {@code null} if none matches
+     */
+    FieldVarLogger<?> random(Random rand, int required, int excluded) {
+        return random(rand, all, required, excluded);
+    }
+
+    /**
+     * Selects a random variable of exactly the given type that has all
+     * of the required and none of the excluded flags.
+     *
+     * @param rand     The random instance
+     * @param type     The exact type of the variable
+     * @param required The flags that the variable must have
+     * @param excluded The flags that the variable must not have
+     * @return a random variable or {@code null} if none matches
+     */
+    FieldVarLogger<?> randomOfType(Random rand, MetaType<?> type, int required, int excluded) {
+        Bucket bucket = byType.get(type);
+        if (bucket == null)
+            return null;
+
+        return random(rand, bucket, required, excluded);
+    }
+
+    /**
+     * Selects a random variable whose type is assignable to the given
+     * type and that has all of the required and none of the
+     * excluded flags.
+     *
+     * @param rand     The random instance
+     * @param type     The type the variable must be assignable to
+     * @param required The flags that the variable must have
+     * @param excluded The flags that the variable must not have
+     * @return a random variable or {@code null} if none matches
+     */
+    FieldVarLogger<?> randomAssignableTo(Random rand, MetaType<?> type, int required, int excluded) {
+        int total = 0;
+        for (Bucket bucket : types)
+            if (type.isAssignableFrom(bucket.type))
+                total += bucket.count(required, excluded);
+
+        if (total == 0)
+            return null;
+
+        int index = rand.nextInt(total);
+        for (Bucket bucket : types) {
+            if (!type.isAssignableFrom(bucket.type))
+                continue;
+
+            int count = bucket.count(required, excluded);
+            if (index < count)
+                return bucket.get(index, required, excluded);
+
+            index -= count;
+        }
+
+        throw shouldNotReachHere("Variable count does not match buckets");
+    }
+
+    /**
+     * Selects the variable at a uniformly distributed position
+     * of the matching states of the given bucket.
+     */
+    private static FieldVarLogger<?> random(Random rand, Bucket bucket, int required, int excluded) {
+        int total = bucket.count(required, excluded);
+        if (total == 0)
+            return null;
+
+        return bucket.get(rand.nextInt(total), required, excluded);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Utility methods
+
+    private static int stateOf(FieldVarLogger<?> variable) {
+        return (variable.isStatic() ? STATIC : NONE) |
+                (variable.isFinal() ? FINAL : NONE) |
+                (variable.isInitialized() ? INITIALIZED : NONE);
+    }
+
+    private static boolean matches(int state, int required, int excluded) {
+        return (state & required) == required && (state & excluded) == 0;
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Buckets
+
+    /**
+     * Variables of a single type (or of all types) partitioned by state.
+     * Each variable records its position within the bucket which allows
+     * constant time removal.
+     */
+    private static final class Bucket {
+        static final int ALL = 0;
+        static final int TYPE = 1;
+
+        final MetaType<?> type;
+
+        final List<List<FieldVarLogger<?>>> states = new ArrayList<>(STATES);
+
+        Bucket(MetaType<?> type) {
+            this.type = type;
+            for (int i = 0; i < STATES; i++)
+                states.add(new ArrayList<>());
+        }
+
+        /**
+         * Appends the variable to the list of its state.
+         *
+         * @param variable The variable
+         * @param kind     Whether this is the bucket of all variables
+         *                 or of the exact type
+         */
+        void add(FieldVarLogger<?> variable, int kind) {
+            List<FieldVarLogger<?>> vars = states.get(variable.state);
+            variable.positions[kind] = vars.size();
+            vars.add(variable);
+        }
+
+        /**
+         * Removes the variable from the list of its state by replacing
+         * it with the last variable of the same state.
+         *
+         * @param variable The variable
+         * @param kind     Whether this is the bucket of all variables
+         *                 or of the exact type
+         */
+        void remove(FieldVarLogger<?> variable, int kind) {
+            List<FieldVarLogger<?>> vars = states.get(variable.state);
+            int position = variable.positions[kind];
+            FieldVarLogger<?> last = vars.remove(vars.size() - 1);
+            if (last != variable) {
+                vars.set(position, last);
+                last.positions[kind] = position;
+            }
+        }
+
+        int count(int required, int excluded) {
+            int count = 0;
+            for (int state = 0; state < STATES; state++)
+                if (matches(state, required, excluded))
+                    count += states.get(state).size();
+
+            return count;
+        }
+
+        /**
+         * Returns the variable at the given index, counting only the
+         * states that have all of the required and none of the
+         * excluded flags.
+         */
+        FieldVarLogger<?> get(int index, int required, int excluded) {
+            for (int state = 0; state < STATES; state++) {
+                if (!matches(state, required, excluded))
+                    continue;
+
+                List<FieldVarLogger<?>> vars = states.get(state);
+                if (index < vars.size())
+                    return vars.get(index);
+
+                index -= vars.size();
+            }
+
+            throw shouldNotReachHere("Variable count does not match bucket");
+        }
+    }
+
+    // endregion
+}
@@ -5,10 +5,8 @@ import at.jku.ssw.java.bytecode.generator.types.base.RefType;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static at.jku.ssw.java.bytecode.generator.types.TypeCache.CACHE;
@@ -21,7 +19,7 @@ import static at.jku.ssw.java.bytecode.generator.types.TypeCache.CACHE;
  */
 public final class LibMethod<T> implements MethodBuilder<T> {
 
-    public static final List<String> EXCLUDED = Arrays.asList(
+    public static final Set<String> EXCLUDED = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
             "public boolean java.lang.Object.equals(java.lang.Object)",
             "public native int java.lang.Object.hashCode()",
             "public final void java.lang.Object.wait() throws java.lang.InterruptedException",
@@ -31,7 +29,7 @@ public final class LibMethod<T> implements MethodBuilder<T> {
             "public final native void java.lang.Object.notify()",
             "public final native void java.lang.Object.notifyAll()",
             "public final native java.lang.Class java.lang.Object.getClass()"
-    );
+    )));
 
     /**
      * The method's sender (either the class for static methods or the instance
@@ -81,27 +79,41 @@ public final class LibMethod<T> implements MethodBuilder<T> {
         this.returns = returns;
     }
 
+    /**
+     * Infers a new {@link LibMethod} instance from the given reflective
+     * method. The involved types are looked up in the {@link
+     * at.jku.ssw.java.bytecode.generator.types.TypeCache}.
+     *
+     * @param method The reflective method
+     * @return a new method logger which encapsulates the reflective method;
+     * nothing if an involved type cannot be inferred
+     */
+    public static Optional<LibMethod<?>> infer(Method method) {
+        return infer(method, CACHE::find);
+    }
+
     /**
      * Infers a new {@link LibMethod} instance from the given reflective
      * method.
      *
      * @param method The reflective method
+     * @param types  Function that looks up the meta type of a Java class
      * @return a new method logger which encapsulates the reflective method;
      * nothing if an involved type cannot be inferred
      */
     @SuppressWarnings("unchecked")
-    public static Optional<LibMethod<?>> infer(Method method) {
+    public static Optional<LibMethod<?>> infer(Method method, Function<Class<?>, Optional<? extends MetaType<?>>> types) {
         // do not attempt to infer method if it is excluded anyway
         if (EXCLUDED.contains(method.toString()))
             return Optional.empty();
 
         // look up declaring class ("container" / "sender")
-        return CACHE.find(method.getDeclaringClass()).flatMap(sender ->
+        return types.apply(method.getDeclaringClass()).flatMap(sender ->
                 // look up return type
-                CACHE.find(method.getReturnType()).map(returnType -> {
+                types.apply(method.getReturnType()).map(returnType -> {
                     List<MetaType<?>> paramTypes =
                             Arrays.stream(method.getParameterTypes())
-                                    .map(CACHE::find)
+                                    .map(types)
                                     .map(t -> t.orElse(null))
                                     .collect(Collectors.toList());
 
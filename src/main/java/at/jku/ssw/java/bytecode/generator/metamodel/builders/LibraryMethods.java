@@ -0,0 +1,95 @@
+package at.jku.ssw.java.bytecode.generator.metamodel.builders;
+
+import at.jku.ssw.java.bytecode.generator.types.TypeCache;
+import at.jku.ssw.java.bytecode.generator.types.base.ArrayType;
+import at.jku.ssw.java.bytecode.generator.types.base.MetaType;
+import at.jku.ssw.java.bytecode.generator.types.base.RefType;
+import at.jku.ssw.java.bytecode.generator.utils.ClassUtils;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static at.jku.ssw.java.bytecode.generator.types.base.VoidType.VOID;
+
+/**
+ * Catalogue of the library methods of the default reference types
+ * (see {@link TypeCache#DEFAULT_TYPES}).
+ * The methods are inferred via reflection only once per JVM
+ * (on first access) and resolved against the default types instead of
+ * the types that are registered by the current thread.
+ * The resulting table is immutable and therefore shared by all
+ * generations, including those that run in parallel.
+ */
+public final class LibraryMethods {
+
+    private LibraryMethods() {
+    }
+
+    /**
+     * Lazily initialized holder of the method table.
+     */
+    private static final class Table {
+        /**
+         * The default types by their Java class.
+         */
+        static final Map<Class<?>, MetaType<?>> TYPES = types();
+
+        /**
+         * The library methods of each default reference type.
+         */
+        static final Map<RefType<?>, List<LibMethod<?>>> METHODS = methods();
+    }
+
+    /**
+     * Returns the library methods of the given type.
+     *
+     * @param type The type that declares the methods
+     * @return an immutable list of the inferred methods; an empty list
+     * if the type is not one of the default types
+     */
+    public static List<LibMethod<?>> of(RefType<?> type) {
+        return Table.METHODS.getOrDefault(type, Collections.emptyList());
+    }
+
+    /**
+     * Looks up the meta type of the given Java class among the default
+     * types (including {@code void} and arrays of default types).
+     *
+     * @param type The Java class
+     * @return the corresponding meta type or nothing if the class is not
+     * covered by the default types
+     */
+    static Optional<? extends MetaType<?>> find(Class<?> type) {
+        if (type.isArray())
+            return find(ClassUtils.innerComponentType(type))
+                    .map(inner -> ArrayType.of(type, inner));
+
+        return Optional.ofNullable(Table.TYPES.get(type));
+    }
+
+    private static Map<Class<?>, MetaType<?>> types() {
+        Map<Class<?>, MetaType<?>> types = new IdentityHashMap<>();
+
+        TypeCache.DEFAULT_TYPES.forEach(t -> types.put(t.clazz(), t));
+        types.put(VOID.clazz(), VOID);
+
+        return Collections.unmodifiableMap(types);
+    }
+
+    private static Map<RefType<?>, List<LibMethod<?>>> methods() {
+        Map<RefType<?>, List<LibMethod<?>>> methods = new IdentityHashMap<>();
+
+        TypeCache.DEFAULT_TYPES.stream()
+                .filter(t -> t instanceof RefType)
+                .map(t -> (RefType<?>) t)
+                .forEach(t -> methods.put(
+                        t,
+                        Collections.unmodifiableList(t.inferMethods(LibraryMethods::find))
+                ));
+
+        return Collections.unmodifiableMap(methods);
+    }
+}
@@ -0,0 +1,773 @@
+package at.jku.ssw.java.bytecode.generator.metamodel.resolvers;
+
+import at.jku.ssw.java.bytecode.generator.logger.ClazzLogger;
+import at.jku.ssw.java.bytecode.generator.logger.FieldVarLogger;
+import at.jku.ssw.java.bytecode.generator.metamodel.expressions.Assignment;
+import at.jku.ssw.java.bytecode.generator.metamodel.expressions.Expression;
+import at.jku.ssw.java.bytecode.generator.metamodel.expressions.Expression.NOP;
+import at.jku.ssw.java.bytecode.generator.metamodel.expressions.TypeIdentifier;
+import at.jku.ssw.java.bytecode.generator.metamodel.expressions.constants.*;
+import at.jku.ssw.java.bytecode.generator.metamodel.expressions.operations.*;
+import at.jku.ssw.java.bytecode.generator.types.base.MetaType;
+import at.jku.ssw.java.bytecode.generator.utils.Operator;
+import javassist.bytecode.Bytecode;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.Descriptor;
+import javassist.bytecode.Opcode;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import static at.jku.ssw.java.bytecode.generator.types.base.MetaType.Kind.*;
+import static at.jku.ssw.java.bytecode.generator.utils.ErrorUtils.shouldNotReachHere;
+
+/**
+ * {@link Resolver} implementation that interprets expressions by directly
+ * emitting the corresponding instructions into a Javassist {@link Bytecode}
+ * buffer. This avoids the detour via source code that has to be parsed
+ * and compiled again by Javassist (see {@link JavassistResolver}).
+ * <p>
+ * Each expression leaves its value on the operand stack, except for
+ * {@link Assignment}s, which are treated as statements and therefore
+ * do not leave any value.
+ * Method and constructor arguments are expected to exactly match the
+ * parameter types of the invoked member (which is the case for all
+ * expressions that are created by builders).
+ */
+public class BytecodeResolver implements Resolver<Bytecode> {
+
+    //-------------------------------------------------------------------------
+    // region Properties
+
+    /**
+     * The buffer that the instructions are appended to.
+     */
+    private final Bytecode code;
+
+    /**
+     * Maps local variables and parameters to their slots.
+     */
+    private final ToIntFunction<FieldVarLogger<?>> slots;
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Initialization
+
+    /**
+     * Creates a new resolver that appends instructions to a new buffer.
+     *
+     * @param constPool The constant pool of the class that declares
+     *                  the target method
+     * @param slots     Function that maps local variables to their
+     *                  corresponding slot in the target method
+     */
+    public BytecodeResolver(ConstPool constPool, ToIntFunction<FieldVarLogger<?>> slots) {
+        assert constPool != null;
+        assert slots != null;
+
+        this.code = new Bytecode(constPool);
+        this.slots = slots;
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Resolver methods
+
+    @Override
+    public Bytecode resolve(ByteConstant constant) {
+        code.addIconst(constant.raw());
+        return code;
+    }
+
+    @Override
+    public Bytecode resolve(ShortConstant constant) {
+        code.addIconst(constant.raw());
+        return code;
+    }
+
+    @Override
+    public Bytecode resolve(IntConstant constant) {
+        code.addIconst(constant.raw());
+        return code;
+    }
+
+    @Override
+    public Bytecode resolve(LongConstant constant) {
+        code.addLconst(constant.raw());
+        return code;
+    }
+
+    @Override
+    public Bytecode resolve(FloatConstant constant) {
+        code.addFconst(constant.raw());
+        return code;
+    }
+
+    @Override
+    public Bytecode resolve(DoubleConstant constant) {
+        code.addDconst(constant.raw());
+        return code;
+    }
+
+    @Override
+    public Bytecode resolve(BooleanConstant constant) {
+        code.addIconst(constant.raw() ? 1 : 0);
+        return code;
+    }
+
+    @Override
+    public Bytecode resolve(CharConstant constant) {
+        code.addIconst(constant.raw());
+        return code;
+    }
+
+    @Override
+    public Bytecode resolve(StringConstant constant) {
+        code.addLdc(constant.value());
+        return code;
+    }
+
+    @Override
+    public <U> Bytecode resolve(NullConstant<U> constant) {
+        code.addOpcode(Opcode.ACONST_NULL);
+        return code;
+    }
+
+    @Override
+    public <U> Bytecode resolve(TypeIdentifier<U> typeIdentifier) {
+        // type identifiers only occur as senders of class methods
+        // and do not produce any value
+        return code;
+    }
+
+    @Override
+    public <U> Bytecode resolve(ArrayInit<U> arrayInit) {
+        MetaType<?> type = arrayInit.type();
+        List<? extends Expression<?>> dims = arrayInit.arguments();
+
+        dims.forEach(d -> {
+            resolve(d);
+            convert(kindOf(d), INT);
+        });
+
+        if (dims.size() > 1) {
+            code.addMultiNewarray(descriptor(type), dims.size());
+        } else if (type.getDim() > 1) {
+            code.addAnewarray(descriptor(type).substring(1));
+        } else {
+            MetaType<?> inner = type.getInner();
+            switch (inner.kind()) {
+                case INSTANCE:
+                    code.addAnewarray(className(inner));
+                    break;
+                default:
+                    code.addOpcode(Opcode.NEWARRAY);
+                    code.add(arrayType(inner.kind()));
+            }
+        }
+        return code;
+    }
+
+    @Override
+    public <U> Bytecode resolve(ConstructorCall<U> constructorCall) {
+        String className = className(constructorCall.type());
+
+        code.addNew(className);
+        code.addOpcode(Opcode.DUP);
+        constructorCall.arguments().forEach(this::resolve);
+        code.addInvokespecial(
+                className,
+                "<init>",
+                descriptor(constructorCall.arguments(), "V")
+        );
+        return code;
+    }
+
+    @Override
+    public <U> Bytecode resolve(FieldVarLogger<U> fieldVarLogger) {
+        MetaType<U> type = fieldVarLogger.getType();
+
+        if (fieldVarLogger.isStatic()) {
+            code.addGetstatic(fieldVarLogger.getClazz(), fieldVarLogger.name, descriptor(type));
+        } else if (fieldVarLogger.isField()) {
+            code.addAload(0);
+            code.addGetfield(fieldVarLogger.getClazz(), fieldVarLogger.name, descriptor(type));
+        } else {
+            int slot = slots.applyAsInt(fieldVarLogger);
+            switch (category(type.kind())) {
+                case INT:
+                    code.addIload(slot);
+                    break;
+                case LONG:
+                    code.addLload(slot);
+                    break;
+                case FLOAT:
+                    code.addFload(slot);
+                    break;
+                case DOUBLE:
+                    code.addDload(slot);
+                    break;
+                default:
+                    code.addAload(slot);
+            }
+        }
+        return code;
+    }
+
+    @Override
+    public <U> Bytecode resolve(MethodCall<U> methodCall) {
+        MetaType<?> sender = methodCall.sender().type();
+
+        resolve(methodCall.sender());
+        methodCall.arguments().forEach(this::resolve);
+
+        String desc = descriptor(methodCall.arguments(), descriptor(methodCall.type()));
+        if (sender.clazz().isInterface())
+            code.addInvokeinterface(
+                    className(sender),
+                    methodCall.name(),
+                    desc,
+                    Descriptor.paramSize(desc) + 1
+            );
+        else
+            code.addInvokevirtual(className(sender), methodCall.name(), desc);
+
+        return code;
+    }
+
+    @Override
+    public <U> Bytecode resolve(MethodCall.Static<U> methodCall) {
+        methodCall.arguments().forEach(this::resolve);
+
+        code.addInvokestatic(
+                className(methodCall.sender().type()),
+                methodCall.name(),
+                descriptor(methodCall.arguments(), descriptor(methodCall.type()))
+        );
+        return code;
+    }
+
+    @Override
+    public <U> Bytecode resolve(Assignment<U> assignment) {
+        FieldVarLogger<U> dest = assignment.dest();
+        MetaType<U> type = dest.getType();
+
+        if (dest.isField() && !dest.isStatic())
+            code.addAload(0);
+
+        resolve(assignment.src());
+        convert(kindOf(assignment.src()), type.kind());
+
+        if (dest.isStatic()) {
+            code.addPutstatic(dest.getClazz(), dest.name, descriptor(type));
+        } else if (dest.isField()) {
+            code.addPutfield(dest.getClazz(), dest.name, descriptor(type));
+        } else {
+            int slot = slots.applyAsInt(dest);
+            switch (category(type.kind())) {
+                case INT:
+                    code.addIstore(slot);
+                    break;
+                case LONG:
+                    code.addLstore(slot);
+                    break;
+                case FLOAT:
+                    code.addFstore(slot);
+                    break;
+                case DOUBLE:
+                    code.addDstore(slot);
+                    break;
+                default:
+                    code.addAstore(slot);
+            }
+        }
+        return code;
+    }
+
+    @Override
+    public <U> Bytecode resolve(TypeCast<U> typeCast) {
+        MetaType<U> target = typeCast.type();
+        MetaType.Kind source = kindOf(typeCast.expression());
+
+        resolve(typeCast.expression());
+
+        if (target.kind() == INSTANCE || target.kind() == ARRAY) {
+            if (source != INSTANCE && source != ARRAY)
+                throw shouldNotReachHere("Boxing casts are not supported: " + source + " to " + target);
+
+            code.addCheckcast(target.kind() == ARRAY
+                    ? descriptor(target)
+                    : className(target));
+        } else {
+            convert(source, target.kind());
+        }
+        return code;
+    }
+
+    @Override
+    public <U> Bytecode resolve(BinaryOp<U> binaryOp) {
+        Operator op = binaryOp.op();
+        MetaType.Kind a = kindOf(binaryOp.a());
+        MetaType.Kind b = kindOf(binaryOp.b());
+
+        switch (op) {
+            case COND_AND:
+            case COND_OR:
+                return logical(binaryOp);
+            case EQ:
+            case UNEQ:
+            case GRT:
+            case GRTE:
+            case LT:
+            case LTE:
+                return relational(binaryOp);
+            case SHIFT_L:
+            case SHIFT_R:
+            case US_SHIFT_R: {
+                MetaType.Kind promoted = promote(a, INT);
+                resolve(binaryOp.a());
+                convert(a, promoted);
+                resolve(binaryOp.b());
+                convert(b, INT);
+                code.addOpcode(offset(shiftOpcode(op), promoted));
+                return code;
+            }
+            default: {
+                MetaType.Kind promoted = promote(a, b);
+                resolve(binaryOp.a());
+                convert(a, promoted);
+                resolve(binaryOp.b());
+                convert(b, promoted);
+                code.addOpcode(offset(arithmeticOpcode(op), promoted));
+                return code;
+            }
+        }
+    }
+
+    @Override
+    public Bytecode resolve(NOP nop) {
+        return code;
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Utilities
+
+    /**
+     * Determines the kind of the value that is left on the operand stack
+     * when the given expression is resolved.
+     * This deviates from the expression's type for operations that
+     * apply binary numeric promotion or produce boolean results.
+     *
+     * @param expression The expression
+     * @return the kind of the resulting value
+     */
+    private static MetaType.Kind kindOf(Expression<?> expression) {
+        if (!(expression instanceof BinaryOp))
+            return expression.type().kind();
+
+        BinaryOp<?> op = (BinaryOp<?>) expression;
+        switch (op.op()) {
+            case COND_AND:
+            case COND_OR:
+            case EQ:
+            case UNEQ:
+            case GRT:
+            case GRTE:
+            case LT:
+            case LTE:
+                return BOOLEAN;
+            case SHIFT_L:
+            case SHIFT_R:
+            case US_SHIFT_R:
+                return promote(kindOf(op.a()), INT);
+            default:
+                MetaType.Kind a = kindOf(op.a());
+                MetaType.Kind b = kindOf(op.b());
+                return a == BOOLEAN && b == BOOLEAN ? BOOLEAN : promote(a, b);
+        }
+    }
+
+    /**
+     * Returns the kind that represents the given kind on the operand stack
+     * (i.e. {@code INT} for all integral types smaller than long,
+     * and {@code INSTANCE} for all reference types).
+     *
+     * @param kind The kind
+     * @return the computational kind
+     */
+    private static MetaType.Kind category(MetaType.Kind kind) {
+        switch (kind) {
+            case BYTE:
+            case SHORT:
+            case CHAR:
+            case BOOLEAN:
+            case RINT:
+            case INT:
+                return INT;
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return kind;
+            default:
+                return INSTANCE;
+        }
+    }
+
+    /**
+     * Applies binary numeric promotion to the given kinds.
+     *
+     * @param a The kind of the first operand
+     * @param b The kind of the second operand
+     * @return the kind that both operands are converted to
+     */
+    private static MetaType.Kind promote(MetaType.Kind a, MetaType.Kind b) {
+        a = category(a);
+        b = category(b);
+
+        if (a == DOUBLE || b == DOUBLE)
+            return DOUBLE;
+        if (a == FLOAT || b == FLOAT)
+            return FLOAT;
+        if (a == LONG || b == LONG)
+            return LONG;
+        return INT;
+    }
+
+    /**
+     * Emits the instructions that convert the primitive value on top of the
+     * operand stack from the given kind to the target kind.
+     *
+     * @param from The kind of the value on the stack
+     * @param to   The target kind
+     */
+    private void convert(MetaType.Kind from, MetaType.Kind to) {
+        if (from == to || category(to) == INSTANCE || from == BOOLEAN)
+            return;
+
+        switch (category(from)) {
+            case INT:
+                if (to == LONG) code.addOpcode(Opcode.I2L);
+                else if (to == FLOAT) code.addOpcode(Opcode.I2F);
+                else if (to == DOUBLE) code.addOpcode(Opcode.I2D);
+                else narrow(from, to);
+                return;
+            case LONG:
+                if (to == FLOAT) code.addOpcode(Opcode.L2F);
+                else if (to == DOUBLE) code.addOpcode(Opcode.L2D);
+                else {
+                    code.addOpcode(Opcode.L2I);
+                    narrow(INT, to);
+                }
+                return;
+            case FLOAT:
+                if (to == LONG) code.addOpcode(Opcode.F2L);
+                else if (to == DOUBLE) code.addOpcode(Opcode.F2D);
+                else {
+                    code.addOpcode(Opcode.F2I);
+                    narrow(INT, to);
+                }
+                return;
+            case DOUBLE:
+                if (to == LONG) code.addOpcode(Opcode.D2L);
+                else if (to == FLOAT) code.addOpcode(Opcode.D2F);
+                else {
+                    code.addOpcode(Opcode.D2I);
+                    narrow(INT, to);
+                }
+                return;
+            default:
+                throw shouldNotReachHere("Unboxing conversions are not supported: " + from + " to " + to);
+        }
+    }
+
+    /**
+     * Narrows an integer value on the operand stack to a smaller
+     * integral type if necessary.
+     *
+     * @param from The kind of the value on the stack
+     * @param to   The target kind
+     */
+    private void narrow(MetaType.Kind from, MetaType.Kind to) {
+        if (from == to)
+            return;
+
+        switch (to) {
+            case BYTE:
+                code.addOpcode(Opcode.I2B);
+                break;
+            case SHORT:
+                if (from != BYTE) code.addOpcode(Opcode.I2S);
+                break;
+            case CHAR:
+                code.addOpcode(Opcode.I2C);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Emits a relational operation that leaves {@code 1} on the stack
+     * if the comparison holds and {@code 0} otherwise.
+     */
+    private Bytecode relational(BinaryOp<?> binaryOp) {
+        MetaType.Kind a = kindOf(binaryOp.a());
+        MetaType.Kind b = kindOf(binaryOp.b());
+        boolean references = category(a) == INSTANCE;
+        MetaType.Kind promoted = references ? INSTANCE : promote(a, b);
+
+        resolve(binaryOp.a());
+        convert(a, promoted);
+        resolve(binaryOp.b());
+        convert(b, promoted);
+
+        Operator op = binaryOp.op();
+        int branch;
+        switch (promoted) {
+            case INSTANCE:
+                branch = op == Operator.EQ ? Opcode.IF_ACMPEQ : Opcode.IF_ACMPNE;
+                break;
+            case INT:
+                branch = Opcode.IF_ICMPEQ + conditionOffset(op);
+                break;
+            case LONG:
+                code.addOpcode(Opcode.LCMP);
+                branch = Opcode.IFEQ + conditionOffset(op);
+                break;
+            default:
+                // NaN must yield false for all comparisons except !=
+                boolean lower = op == Operator.GRT || op == Operator.GRTE;
+                if (promoted == FLOAT)
+                    code.addOpcode(lower ? Opcode.FCMPL : Opcode.FCMPG);
+                else
+                    code.addOpcode(lower ? Opcode.DCMPL : Opcode.DCMPG);
+                branch = Opcode.IFEQ + conditionOffset(op);
+        }
+
+        int toTrue = branch(branch);
+        code.addIconst(0);
+        int toEnd = branch(Opcode.GOTO);
+        // only one of both constants is actually pushed
+        code.growStack(-1);
+        target(toTrue);
+        code.addIconst(1);
+        target(toEnd);
+        return code;
+    }
+
+    /**
+     * Emits a short-circuit logical operation.
+     */
+    private Bytecode logical(BinaryOp<?> binaryOp) {
+        boolean and = binaryOp.op() == Operator.COND_AND;
+        int shortCircuit = and ? Opcode.IFEQ : Opcode.IFNE;
+
+        resolve(binaryOp.a());
+        int first = branch(shortCircuit);
+        resolve(binaryOp.b());
+        int second = branch(shortCircuit);
+        code.addIconst(and ? 1 : 0);
+        int toEnd = branch(Opcode.GOTO);
+        code.growStack(-1);
+        target(first);
+        target(second);
+        code.addIconst(and ? 0 : 1);
+        target(toEnd);
+        return code;
+    }
+
+    /**
+     * Adds a branch instruction with an unknown offset.
+     *
+     * @param opcode The branch opcode
+     * @return the position of the branch instruction that is later patched
+     * via {@link #target(int)}
+     */
+    private int branch(int opcode) {
+        int pos = code.currentPc();
+        code.addOpcode(opcode);
+        code.addIndex(0);
+        return pos;
+    }
+
+    /**
+     * Patches the branch at the given position to jump to the current
+     * position.
+     *
+     * @param branch The position of the branch instruction
+     */
+    private void target(int branch) {
+        code.write16bit(branch + 1, code.currentPc() - branch);
+    }
+
+    /**
+     * Returns the offset of the given operator's condition relative
+     * to the {@code EQ} variant of the conditional branch instructions
+     * (e.g. {@link Opcode#IFEQ} or {@link Opcode#IF_ICMPEQ}).
+     */
+    private static int conditionOffset(Operator op) {
+        switch (op) {
+            case EQ:
+                return 0;
+            case UNEQ:
+                return 1;
+            case LT:
+                return 2;
+            case GRTE:
+                return 3;
+            case GRT:
+                return 4;
+            case LTE:
+                return 5;
+            default:
+                throw shouldNotReachHere("Unexpected relational operator " + op);
+        }
+    }
+
+    /**
+     * Returns the integer variant of the given arithmetic or bitwise
+     * operator.
+     */
+    private static int arithmeticOpcode(Operator op) {
+        switch (op) {
+            case PLUS:
+                return Opcode.IADD;
+            case MINUS:
+                return Opcode.ISUB;
+            case MUL:
+                return Opcode.IMUL;
+            case DIV:
+                return Opcode.IDIV;
+            case MOD:
+                return Opcode.IREM;
+            case BIT_AND:
+                return Opcode.IAND;
+            case BIT_OR:
+                return Opcode.IOR;
+            case BIT_EX_OR:
+                return Opcode.IXOR;
+            default:
+                throw shouldNotReachHere("Unexpected binary operator " + op);
+        }
+    }
+
+    /**
+     * Returns the integer variant of the given shift operator.
+     */
+    private static int shiftOpcode(Operator op) {
+        switch (op) {
+            case SHIFT_L:
+                return Opcode.ISHL;
+            case SHIFT_R:
+                return Opcode.ISHR;
+            default:
+                return Opcode.IUSHR;
+        }
+    }
+
+    /**
+     * Maps the integer variant of an arithmetic instruction to the variant
+     * for the given kind (e.g. {@link Opcode#IADD} to {@link Opcode#LADD}).
+     * Bitwise instructions only exist for {@code int} and {@code long}.
+     */
+    private static int offset(int opcode, MetaType.Kind kind) {
+        switch (kind) {
+            case LONG:
+                return opcode + 1;
+            case FLOAT:
+                return opcode + 2;
+            case DOUBLE:
+                return opcode + 3;
+            default:
+                return opcode;
+        }
+    }
+
+    /**
+     * Returns the {@code newarray} type code of the given primitive kind.
+     */
+    private static int arrayType(MetaType.Kind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return Opcode.T_BOOLEAN;
+            case CHAR:
+                return Opcode.T_CHAR;
+            case FLOAT:
+                return Opcode.T_FLOAT;
+            case DOUBLE:
+                return Opcode.T_DOUBLE;
+            case BYTE:
+                return Opcode.T_BYTE;
+            case SHORT:
+                return Opcode.T_SHORT;
+            case LONG:
+                return Opcode.T_LONG;
+            default:
+                return Opcode.T_INT;
+        }
+    }
+
+    /**
+     * Returns the JVM descriptor of the given type.
+     *
+     * @param type The type
+     * @return the field descriptor of the type (e.g. {@code [I})
+     */
+    public static String descriptor(MetaType<?> type) {
+        switch (type.kind()) {
+            case BYTE:
+                return "B";
+            case SHORT:
+                return "S";
+            case RINT:
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case FLOAT:
+                return "F";
+            case DOUBLE:
+                return "D";
+            case BOOLEAN:
+                return "Z";
+            case CHAR:
+                return "C";
+            case VOID:
+                return "V";
+            case ARRAY:
+                StringBuilder desc = new StringBuilder();
+                for (int i = 0; i < type.getDim(); i++)
+                    desc.append('[');
+                return desc.append(descriptor(type.getInner())).toString();
+            default:
+                return Descriptor.of(className(type));
+        }
+    }
+
+    /**
+     * Returns the binary name of the given reference type.
+     * The generated class itself is only described by its logger.
+     *
+     * @param type The reference type
+     * @return the fully qualified class name (e.g. {@code java.util.Map$Entry})
+     */
+    private static String className(MetaType<?> type) {
+        return type instanceof ClazzLogger
+                ? type.descriptor()
+                : type.clazz().getName();
+    }
+
+    /**
+     * Returns the method descriptor for the given arguments and
+     * return type descriptor.
+     */
+    private static String descriptor(List<? extends Expression<?>> arguments, String returns) {
+        StringBuilder desc = new StringBuilder("(");
+        arguments.forEach(a -> desc.append(descriptor(a.type())));
+        return desc.append(')').append(returns).toString();
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
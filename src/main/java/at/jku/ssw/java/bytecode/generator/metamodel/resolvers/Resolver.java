@@ -70,8 +70,10 @@ public interface Resolver<T> {
             return resolve((ConstructorCall<U>) call);
         if (call instanceof ArrayInit)
             return resolve((ArrayInit<U>) call);
-        else
-            return resolve(call);
+        if (call instanceof MethodCall)
+            return resolve((MethodCall<U>) call);
+
+        throw ErrorUtils.shouldNotReachHere("Unexpected call " + call.getClass());
     }
 
     T resolve(ByteConstant constant);
@@ -0,0 +1,76 @@
+package at.jku.ssw.java.bytecode.generator.sinks;
+
+import at.jku.ssw.java.bytecode.generator.utils.ErrorUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Destination for the class files that are produced by a generation run.
+ * A sink may be shared by multiple generators (e.g. all classes of a
+ * batch), therefore implementations must support concurrent writes.
+ * Closing the sink finishes the output (e.g. writes the archive's central
+ * directory); no classes may be written afterwards.
+ */
+public interface ClassSink extends Closeable {
+
+    /**
+     * The available sink implementations.
+     */
+    enum Kind {
+        /**
+         * Writes each class to a separate {@code .class} file.
+         */
+        DIRECTORY,
+        /**
+         * Writes all classes to a single JAR archive.
+         */
+        JAR,
+        /**
+         * Keeps the classes in memory.
+         */
+        MEMORY;
+
+        @Override
+        public String toString() {
+            return super.toString().toLowerCase();
+        }
+    }
+
+    /**
+     * Writes the given class file.
+     *
+     * @param className The binary name of the class
+     * @param bytes     The contents of the class file
+     * @throws IOException if the class file cannot be written
+     */
+    void write(String className, byte[] bytes) throws IOException;
+
+    /**
+     * Creates a new sink of the given kind.
+     * Directory sinks write to the given directory, JAR sinks
+     * create an archive with the given name in that directory
+     * and memory sinks ignore the location altogether.
+     *
+     * @param kind      The kind of sink
+     * @param directory The output directory
+     * @param name      The base name of the output (used for archives)
+     * @param stored    {@code true} if archive entries should be stored
+     *                  without compression
+     * @return the new sink
+     * @throws IOException if the output cannot be created
+     */
+    static ClassSink of(Kind kind, Path directory, String name, boolean stored) throws IOException {
+        switch (kind) {
+            case DIRECTORY:
+                return new DirectorySink(directory);
+            case JAR:
+                return new JarSink(directory.resolve(name + ".jar"), stored);
+            case MEMORY:
+                return new MemorySink();
+            default:
+                throw ErrorUtils.shouldNotReachHere("Unknown sink kind " + kind);
+        }
+    }
+}
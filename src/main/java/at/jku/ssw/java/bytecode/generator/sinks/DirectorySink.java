@@ -0,0 +1,40 @@
+package at.jku.ssw.java.bytecode.generator.sinks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes each class to a separate {@code <name>.class} file
+ * within an output directory.
+ */
+public final class DirectorySink implements ClassSink {
+
+    /**
+     * The output directory.
+     */
+    private final Path directory;
+
+    public DirectorySink(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(String className, byte[] bytes) throws IOException {
+        Files.write(directory.resolve(className + ".class"), bytes);
+    }
+
+    /**
+     * Nothing to do, as each file is closed once it is written.
+     */
+    @Override
+    public void close() {
+    }
+}
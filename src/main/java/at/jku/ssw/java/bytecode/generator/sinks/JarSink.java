@@ -0,0 +1,84 @@
+package at.jku.ssw.java.bytecode.generator.sinks;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * Streams all classes into a single JAR archive.
+ * The entries are written in the order in which the classes are
+ * completed, so the archive is never held in memory as a whole.
+ * Writes are serialized, as the archive is a single stream.
+ */
+public final class JarSink implements ClassSink {
+
+    /**
+     * The path of the archive.
+     */
+    private final Path path;
+
+    /**
+     * Whether the entries are stored without compression.
+     */
+    private final boolean stored;
+
+    /**
+     * The archive stream.
+     */
+    private final JarOutputStream out;
+
+    /**
+     * Creates the archive at the given path (replacing any existing file).
+     *
+     * @param path   The path of the archive
+     * @param stored {@code true} to store entries without compression,
+     *               which is faster to write and read, but produces
+     *               larger archives
+     * @throws IOException if the archive cannot be created
+     */
+    public JarSink(Path path, boolean stored) throws IOException {
+        this.path = path;
+        this.stored = stored;
+        this.out = new JarOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+
+        if (stored)
+            out.setMethod(JarOutputStream.STORED);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void write(String className, byte[] bytes) throws IOException {
+        ZipEntry entry = new ZipEntry(className.replace('.', '/') + ".class");
+
+        if (stored) {
+            // stored entries require the size and checksum up front
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            entry.setSize(bytes.length);
+            entry.setCompressedSize(bytes.length);
+            entry.setCrc(crc.getValue());
+        }
+
+        out.putNextEntry(entry);
+        out.write(bytes);
+        out.closeEntry();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
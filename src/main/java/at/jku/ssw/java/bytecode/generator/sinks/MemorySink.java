@@ -0,0 +1,40 @@
+package at.jku.ssw.java.bytecode.generator.sinks;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the generated classes in memory instead of writing them out.
+ */
+public final class MemorySink implements ClassSink {
+
+    /**
+     * The class files by binary class name.
+     */
+    private final Map<String, byte[]> classes = new ConcurrentHashMap<>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(String className, byte[] bytes) {
+        classes.put(className, bytes);
+    }
+
+    /**
+     * Returns the class files that were written to this sink.
+     *
+     * @return an unmodifiable view of the class files by class name
+     */
+    public Map<String, byte[]> getClasses() {
+        return Collections.unmodifiableMap(classes);
+    }
+
+    /**
+     * Nothing to do, the classes remain accessible.
+     */
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,83 @@
+package at.jku.ssw.java.bytecode.generator.timing;
+
+/**
+ * Histogram of durations with a fixed number of logarithmic buckets,
+ * which aggregates the durations of arbitrarily large batches in
+ * constant memory.
+ * Each power of two is split into {@value #SUB_BUCKETS} linear buckets,
+ * so the percentiles are accurate to about 6%, whereas the count, the
+ * total and the maximum are exact.
+ */
+final class Histogram {
+
+    private static final int SUB_BITS = 4;
+
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /**
+     * Values below {@code 2 * SUB_BUCKETS} have their own buckets,
+     * larger values share buckets by their highest bits.
+     */
+    private static final int BUCKETS = (Long.SIZE - SUB_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+
+    private long count;
+    private long total;
+    private long max;
+
+    void record(long nanos) {
+        nanos = Math.max(0, nanos);
+        counts[index(nanos)]++;
+        count++;
+        total += nanos;
+        max = Math.max(max, nanos);
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS
+                + (int) ((value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * @param index The index of a bucket
+     * @return the smallest value of the given bucket
+     */
+    static long lowerBound(int index) {
+        if (index < 2 * SUB_BUCKETS)
+            return index;
+
+        final int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BITS);
+    }
+
+    /**
+     * Returns the largest value of the bucket that contains the given
+     * percentile (but at most the maximum recorded value).
+     *
+     * @param p The percentile (between 0 and 1)
+     * @return the approximate percentile
+     */
+    long percentile(double p) {
+        if (count == 0)
+            return 0;
+
+        final long rank = PhaseStatistics.rank(p, count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return i + 1 < BUCKETS ? Math.min(max, lowerBound(i + 1) - 1) : max;
+        }
+
+        return max;
+    }
+
+    PhaseStatistics statistics() {
+        return new PhaseStatistics(count, total, percentile(0.5), percentile(0.9), percentile(0.99), max);
+    }
+}
@@ -0,0 +1,51 @@
+package at.jku.ssw.java.bytecode.generator.timing;
+
+/**
+ * The phases of the generation of a class that are timed by a
+ * {@link PhaseTimer}.
+ * Phases may be nested (e.g. the compilations of a method body are part
+ * of the generation of the method body), so the times of different
+ * phases must not be added up.
+ */
+public enum Phase {
+    /**
+     * The generation of the code of the {@code run} method.
+     */
+    GENERATE_PROGRAM,
+    /**
+     * The generation of the code of a method body.
+     */
+    GENERATE_METHOD,
+    /**
+     * The generation of the code of a control flow block.
+     */
+    GENERATE_CONTROL,
+    /**
+     * The generation of a complete method body, including its return
+     * statement and the compilation of its statements.
+     */
+    METHOD_BODY,
+    /**
+     * The generation of the method that computes the global hash.
+     */
+    HASH_METHOD,
+    /**
+     * A single invocation of the Javassist compiler.
+     */
+    COMPILE,
+    /**
+     * A single computation of the stack map frames of a method.
+     */
+    STACK_MAP,
+    /**
+     * Writing the class file to its sink.
+     */
+    WRITE;
+
+    /**
+     * @return the name of this phase in reports
+     */
+    public String key() {
+        return name().toLowerCase();
+    }
+}
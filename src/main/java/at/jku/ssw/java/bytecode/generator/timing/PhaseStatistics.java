@@ -0,0 +1,95 @@
+package at.jku.ssw.java.bytecode.generator.timing;
+
+import java.util.Arrays;
+
+/**
+ * Summarizes the recorded durations of a phase: the number of
+ * recordings, their total, selected percentiles and their maximum
+ * (all durations in nanoseconds).
+ */
+public final class PhaseStatistics {
+
+    public final long count;
+    public final long totalNanos;
+    public final long p50Nanos;
+    public final long p90Nanos;
+    public final long p99Nanos;
+    public final long maxNanos;
+
+    PhaseStatistics(long count, long totalNanos, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * Computes the exact statistics of the given durations.
+     *
+     * @param samples The durations in nanoseconds
+     * @return the statistics of the durations
+     */
+    static PhaseStatistics of(long[] samples) {
+        if (samples.length == 0)
+            return new PhaseStatistics(0, 0, 0, 0, 0, 0);
+
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+
+        return new PhaseStatistics(
+                sorted.length,
+                Arrays.stream(sorted).sum(),
+                sorted[rank(0.5, sorted.length) - 1],
+                sorted[rank(0.9, sorted.length) - 1],
+                sorted[rank(0.99, sorted.length) - 1],
+                sorted[sorted.length - 1]
+        );
+    }
+
+    /**
+     * Determines the (1-based) nearest rank of the given percentile.
+     *
+     * @param p     The percentile (between 0 and 1)
+     * @param count The number of values
+     * @return the rank of the value that forms the percentile
+     */
+    static long rank(double p, long count) {
+        return Math.max(1, (long) Math.ceil(p * count));
+    }
+
+    private static int rank(double p, int count) {
+        return (int) rank(p, (long) count);
+    }
+
+    /**
+     * @return the average duration in nanoseconds
+     */
+    public long meanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * Appends this summary as JSON object to the given builder.
+     *
+     * @param json The builder
+     */
+    void appendJson(StringBuilder json) {
+        json.append("{\"count\": ").append(count)
+                .append(", \"total_ns\": ").append(totalNanos)
+                .append(", \"mean_ns\": ").append(meanNanos())
+                .append(", \"p50_ns\": ").append(p50Nanos)
+                .append(", \"p90_ns\": ").append(p90Nanos)
+                .append(", \"p99_ns\": ").append(p99Nanos)
+                .append(", \"max_ns\": ").append(maxNanos)
+                .append('}');
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder json = new StringBuilder();
+        appendJson(json);
+        return json.toString();
+    }
+}
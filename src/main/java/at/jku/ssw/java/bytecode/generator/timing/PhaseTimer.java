@@ -0,0 +1,128 @@
+package at.jku.ssw.java.bytecode.generator.timing;
+
+import java.util.Arrays;
+
+/**
+ * Records the durations of the phases of the generation of a single class.
+ * A phase is timed as follows:
+ * <pre>{@code
+ * final long start = timer.start();
+ * try {
+ *     ...
+ * } finally {
+ *     timer.stop(Phase.COMPILE, start);
+ * }
+ * }</pre>
+ * The {@link #DISABLED} timer neither reads the clock nor records
+ * anything, so timing does not cost more than a field read if it is
+ * disabled.
+ * A timer may be handed over between threads (e.g. between the stages of
+ * a pipeline), but must not be used concurrently.
+ */
+public final class PhaseTimer {
+
+    /**
+     * The timer that does not record anything.
+     */
+    public static final PhaseTimer DISABLED = new PhaseTimer(false);
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean enabled;
+
+    /**
+     * The recorded durations (in nanoseconds) per phase.
+     */
+    private final long[][] samples;
+
+    /**
+     * The number of recorded durations per phase.
+     */
+    private final int[] counts;
+
+    private PhaseTimer(boolean enabled) {
+        this.enabled = enabled;
+        this.samples = new long[enabled ? Phase.values().length : 0][];
+        this.counts = new int[samples.length];
+    }
+
+    /**
+     * Returns a timer that records the durations of all phases if enabled
+     * or the {@link #DISABLED} timer otherwise.
+     *
+     * @param enabled Determines whether the durations are recorded
+     * @return the timer
+     */
+    public static PhaseTimer of(boolean enabled) {
+        return enabled ? new PhaseTimer(true) : DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @return the start time that has to be passed to
+     * {@link #stop(Phase, long)} (or {@code 0} if this timer is disabled)
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Stops timing a phase and records its duration.
+     *
+     * @param phase The phase
+     * @param start The start time that was returned by {@link #start()}
+     */
+    public void stop(Phase phase, long start) {
+        if (enabled)
+            record(phase, System.nanoTime() - start);
+    }
+
+    /**
+     * Records the given duration of a phase.
+     *
+     * @param phase The phase
+     * @param nanos The duration in nanoseconds
+     */
+    void record(Phase phase, long nanos) {
+        assert enabled;
+
+        final int i = phase.ordinal();
+        if (samples[i] == null)
+            samples[i] = new long[INITIAL_CAPACITY];
+        else if (counts[i] == samples[i].length)
+            samples[i] = Arrays.copyOf(samples[i], counts[i] * 2);
+
+        samples[i][counts[i]++] = nanos;
+    }
+
+    /**
+     * @param phase The phase
+     * @return the number of times the given phase was recorded
+     */
+    public int count(Phase phase) {
+        return enabled ? counts[phase.ordinal()] : 0;
+    }
+
+    /**
+     * @param phase The phase
+     * @return the recorded durations (in nanoseconds) of the given phase
+     */
+    public long[] samples(Phase phase) {
+        return enabled && samples[phase.ordinal()] != null
+                ? Arrays.copyOf(samples[phase.ordinal()], counts[phase.ordinal()])
+                : new long[0];
+    }
+
+    /**
+     * @param phase The phase
+     * @return the statistics of the recorded durations of the given phase
+     */
+    public PhaseStatistics statistics(Phase phase) {
+        return PhaseStatistics.of(samples(phase));
+    }
+}
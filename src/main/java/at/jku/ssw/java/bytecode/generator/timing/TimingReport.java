@@ -0,0 +1,168 @@
+package at.jku.ssw.java.bytecode.generator.timing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Collects the phase timings of the classes of a batch.
+ * The report contains the exact statistics of each class and the
+ * statistics of all durations of the batch per phase (see
+ * {@link Histogram} for their accuracy).
+ * Classes may be added concurrently.
+ * <p>
+ * The JSON form of the report looks as follows (all durations in
+ * nanoseconds):
+ * <pre>{@code
+ * {
+ *   "batch": {"classes": 2, "phases": {"compile": {"count": 84, "total_ns": ..., "mean_ns": ...,
+ *             "p50_ns": ..., "p90_ns": ..., "p99_ns": ..., "max_ns": ...}, ...}},
+ *   "classes": [
+ *     {"name": "MyGeneratedClass1", "seed": 17, "phases": {"compile": {...}, ...}},
+ *     ...
+ *   ]
+ * }
+ * }</pre>
+ */
+public final class TimingReport {
+
+    /**
+     * The timings of a single class.
+     */
+    private static final class Entry {
+        private final String className;
+        private final int seed;
+        private final PhaseStatistics[] phases;
+
+        private Entry(String className, int seed, PhaseStatistics[] phases) {
+            this.className = className;
+            this.seed = seed;
+            this.phases = phases;
+        }
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    private final Histogram[] batch = new Histogram[Phase.values().length];
+
+    public TimingReport() {
+        for (int i = 0; i < batch.length; i++)
+            batch[i] = new Histogram();
+    }
+
+    /**
+     * Adds the timings of a class to this report.
+     *
+     * @param className The name of the class
+     * @param seed      The seed of the class
+     * @param timer     The timer that recorded the generation of the class
+     */
+    public void add(String className, int seed, PhaseTimer timer) {
+        if (!timer.isEnabled())
+            return;
+
+        // summarize outside of the lock
+        PhaseStatistics[] phases = new PhaseStatistics[Phase.values().length];
+        long[][] samples = new long[phases.length][];
+        for (Phase phase : Phase.values()) {
+            samples[phase.ordinal()] = timer.samples(phase);
+            phases[phase.ordinal()] = PhaseStatistics.of(samples[phase.ordinal()]);
+        }
+
+        synchronized (this) {
+            entries.add(new Entry(className, seed, phases));
+            for (int i = 0; i < samples.length; i++)
+                for (long nanos : samples[i])
+                    batch[i].record(nanos);
+        }
+    }
+
+    /**
+     * @return the number of classes in this report
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @param phase The phase
+     * @return the statistics of all durations of the given phase
+     */
+    public synchronized PhaseStatistics batch(Phase phase) {
+        return batch[phase.ordinal()].statistics();
+    }
+
+    /**
+     * @param className The name of a class
+     * @param phase     The phase
+     * @return the statistics of the given phase of the given class
+     * or nothing if the class is not contained in this report
+     */
+    public synchronized Optional<PhaseStatistics> of(String className, Phase phase) {
+        return entries.stream()
+                .filter(e -> e.className.equals(className))
+                .findFirst()
+                .map(e -> e.phases[phase.ordinal()]);
+    }
+
+    /**
+     * Returns this report in JSON form. The classes are ordered by
+     * their seeds.
+     *
+     * @return the JSON document
+     */
+    public synchronized String toJson() {
+        StringBuilder json = new StringBuilder("{\n  \"batch\": {\"classes\": ")
+                .append(entries.size())
+                .append(", \"phases\": ");
+
+        PhaseStatistics[] totals = new PhaseStatistics[batch.length];
+        for (int i = 0; i < batch.length; i++)
+            totals[i] = batch[i].statistics();
+        appendPhases(json, totals);
+
+        json.append("},\n  \"classes\": [");
+
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingInt(e -> e.seed));
+
+        for (int i = 0; i < sorted.size(); i++) {
+            final Entry e = sorted.get(i);
+            json.append(i == 0 ? "\n" : ",\n")
+                    .append("    {\"name\": \"").append(escape(e.className))
+                    .append("\", \"seed\": ").append(e.seed)
+                    .append(", \"phases\": ");
+            appendPhases(json, e.phases);
+            json.append('}');
+        }
+
+        return json.append("\n  ]\n}\n").toString();
+    }
+
+    /**
+     * Writes this report in JSON form to the given file.
+     *
+     * @param file The file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        Files.write(file, toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendPhases(StringBuilder json, PhaseStatistics[] phases) {
+        json.append('{');
+        for (Phase phase : Phase.values()) {
+            if (phase.ordinal() > 0)
+                json.append(", ");
+            json.append('"').append(phase.key()).append("\": ");
+            phases[phase.ordinal()].appendJson(json);
+        }
+        json.append('}');
+    }
+
+    private static String escape(String str) {
+        return str.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
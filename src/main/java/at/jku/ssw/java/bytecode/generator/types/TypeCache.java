@@ -9,10 +9,8 @@ import at.jku.ssw.java.bytecode.generator.utils.ClassUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static at.jku.ssw.java.bytecode.generator.types.base.PrimitiveType.*;
@@ -32,30 +30,128 @@ public enum TypeCache {
 
     public static final Logger logger = LogManager.getLogger();
 
+    /**
+     * The types that are registered in every run
+     * (in order of registration).
+     */
+    public static final List<MetaType<?>> DEFAULT_TYPES = Collections.unmodifiableList(Arrays.asList(
+            // primitive types
+            BYTE,
+            SHORT,
+            INT,
+            LONG,
+            FLOAT,
+            DOUBLE,
+            BOOLEAN,
+            CHAR,
+
+            // reference types
+            ObjectType.OBJECT,
+            DateType.DATE,
+            StringType.STRING,
+
+            // boxed types
+            BoxedType.BYTE,
+            BoxedType.SHORT,
+            BoxedType.INT,
+            BoxedType.LONG,
+            BoxedType.FLOAT,
+            BoxedType.DOUBLE,
+            BoxedType.BOOLEAN,
+            BoxedType.CHAR
+    ));
+
     // endregion
     //-------------------------------------------------------------------------
     // region Properties
 
     /**
-     * Captures all primitive types.
-     * Since they are initialized on startup, this set remains constant
-     * throughout the execution.
+     * The registered types of the current thread.
+     * Each generation resets the cache before it starts and runs on a
+     * single thread. Confining the registered types to the current thread
+     * therefore gives each generation its own set of types and allows
+     * independent generations to run in parallel.
      */
-    final Set<PrimitiveType<?>> primitiveTypes;
+    private final ThreadLocal<Registry> registry;
 
     /**
-     * Captures all reference types.
-     * Since "array types" are created on demand, this set only stores
-     * common reference types (including those that are explicitly covered
-     * by a meta type). This set may be modified when new types are registered
-     * (e.g. a new class is generated).
+     * Container for the types that are registered by a single thread.
+     * The types are kept in registration order, as the iteration order
+     * must not depend on identity hash codes (which differ between threads)
+     * for generations to be reproducible.
      */
-    final Set<RefType<?>> refTypes;
+    private static final class Registry {
+        /**
+         * Captures all primitive types.
+         * Since they are initialized on startup, this set remains constant
+         * throughout the execution.
+         */
+        final Set<PrimitiveType<?>> primitiveTypes = new LinkedHashSet<>();
+
+        /**
+         * Captures all reference types.
+         * Since "array types" are created on demand, this set only stores
+         * common reference types (including those that are explicitly covered
+         * by a meta type). This set may be modified when new types are registered
+         * (e.g. a new class is generated).
+         */
+        final Set<RefType<?>> refTypes = new LinkedHashSet<>();
+
+        /**
+         * Maps the Java classes to the first registered meta type that
+         * corresponds to them (only used for look ups, therefore the
+         * order does not matter).
+         */
+        final Map<Class<?>, MetaType<?>> byClass = new IdentityHashMap<>();
+
+        /**
+         * The canonical array types that were requested in the current run.
+         * Array types are interned, as they are requested frequently and
+         * contain the current generation's types (e.g. generated classes).
+         */
+        final Map<ArrayKey, ArrayType<?>> arrayTypes = new HashMap<>();
+
+        /**
+         * Checks whether this cache was already initialized.
+         */
+        boolean initialized;
+    }
 
     /**
-     * Checks whether this cache was already initialized.
+     * Identifies an array type by its class, dimensions, component type
+     * and access restrictions.
      */
-    private boolean initialized;
+    private static final class ArrayKey {
+        final Class<?> clazz;
+        final int dim;
+        final MetaType<?> inner;
+        final BitSet[] restrictions;
+        final int hashCode;
+
+        ArrayKey(Class<?> clazz, int dim, MetaType<?> inner, BitSet[] restrictions) {
+            this.clazz = clazz;
+            this.dim = dim;
+            this.inner = inner;
+            this.restrictions = restrictions;
+            this.hashCode = 31 * (31 * clazz.hashCode() + System.identityHashCode(inner)) + Arrays.hashCode(restrictions);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ArrayKey)) return false;
+            ArrayKey key = (ArrayKey) o;
+            return clazz == key.clazz &&
+                    dim == key.dim &&
+                    inner == key.inner &&
+                    Arrays.equals(restrictions, key.restrictions);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 
     // endregion
     //-------------------------------------------------------------------------
@@ -67,8 +163,25 @@ public enum TypeCache {
      * invoking the generator multiple times.
      */
     TypeCache() {
-        primitiveTypes = new HashSet<>();
-        refTypes = new HashSet<>();
+        registry = ThreadLocal.withInitial(Registry::new);
+    }
+
+    /**
+     * Returns the primitive types that are registered by the current thread.
+     *
+     * @return the set of primitive types
+     */
+    private Set<PrimitiveType<?>> primitives() {
+        return registry.get().primitiveTypes;
+    }
+
+    /**
+     * Returns the reference types that are registered by the current thread.
+     *
+     * @return the set of reference types
+     */
+    private Set<RefType<?>> references() {
+        return registry.get().refTypes;
     }
 
     // endregion
@@ -86,7 +199,7 @@ public enum TypeCache {
      * @return the registered primitive type
      */
     private <T extends PrimitiveType<U>, U> T register(T primitiveType) {
-        return register(primitiveTypes, primitiveType);
+        return register(primitives(), primitiveType);
     }
 
     /**
@@ -97,7 +210,7 @@ public enum TypeCache {
      * @return the reference type that was registered (the same as the input)
      */
     public <T extends RefType<U>, U> T register(T type) {
-        return register(refTypes, type);
+        return register(references(), type);
     }
 
     /**
@@ -113,9 +226,36 @@ public enum TypeCache {
         final boolean success = types.add(type);
 
         assert success : "Type '" + type + "' already registered";
+        registry.get().byClass.putIfAbsent(type.clazz(), type);
         return type;
     }
 
+    /**
+     * Returns the canonical array type of the current run that matches
+     * the given properties and creates it if it does not exist yet.
+     *
+     * @param clazz        The array class
+     * @param dim          The number of dimensions
+     * @param inner        The component type
+     * @param restrictions The access restrictions (or {@code null})
+     * @param factory      Creates the array type if it is not cached yet
+     * @param <T>          The actual Java array class
+     * @return the cached array type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ArrayType<T> arrayType(Class<T> clazz, int dim, MetaType<?> inner, BitSet[] restrictions, Supplier<ArrayType<T>> factory) {
+        Map<ArrayKey, ArrayType<?>> arrayTypes = registry.get().arrayTypes;
+        ArrayKey key = new ArrayKey(clazz, dim, inner, restrictions);
+
+        ArrayType<?> type = arrayTypes.get(key);
+        if (type == null) {
+            type = factory.get();
+            arrayTypes.put(key, type);
+        }
+
+        return (ArrayType<T>) type;
+    }
+
     // endregion
     //-------------------------------------------------------------------------
     // region Cache lookup
@@ -136,15 +276,11 @@ public enum TypeCache {
             return find(ClassUtils.innerComponentType(type))
                     .map(inner -> ArrayType.of(type, inner));
 
-        return Stream
-                .of(
-                        primitiveTypes.stream(),
-                        refTypes.stream(),
-                        Stream.of(VoidType.VOID))
-                .flatMap(s -> s)
-                .filter((MetaType<?> t) -> t.clazz().equals(type))
-                .map(t -> (MetaType<T>) t)
-                .findFirst();
+        MetaType<?> match = registry.get().byClass.get(type);
+        if (match == null && type == VoidType.VOID.clazz())
+            match = VoidType.VOID;
+
+        return Optional.ofNullable((MetaType<T>) match);
     }
 
     /**
@@ -156,7 +292,7 @@ public enum TypeCache {
      * }
      */
     public boolean contains(PrimitiveType<?> primitiveType) {
-        return primitiveTypes.contains(primitiveType);
+        return primitives().contains(primitiveType);
     }
 
     /**
@@ -167,7 +303,7 @@ public enum TypeCache {
      * reference type; {@code false} otherwise
      */
     public boolean contains(RefType<?> refType) {
-        return refTypes.contains(refType);
+        return references().contains(refType);
     }
 
     /**
@@ -178,7 +314,7 @@ public enum TypeCache {
      */
     public Stream<? extends MetaType<?>> types() {
         return Stream
-                .of(primitiveTypes, refTypes)
+                .of(primitives(), references())
                 .flatMap(Collection::stream);
     }
 
@@ -188,7 +324,7 @@ public enum TypeCache {
      * @return a stream of reference types
      */
     public Stream<RefType<?>> refTypes() {
-        return refTypes.stream();
+        return references().stream();
     }
 
     /**
@@ -197,7 +333,7 @@ public enum TypeCache {
      * @return a stream of primitive types
      */
     public Stream<PrimitiveType<?>> primitiveTypes() {
-        return primitiveTypes.stream();
+        return primitives().stream();
     }
 
     // endregion
@@ -208,7 +344,7 @@ public enum TypeCache {
      * Resets and clears this cache and fills it with the default values.
      */
     public void reset() {
-        if (initialized)
+        if (registry.get().initialized)
             invalidate();
         initialize();
     }
@@ -217,40 +353,25 @@ public enum TypeCache {
      * Initializes this cache and fills it with the default values.
      */
     public void initialize() {
-        // register primitive types
-        register(BYTE);
-        register(SHORT);
-        register(INT);
-        register(LONG);
-        register(FLOAT);
-        register(DOUBLE);
-        register(BOOLEAN);
-        register(CHAR);
-
-        // register reference types
-        register(ObjectType.OBJECT);
-        register(DateType.DATE);
-        register(StringType.STRING);
-
-        // register boxed types
-        register(BoxedType.BYTE);
-        register(BoxedType.SHORT);
-        register(BoxedType.INT);
-        register(BoxedType.LONG);
-        register(BoxedType.FLOAT);
-        register(BoxedType.DOUBLE);
-        register(BoxedType.BOOLEAN);
-        register(BoxedType.CHAR);
-        initialized = true;
+        for (MetaType<?> type : DEFAULT_TYPES) {
+            if (type instanceof PrimitiveType)
+                register((PrimitiveType<?>) type);
+            else
+                register((RefType<?>) type);
+        }
+        registry.get().initialized = true;
     }
 
     /**
      * Invalidates the cache by clearing all entries.
      */
     public void invalidate() {
-        primitiveTypes.clear();
-        refTypes.clear();
-        initialized = false;
+        Registry types = registry.get();
+        types.primitiveTypes.clear();
+        types.refTypes.clear();
+        types.byClass.clear();
+        types.arrayTypes.clear();
+        types.initialized = false;
     }
 
     // endregion
@@ -6,9 +6,9 @@ import at.jku.ssw.java.bytecode.generator.metamodel.builders.MethodBuilder;
 import at.jku.ssw.java.bytecode.generator.metamodel.builders.NullBuilder;
 import at.jku.ssw.java.bytecode.generator.metamodel.expressions.Expression;
 import at.jku.ssw.java.bytecode.generator.metamodel.expressions.operations.ArrayInit;
+import at.jku.ssw.java.bytecode.generator.types.TypeCache;
 import at.jku.ssw.java.bytecode.generator.types.specializations.RestrictedIntType;
 import at.jku.ssw.java.bytecode.generator.utils.ClassUtils;
-import at.jku.ssw.java.bytecode.generator.utils.ErrorUtils;
 
 import java.util.Arrays;
 import java.util.BitSet;
@@ -70,6 +70,16 @@ public final class ArrayType<T> implements RefType<T> {
      */
     private final BitSet[] restrictions;
 
+    /**
+     * The precomputed descriptor (e.g. {@code int[][]}).
+     */
+    private final String descriptor;
+
+    /**
+     * The precomputed hash code.
+     */
+    private final int hashCode;
+
     // endregion
     //-------------------------------------------------------------------------
     // region Initialization
@@ -82,17 +92,22 @@ public final class ArrayType<T> implements RefType<T> {
      * @param dim          The number of dimensions of the array type
      * @param inner        The inner field type (e.g. {@link PrimitiveType#INT})
      * @param restrictions Optional restrictions on the access range
-     *                     (e.g. only access dimension 0 at positions 3 to 5)
+     *                     (e.g. only access dimension 0 at positions 3 to 5).
+     *                     The restrictions must not be modified afterwards,
+     *                     as equal array types are shared
+     * @return the canonical array type of the current generation
+     * @see TypeCache#arrayType
      */
     public static <T> ArrayType<T> of(Class<T> clazz, int dim, MetaType<?> inner, BitSet[] restrictions) {
         assert clazz.isArray();
 
-        return new ArrayType<>(
-                clazz,
-                inner,
-                dim,
-                restrictions
-        );
+        return TypeCache.CACHE.arrayType(clazz, dim, inner, restrictions, () ->
+                new ArrayType<>(
+                        clazz,
+                        inner,
+                        dim,
+                        restrictions
+                ));
     }
 
     /**
@@ -125,53 +140,7 @@ public final class ArrayType<T> implements RefType<T> {
         assert type.kind() != ARRAY : "Inner type must not be array";
         assert dim > 0 : "Invalid array dimensions";
 
-        final String desc;
-        switch (type.kind()) {
-            case BYTE:
-                desc = "B";
-                break;
-            case SHORT:
-                desc = "S";
-                break;
-            case INT:
-                desc = "I";
-                break;
-            case LONG:
-                desc = "J";
-                break;
-            case FLOAT:
-                desc = "F";
-                break;
-            case DOUBLE:
-                desc = "D";
-                break;
-            case BOOLEAN:
-                desc = "Z";
-                break;
-            case CHAR:
-                desc = "C";
-                break;
-            case INSTANCE:
-                desc = "L" + type.clazz().getCanonicalName() + ";";
-                break;
-            default:
-                // should not occur
-                desc = null;
-        }
-
-        Class<?> clazz;
-        try {
-            clazz = Class.forName(
-                    Stream.generate(() -> "[")
-                            .limit(dim)
-                            .collect(Collectors.joining()) + desc
-            );
-        } catch (ClassNotFoundException e) {
-            // should not happen
-            throw ErrorUtils.shouldNotReachHere();
-        }
-
-        return of(clazz, dim, type, restrictions);
+        return of(ClassUtils.arrayClass(type.clazz(), dim), dim, type, restrictions);
     }
 
     /**
@@ -208,6 +177,13 @@ public final class ArrayType<T> implements RefType<T> {
         this.inner = inner;
         this.dim = dim;
         this.restrictions = restrictions;
+
+        StringBuilder descriptor = new StringBuilder(inner.descriptor());
+        for (int i = 0; i < dim; i++)
+            descriptor.append("[]");
+
+        this.descriptor = descriptor.toString();
+        this.hashCode = this.descriptor.hashCode();
     }
 
     // endregion
@@ -273,7 +249,7 @@ public final class ArrayType<T> implements RefType<T> {
      */
     @Override
     public int hashCode() {
-        return descriptor().hashCode();
+        return hashCode;
     }
 
     /**
@@ -281,9 +257,7 @@ public final class ArrayType<T> implements RefType<T> {
      */
     @Override
     public String descriptor() {
-        return inner.descriptor() + Stream.generate(() -> "[]").
-                limit(dim)
-                .collect(Collectors.joining());
+        return descriptor;
     }
 
     /**
@@ -12,6 +12,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.util.Arrays.asList;
@@ -90,13 +91,18 @@ public interface RefType<T> extends MetaType<T> {
      * as well as some default ones (e.g. {@link Object#hashCode()},
      * {@link Object#finalize()}.
      *
+     * @param types Function that looks up the meta types of the
+     *              involved Java classes
      * @return a list of wrapped library methods.
+     * @see at.jku.ssw.java.bytecode.generator.metamodel.builders.LibraryMethods
      */
-    default List<LibMethod<?>> inferMethods() {
+    default List<LibMethod<?>> inferMethods(Function<Class<?>, Optional<? extends MetaType<?>>> types) {
+        Set<String> excluded = excludedLibraryMethods();
+
         return Arrays.stream(clazz().getDeclaredMethods())
                 .filter(m -> Modifier.isPublic(m.getModifiers()))
-                .filter(m -> !excludedLibraryMethods().contains(m.toString()))
-                .map(LibMethod::infer)
+                .filter(m -> !excluded.contains(m.toString()))
+                .map(m -> LibMethod.infer(m, types))
                 .filter(Optional::isPresent)
                 .map(Optional::get)
                 .collect(Collectors.toList());
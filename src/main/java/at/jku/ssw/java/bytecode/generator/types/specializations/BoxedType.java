@@ -4,6 +4,7 @@ import at.jku.ssw.java.bytecode.generator.logger.FieldVarLogger;
 import at.jku.ssw.java.bytecode.generator.metamodel.Builder;
 import at.jku.ssw.java.bytecode.generator.metamodel.builders.ConstructorBuilder;
 import at.jku.ssw.java.bytecode.generator.metamodel.builders.LibMethod;
+import at.jku.ssw.java.bytecode.generator.metamodel.builders.LibraryMethods;
 import at.jku.ssw.java.bytecode.generator.metamodel.builders.NullBuilder;
 import at.jku.ssw.java.bytecode.generator.types.base.PrimitiveType;
 import at.jku.ssw.java.bytecode.generator.types.base.RefType;
@@ -79,11 +80,6 @@ public class BoxedType<T> implements RefType<T> {
      */
     private final PrimitiveType<?> boxed;
 
-    /**
-     * The methods that are available for wrapper classes.
-     */
-    private final List<LibMethod<?>> methods;
-
     // endregion
     //-------------------------------------------------------------------------
     // region Initialization
@@ -99,7 +95,6 @@ public class BoxedType<T> implements RefType<T> {
         assert !clazz.isPrimitive();
         this.clazz = clazz;
         this.boxed = boxed;
-        this.methods = inferMethods();
     }
 
     // endregion
@@ -182,7 +177,7 @@ public class BoxedType<T> implements RefType<T> {
      */
     @Override
     public List<LibMethod<?>> methods() {
-        return methods;
+        return LibraryMethods.of(this);
     }
 
     // endregion
@@ -3,7 +3,7 @@ package at.jku.ssw.java.bytecode.generator.types.specializations;
 import at.jku.ssw.java.bytecode.generator.logger.FieldVarLogger;
 import at.jku.ssw.java.bytecode.generator.metamodel.Builder;
 import at.jku.ssw.java.bytecode.generator.metamodel.builders.ConstructorBuilder;
-import at.jku.ssw.java.bytecode.generator.metamodel.builders.LibMethod;
+import at.jku.ssw.java.bytecode.generator.metamodel.builders.LibraryMethods;
 import at.jku.ssw.java.bytecode.generator.metamodel.builders.MethodBuilder;
 import at.jku.ssw.java.bytecode.generator.metamodel.builders.NullBuilder;
 import at.jku.ssw.java.bytecode.generator.types.base.PrimitiveType;
@@ -27,15 +27,6 @@ public enum DateType implements RefType<Date> {
      */
     DATE;
 
-    /**
-     * The methods that are available for this type.
-     */
-    private final List<LibMethod<?>> methods;
-
-    DateType() {
-        this.methods = inferMethods();
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -73,7 +64,7 @@ public enum DateType implements RefType<Date> {
      */
     @Override
     public List<? extends MethodBuilder<?>> methods() {
-        return methods;
+        return LibraryMethods.of(this);
     }
 
     /**
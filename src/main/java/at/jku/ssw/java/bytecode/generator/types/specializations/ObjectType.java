@@ -1,7 +1,7 @@
 package at.jku.ssw.java.bytecode.generator.types.specializations;
 
 import at.jku.ssw.java.bytecode.generator.logger.FieldVarLogger;
-import at.jku.ssw.java.bytecode.generator.metamodel.builders.LibMethod;
+import at.jku.ssw.java.bytecode.generator.metamodel.builders.LibraryMethods;
 import at.jku.ssw.java.bytecode.generator.metamodel.builders.MethodBuilder;
 import at.jku.ssw.java.bytecode.generator.types.TypeCache;
 import at.jku.ssw.java.bytecode.generator.types.base.MetaType;
@@ -24,15 +24,6 @@ public enum ObjectType implements RefType<Object> {
      */
     OBJECT;
 
-    /**
-     * The methods that are available for this type.
-     */
-    private final List<LibMethod<?>> methods;
-
-    ObjectType() {
-        methods = inferMethods();
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -81,6 +72,6 @@ public enum ObjectType implements RefType<Object> {
      */
     @Override
     public List<? extends MethodBuilder<?>> methods() {
-        return methods;
+        return LibraryMethods.of(this);
     }
 }
@@ -4,6 +4,7 @@ import at.jku.ssw.java.bytecode.generator.logger.FieldVarLogger;
 import at.jku.ssw.java.bytecode.generator.metamodel.Builder;
 import at.jku.ssw.java.bytecode.generator.metamodel.builders.ConstructorBuilder;
 import at.jku.ssw.java.bytecode.generator.metamodel.builders.LibMethod;
+import at.jku.ssw.java.bytecode.generator.metamodel.builders.LibraryMethods;
 import at.jku.ssw.java.bytecode.generator.metamodel.builders.NullBuilder;
 import at.jku.ssw.java.bytecode.generator.metamodel.expressions.Expression;
 import at.jku.ssw.java.bytecode.generator.types.base.MetaType;
@@ -27,15 +28,6 @@ public enum StringType implements RefType<String> {
      */
     STRING;
 
-    /**
-     * The methods that are available for this type.
-     */
-    private final List<LibMethod<?>> methods;
-
-    StringType() {
-        methods = inferMethods();
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -90,7 +82,7 @@ public enum StringType implements RefType<String> {
      */
     @Override
     public List<LibMethod<?>> methods() {
-        return methods;
+        return LibraryMethods.of(this);
     }
 
     /**
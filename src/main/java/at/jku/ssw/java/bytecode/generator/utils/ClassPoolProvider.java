@@ -0,0 +1,108 @@
+package at.jku.ssw.java.bytecode.generator.utils;
+
+import javassist.ClassPool;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Provides isolated {@link ClassPool}s for individual generations.
+ * Every generation uses its own child pool that contains the generated
+ * class, while the library classes (e.g. {@code java.lang.Math}) are
+ * loaded by the parent pool. Released parent pools are reused by
+ * subsequent generations, which avoids parsing the library classes again,
+ * whereas the child pool (and therefore the generated class) is discarded.
+ * Since a parent pool is only used by a single generation at a time,
+ * generations that run in parallel do not share any pool.
+ */
+public class ClassPoolProvider {
+    //-------------------------------------------------------------------------
+    // region Constants
+
+    /**
+     * Provider that is shared by all generations that do not specify
+     * their own provider.
+     */
+    public static final ClassPoolProvider SHARED = new ClassPoolProvider();
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Properties
+
+    /**
+     * The parent pools that are currently not used by any generation.
+     */
+    private final Deque<ClassPool> idle = new ConcurrentLinkedDeque<>();
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Pool management
+
+    /**
+     * Returns a new class pool for a single generation.
+     * The pool is exclusive to the caller until it is released via
+     * {@link #release(ClassPool)}.
+     *
+     * @return a new child pool whose parent is not used by any other
+     * generation
+     */
+    public ClassPool acquire() {
+        ClassPool parent = idle.poll();
+        if (parent == null)
+            parent = new ClassPool(true);
+
+        return new GenerationPool(parent);
+    }
+
+    /**
+     * Releases the given class pool.
+     * The child pool must not be used afterwards and its parent is made
+     * available to subsequent generations. Releasing a pool more than
+     * once has no effect.
+     *
+     * @param pool The pool that was acquired from this provider
+     */
+    public void release(ClassPool pool) {
+        assert pool instanceof GenerationPool : "Pool was not provided by " + this;
+        GenerationPool generationPool = (GenerationPool) pool;
+
+        if (!generationPool.released) {
+            generationPool.released = true;
+            idle.push(generationPool.parent());
+        }
+    }
+
+    /**
+     * Returns the number of parent pools that are ready to be reused.
+     *
+     * @return the number of idle pools
+     */
+    public int idlePools() {
+        return idle.size();
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Generation pools
+
+    /**
+     * Child pool that is used by a single generation.
+     */
+    private static final class GenerationPool extends ClassPool {
+        /**
+         * Flag that indicates whether this pool was already released.
+         */
+        private boolean released;
+
+        GenerationPool(ClassPool parent) {
+            super(parent);
+        }
+
+        ClassPool parent() {
+            return parent;
+        }
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
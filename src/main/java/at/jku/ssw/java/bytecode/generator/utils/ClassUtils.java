@@ -1,11 +1,43 @@
 package at.jku.ssw.java.bytecode.generator.utils;
 
+import java.lang.reflect.Array;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.IntStream;
 
 public class ClassUtils {
 
+    /**
+     * Caches the (one-dimensional) array class of each component class.
+     */
+    private static final ClassValue<Class<?>> ARRAY_CLASS = new ClassValue<Class<?>>() {
+        @Override
+        protected Class<?> computeValue(Class<?> type) {
+            return Array.newInstance(type, 0).getClass();
+        }
+    };
+
+    /**
+     * Returns the array class with the given component type and number
+     * of dimensions (e.g. {@code int[][].class} for {@code int.class} and
+     * two dimensions).
+     *
+     * @param component The component type
+     * @param dim       The number of dimensions
+     * @return the array class
+     */
+    public static Class<?> arrayClass(Class<?> component, int dim) {
+        assert component != null;
+        assert component != void.class;
+        assert dim > 0;
+
+        Class<?> type = component;
+        for (int i = 0; i < dim; i++)
+            type = ARRAY_CLASS.get(type);
+
+        return type;
+    }
+
     /**
      * Returns the number of dimensions that this type describes.
      *
@@ -1,35 +1,114 @@
 package at.jku.ssw.java.bytecode.generator.utils;
 
 import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.events.GenerationEvents.Span;
 import at.jku.ssw.java.bytecode.generator.exceptions.CompilationFailedException;
 import at.jku.ssw.java.bytecode.generator.logger.ClazzLogger;
 import at.jku.ssw.java.bytecode.generator.metamodel.resolvers.Resolver;
 import at.jku.ssw.java.bytecode.generator.metamodel.resolvers.JavassistResolver;
+import at.jku.ssw.java.bytecode.generator.timing.Phase;
+import at.jku.ssw.java.bytecode.generator.timing.PhaseTimer;
+import at.jku.ssw.java.bytecode.generator.types.base.MetaType;
 import javassist.*;
+import javassist.bytecode.BadBytecode;
+import javassist.bytecode.ClassFile;
 import javassist.bytecode.ClassFilePrinter;
+import javassist.bytecode.CodeAttribute;
+import javassist.bytecode.MethodInfo;
 
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Random;
 
+import static at.jku.ssw.java.bytecode.generator.events.GenerationEvents.EVENTS;
+import static at.jku.ssw.java.bytecode.generator.types.base.PrimitiveType.DOUBLE;
+import static at.jku.ssw.java.bytecode.generator.types.base.PrimitiveType.FLOAT;
+import static at.jku.ssw.java.bytecode.generator.utils.StatementDSL.Assignments.assign;
+import static at.jku.ssw.java.bytecode.generator.utils.StatementDSL.Casts.cast;
+import static at.jku.ssw.java.bytecode.generator.utils.StatementDSL.Statement;
+import static at.jku.ssw.java.bytecode.generator.utils.StatementDSL.method;
+import static at.jku.ssw.java.bytecode.generator.utils.StatementDSL.spaced;
+
 
 public class ClazzFileContainer {
 
+    /**
+     * The class pool of this generation.
+     */
+    private final ClassPool classPool;
+
     private final CtClass clazz;
     private final ClazzLogger clazzLogger;
     private final RandomSupplier randomSupplier;
     private final String fileName;
 
+    /**
+     * The name of the static field that accumulates the printed values
+     * if only the checksum is printed.
+     */
+    public static final String CHECKSUM = "checksum";
+
     /**
      * The global resolver instance.
      */
     private final Resolver<String> resolver;
 
-    public ClazzFileContainer(Random rand, GenerationController controller, String fileName) {
-        this.clazz = ClassPool.getDefault().makeClass(fileName);
+    /**
+     * Determines whether statements are emitted directly as bytecode
+     * instead of compiling their source code.
+     */
+    private final boolean emitBytecode;
+
+    /**
+     * Determines whether printed values are folded into a checksum
+     * instead of being printed.
+     */
+    private final boolean checksumOnly;
+
+    /**
+     * The major version of the written class file.
+     */
+    private final int majorVersion;
+
+    /**
+     * The code of each method at the time its stack map frames were
+     * last computed.
+     */
+    private final Map<MethodInfo, byte[]> framedCode = new IdentityHashMap<>();
+
+    /**
+     * Records the durations of the generation phases of this class.
+     */
+    private final PhaseTimer timer;
+
+    /**
+     * Counts the statements of this class that failed to compile.
+     */
+    private final CompileFailures failures;
+
+    public ClazzFileContainer(Random rand, GenerationController controller, String fileName, ClassPool classPool) {
+        this.classPool = classPool;
+        this.clazz = classPool.makeClass(fileName);
+
+        // Javassist recomputes the stack map frames of a method after each
+        // modification if the class file version requires frames (50+).
+        // Instead, the class is generated as version 49 and the frames are
+        // computed once when the class is written (see #toClassFile)
+        this.majorVersion = controller.legacyClassVersion()
+                ? ClassFile.JAVA_5
+                : clazz.getClassFile().getMajorVersion();
+        clazz.getClassFile().setMajorVersion(ClassFile.JAVA_5);
 
         this.resolver = new JavassistResolver();
+        this.emitBytecode = controller.emitBytecode();
+        this.checksumOnly = controller.checksumOnly();
+        this.timer = PhaseTimer.of(controller.recordsTimings());
+        this.failures = new CompileFailures(controller.getStatementRetries());
 
         this.randomSupplier = new RandomSupplier(
                 rand,
@@ -43,6 +122,7 @@ public class ClazzFileContainer {
         );
 
         this.fileName = fileName;
+        final long start = timer.start();
         try {
             CtMethod m = CtNewMethod.make(
                     "public static void main(String[] args) {}",
@@ -50,6 +130,8 @@ public class ClazzFileContainer {
             clazz.addMethod(m);
         } catch (CannotCompileException e) {
             throw new CompilationFailedException(e);
+        } finally {
+            timer.stop(Phase.COMPILE, start);
         }
         this.clazzLogger = ClazzLogger.generate(
                 rand,
@@ -62,6 +144,10 @@ public class ClazzFileContainer {
         return clazz;
     }
 
+    public ClassPool getClassPool() {
+        return classPool;
+    }
+
     public ClazzLogger getClazzLogger() {
         return clazzLogger;
     }
@@ -78,6 +164,107 @@ public class ClazzFileContainer {
         return resolver;
     }
 
+    public boolean emitsBytecode() {
+        return emitBytecode;
+    }
+
+    public boolean checksumOnly() {
+        return checksumOnly;
+    }
+
+    public PhaseTimer getTimer() {
+        return timer;
+    }
+
+    public CompileFailures getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns the class file in the form in which it is written.
+     * The class file is set to its target version and, if this version
+     * requires stack map frames, the frames of all methods whose code
+     * changed since their frames were last computed are rebuilt
+     * (using the class pool of this generation). Javassist replaces the
+     * unreachable code of each method while doing so.
+     *
+     * @return the class file
+     */
+    public ClassFile toClassFile() {
+        ClassFile cf = clazz.getClassFile();
+        cf.setMajorVersion(majorVersion);
+
+        if (majorVersion < ClassFile.JAVA_6)
+            return cf;
+
+        for (MethodInfo m : cf.getMethods()) {
+            CodeAttribute ca = m.getCodeAttribute();
+            if (ca == null || Arrays.equals(framedCode.get(m), ca.getCode()))
+                continue;
+
+            try {
+                // rebuilding the frames replaces unreachable code, which
+                // may expose further unreachable code (e.g. nested jumps
+                // that were left by the compiler), hence repeat until the
+                // code does not change anymore
+                byte[] code;
+                do {
+                    code = ca.getCode().clone();
+                    final Span span = EVENTS.beginStackMap();
+                    final long start = timer.start();
+                    try {
+                        m.rebuildStackMap(classPool);
+                    } finally {
+                        timer.stop(Phase.STACK_MAP, start);
+                        EVENTS.endStackMap(span, fileName, m.getName(), code.length);
+                    }
+                } while (!Arrays.equals(code, ca.getCode()));
+
+                framedCode.put(m, code);
+            } catch (BadBytecode badBytecode) {
+                badBytecode.printStackTrace();
+            }
+        }
+        return cf;
+    }
+
+    /**
+     * Generates a statement that folds the given value into the checksum
+     * (instead of printing it).
+     * Like the printed output it replaces, the checksum depends on the
+     * order of the values.
+     *
+     * @param value An expression whose value is convertible to {@code long}
+     * @return the source code of the statement
+     */
+    public String checksum(String value) {
+        assert checksumOnly;
+        return Statement(
+                assign(spaced(CHECKSUM, "* 31L +", cast(value).to(long.class))).to(CHECKSUM)
+        );
+    }
+
+    /**
+     * Generates a statement that folds the given value of the given type
+     * into the checksum.
+     * Floating-point values are folded by their bit patterns, as a cast
+     * to {@code long} would discard their fractions and map {@code NaN}
+     * to zero.
+     *
+     * @param type  The type of the value
+     * @param value An expression of the given type
+     * @return the source code of the statement
+     * @see #checksum(String)
+     */
+    public String checksum(MetaType<?> type, String value) {
+        if (type == FLOAT)
+            return checksum(method("Float", "floatToIntBits", Collections.singletonList(value)));
+        if (type == DOUBLE)
+            return checksum(method("Double", "doubleToLongBits", Collections.singletonList(value)));
+
+        return checksum(value);
+    }
+
     @Override
     public String toString() {
         try (StringWriter sw = new StringWriter();
@@ -0,0 +1,74 @@
+package at.jku.ssw.java.bytecode.generator.utils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts the generated statements of a class that did not compile
+ * by the kind of the generator that generated them.
+ * Each failing statement is rolled back and re-rolled until the number
+ * of failures of the class exceeds the retry budget.
+ */
+public final class CompileFailures {
+
+    /**
+     * The number of statements that may fail before the generation
+     * of the class is aborted.
+     */
+    private final int budget;
+
+    /**
+     * The number of failures by generator kind.
+     */
+    private final Map<String, Integer> failures = new TreeMap<>();
+
+    /**
+     * The total number of failures.
+     */
+    private int total;
+
+    public CompileFailures(int budget) {
+        assert budget >= 0;
+        this.budget = budget;
+    }
+
+    /**
+     * Counts a failing statement of the given generator.
+     *
+     * @param generator The kind of the generator
+     * @return {@code true} if the statement may be retried;
+     * {@code false} if the retry budget is exhausted
+     */
+    public boolean retry(String generator) {
+        failures.merge(generator, 1, Integer::sum);
+        return ++total <= budget;
+    }
+
+    /**
+     * @return the total number of failing statements
+     */
+    public int total() {
+        return total;
+    }
+
+    /**
+     * @param generator The kind of the generator
+     * @return the number of failing statements of the given generator
+     */
+    public int of(String generator) {
+        return failures.getOrDefault(generator, 0);
+    }
+
+    /**
+     * @return the number of failing statements by generator kind
+     */
+    public Map<String, Integer> byGenerator() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    @Override
+    public String toString() {
+        return failures.toString();
+    }
+}
@@ -14,30 +14,31 @@ public class JavassistUtils {
      * Determines and returns the {@link javassist.CtClass} instance
      * corresponding to the given class name.
      *
+     * @param pool      The class pool that is used to look up the class
      * @param className The name of the class that should be mapped
      * @return the class type corresponding to the class name
      */
-    public static CtClass toCtClass(String className) {
+    public static CtClass toCtClass(ClassPool pool, String className) {
         assert className != null;
         try {
-            return ClassPool.getDefault().get(className);
+            return pool.get(className);
         } catch (NotFoundException e) {
             throw ErrorUtils.shouldNotReachHere("Could not generate CtClass for '" + className + "'");
         }
     }
 
     /**
-     * @see #toCtClass(String)
+     * @see #toCtClass(ClassPool, String)
      */
-    public static CtClass toCtClass(Class<?> clazz) {
+    public static CtClass toCtClass(ClassPool pool, Class<?> clazz) {
         assert clazz != null;
-        return toCtClass(clazz.getCanonicalName());
+        return toCtClass(pool, clazz.getCanonicalName());
     }
 
     /**
-     * @see #toCtClass(String)
+     * @see #toCtClass(ClassPool, String)
      */
-    public static CtClass toCtClass(MetaType<?> type) {
+    public static CtClass toCtClass(ClassPool pool, MetaType<?> type) {
         switch (type.kind()) {
             case BYTE:
                 return CtClass.byteType;
@@ -62,6 +63,6 @@ public class JavassistUtils {
                 break;
         }
 
-        return toCtClass(type.descriptor());
+        return toCtClass(pool, type.descriptor());
     }
 }
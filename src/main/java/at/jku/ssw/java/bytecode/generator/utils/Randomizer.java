@@ -2,13 +2,11 @@ package at.jku.ssw.java.bytecode.generator.utils;
 
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
-import static java.util.stream.IntStream.range;
-
 /**
  * Provides functions to randomize code generation.
  */
@@ -42,10 +40,21 @@ public final class Randomizer {
      */
     @SafeVarargs
     public final <T> Optional<T> oneNotNullOf(Supplier<T>... suppliers) {
-        return stream(suppliers)
-                .map(Supplier::get)
-                .filter(Objects::nonNull)
-                .findFirst();
+        return firstNotNull(Arrays.asList(suppliers), Supplier::get);
+    }
+
+    /**
+     * @see #oneOf(Object[])
+     */
+    public final <T> Optional<T> oneOf(List<T> values) {
+        if (values.isEmpty())
+            return Optional.empty();
+
+        int index = rand.nextInt(values.size());
+
+        return values instanceof RandomAccess
+                ? Optional.of(values.get(index))
+                : skip(values.iterator(), index);
     }
 
     /**
@@ -54,18 +63,137 @@ public final class Randomizer {
     public final <T> Optional<T> oneOf(Collection<T> values) {
         return values.isEmpty()
                 ? Optional.empty()
-                : values.stream()
-                .skip(rand.nextInt(values.size()))
-                .findFirst();
+                : skip(values.iterator(), rand.nextInt(values.size()));
     }
 
     /**
+     * Selects one of the elements of the given stream.
+     * Since the size of a stream is not known in advance, its elements
+     * are collected first. Prefer {@link #oneOf(Collection, Predicate)}
+     * for filtered collections or {@link #oneOf(Iterator)} to avoid
+     * buffering altogether.
+     *
      * @see #oneOf(Object[])
      */
     public final <T> Optional<T> oneOf(Stream<T> stream) {
         return oneOf(stream.collect(Collectors.toList()));
     }
 
+    /**
+     * Selects one of the remaining elements of the given iterator with
+     * uniform probability using reservoir sampling.
+     * The elements are neither buffered nor counted in advance,
+     * but one random number is drawn for each element after the first.
+     *
+     * @param iterator The iterator over the candidates
+     * @param <T>      The type of the elements
+     * @return one of the elements or nothing if the iterator is exhausted
+     */
+    public final <T> Optional<T> oneOf(Iterator<? extends T> iterator) {
+        if (!iterator.hasNext())
+            return Optional.empty();
+
+        T selected = iterator.next();
+        for (int n = 2; iterator.hasNext(); n++) {
+            T next = iterator.next();
+            if (rand.nextInt(n) == 0)
+                selected = next;
+        }
+
+        return Optional.of(selected);
+    }
+
+    /**
+     * Selects one of the values that match the given predicate with
+     * uniform probability.
+     * Lists that support random access are scanned twice to count the
+     * matching values and to pick one of them, which requires only a
+     * single random number. Other collections are sampled
+     * (see {@link #oneOf(Iterator)}).
+     *
+     * @param values    The candidates
+     * @param predicate The predicate that selected values must fulfill
+     * @param <T>       The type of the values
+     * @return one of the matching values or nothing if none match
+     */
+    public final <T> Optional<T> oneOf(Collection<? extends T> values, Predicate<? super T> predicate) {
+        if (!(values instanceof List) || !(values instanceof RandomAccess))
+            return oneOf(values.stream().filter(predicate).iterator());
+
+        List<? extends T> list = (List<? extends T>) values;
+
+        int count = 0;
+        for (int i = 0; i < list.size(); i++)
+            if (predicate.test(list.get(i)))
+                count++;
+
+        if (count == 0)
+            return Optional.empty();
+
+        int index = rand.nextInt(count);
+        for (int i = 0; ; i++)
+            if (predicate.test(list.get(i)) && index-- == 0)
+                return Optional.of(list.get(i));
+    }
+
+    /**
+     * Returns the first value of a random permutation of the given list
+     * that matches the predicate.
+     * The permutation is generated lazily and stops at the first match,
+     * which is equivalent to (but cheaper than) shuffling a copy of the
+     * list and searching it afterwards.
+     *
+     * @param values    The values
+     * @param predicate The predicate that the value must fulfill
+     * @param <T>       The type of the values
+     * @return the first matching value in random order or nothing
+     * if no value matches
+     */
+    public final <T> Optional<T> firstMatch(List<? extends T> values, Predicate<? super T> predicate) {
+        return firstNotNull(values, v -> predicate.test(v) ? v : null);
+    }
+
+    /**
+     * Applies the given function to the values of the list in random
+     * order until it returns a non-{@code null} result.
+     * Each value is thereby passed to the function at most once.
+     *
+     * @param values   The values
+     * @param function The function that is applied
+     * @param <T>      The type of the values
+     * @param <R>      The type of the results
+     * @return the first non-{@code null} result or nothing if the function
+     * returns {@code null} for all values
+     * @see #firstMatch(List, Predicate)
+     */
+    public final <T, R> Optional<R> firstNotNull(List<? extends T> values, Function<? super T, ? extends R> function) {
+        final int size = values.size();
+        int[] order = null;
+
+        // lazy Fisher-Yates shuffle of the indices
+        for (int i = 0; i < size; i++) {
+            int j = i + rand.nextInt(size - i);
+            int index = j;
+
+            if (j != i || order != null) {
+                if (order == null) {
+                    order = new int[size];
+                    for (int k = 0; k < size; k++)
+                        order[k] = k;
+                }
+                index = order[j];
+                order[j] = order[i];
+                order[i] = index;
+            }
+
+            R result = function.apply(values.get(index));
+            if (result != null)
+                return Optional.of(result);
+        }
+
+        return Optional.empty();
+    }
+
     /**
      * Returns one of the given values.
      * If the picked values is {@code null}, a {@link NullPointerException} is
@@ -78,8 +206,9 @@ public final class Randomizer {
      */
     @SafeVarargs
     public final <T> Optional<T> oneOf(T... values) {
-        return skipRandom(values)
-                .findFirst();
+        return values.length == 0
+                ? Optional.empty()
+                : Optional.of(values[rand.nextInt(values.length)]);
     }
 
     /**
@@ -91,11 +220,9 @@ public final class Randomizer {
      */
     @SafeVarargs
     public final <T> Optional<T> oneOf(Supplier<T>... suppliers) {
-        return skipRandom(suppliers)
-                .map(Supplier::get)
-                .map(Optional::ofNullable)
-                .findFirst()
-                .flatMap(Function.identity());
+        return suppliers.length == 0
+                ? Optional.empty()
+                : Optional.ofNullable(suppliers[rand.nextInt(suppliers.length)].get());
     }
 
     /**
@@ -104,9 +231,8 @@ public final class Randomizer {
      * @param runnables The functions that are executed
      */
     public void oneOf(Runnable... runnables) {
-        skipRandom(runnables)
-                .findFirst()
-                .ifPresent(Runnable::run);
+        if (runnables.length > 0)
+            runnables[rand.nextInt(runnables.length)].run();
     }
 
     /**
@@ -142,12 +268,8 @@ public final class Randomizer {
         if (values.length <= 0 || options <= 0)
             return Optional.empty();
 
-        return range(0, options - values.length)
-                .mapToObj(__ -> Stream.of(values[values.length - 1]))
-                .reduce(Arrays.stream(values), Stream::concat)
-                .limit(options)
-                .skip(rand.nextInt(options))
-                .findFirst();
+        // options beyond the given values repeat the last one
+        return Optional.of(values[Math.min(rand.nextInt(options), values.length - 1)]);
     }
 
     /**
@@ -172,14 +294,20 @@ public final class Randomizer {
         if (values.length <= 0 || options <= 0)
             return Optional.empty();
 
-        return shuffle(
-                range(0, options - values.length)
-                        .mapToObj(__ -> Stream.of(values[values.length - 1]))
-                        .reduce(Arrays.stream(values), Stream::concat)
-                        .limit(options))
-                .map(Supplier::get)
-                .filter(Objects::nonNull)
-                .findFirst();
+        // options beyond the given values repeat the last one
+        return firstNotNull(
+                new AbstractList<Supplier<T>>() {
+                    @Override
+                    public Supplier<T> get(int index) {
+                        return values[Math.min(index, values.length - 1)];
+                    }
+
+                    @Override
+                    public int size() {
+                        return options;
+                    }
+                },
+                Supplier::get);
     }
 
     /**
@@ -198,6 +326,8 @@ public final class Randomizer {
      * Shuffles the elements of the given stream and returns a new one.
      * Warning: This method inevitable has to force the whole stream
      * and may therefore perform poorly on large streams.
+     * Prefer {@link #oneOf(Stream)} or {@link #firstMatch(List, Predicate)}
+     * if only a single element is required.
      *
      * @param stream The stream to shuffle
      * @param <T>    The types of elements in the stream
@@ -225,6 +355,17 @@ public final class Randomizer {
                 : Arrays.stream(args).skip(rand.nextInt(args.length));
     }
 
+    /**
+     * Advances the given iterator by the given number of elements
+     * and returns the next one.
+     */
+    private static <T> Optional<T> skip(Iterator<T> iterator, int n) {
+        for (int i = 0; i < n; i++)
+            iterator.next();
+
+        return Optional.of(iterator.next());
+    }
+
     /**
      * Executes one of the given functions where the probability for each
      * is given by the caller.
@@ -242,9 +383,13 @@ public final class Randomizer {
         if (p.length == 0)
             return Optional.empty();
 
+        int sum = 0;
+        for (int q : p)
+            sum += q;
+
         int i = 0;
 
-        for (int r = rand.nextInt(IntStream.of(p).sum()); r >= 0; i++)
+        for (int r = rand.nextInt(sum); r >= 0; i++)
             r -= p[i];
 
         return i <= suppliers.length
@@ -0,0 +1,66 @@
+package at.jku.ssw.java.bytecode.generator.utils;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread pools for the stages of pipelines (e.g. the batch generation
+ * and the execution of generated classes).
+ */
+public final class Stages {
+
+    /**
+     * The capacity of the queue of each stage (per thread).
+     */
+    private static final int QUEUE_CAPACITY_PER_THREAD = 2;
+
+    private Stages() {
+    }
+
+    /**
+     * Creates the thread pool of a stage.
+     * Its queue is bounded and submitting a task to a full queue blocks
+     * until a slot is available, which throttles the preceding stage.
+     * The threads are daemon threads, as a timed out generation cannot be
+     * interrupted.
+     *
+     * @param name    The name of the stage
+     * @param threads The number of threads
+     * @return the thread pool
+     */
+    public static ThreadPoolExecutor bounded(String name, int threads) {
+        return new ThreadPoolExecutor(
+                threads,
+                threads,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * QUEUE_CAPACITY_PER_THREAD),
+                daemon(name),
+                (task, executor) -> {
+                    if (executor.isShutdown())
+                        throw new RejectedExecutionException("Stage " + name + " is shut down");
+                    try {
+                        executor.getQueue().put(task);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException(e);
+                    }
+                }
+        );
+    }
+
+    /**
+     * Creates a factory for named daemon threads.
+     *
+     * @param name The prefix of the thread names
+     * @return the thread factory
+     */
+    public static ThreadFactory daemon(String name) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -113,6 +113,11 @@ public class StatementDSL {
         public static final String Else = "} else { ";
         public static final String ELSEIF = "} else if (%s) { ";
         public static final String FOR = "for (%s; %s; %s) { ";
+        public static final String BLOCK = "{ %s} ";
+
+        public static String Block(String body) {
+            return String.format(BLOCK, body);
+        }
 
         public static String If(String condition) {
             return String.format(IF, condition);
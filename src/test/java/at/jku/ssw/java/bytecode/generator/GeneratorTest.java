@@ -73,6 +73,7 @@ public interface GeneratorTest extends CLIArgumentsProvider {
             Path p = outputDirectory().resolve(path);
             Files.createDirectories(p);
             randomCodeGenerator.writeFile(p.toString());
+            randomCodeGenerator.release();
         } catch (Throwable t) {
             logger.error("Generation failed");
             logger.error("Command line arguments: {}", String.join(" ", allOpts));
@@ -0,0 +1,127 @@
+package at.jku.ssw.java.bytecode.generator.corpus;
+
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.generators.BatchGenerator;
+import at.jku.ssw.java.bytecode.generator.loaders.ExecutionResult;
+import at.jku.ssw.java.bytecode.generator.loaders.GeneratedClassLoader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CorpusTest {
+
+    private static final Path OUTPUT_DIR = Paths.get(".tmp").resolve(CorpusTest.class.getSimpleName());
+
+    private static final int COUNT = 5;
+
+    private static final String OPTIONS = "-filename ACorpusClass -count 5 -seed 42 -l 10";
+
+    private static BatchGenerator batch;
+
+    private static byte[][] classes;
+
+    @BeforeAll
+    static void generate() throws IOException {
+        Files.createDirectories(OUTPUT_DIR);
+
+        batch = new BatchGenerator(new ControlValueParser(OPTIONS.split(" ")).parse());
+        classes = new byte[COUNT][];
+        for (int i = 0; i < COUNT; i++)
+            classes[i] = batch.toBytecode(i);
+    }
+
+    private static Path write(String name, long windowSize) throws IOException {
+        final Path file = OUTPUT_DIR.resolve(name);
+
+        try (CorpusWriter writer = new CorpusWriter(file, windowSize)) {
+            for (int i = 0; i < COUNT; i++)
+                writer.add(batch.className(i), batch.seed(i), OPTIONS, i == 0 ? null : "hash " + i, classes[i]);
+
+            assertThat(writer.size(), is(COUNT));
+        }
+        return file;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @Test
+    void testEntriesAreRestored() throws Exception {
+        try (Corpus corpus = new Corpus(write("entries.corpus", Corpus.WINDOW_SIZE))) {
+            assertThat(corpus.size(), is(COUNT));
+            assertThat(
+                    corpus.entries().stream().map(e -> e.className).collect(Collectors.toList()),
+                    contains("ACorpusClass1", "ACorpusClass2", "ACorpusClass3", "ACorpusClass4", "ACorpusClass5")
+            );
+
+            CorpusEntry entry = corpus.entry("ACorpusClass2");
+            assertThat(entry.seed, is(43));
+            assertThat(entry.options, is(OPTIONS));
+            assertThat(entry.expectedHash, is("hash 1"));
+            assertThat(corpus.entry("ACorpusClass1").expectedHash, is(nullValue()));
+            assertThat(corpus.entry("AMissingClass"), is(nullValue()));
+
+            for (int i = 0; i < COUNT; i++)
+                assertArrayEquals(classes[i], bytes(corpus.payload(corpus.entry(batch.className(i)))));
+        }
+
+        // the temporary payload file is removed
+        assertThat(Files.list(OUTPUT_DIR).anyMatch(p -> p.toString().endsWith(".payloads")), is(false));
+    }
+
+    @Test
+    void testClassFilesDoNotCrossWindows() throws Exception {
+        // a window holds one class file at most
+        final long windowSize = 1 << 16;
+
+        try (Corpus corpus = new Corpus(write("windows.corpus", windowSize))) {
+            for (int i = 0; i < COUNT; i++) {
+                CorpusEntry entry = corpus.entry(batch.className(i));
+                assertThat(entry.offset / windowSize, is((entry.offset + entry.length - 1) / windowSize));
+                assertArrayEquals(classes[i], bytes(corpus.payload(entry)));
+            }
+        }
+    }
+
+    @Test
+    void testDuplicateClassesAreRejected() throws Exception {
+        try (CorpusWriter writer = new CorpusWriter(OUTPUT_DIR.resolve("duplicates.corpus"))) {
+            writer.add("ACorpusClass1", 42, OPTIONS, null, classes[0]);
+            assertThrows(IllegalArgumentException.class, () -> writer.add("ACorpusClass1", 42, OPTIONS, null, classes[0]));
+        }
+    }
+
+    @Test
+    void testInvalidFileIsRejected() throws Exception {
+        final Path file = OUTPUT_DIR.resolve("invalid.corpus");
+        Files.write(file, classes[0]);
+
+        assertThrows(IOException.class, () -> new Corpus(file));
+    }
+
+    @Test
+    void testLoadClassesFromCorpus() throws Exception {
+        try (Corpus corpus = new Corpus(write("loader.corpus", Corpus.WINDOW_SIZE))) {
+            GeneratedClassLoader loader = new GeneratedClassLoader(corpus);
+
+            ExecutionResult result = loader.runMain("ACorpusClass3");
+            assertTrue(result.completedNormally(), () -> String.valueOf(result.exception));
+            assertThat(result.hash(), startsWith("#############   GLOBAL HASH: "));
+
+            assertThrows(ClassNotFoundException.class, () -> loader.loadClass("AMissingClass"));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package at.jku.ssw.java.bytecode.generator.execution;
+
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static at.jku.ssw.java.bytecode.generator.execution.DifferentialTester.Verdict.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class DifferentialTesterTest {
+
+    private static final int COUNT = 4;
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private static final Path OUTPUT_DIR = Paths.get(".tmp").resolve(DifferentialTesterTest.class.getSimpleName());
+
+    private static WorkerPool pool;
+
+    @BeforeAll
+    static void startPool() throws Exception {
+        pool = new WorkerPool(1, TIMEOUT_SECONDS, TimeUnit.SECONDS, Collections.emptyList());
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.close();
+    }
+
+    private static DifferentialTester tester(String prefix, Target target) {
+        GenerationController controller = new ControlValueParser(new String[]{
+                "-filename", prefix,
+                "-count", String.valueOf(COUNT),
+                "-seed", "42",
+                "-l", "5",
+                "-p", "30"
+        }).parse();
+
+        DifferentialTester tester = new DifferentialTester(
+                controller,
+                new WorkerTarget("reference", pool),
+                target,
+                OUTPUT_DIR.resolve(prefix)
+        );
+        tester.setGenerationThreads(2);
+        tester.setExecutionTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        return tester;
+    }
+
+    private static CommandTarget java(String buildCommand) {
+        return new CommandTarget("java", buildCommand, WorkerPool.currentJava() + " -Xint -cp . {class}");
+    }
+
+    @Test
+    void testSameRuntimeMatches() throws Exception {
+        final String prefix = "ADifferentialClass";
+        List<DifferentialTester.Outcome> outcomes = tester(prefix, java(null)).run();
+
+        assertThat(outcomes.stream().map(o -> o.verdict).collect(Collectors.toList()), everyItem(is(MATCH)));
+        assertThat(outcomes.stream().map(o -> o.seed).collect(Collectors.toList()), contains(42, 43, 44, 45));
+        // only the header is written and matching classes are removed
+        assertThat(Files.readAllLines(OUTPUT_DIR.resolve(prefix).resolve(DifferentialTester.INDEX)), hasSize(1));
+        assertThat(Files.exists(OUTPUT_DIR.resolve(prefix).resolve(prefix + "1")), is(false));
+    }
+
+    @Test
+    void testDifferentOutputIsReported() throws Exception {
+        final String prefix = "AMismatchingClass";
+        List<DifferentialTester.Outcome> outcomes = tester(prefix, new CommandTarget("echo", null, "echo {class}")).run();
+
+        assertThat(outcomes.stream().map(o -> o.verdict).collect(Collectors.toList()), everyItem(is(MISMATCH)));
+
+        List<String> index = Files.readAllLines(OUTPUT_DIR.resolve(prefix).resolve(DifferentialTester.INDEX));
+        assertThat(index, hasSize(COUNT + 1));
+        // the index is written in order of completion
+        assertThat(index, hasItem(startsWith("42\t" + prefix + "1\tMISMATCH")));
+        assertThat(Files.exists(OUTPUT_DIR.resolve(prefix).resolve(prefix + "1").resolve("reference.out.txt")), is(true));
+    }
+
+    @Test
+    void testFailedBuildIsReported() throws Exception {
+        List<DifferentialTester.Outcome> outcomes = tester("AnUnbuildableClass", java("false")).run();
+
+        assertThat(outcomes.stream().map(o -> o.verdict).collect(Collectors.toList()), everyItem(is(BUILD_FAILED)));
+    }
+
+    @Test
+    void testBuildTimeoutIsReported() throws Exception {
+        DifferentialTester tester = tester("ASlowlyBuildingClass", java("sleep 10"));
+        tester.setBuildTimeout(100, TimeUnit.MILLISECONDS);
+
+        assertThat(tester.run().stream().map(o -> o.verdict).collect(Collectors.toList()), everyItem(is(BUILD_FAILED)));
+    }
+
+    @Test
+    void testGenerationTimeoutIsReported() throws Exception {
+        final String prefix = "ASlowlyGeneratedClass";
+        delete(OUTPUT_DIR.resolve(prefix));
+
+        DifferentialTester tester = tester(prefix, java(null));
+        tester.setGenerationTimeout(0, TimeUnit.MILLISECONDS);
+
+        assertThat(tester.run().stream().map(o -> o.verdict).collect(Collectors.toList()), everyItem(is(TIMEOUT)));
+        // the timed out generations do not write the classes
+        assertThat(Files.exists(OUTPUT_DIR.resolve(prefix).resolve(prefix + "1")), is(false));
+    }
+
+    @Test
+    void testTestedClassesAreSkipped() throws Exception {
+        final String prefix = "ADeduplicatedClass";
+        final Path index = OUTPUT_DIR.resolve(prefix + ".fingerprints");
+        Files.deleteIfExists(index);
+
+        try (Fingerprints fingerprints = new Fingerprints(index)) {
+            DifferentialTester tester = tester(prefix, java(null));
+            tester.setFingerprints(fingerprints);
+            assertThat(tester.run().stream().map(o -> o.verdict).collect(Collectors.toList()), everyItem(is(MATCH)));
+        }
+
+        // a subsequent run skips the same classes
+        try (Fingerprints fingerprints = new Fingerprints(index)) {
+            DifferentialTester tester = tester(prefix, new CommandTarget("echo", null, "echo {class}"));
+            tester.setFingerprints(fingerprints);
+            assertThat(tester.run().stream().map(o -> o.verdict).collect(Collectors.toList()), everyItem(is(DUPLICATE)));
+            assertThat(fingerprints.ratio(), is(1.0));
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        if (!Files.exists(dir))
+            return;
+
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(path);
+        }
+    }
+}
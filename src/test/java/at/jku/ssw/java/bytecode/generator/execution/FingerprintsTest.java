@@ -0,0 +1,76 @@
+package at.jku.ssw.java.bytecode.generator.execution;
+
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.generators.BatchGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class FingerprintsTest {
+
+    private static final Path OUTPUT_DIR = Paths.get(".tmp").resolve(FingerprintsTest.class.getSimpleName());
+
+    private static byte[] generate(String name, int seed) {
+        return new BatchGenerator(new ControlValueParser(new String[]{
+                "-filename", name,
+                "-seed", String.valueOf(seed),
+                "-l", "10"
+        }).parse()).toBytecode(0);
+    }
+
+    @Test
+    void testClassNameIsIgnored() {
+        assertThat(Fingerprints.of(generate("AFingerprintedClass", 42)), is(Fingerprints.of(generate("B", 42))));
+    }
+
+    @Test
+    void testConstantPoolLayoutIsIgnored() {
+        // single-letter names like B or C share their constant with a
+        // descriptor, which changes the layout of the constant pool
+        final String expected = Fingerprints.of(generate("AFingerprintedClass", 42));
+
+        for (String name : new String[]{"A", "B", "C", "D", "F", "I", "J", "S", "Z", "Foo"})
+            assertThat(name, Fingerprints.of(generate(name, 42)), is(expected));
+    }
+
+    @Test
+    void testDifferentClassesDiffer() {
+        assertThat(Fingerprints.of(generate("AFingerprintedClass", 42)), is(not(Fingerprints.of(generate("AFingerprintedClass", 43)))));
+    }
+
+    @Test
+    void testDuplicatesAreRejected() {
+        Fingerprints fingerprints = new Fingerprints();
+
+        assertThat(fingerprints.add(generate("A", 42)), is(true));
+        assertThat(fingerprints.add(generate("B", 42)), is(false));
+        assertThat(fingerprints.add(generate("C", 43)), is(true));
+
+        assertThat(fingerprints.unique(), is(2));
+        assertThat(fingerprints.duplicates(), is(1));
+        assertThat(fingerprints.ratio(), is(closeTo(1 / 3.0, 1e-9)));
+    }
+
+    @Test
+    void testFingerprintsArePersisted() throws Exception {
+        Files.createDirectories(OUTPUT_DIR);
+        final Path index = OUTPUT_DIR.resolve("fingerprints.txt");
+        Files.deleteIfExists(index);
+
+        try (Fingerprints fingerprints = new Fingerprints(index)) {
+            assertThat(fingerprints.add(generate("A", 42)), is(true));
+        }
+
+        try (Fingerprints fingerprints = new Fingerprints(index)) {
+            assertThat(fingerprints.add(generate("B", 42)), is(false));
+            assertThat(fingerprints.add(generate("C", 43)), is(true));
+        }
+
+        assertThat(Files.readAllLines(index), hasSize(2));
+    }
+}
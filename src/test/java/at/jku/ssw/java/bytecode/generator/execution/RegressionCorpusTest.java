@@ -0,0 +1,61 @@
+package at.jku.ssw.java.bytecode.generator.execution;
+
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.corpus.Corpus;
+import at.jku.ssw.java.bytecode.generator.corpus.CorpusEntry;
+import at.jku.ssw.java.bytecode.generator.corpus.CorpusWriter;
+import at.jku.ssw.java.bytecode.generator.generators.BatchGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class RegressionCorpusTest {
+
+    private static final Path OUTPUT_DIR = Paths.get(".tmp").resolve(RegressionCorpusTest.class.getSimpleName());
+
+    @Test
+    void testReplayMatchesBuild() throws Exception {
+        Files.createDirectories(OUTPUT_DIR);
+        final Path file = OUTPUT_DIR.resolve("replay.corpus");
+        final String options = "-filename AReplayedClass -count 8 -seed 7 -l 20";
+
+        assertThat(RegressionCorpus.build(new ControlValueParser(options.split(" ")).parse(), options, file), is(8));
+
+        try (Corpus corpus = new Corpus(file)) {
+            assertThat(corpus.size(), is(8));
+            corpus.entries().forEach(e -> assertThat(e.options, is(options)));
+            assertThat(corpus.entries().stream().filter(e -> e.expectedHash != null).count(), is(greaterThan(0L)));
+
+            assertThat(RegressionCorpus.replay(corpus), is(empty()));
+        }
+    }
+
+    @Test
+    void testReplayDetectsMismatches() throws Exception {
+        Files.createDirectories(OUTPUT_DIR);
+        final Path file = OUTPUT_DIR.resolve("mismatch.corpus");
+        final String options = "-filename AMismatchingClass -count 2 -seed 11 -l 10";
+        final BatchGenerator batch = new BatchGenerator(new ControlValueParser(options.split(" ")).parse());
+
+        try (CorpusWriter writer = new CorpusWriter(file)) {
+            for (int i = 0; i < 2; i++)
+                writer.add(batch.className(i), batch.seed(i), options, "#############   GLOBAL HASH: x", batch.toBytecode(i));
+        }
+
+        try (Corpus corpus = new Corpus(file)) {
+            List<CorpusEntry> mismatches = RegressionCorpus.replay(corpus);
+
+            assertThat(
+                    mismatches.stream().map(e -> e.className).collect(Collectors.toList()),
+                    contains("AMismatchingClass1", "AMismatchingClass2")
+            );
+        }
+    }
+}
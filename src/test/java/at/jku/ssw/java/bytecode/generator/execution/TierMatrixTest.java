@@ -0,0 +1,96 @@
+package at.jku.ssw.java.bytecode.generator.execution;
+
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static at.jku.ssw.java.bytecode.generator.execution.WorkerResult.Status.COMPLETED;
+import static at.jku.ssw.java.bytecode.generator.execution.WorkerResult.Status.TIMED_OUT;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TierMatrixTest {
+
+    private static final Path OUTPUT_DIR = Paths.get(".tmp").resolve(TierMatrixTest.class.getSimpleName());
+
+    private static final String HASH = "#############   GLOBAL HASH: ";
+
+    private static WorkerResult result(WorkerResult.Status status, int exitStatus, String out, String err) {
+        return new WorkerResult("A", status, exitStatus, out, err);
+    }
+
+    @Test
+    void testParseTier() {
+        TierMatrix.Tier tier = TierMatrix.Tier.parse("c2=-XX:-TieredCompilation -Xbatch");
+
+        assertThat(tier.name, is("c2"));
+        assertThat(tier.options, contains("-XX:-TieredCompilation", "-Xbatch"));
+        assertThat(TierMatrix.Tier.parse("default=").options, is(empty()));
+        assertThrows(IllegalArgumentException.class, () -> TierMatrix.Tier.parse("-Xint"));
+    }
+
+    @Test
+    void testResultsAgreeOnHash() {
+        // the output before the hash is irrelevant
+        List<WorkerResult> results = Arrays.asList(
+                result(COMPLETED, 0, "a\n" + HASH + "42\n", ""),
+                result(COMPLETED, 0, "b\n" + HASH + "42\n", "")
+        );
+
+        assertThat(TierMatrix.agree(results), is(true));
+    }
+
+    @Test
+    void testResultsDisagree() {
+        WorkerResult expected = result(COMPLETED, 0, HASH + "42\n", "");
+
+        assertThat(TierMatrix.agree(Arrays.asList(expected, result(COMPLETED, 0, HASH + "43\n", ""))), is(false));
+        assertThat(TierMatrix.agree(Arrays.asList(expected, result(COMPLETED, 1, "", "java.lang.ArithmeticException: / by zero\n"))), is(false));
+        assertThat(TierMatrix.agree(Arrays.asList(expected, result(TIMED_OUT, -1, "", ""))), is(false));
+    }
+
+    @Test
+    void testExceptionsAreComparedByFirstLine() {
+        List<WorkerResult> results = Arrays.asList(
+                result(COMPLETED, 1, "", "java.lang.NullPointerException\n\tat A.m(A.java)\n"),
+                result(COMPLETED, 1, "", "java.lang.NullPointerException\n\tat A.main(A.java)\n")
+        );
+
+        assertThat(TierMatrix.agree(results), is(true));
+    }
+
+    @Test
+    void testAgreeingClassesAreDropped() throws Exception {
+        final String prefix = "ATierClass";
+        final Path dir = OUTPUT_DIR.resolve(prefix);
+
+        GenerationController controller = new ControlValueParser(new String[]{
+                "-filename", prefix,
+                "-count", "3",
+                "-seed", "42",
+                "-l", "5",
+                "-p", "30"
+        }).parse();
+
+        TierMatrix matrix = new TierMatrix(controller, Arrays.asList(
+                new TierMatrix.Tier("int", Collections.singletonList("-Xint")),
+                new TierMatrix.Tier("default", Collections.emptyList())
+        ), dir);
+        matrix.setGenerationThreads(2);
+        matrix.setTimeout(10, TimeUnit.SECONDS);
+
+        assertThat(matrix.run(), is(empty()));
+        // only the header is written and no classes are kept
+        assertThat(Files.readAllLines(dir.resolve(TierMatrix.INDEX)), hasSize(1));
+        assertThat(Files.exists(dir.resolve(prefix + "1")), is(false));
+    }
+}
@@ -0,0 +1,166 @@
+package at.jku.ssw.java.bytecode.generator.execution;
+
+import at.jku.ssw.java.bytecode.generator.GeneratedClass;
+import at.jku.ssw.java.bytecode.generator.GeneratorTest;
+import at.jku.ssw.java.bytecode.generator.Result;
+import at.jku.ssw.java.bytecode.generator.types.TypeCache;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewMethod;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class WorkerPoolTest implements GeneratorTest {
+
+    private static final int REPETITIONS = 10;
+    private static final int MAX_LENGTH = 30;
+    private static final boolean ALLOW_ARITHMETIC_EXCEPTIONS = true;
+
+    private static final int WORKERS = 2;
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private static WorkerPool pool;
+
+    @BeforeAll
+    static void startPool() throws Exception {
+        pool = new WorkerPool(WORKERS, TIMEOUT_SECONDS, TimeUnit.SECONDS, Collections.emptyList());
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        TypeCache.CACHE.reset();
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(WorkerPoolTest.class)
+    void testWorkerMatchesSeparateProcess(List<String> args, int index) throws Exception {
+        final GeneratedClass clazz = generateClass("AWorkerClass" + index, args);
+        final byte[] bytes = Files.readAllBytes(outputDirectory().resolve(clazz.path).resolve(clazz.name + ".class"));
+
+        Result expected = run(clazz);
+        WorkerResult actual = pool.execute(clazz.name, bytes);
+
+        assertEquals(WorkerResult.Status.COMPLETED, actual.status);
+        assertEquals(expected.out, actual.out.replaceAll("\\R", ""));
+        if (expected.err.isEmpty()) {
+            assertEquals(0, actual.exitStatus);
+            assertThat(actual.hash(), is(notNullValue()));
+        } else {
+            assertEquals(Worker.EXCEPTION_EXIT_STATUS, actual.exitStatus);
+            // only compare the exception, the frames of the JDK may differ
+            assertEquals(expected.err.split("\t")[0], actual.err.split("\\R")[0]);
+        }
+    }
+
+    @Test
+    void testUncaughtException() throws Exception {
+        WorkerResult result = pool.execute("AThrowingClass", classWithMain("AThrowingClass",
+                "{ int zero = 0; System.out.println(1 / zero); }"));
+
+        assertEquals(WorkerResult.Status.COMPLETED, result.status);
+        assertEquals(Worker.EXCEPTION_EXIT_STATUS, result.exitStatus);
+        assertThat(result.err, startsWith("Exception in thread \"main\" java.lang.ArithmeticException"));
+        // the frames of the worker are omitted
+        assertThat(result.err.trim(), endsWith("at AThrowingClass.main(AThrowingClass.java)"));
+        assertThat(result.hash(), is(nullValue()));
+    }
+
+    @Test
+    void testTimedOutWorkerIsReplaced() throws Exception {
+        try (WorkerPool single = new WorkerPool(1, 1, TimeUnit.SECONDS, Collections.emptyList())) {
+            WorkerResult result = single.execute("ALoopingClass", classWithMain("ALoopingClass",
+                    "{ while (true) { } }"));
+
+            assertEquals(WorkerResult.Status.TIMED_OUT, result.status);
+            assertPrints(single, "AClassAfterTimeout");
+        }
+    }
+
+    @Test
+    void testCrashedWorkerIsReplaced() throws Exception {
+        try (WorkerPool single = new WorkerPool(1, TIMEOUT_SECONDS, TimeUnit.SECONDS, Collections.emptyList())) {
+            WorkerResult result = single.execute("AnExitingClass", classWithMain("AnExitingClass",
+                    "{ System.exit(3); }"));
+
+            assertEquals(WorkerResult.Status.CRASHED, result.status);
+            assertEquals(3, result.exitStatus);
+            assertPrints(single, "AClassAfterCrash");
+        }
+    }
+
+    @Test
+    void testPoolFailsWithoutWorkers() throws Exception {
+        // the executable is removed after the first worker has started
+        Path dir = Files.createTempDirectory("workers");
+        Path java = Files.createSymbolicLink(dir.resolve("java"), Paths.get(WorkerPool.currentJava()));
+
+        try (WorkerPool single = new WorkerPool(1, TIMEOUT_SECONDS, TimeUnit.SECONDS, java.toString(), Collections.emptyList())) {
+            Files.delete(java);
+
+            // the crashed worker cannot be replaced
+            byte[] exiting = classWithMain("AnExitingClass", "{ System.exit(3); }");
+            assertThrows(IOException.class, () -> single.execute("AnExitingClass", exiting));
+
+            // subsequent executions do not wait for a worker forever
+            byte[] printing = classWithMain("AClassWithoutWorker", "{ System.out.println(\"done\"); }");
+            assertTimeoutPreemptively(Duration.ofSeconds(TIMEOUT_SECONDS), () -> {
+                assertThrows(IOException.class, () -> single.execute("AClassWithoutWorker", printing));
+            });
+        } finally {
+            Files.delete(dir);
+        }
+    }
+
+    private static void assertPrints(WorkerPool pool, String name) throws Exception {
+        WorkerResult result = pool.execute(name, classWithMain(name, "{ System.out.println(\"done\"); }"));
+
+        assertEquals(WorkerResult.Status.COMPLETED, result.status);
+        assertEquals(0, result.exitStatus);
+        assertThat(result.out, startsWith("done"));
+    }
+
+    private static byte[] classWithMain(String name, String body) throws Exception {
+        CtClass clazz = new ClassPool(true).makeClass(name);
+        clazz.addMethod(CtNewMethod.make("public static void main(String[] args) " + body, clazz));
+        return clazz.toBytecode();
+    }
+
+    @Override
+    public int repetitions() {
+        return REPETITIONS;
+    }
+
+    @Override
+    public boolean allowArithmeticExceptions() {
+        return ALLOW_ARITHMETIC_EXCEPTIONS;
+    }
+
+    @Override
+    public int maxLength() {
+        return MAX_LENGTH;
+    }
+}
@@ -0,0 +1,150 @@
+package at.jku.ssw.java.bytecode.generator.generators;
+
+import at.jku.ssw.java.bytecode.generator.GeneratedClass;
+import at.jku.ssw.java.bytecode.generator.GeneratorTest;
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.sinks.ClassSink;
+import at.jku.ssw.java.bytecode.generator.sinks.JarSink;
+import at.jku.ssw.java.bytecode.generator.types.TypeCache;
+import javassist.ClassPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.io.DataInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static at.jku.ssw.java.bytecode.generator.BytecodeComparator.assertSameStructure;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchGeneratorTest implements GeneratorTest {
+
+    private static final int REPETITIONS = 5;
+    private static final int BATCH_SIZE = 5;
+    private static final int MAX_LENGTH = 20;
+    private static final boolean ALLOW_ARITHMETIC_EXCEPTIONS = false;
+
+    @BeforeEach
+    void setUp() {
+        TypeCache.CACHE.reset();
+    }
+
+    private BatchGenerator batch(String prefix, List<String> args) {
+        String[] allOpts = Stream.concat(
+                Stream.of(
+                        "-filename", prefix,
+                        "-count", String.valueOf(BATCH_SIZE)
+                ),
+                args.stream()
+        ).toArray(String[]::new);
+
+        GenerationController controller = new ControlValueParser(allOpts).parse();
+        return new BatchGenerator(controller);
+    }
+
+    @Test
+    void testClassNames() {
+        BatchGenerator single = new BatchGenerator(new ControlValueParser(new String[]{"-filename", "AClass"}).parse());
+        assertEquals("AClass", single.className(0));
+
+        // an explicit count always uses the file name as prefix
+        BatchGenerator batch = new BatchGenerator(new ControlValueParser(new String[]{"-filename", "AClass", "-count", "1"}).parse());
+        assertEquals("AClass1", batch.className(0));
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(BatchGeneratorTest.class)
+    void testGenerateBatch(List<String> args, int index) throws Exception {
+        final String prefix = "ABatchClass" + index + "_";
+        final Path dir = outputDirectory().resolve("batch");
+        Files.createDirectories(dir);
+
+        BatchGenerator batch = batch(prefix, args);
+        batch.generate(dir.toString());
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            final String name = batch.className(i);
+            assertTrue(Files.exists(dir.resolve(name + ".class")));
+            // the class must not be retained after it was written
+            assertNull(ClassPool.getDefault().getOrNull(name));
+        }
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(BatchGeneratorTest.class)
+    void testBatchMatchesSingleGeneration(List<String> args, int index) throws Exception {
+        final String prefix = "ABatchedSeedClass" + index + "_";
+        final Path dir = outputDirectory().resolve("batched");
+        Files.createDirectories(dir);
+
+        BatchGenerator batch = batch(prefix, args);
+        batch.generate(dir.toString());
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            final String name = batch.className(i);
+            args.add("-seed");
+            args.add(String.valueOf(batch.seed(i)));
+
+            final GeneratedClass single = generateClass("single", name, args);
+
+            args.remove(args.size() - 1);
+            args.remove(args.size() - 1);
+
+            assertSameStructure(
+                    Files.readAllBytes(dir.resolve(name + ".class")),
+                    Files.readAllBytes(outputDirectory().resolve(single.path).resolve(name + ".class"))
+            );
+        }
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(BatchGeneratorTest.class)
+    void testBatchToJarMatchesDirectory(List<String> args, int index) throws Exception {
+        final String prefix = "AnArchivedClass" + index + "_";
+        final Path dir = outputDirectory().resolve("archived");
+        Files.createDirectories(dir);
+
+        BatchGenerator batch = batch(prefix, args);
+        batch.generate(dir.toString());
+        try (ClassSink jar = new JarSink(dir.resolve(prefix + ".jar"), false)) {
+            batch.generate(jar);
+        }
+
+        try (ZipFile jar = new ZipFile(dir.resolve(prefix + ".jar").toFile())) {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                final String name = batch.className(i);
+                final ZipEntry entry = jar.getEntry(name + ".class");
+                final byte[] bytes = new byte[(int) entry.getSize()];
+                try (DataInputStream in = new DataInputStream(jar.getInputStream(entry))) {
+                    in.readFully(bytes);
+                }
+                assertArrayEquals(Files.readAllBytes(dir.resolve(name + ".class")), bytes);
+            }
+        }
+    }
+
+    @Override
+    public int repetitions() {
+        return REPETITIONS;
+    }
+
+    @Override
+    public boolean allowArithmeticExceptions() {
+        return ALLOW_ARITHMETIC_EXCEPTIONS;
+    }
+
+    @Override
+    public int maxLength() {
+        return MAX_LENGTH;
+    }
+}
@@ -0,0 +1,84 @@
+package at.jku.ssw.java.bytecode.generator.generators;
+
+import at.jku.ssw.java.bytecode.generator.GeneratedClass;
+import at.jku.ssw.java.bytecode.generator.GeneratorTest;
+import at.jku.ssw.java.bytecode.generator.types.TypeCache;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+public class BytecodeEmissionTest implements GeneratorTest {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int REPETITIONS = 10;
+    private static final int MAX_LENGTH = 30;
+    private static final boolean ALLOW_ARITHMETIC_EXCEPTIONS = false;
+
+    /**
+     * Accumulated generation times of both backends (in nanoseconds).
+     */
+    private static long sourceTime;
+    private static long bytecodeTime;
+
+    @BeforeEach
+    void setUp() {
+        TypeCache.CACHE.reset();
+    }
+
+    @AfterAll
+    static void reportThroughput() {
+        logger.info("Generation time of {} classes - source compilation: {} ms, bytecode emission: {} ms",
+                REPETITIONS,
+                TimeUnit.NANOSECONDS.toMillis(sourceTime),
+                TimeUnit.NANOSECONDS.toMillis(bytecodeTime));
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(BytecodeEmissionTest.class)
+    void testBytecodeEmissionMatchesSourceCompilation(List<String> args, int index) throws Exception {
+        args.add("-seed");
+        args.add(String.valueOf(new Random().nextInt()));
+
+        final String name = "ABytecodeClass" + index;
+
+        long start = System.nanoTime();
+        final GeneratedClass source = generateClass("source", name, args);
+        sourceTime += System.nanoTime() - start;
+
+        TypeCache.CACHE.reset();
+
+        List<String> bytecodeArgs = new ArrayList<>(args);
+        bytecodeArgs.add("-bytecode");
+
+        start = System.nanoTime();
+        final GeneratedClass bytecode = generateClass("bytecode", name, bytecodeArgs);
+        bytecodeTime += System.nanoTime() - start;
+
+        // the instructions differ, but the behaviour must be the same
+        compareResults(run(source), run(bytecode));
+    }
+
+    @Override
+    public int repetitions() {
+        return REPETITIONS;
+    }
+
+    @Override
+    public boolean allowArithmeticExceptions() {
+        return ALLOW_ARITHMETIC_EXCEPTIONS;
+    }
+
+    @Override
+    public int maxLength() {
+        return MAX_LENGTH;
+    }
+}
@@ -0,0 +1,133 @@
+package at.jku.ssw.java.bytecode.generator.generators;
+
+import at.jku.ssw.java.bytecode.generator.GeneratedClass;
+import at.jku.ssw.java.bytecode.generator.GeneratorTest;
+import at.jku.ssw.java.bytecode.generator.Result;
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.loaders.InMemoryClassLoader;
+import at.jku.ssw.java.bytecode.generator.logger.MethodLogger;
+import at.jku.ssw.java.bytecode.generator.types.TypeCache;
+import at.jku.ssw.java.bytecode.generator.types.base.MetaType;
+import at.jku.ssw.java.bytecode.generator.utils.ClazzFileContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static at.jku.ssw.java.bytecode.generator.types.base.PrimitiveType.DOUBLE;
+import static at.jku.ssw.java.bytecode.generator.types.base.PrimitiveType.FLOAT;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ChecksumTest implements GeneratorTest {
+
+    private static final int REPETITIONS = 10;
+    private static final int MAX_LENGTH = 30;
+    private static final boolean ALLOW_ARITHMETIC_EXCEPTIONS = false;
+
+    @BeforeEach
+    void setUp() {
+        TypeCache.CACHE.reset();
+    }
+
+    @Test
+    void testOnlyTheHashIsPrinted() throws Exception {
+        final GeneratedClass clazz = generateClass("AChecksumClass", Arrays.asList(
+                "-seed", "42",
+                "-l", "50",
+                "-p", "80",
+                "-snippet", "50",
+                "-checksum"
+        ));
+
+        Result result = run(clazz);
+
+        // the output is joined without line separators
+        assertThat(result.err, isEmptyString());
+        assertThat(result.out.matches("#############   GLOBAL HASH: -?\\d+  #############"), is(true));
+    }
+
+    @Test
+    void testFractionsAreFolded() throws Exception {
+        assertThat(checksumOf(DOUBLE, "double aFraction = 1.25;"),
+                is(not(checksumOf(DOUBLE, "double aFraction = 1.75;"))));
+        assertThat(checksumOf(DOUBLE, "double aFraction = Double.NaN;"),
+                is(not(checksumOf(DOUBLE, "double aFraction = 0.0;"))));
+        assertThat(checksumOf(FLOAT, "float aFraction = 0.25f;"),
+                is(not(checksumOf(FLOAT, "float aFraction = 0.75f;"))));
+    }
+
+    /**
+     * Runs a class that only folds the variable {@code aFraction} of the
+     * given declaration into the checksum.
+     *
+     * @param type        The type of the variable
+     * @param declaration The declaration of the variable
+     * @return the output of the class
+     */
+    private String checksumOf(MetaType<?> type, String declaration) throws Exception {
+        TypeCache.CACHE.reset();
+
+        final String name = "AFractionChecksumClass";
+        RandomCodeGenerator generator = new RandomCodeGenerator(name, new ControlValueParser(new String[]{
+                "-filename", name,
+                "-seed", "42",
+                "-l", "0",
+                "-checksum"
+        }).parse());
+
+        byte[] bytes;
+        try {
+            ClazzFileContainer container = generator.getClazzFileContainer();
+            MethodLogger<?> run = container.getClazzLogger().run();
+            new FieldVarGenerator(new Random(), container)
+                    .insertIntoMethodBody(run, declaration + container.checksum(type, "aFraction"));
+
+            generator.generate();
+            bytes = generator.toBytecode();
+        } finally {
+            generator.release();
+        }
+
+        return new InMemoryClassLoader(name, bytes).runMain(name).out;
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(ChecksumTest.class)
+    void testChecksumOfBytecodeEmissionMatchesSourceCompilation(List<String> args, int index) throws Exception {
+        args.add("-seed");
+        args.add(String.valueOf(new Random().nextInt()));
+        args.add("-checksum");
+
+        final String name = "AChecksumClass" + index;
+        final GeneratedClass source = generateClass("source", name, args);
+
+        TypeCache.CACHE.reset();
+
+        List<String> bytecodeArgs = new ArrayList<>(args);
+        bytecodeArgs.add("-bytecode");
+        final GeneratedClass bytecode = generateClass("bytecode", name, bytecodeArgs);
+
+        compareResults(run(source), run(bytecode));
+    }
+
+    @Override
+    public int repetitions() {
+        return REPETITIONS;
+    }
+
+    @Override
+    public boolean allowArithmeticExceptions() {
+        return ALLOW_ARITHMETIC_EXCEPTIONS;
+    }
+
+    @Override
+    public int maxLength() {
+        return MAX_LENGTH;
+    }
+}
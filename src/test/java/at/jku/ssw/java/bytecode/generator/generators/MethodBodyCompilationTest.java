@@ -0,0 +1,168 @@
+package at.jku.ssw.java.bytecode.generator.generators;
+
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.exceptions.MethodCompilationFailedException;
+import at.jku.ssw.java.bytecode.generator.loaders.ExecutionResult;
+import at.jku.ssw.java.bytecode.generator.loaders.InMemoryClassLoader;
+import at.jku.ssw.java.bytecode.generator.logger.FieldVarLogger;
+import at.jku.ssw.java.bytecode.generator.logger.MethodLogger;
+import at.jku.ssw.java.bytecode.generator.metamodel.expressions.Assignment;
+import at.jku.ssw.java.bytecode.generator.metamodel.expressions.constants.IntConstant;
+import at.jku.ssw.java.bytecode.generator.types.TypeCache;
+import at.jku.ssw.java.bytecode.generator.types.base.PrimitiveType;
+import at.jku.ssw.java.bytecode.generator.utils.CompileFailures;
+import javassist.CtClass;
+import javassist.CtMethod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MethodBodyCompilationTest {
+
+    private static final String NAME = "AMethodBodyClass";
+
+    private RandomCodeGenerator randomCodeGenerator;
+    private FieldVarGenerator generator;
+    private MethodLogger<?> run;
+
+    @BeforeEach
+    void setUp() {
+        init();
+    }
+
+    private void init(String... args) {
+        TypeCache.CACHE.reset();
+        randomCodeGenerator = new RandomCodeGenerator(
+                NAME,
+                new ControlValueParser(args).parse()
+        );
+        generator = new FieldVarGenerator(new Random(), randomCodeGenerator.getClazzFileContainer());
+        run = randomCodeGenerator.getClazzFileContainer().getClazzLogger().run();
+    }
+
+    @AfterEach
+    void tearDown() {
+        randomCodeGenerator.release();
+    }
+
+    @Test
+    void testStatementsAreCompiledOnce() {
+        CtMethod method = generator.getCtMethod(run);
+        int length = method.getMethodInfo().getCodeAttribute().getCodeLength();
+
+        generator.insertIntoMethodBody(run, "int a = 1;");
+        generator.insertIntoMethodBody(run, "int a = 2;");
+
+        // nothing is compiled until the body is complete
+        assertThat(method.getMethodInfo().getCodeAttribute().getCodeLength(), is(length));
+
+        // separate blocks allow the same local names (as separate insertions do)
+        generator.compileMethodBody(run);
+
+        assertThat(method.getMethodInfo().getCodeAttribute().getCodeLength() > length, is(true));
+    }
+
+    @Test
+    void testEmittedStatementsAreCompiledInOrder() throws Exception {
+        CtMethod method = generator.getCtMethod(run);
+        method.addLocalVariable("x", CtClass.intType);
+        int length = method.getMethodInfo().getCodeAttribute().getCodeLength();
+
+        // the source statement reads the variable that is assigned by
+        // the preceding bytecode, otherwise the class does not verify
+        generator.insertIntoMethodBody(run, "int a = 1;");
+        generator.insertIntoMethodBody(run, new Assignment<>(
+                new FieldVarLogger<>("x", NAME, 0, PrimitiveType.INT, false, false),
+                new IntConstant(2)));
+        generator.insertIntoMethodBody(run, "int y = x + 1;");
+
+        // the emitted bytecode is buffered as well
+        assertThat(method.getMethodInfo().getCodeAttribute().getCodeLength(), is(length));
+
+        randomCodeGenerator.generate();
+
+        assertEquals(0, randomCodeGenerator.getFailures().total());
+
+        ExecutionResult result = runMain();
+        assertTrue(result.completedNormally(), () -> String.valueOf(result.exception));
+    }
+
+    @Test
+    void testCompilationErrorIsAttributedToStatement() {
+        // without retries, the first failing statement aborts the generation
+        tearDown();
+        init("-retries", "0");
+
+        generator.insertIntoMethodBody(run, "int a = 1;");
+        generator.insertIntoMethodBody(run, "undefinedVariable = 2;");
+        generator.insertIntoMethodBody(run, "int b = 3;");
+
+        MethodCompilationFailedException e = assertThrows(
+                MethodCompilationFailedException.class,
+                () -> generator.compileMethodBody(run)
+        );
+
+        assertThat(e.getMessage(), containsString("undefinedVariable = 2;"));
+    }
+
+    @Test
+    void testFailingStatementIsRolledBack() throws Exception {
+        generator.insertIntoMethodBody(run, "int a = 1;");
+        generator.insertIntoMethodBody(run, "undefinedVariable = 2;");
+        generator.insertIntoMethodBody(run, "int b = 3;");
+
+        randomCodeGenerator.generate();
+
+        CompileFailures failures = randomCodeGenerator.getFailures();
+        assertEquals(1, failures.total());
+        assertEquals(1, failures.of(FieldVarGenerator.class.getSimpleName()));
+
+        assertTrue(runMain().completedNormally());
+    }
+
+    @Test
+    void testRolledBackVariableIsInitialized() throws Exception {
+        // the failing statement initializes a local variable
+        // that subsequent statements rely on
+        generator.getCtMethod(run).addLocalVariable("x", CtClass.intType);
+        run.logVariable("x", NAME, PrimitiveType.INT, 0, true, false);
+        generator.insertIntoMethodBody(run, "x = undefinedVariable;");
+        generator.insertIntoMethodBody(run, "int y = x + 1;");
+
+        randomCodeGenerator.generate();
+
+        assertEquals(1, randomCodeGenerator.getFailures().total());
+
+        // the variable is assigned, otherwise the class does not verify
+        ExecutionResult result = runMain();
+        assertTrue(result.completedNormally(), () -> String.valueOf(result.exception));
+    }
+
+    @Test
+    void testRetryBudgetIsLimited() {
+        tearDown();
+        init("-retries", "2");
+
+        for (int i = 0; i < 3; i++)
+            generator.insertIntoMethodBody(run, "undefinedVariable" + i + " = 2;");
+
+        MethodCompilationFailedException e = assertThrows(
+                MethodCompilationFailedException.class,
+                () -> generator.compileMethodBody(run)
+        );
+
+        assertThat(e.getMessage(), containsString("undefinedVariable2 = 2;"));
+        assertEquals(3, randomCodeGenerator.getFailures().total());
+    }
+
+    private ExecutionResult runMain() throws Exception {
+        return new InMemoryClassLoader(NAME, randomCodeGenerator.toBytecode()).runMain(NAME);
+    }
+}
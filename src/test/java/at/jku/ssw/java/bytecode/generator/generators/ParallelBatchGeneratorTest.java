@@ -0,0 +1,83 @@
+package at.jku.ssw.java.bytecode.generator.generators;
+
+import at.jku.ssw.java.bytecode.generator.GeneratorTest;
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.types.TypeCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class ParallelBatchGeneratorTest implements GeneratorTest {
+
+    private static final int REPETITIONS = 3;
+    private static final int BATCH_SIZE = 12;
+    private static final int THREADS = 4;
+    private static final int MAX_LENGTH = 20;
+    private static final boolean ALLOW_ARITHMETIC_EXCEPTIONS = false;
+
+    @BeforeEach
+    void setUp() {
+        TypeCache.CACHE.reset();
+    }
+
+    private GenerationController controller(String prefix, List<String> args) {
+        String[] allOpts = Stream.concat(
+                Stream.of(
+                        "-filename", prefix,
+                        "-count", String.valueOf(BATCH_SIZE)
+                ),
+                args.stream()
+        ).toArray(String[]::new);
+
+        return new ControlValueParser(allOpts).parse();
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(ParallelBatchGeneratorTest.class)
+    void testParallelMatchesSequentialGeneration(List<String> args, int index) throws Exception {
+        final String prefix = "AParallelClass" + index + "_";
+        final GenerationController controller = controller(prefix, args);
+
+        final Path sequentialDir = outputDirectory().resolve("sequential");
+        final Path parallelDir = outputDirectory().resolve("parallel");
+        Files.createDirectories(sequentialDir);
+        Files.createDirectories(parallelDir);
+
+        BatchGenerator sequential = new BatchGenerator(controller);
+        sequential.generate(sequentialDir.toString());
+
+        BatchGenerator parallel = new ParallelBatchGenerator(controller, THREADS);
+        parallel.generate(parallelDir.toString());
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            final String fileName = sequential.className(i) + ".class";
+            assertArrayEquals(
+                    Files.readAllBytes(sequentialDir.resolve(fileName)),
+                    Files.readAllBytes(parallelDir.resolve(fileName))
+            );
+        }
+    }
+
+    @Override
+    public int repetitions() {
+        return REPETITIONS;
+    }
+
+    @Override
+    public boolean allowArithmeticExceptions() {
+        return ALLOW_ARITHMETIC_EXCEPTIONS;
+    }
+
+    @Override
+    public int maxLength() {
+        return MAX_LENGTH;
+    }
+}
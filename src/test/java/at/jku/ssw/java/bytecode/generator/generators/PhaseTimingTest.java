@@ -0,0 +1,92 @@
+package at.jku.ssw.java.bytecode.generator.generators;
+
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.sinks.MemorySink;
+import at.jku.ssw.java.bytecode.generator.timing.Phase;
+import at.jku.ssw.java.bytecode.generator.timing.PhaseTimer;
+import at.jku.ssw.java.bytecode.generator.timing.TimingReport;
+import at.jku.ssw.java.bytecode.generator.types.TypeCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhaseTimingTest {
+
+    private static final Path OUTPUT_DIR = Paths.get(".tmp").resolve(PhaseTimingTest.class.getSimpleName());
+
+    @BeforeEach
+    void setUp() {
+        TypeCache.CACHE.reset();
+    }
+
+    private static GenerationController controller(String... args) {
+        return new ControlValueParser(args).parse();
+    }
+
+    @Test
+    void testTimingsAreDisabledByDefault() {
+        RandomCodeGenerator generator = new RandomCodeGenerator("AnUntimedClass", controller("-seed", "42"));
+        generator.generate();
+        generator.writeTo(new MemorySink());
+        generator.release();
+
+        assertSame(PhaseTimer.DISABLED, generator.getTimer());
+    }
+
+    @Test
+    void testAllPhasesAreTimed() {
+        final String name = "ATimedClass";
+        RandomCodeGenerator generator = new RandomCodeGenerator(name,
+                controller("-filename", name, "-seed", "42", "-l", "30", "-m", "100", "-cf", "100", "-timings", "timings.json"));
+        generator.generate();
+        generator.writeTo(new MemorySink());
+        generator.release();
+
+        PhaseTimer timer = generator.getTimer();
+        assertTrue(timer.isEnabled());
+        for (Phase phase : Phase.values())
+            assertThat(phase.toString(), timer.count(phase), is(greaterThan(0)));
+
+        assertEquals(1, timer.count(Phase.GENERATE_PROGRAM));
+        assertEquals(1, timer.count(Phase.HASH_METHOD));
+        assertEquals(1, timer.count(Phase.WRITE));
+        assertEquals(timer.count(Phase.METHOD_BODY), timer.count(Phase.GENERATE_METHOD));
+    }
+
+    @Test
+    void testBatchWritesReport() throws IOException {
+        Files.createDirectories(OUTPUT_DIR);
+        final Path report = OUTPUT_DIR.resolve("timings.json");
+        Files.deleteIfExists(report);
+
+        BatchGenerator batch = new PipelinedBatchGenerator(controller(
+                "-filename", "ATimedBatchClass",
+                "-count", "4",
+                "-seed", "7",
+                "-sink", "memory",
+                "-timings", report.toString()
+        ), 2, 1);
+        batch.generate();
+
+        TimingReport timings = batch.getTimings();
+        assertEquals(4, timings.size());
+        assertEquals(4, timings.batch(Phase.WRITE).count);
+        assertEquals(4, timings.batch(Phase.GENERATE_PROGRAM).count);
+        assertTrue(timings.of("ATimedBatchClass3", Phase.COMPILE).isPresent());
+
+        final String json = new String(Files.readAllBytes(report), StandardCharsets.UTF_8);
+        assertEquals(timings.toJson(), json);
+        for (int i = 1; i <= 4; i++)
+            assertThat(json, containsString("\"ATimedBatchClass" + i + "\", \"seed\": " + (6 + i)));
+    }
+}
@@ -0,0 +1,180 @@
+package at.jku.ssw.java.bytecode.generator.generators;
+
+import at.jku.ssw.java.bytecode.generator.GeneratorTest;
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.sinks.ClassSink;
+import at.jku.ssw.java.bytecode.generator.types.TypeCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PipelinedBatchGeneratorTest implements GeneratorTest {
+
+    private static final int REPETITIONS = 3;
+    private static final int BATCH_SIZE = 12;
+    private static final int THREADS = 4;
+    private static final int IO_THREADS = 2;
+    private static final int MAX_LENGTH = 20;
+    private static final boolean ALLOW_ARITHMETIC_EXCEPTIONS = false;
+
+    @BeforeEach
+    void setUp() {
+        TypeCache.CACHE.reset();
+    }
+
+    private GenerationController controller(String prefix, List<String> args) {
+        String[] allOpts = Stream.concat(
+                Stream.of(
+                        "-filename", prefix,
+                        "-count", String.valueOf(BATCH_SIZE)
+                ),
+                args.stream()
+        ).toArray(String[]::new);
+
+        return new ControlValueParser(allOpts).parse();
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(PipelinedBatchGeneratorTest.class)
+    void testPipelinedMatchesSequentialGeneration(List<String> args, int index) throws Exception {
+        final String prefix = "APipelinedClass" + index + "_";
+        final GenerationController controller = controller(prefix, args);
+
+        final Path sequentialDir = outputDirectory().resolve("sequential");
+        final Path pipelinedDir = outputDirectory().resolve("pipelined");
+        Files.createDirectories(sequentialDir);
+        Files.createDirectories(pipelinedDir);
+
+        BatchGenerator sequential = new BatchGenerator(controller);
+        sequential.generate(sequentialDir.toString());
+
+        BatchGenerator pipelined = new PipelinedBatchGenerator(controller, THREADS, IO_THREADS);
+        pipelined.generate(pipelinedDir.toString());
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            final String fileName = sequential.className(i) + ".class";
+            assertArrayEquals(
+                    Files.readAllBytes(sequentialDir.resolve(fileName)),
+                    Files.readAllBytes(pipelinedDir.resolve(fileName))
+            );
+        }
+    }
+
+    @Test
+    void testSlowSinkThrottlesGeneration() {
+        final PipelinedBatchGenerator generator = new PipelinedBatchGenerator(
+                controller("ASlowlyWrittenClass", Arrays.asList("-l", "5")),
+                THREADS,
+                1
+        );
+
+        final Set<String> written = ConcurrentHashMap.newKeySet();
+        generator.generate(new ClassSink() {
+            @Override
+            public void write(String className, byte[] bytes) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                written.add(className);
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        assertThat(written, hasSize(BATCH_SIZE));
+        assertThat(
+                generator.statistics().stream().map(s -> s.name).collect(Collectors.toList()),
+                contains("generate", "finalize", "persist")
+        );
+        generator.statistics().forEach(s -> assertThat(s.getCount(), is((long) BATCH_SIZE)));
+
+        // the queue of the single I/O thread is bounded
+        StageStatistics persistence = generator.statistics().get(2);
+        assertThat(persistence.getMaxQueueDepth(), is(lessThanOrEqualTo(2)));
+        assertThat(persistence.getAverageBusyNanos(), is(greaterThan(0L)));
+    }
+
+    @Test
+    void testWriteFailureIsPropagated() {
+        final PipelinedBatchGenerator generator = new PipelinedBatchGenerator(
+                controller("AFailingClass", Arrays.asList("-l", "5")),
+                THREADS,
+                IO_THREADS
+        );
+
+        ClassSink sink = new ClassSink() {
+            @Override
+            public void write(String className, byte[] bytes) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        AssertionError e = assertThrows(AssertionError.class, () -> generator.generate(sink));
+        assertThat(e.getCause(), is(instanceOf(IOException.class)));
+    }
+
+    @Test
+    void testFailureStopsSubmission() {
+        final int count = 100;
+        final PipelinedBatchGenerator generator = new PipelinedBatchGenerator(
+                new ControlValueParser(new String[]{"-filename", "AnAbortedClass", "-count", String.valueOf(count), "-l", "5"}).parse(),
+                1,
+                1
+        );
+
+        ClassSink sink = new ClassSink() {
+            @Override
+            public void write(String className, byte[] bytes) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        assertThrows(AssertionError.class, () -> generator.generate(sink));
+        // the remaining classes are not generated after the first failure
+        assertThat(generator.statistics().get(0).getCount(), is(lessThan((long) count)));
+    }
+
+    @Override
+    public int repetitions() {
+        return REPETITIONS;
+    }
+
+    @Override
+    public boolean allowArithmeticExceptions() {
+        return ALLOW_ARITHMETIC_EXCEPTIONS;
+    }
+
+    @Override
+    public int maxLength() {
+        return MAX_LENGTH;
+    }
+}
@@ -0,0 +1,111 @@
+package at.jku.ssw.java.bytecode.generator.generators;
+
+import at.jku.ssw.java.bytecode.generator.GeneratedClass;
+import at.jku.ssw.java.bytecode.generator.GeneratorTest;
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.types.TypeCache;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.StackMapTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class StackMapFramesTest implements GeneratorTest {
+
+    private static final int REPETITIONS = 10;
+    private static final int MAX_LENGTH = 30;
+    private static final boolean ALLOW_ARITHMETIC_EXCEPTIONS = false;
+
+    @BeforeEach
+    void setUp() {
+        TypeCache.CACHE.reset();
+    }
+
+    private ClassFile read(GeneratedClass clazz) throws IOException {
+        byte[] bytes = Files.readAllBytes(outputDirectory().resolve(clazz.path).resolve(clazz.name + ".class"));
+        return new ClassFile(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    private static long framedMethods(ClassFile classFile) {
+        return classFile.getMethods().stream()
+                .map(MethodInfo::getCodeAttribute)
+                .filter(ca -> ca != null && ca.getAttribute(StackMapTable.tag) != null)
+                .count();
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(StackMapFramesTest.class)
+    void testLegacyClassVersionMatchesDefault(List<String> args, int index) throws Exception {
+        args.add("-seed");
+        args.add(String.valueOf(new Random().nextInt()));
+
+        final String name = "AFramedClass" + index;
+        final GeneratedClass framed = generateClass("framed", name, args);
+
+        TypeCache.CACHE.reset();
+
+        List<String> legacyArgs = new ArrayList<>(args);
+        legacyArgs.add("-legacy");
+        final GeneratedClass legacy = generateClass("legacy", name, legacyArgs);
+
+        assertThat(read(framed).getMajorVersion(), is(greaterThanOrEqualTo(ClassFile.JAVA_6)));
+        assertThat(read(legacy).getMajorVersion(), is(ClassFile.JAVA_5));
+        assertThat(framedMethods(read(legacy)), is(0L));
+
+        compareResults(run(framed), run(legacy));
+    }
+
+    @Test
+    void testFramesAreComputedForChangedMethods() throws Exception {
+        final GenerationController controller = new ControlValueParser(new String[]{
+                "-filename", "AFramedClass",
+                "-seed", "42",
+                "-l", "50",
+                "-bytecode"
+        }).parse();
+
+        RandomCodeGenerator generator = new RandomCodeGenerator("AFramedClass", controller);
+        generator.generate();
+
+        final byte[] first = generator.toBytecode();
+        final ClassFile classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(first)));
+
+        assertThat(classFile.getMajorVersion(), is(greaterThanOrEqualTo(ClassFile.JAVA_6)));
+        assertThat(framedMethods(classFile), is(greaterThan(0L)));
+
+        // the frames of unchanged methods are not rebuilt again
+        assertArrayEquals(first, generator.toBytecode());
+
+        generator.release();
+    }
+
+    @Override
+    public int repetitions() {
+        return REPETITIONS;
+    }
+
+    @Override
+    public boolean allowArithmeticExceptions() {
+        return ALLOW_ARITHMETIC_EXCEPTIONS;
+    }
+
+    @Override
+    public int maxLength() {
+        return MAX_LENGTH;
+    }
+}
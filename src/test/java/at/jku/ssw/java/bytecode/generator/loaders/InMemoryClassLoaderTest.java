@@ -0,0 +1,114 @@
+package at.jku.ssw.java.bytecode.generator.loaders;
+
+import at.jku.ssw.java.bytecode.generator.GeneratedClass;
+import at.jku.ssw.java.bytecode.generator.GeneratorTest;
+import at.jku.ssw.java.bytecode.generator.Result;
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.generators.RandomCodeGenerator;
+import at.jku.ssw.java.bytecode.generator.types.TypeCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryClassLoaderTest implements GeneratorTest {
+
+    private static final int REPETITIONS = 10;
+    private static final int MAX_LENGTH = 30;
+    private static final boolean ALLOW_ARITHMETIC_EXCEPTIONS = false;
+
+    @BeforeEach
+    public void setUp() {
+        TypeCache.CACHE.reset();
+    }
+
+    private RandomCodeGenerator generate(String name, List<String> args) {
+        String[] allOpts = Stream.concat(
+                Stream.of("-filename", name),
+                args.stream()
+        ).toArray(String[]::new);
+
+        GenerationController controller = new ControlValueParser(allOpts).parse();
+        RandomCodeGenerator generator = new RandomCodeGenerator(name, controller);
+        generator.generate();
+        return generator;
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(InMemoryClassLoaderTest.class)
+    public void testRunMainInMemory(List<String> args, int index) throws Exception {
+        final String name = "AnInMemoryClass" + index;
+
+        RandomCodeGenerator generator = generate(name, args);
+        byte[] bytes;
+        try {
+            bytes = generator.toBytecode();
+        } finally {
+            generator.release();
+        }
+
+        ExecutionResult result = new InMemoryClassLoader(name, bytes).runMain(name);
+
+        assertTrue(result.completedNormally(), () -> String.valueOf(result.exception));
+        assertThat(result.out, containsString("GLOBAL HASH"));
+        assertFalse(Files.exists(outputDirectory().resolve(name + ".class")));
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(InMemoryClassLoaderTest.class)
+    public void testInMemoryMatchesSeparateProcess(List<String> args, int index) throws Exception {
+        final String name = "AnInMemoryComparedClass" + index;
+        args.add("-seed");
+        args.add(String.valueOf(new Random().nextInt()));
+
+        final GeneratedClass written = generateClass("compared", name, args);
+        final Result expected = run(written);
+
+        TypeCache.CACHE.reset();
+        RandomCodeGenerator generator = generate(name, args);
+        byte[] bytes;
+        try {
+            bytes = generator.toBytecode();
+        } finally {
+            generator.release();
+        }
+
+        ExecutionResult actual = new InMemoryClassLoader(name, bytes).runMain(name);
+
+        assertArrayEquals(Files.readAllBytes(outputDirectory().resolve(written.path).resolve(name + ".class")), bytes);
+        assertEquals(expected.out, actual.out.replaceAll("\\R", ""));
+    }
+
+    @Test
+    public void testLoadMissingClass() {
+        InMemoryClassLoader loader = new InMemoryClassLoader(Collections.emptyMap());
+
+        assertThrows(ClassNotFoundException.class, () -> loader.runMain("AMissingClass"));
+    }
+
+    @Override
+    public int repetitions() {
+        return REPETITIONS;
+    }
+
+    @Override
+    public boolean allowArithmeticExceptions() {
+        return ALLOW_ARITHMETIC_EXCEPTIONS;
+    }
+
+    @Override
+    public int maxLength() {
+        return MAX_LENGTH;
+    }
+}
@@ -0,0 +1,83 @@
+package at.jku.ssw.java.bytecode.generator.logger;
+
+import at.jku.ssw.java.bytecode.generator.utils.RandomSupplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Modifier;
+import java.util.Random;
+
+import static at.jku.ssw.java.bytecode.generator.types.TypeCache.CACHE;
+import static at.jku.ssw.java.bytecode.generator.types.base.PrimitiveType.INT;
+import static at.jku.ssw.java.bytecode.generator.types.base.VoidType.VOID;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CallGraphTest {
+
+    private Random rand;
+    private ClazzLogger clazz;
+
+    @BeforeEach
+    void setUp() {
+        rand = new Random();
+        CACHE.reset();
+        clazz = ClazzLogger.generate(rand, "ACallGraphClass", new RandomSupplier(rand, 0, 0, 0, 0, 0, 0, 0));
+    }
+
+    @Test
+    void testTransitiveExclusions() {
+        MethodLogger<?> a = method("a");
+        MethodLogger<?> b = method("b");
+        MethodLogger<?> c = method("c");
+
+        // a -> b -> c
+        a.invoke(b);
+        b.invoke(c);
+
+        assertTrue(c.isExcluded(c));
+        assertTrue(c.isExcluded(b));
+        assertTrue(c.isExcluded(a));
+        assertTrue(b.isExcluded(a));
+        assertFalse(a.isExcluded(b));
+        assertFalse(a.isExcluded(c));
+
+        // the cached exclusions match the recursively built ones
+        for (MethodLogger<?> caller : clazz.methods())
+            for (MethodLogger<?> callee : clazz.methods())
+                assertEquals(caller.allExclusions().contains(callee), caller.isExcluded(callee));
+    }
+
+    @Test
+    void testExclusionsArePropagatedToExcludingMethods() {
+        MethodLogger<?> a = method("a");
+        MethodLogger<?> b = method("b");
+        MethodLogger<?> c = method("c");
+
+        // c already excludes b, b later excludes a
+        b.invoke(c);
+        a.invoke(b);
+
+        assertTrue(c.isExcluded(a));
+    }
+
+    @Test
+    void testCallableMethodsRespectExclusions() {
+        MethodLogger<?> a = method("a");
+        MethodLogger<?> b = method("b");
+
+        a.invoke(b);
+
+        // b may only call a, but a calls b
+        for (int i = 0; i < 20; i++)
+            assertFalse(clazz.randomCallableMethod(b).isPresent());
+
+        assertSame(b, clazz.getRandomCallableMethodOfType(a, INT));
+        assertNull(clazz.getRandomCallableMethodOfType(a, VOID));
+    }
+
+    private MethodLogger<?> method(String name) {
+        MethodLogger<?> m = new MethodLogger<>(rand, clazz, name, Modifier.PUBLIC, INT);
+        clazz.register(m);
+        return m;
+    }
+}
@@ -0,0 +1,127 @@
+package at.jku.ssw.java.bytecode.generator.logger;
+
+import at.jku.ssw.java.bytecode.generator.types.base.MetaType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static at.jku.ssw.java.bytecode.generator.logger.VariableStore.*;
+import static at.jku.ssw.java.bytecode.generator.types.base.PrimitiveType.INT;
+import static at.jku.ssw.java.bytecode.generator.types.base.PrimitiveType.LONG;
+import static at.jku.ssw.java.bytecode.generator.types.base.PrimitiveType.SHORT;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class VariableStoreTest {
+
+    private static final int SAMPLES = 200;
+
+    private Random rand;
+    private VariableStore store;
+
+    @BeforeEach
+    void setUp() {
+        rand = new Random();
+        store = new VariableStore();
+    }
+
+    @Test
+    void testEmptyStore() {
+        assertThat(store.isEmpty(), is(true));
+        assertThat(store.random(rand, NONE, NONE), is(nullValue()));
+        assertThat(store.randomOfType(rand, INT, NONE, NONE), is(nullValue()));
+        assertThat(store.randomAssignableTo(rand, LONG, NONE, NONE), is(nullValue()));
+    }
+
+    @Test
+    void testSelectionByFlags() {
+        FieldVarLogger<?> a = add("a", Modifier.STATIC, true);
+        FieldVarLogger<?> b = add("b", Modifier.FINAL, true);
+        FieldVarLogger<?> c = add("c", 0, false);
+
+        assertThat(sample(STATIC, NONE), contains(a));
+        assertThat(sample(NONE, FINAL), containsInAnyOrder(a, c));
+        assertThat(sample(INITIALIZED, NONE), containsInAnyOrder(a, b));
+        assertThat(sample(NONE, NONE), containsInAnyOrder(a, b, c));
+        assertThat(store.random(rand, STATIC | FINAL, NONE), is(nullValue()));
+    }
+
+    @Test
+    void testSelectionByType() {
+        FieldVarLogger<?> i = add("i", INT, 0);
+        FieldVarLogger<?> s = add("s", SHORT, 0);
+        add("l", LONG, 0);
+
+        Set<FieldVarLogger<?>> exact = new HashSet<>();
+        Set<FieldVarLogger<?>> assignable = new HashSet<>();
+        for (int n = 0; n < SAMPLES; n++) {
+            exact.add(store.randomOfType(rand, INT, NONE, NONE));
+            assignable.add(store.randomAssignableTo(rand, INT, NONE, NONE));
+        }
+
+        assertThat(exact, contains(i));
+        assertThat(assignable, containsInAnyOrder(i, s));
+    }
+
+    @Test
+    void testInitializationUpdatesStore() {
+        FieldVarLogger<?> a = add("a", 0, false);
+        FieldVarLogger<?> b = add("b", 0, false);
+
+        assertThat(store.random(rand, INITIALIZED, NONE), is(nullValue()));
+
+        a.setInitialized();
+
+        assertThat(sample(INITIALIZED, NONE), contains(a));
+        assertThat(sample(NONE, INITIALIZED), contains(b));
+        assertThat(store.randomOfType(rand, INT, INITIALIZED, NONE), is(a));
+    }
+
+    @Test
+    void testRedeclarationReplacesVariable() {
+        add("a", 0, true);
+        FieldVarLogger<?> replacement = add("a", Modifier.STATIC, true);
+
+        assertThat(sample(NONE, NONE), contains(replacement));
+        assertThat(store.stream().count(), is(1L));
+    }
+
+    @Test
+    void testInitializationsAreRecorded() {
+        add("a", 0, true);
+        store.recordInitialized();
+
+        FieldVarLogger<?> b = add("b", 0, true);
+        FieldVarLogger<?> c = add("c", 0, false);
+        assertThat(store.drainInitialized(), contains(b));
+
+        c.setInitialized();
+        c.setInitialized();
+        assertThat(store.drainInitialized(), contains(c));
+        assertThat(store.drainInitialized(), is(empty()));
+    }
+
+    private FieldVarLogger<?> add(String name, int modifiers, boolean initialized) {
+        FieldVarLogger<?> f = new FieldVarLogger<>(name, "AClass", modifiers, INT, initialized, true);
+        store.add(f);
+        return f;
+    }
+
+    private FieldVarLogger<?> add(String name, MetaType<?> type, int modifiers) {
+        FieldVarLogger<?> f = new FieldVarLogger<>(name, "AClass", modifiers, type, true, true);
+        store.add(f);
+        return f;
+    }
+
+    private Set<FieldVarLogger<?>> sample(int required, int excluded) {
+        Set<FieldVarLogger<?>> selected = new HashSet<>();
+        for (int n = 0; n < SAMPLES; n++)
+            selected.add(store.random(rand, required, excluded));
+
+        return selected;
+    }
+}
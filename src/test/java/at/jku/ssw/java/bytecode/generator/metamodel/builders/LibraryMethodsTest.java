@@ -0,0 +1,62 @@
+package at.jku.ssw.java.bytecode.generator.metamodel.builders;
+
+import at.jku.ssw.java.bytecode.generator.types.specializations.BoxedType;
+import at.jku.ssw.java.bytecode.generator.types.specializations.ObjectType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static at.jku.ssw.java.bytecode.generator.types.TypeCache.CACHE;
+import static at.jku.ssw.java.bytecode.generator.types.specializations.StringType.STRING;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LibraryMethodsTest {
+
+    @Test
+    void testMethodsAreInferred() {
+        List<String> methods = STRING.methods().stream()
+                .map(LibMethod::toString)
+                .collect(Collectors.toList());
+
+        assertThat(methods, hasItem("method public static java.lang.String java.lang.String.valueOf(int)"));
+        assertThat(
+                BoxedType.INT.methods().stream().map(LibMethod::toString).collect(Collectors.toList()),
+                hasItem("method public static int java.lang.Integer.parseInt(java.lang.String, int)"));
+    }
+
+    @Test
+    void testExcludedMethodsAreSkipped() {
+        assertThat(
+                ObjectType.OBJECT.methods().stream()
+                        .map(MethodBuilder::name)
+                        .collect(Collectors.toList()),
+                not(hasItems("hashCode", "equals", "wait", "getClass")));
+    }
+
+    @Test
+    void testMethodsAreIndependentOfRegisteredTypes() {
+        CACHE.invalidate();
+        List<LibMethod<?>> withoutTypes = STRING.methods();
+
+        CACHE.reset();
+        assertThat(STRING.methods(), is(sameInstance(withoutTypes)));
+    }
+
+    @Test
+    void testMethodsAreSharedAcrossThreads() throws Exception {
+        List<LibMethod<?>> other = CompletableFuture
+                .supplyAsync(STRING::methods)
+                .get();
+
+        assertThat(STRING.methods(), is(sameInstance(other)));
+    }
+
+    @Test
+    void testMethodsAreImmutable() {
+        assertThrows(UnsupportedOperationException.class, () -> STRING.methods().clear());
+    }
+}
@@ -0,0 +1,85 @@
+package at.jku.ssw.java.bytecode.generator.sinks;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class ClassSinkTest {
+
+    private static final byte[] A = "first class".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] B = "second class".getBytes(StandardCharsets.UTF_8);
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Paths.get(".tmp").resolve(getClass().getSimpleName());
+        Files.createDirectories(dir);
+    }
+
+    @Test
+    void testDirectorySink() throws IOException {
+        try (ClassSink sink = ClassSink.of(ClassSink.Kind.DIRECTORY, dir, "Unused", false)) {
+            sink.write("ADirectoryClass", A);
+        }
+
+        assertArrayEquals(A, Files.readAllBytes(dir.resolve("ADirectoryClass.class")));
+    }
+
+    @Test
+    void testDeflatedJarSink() throws IOException {
+        testJarSink("ADeflatedArchive", false);
+    }
+
+    @Test
+    void testStoredJarSink() throws IOException {
+        testJarSink("AStoredArchive", true);
+    }
+
+    private void testJarSink(String name, boolean stored) throws IOException {
+        try (ClassSink sink = ClassSink.of(ClassSink.Kind.JAR, dir, name, stored)) {
+            sink.write("AJarClass", A);
+            sink.write("pkg.AnotherJarClass", B);
+        }
+
+        try (ZipFile jar = new ZipFile(dir.resolve(name + ".jar").toFile())) {
+            ZipEntry a = jar.getEntry("AJarClass.class");
+            ZipEntry b = jar.getEntry("pkg/AnotherJarClass.class");
+
+            assertThat(a.getMethod(), is(stored ? ZipEntry.STORED : ZipEntry.DEFLATED));
+            assertArrayEquals(A, read(jar, a));
+            assertArrayEquals(B, read(jar, b));
+        }
+    }
+
+    @Test
+    void testMemorySink() throws IOException {
+        MemorySink sink = (MemorySink) ClassSink.of(ClassSink.Kind.MEMORY, dir, "Unused", false);
+        sink.write("AMemoryClass", A);
+        sink.close();
+
+        assertThat(sink.getClasses().keySet(), contains("AMemoryClass"));
+        assertThat(sink.getClasses().get("AMemoryClass"), is(sameInstance(A)));
+        assertThat(Files.exists(dir.resolve("AMemoryClass.class")), is(false));
+    }
+
+    private static byte[] read(ZipFile jar, ZipEntry entry) throws IOException {
+        byte[] bytes = new byte[(int) entry.getSize()];
+        try (DataInputStream in = new DataInputStream(jar.getInputStream(entry))) {
+            in.readFully(bytes);
+        }
+        return bytes;
+    }
+}
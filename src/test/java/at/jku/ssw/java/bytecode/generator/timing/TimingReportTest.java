@@ -0,0 +1,110 @@
+package at.jku.ssw.java.bytecode.generator.timing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class TimingReportTest {
+
+    private static PhaseTimer timer(Phase phase, long... samples) {
+        PhaseTimer timer = PhaseTimer.of(true);
+        for (long nanos : samples)
+            timer.record(phase, nanos);
+        return timer;
+    }
+
+    @Test
+    void testDisabledTimerRecordsNothing() {
+        PhaseTimer timer = PhaseTimer.of(false);
+        assertFalse(timer.isEnabled());
+
+        timer.stop(Phase.COMPILE, timer.start());
+
+        assertEquals(0, timer.count(Phase.COMPILE));
+        assertEquals(0, timer.samples(Phase.COMPILE).length);
+    }
+
+    @Test
+    void testTimerRecordsPhases() {
+        PhaseTimer timer = PhaseTimer.of(true);
+
+        for (int i = 0; i < 100; i++)
+            timer.stop(Phase.COMPILE, timer.start());
+        timer.stop(Phase.WRITE, timer.start());
+
+        assertEquals(100, timer.count(Phase.COMPILE));
+        assertEquals(1, timer.count(Phase.WRITE));
+        assertEquals(0, timer.count(Phase.STACK_MAP));
+    }
+
+    @Test
+    void testStatisticsOfClass() {
+        PhaseStatistics stats = timer(Phase.COMPILE, 5, 1, 4, 2, 3, 10, 9, 8, 7, 6)
+                .statistics(Phase.COMPILE);
+
+        assertEquals(10, stats.count);
+        assertEquals(55, stats.totalNanos);
+        assertEquals(5, stats.meanNanos());
+        assertEquals(5, stats.p50Nanos);
+        assertEquals(9, stats.p90Nanos);
+        assertEquals(10, stats.p99Nanos);
+        assertEquals(10, stats.maxNanos);
+    }
+
+    @Test
+    void testHistogramBuckets() {
+        for (int i = 0; i < 2 * Histogram.SUB_BUCKETS; i++)
+            assertEquals(i, Histogram.index(i));
+
+        Random rand = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            final long value = rand.nextLong() >>> (2 + rand.nextInt(62));
+            final int index = Histogram.index(value);
+            assertThat(Histogram.lowerBound(index), is(lessThanOrEqualTo(value)));
+            assertThat(Histogram.lowerBound(index + 1), is(greaterThan(value)));
+        }
+    }
+
+    @Test
+    void testBatchPercentilesAreAccurate() {
+        TimingReport report = new TimingReport();
+
+        // 1000 classes that compile in 1 to 1000 microseconds
+        for (int i = 1; i <= 1000; i++)
+            report.add("ATimedClass" + i, i, timer(Phase.COMPILE, i * 1000L));
+
+        PhaseStatistics stats = report.batch(Phase.COMPILE);
+        assertEquals(1000, report.size());
+        assertEquals(1000, stats.count);
+        assertEquals(500_500_000L, stats.totalNanos);
+        assertEquals(1_000_000L, stats.maxNanos);
+        assertThat((double) stats.p50Nanos, is(closeTo(500_000, 500_000 / Histogram.SUB_BUCKETS)));
+        assertThat((double) stats.p99Nanos, is(closeTo(990_000, 990_000 / Histogram.SUB_BUCKETS)));
+
+        assertEquals(0, report.batch(Phase.WRITE).count);
+    }
+
+    @Test
+    void testJson() {
+        TimingReport report = new TimingReport();
+        report.add("BTimedClass", 2, timer(Phase.STACK_MAP, 3, 4));
+        report.add("ATimedClass", 1, timer(Phase.COMPILE, 7));
+        // disabled timers are ignored
+        report.add("CTimedClass", 3, PhaseTimer.DISABLED);
+
+        final String json = report.toJson();
+
+        assertThat(json, containsString("\"batch\": {\"classes\": 2"));
+        assertThat(json, containsString("\"stack_map\": {\"count\": 2, \"total_ns\": 7"));
+        assertThat(json, not(containsString("CTimedClass")));
+        // ordered by seed
+        assertThat(json.indexOf("ATimedClass"), is(lessThan(json.indexOf("BTimedClass"))));
+        for (Phase phase : Phase.values())
+            assertThat(json, containsString("\"" + phase.key() + "\": {\"count\": "));
+    }
+}
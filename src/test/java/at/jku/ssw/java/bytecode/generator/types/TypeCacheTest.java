@@ -10,6 +10,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.BitSet;
 import java.util.Date;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -21,8 +22,7 @@ import static at.jku.ssw.java.bytecode.generator.types.specializations.DateType.
 import static at.jku.ssw.java.bytecode.generator.types.specializations.ObjectType.OBJECT;
 import static at.jku.ssw.java.bytecode.generator.types.specializations.StringType.STRING;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.containsInAnyOrder;
-import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
@@ -65,7 +65,7 @@ public class TypeCacheTest {
     @Test
     public void testContainsRefTypes() {
         assertThat(
-                CACHE.refTypes,
+                CACHE.refTypes().collect(Collectors.toList()),
                 Matchers.<RefType>containsInAnyOrder(
                         OBJECT,
                         DATE,
@@ -85,7 +85,7 @@ public class TypeCacheTest {
     @Test
     public void testContainsPrimitiveTypes() {
         assertThat(
-                CACHE.primitiveTypes,
+                CACHE.primitiveTypes().collect(Collectors.toList()),
                 containsInAnyOrder(
                         BYTE,
                         SHORT,
@@ -120,6 +120,44 @@ public class TypeCacheTest {
         assertFalse(CACHE.contains(objectArray1dType));
     }
 
+    @Test
+    public void testArrayTypesAreCanonical() {
+        ArrayType<?> type = ArrayType.of(INT, 2);
+
+        assertThat(ArrayType.of(INT, 2), is(sameInstance(type)));
+        assertThat(CACHE.find(int[][].class), is(Optional.of(type)));
+        assertThat(ArrayType.of(INT, 3), is(not(sameInstance(type))));
+        assertThat(ArrayType.of(LONG, 2), is(not(sameInstance(type))));
+    }
+
+    @Test
+    public void testArrayTypesWithRestrictionsAreDistinct() {
+        BitSet[] restrictions = {BitSet.valueOf(new long[]{0b110})};
+        BitSet[] equalRestrictions = {BitSet.valueOf(new long[]{0b110})};
+        ArrayType<?> type = ArrayType.of(INT, 1, restrictions);
+
+        assertThat(ArrayType.of(INT, 1, equalRestrictions), is(sameInstance(type)));
+        assertThat(ArrayType.of(INT, 1), is(not(sameInstance(type))));
+    }
+
+    @Test
+    public void testArrayTypesAreClearedOnReset() {
+        ArrayType<?> type = ArrayType.of(STRING, 1);
+
+        CACHE.reset();
+
+        assertThat(ArrayType.of(STRING, 1), is(not(sameInstance(type))));
+        assertThat(ArrayType.of(STRING, 1), is(type));
+    }
+
+    @Test
+    public void testFindAfterInvalidate() {
+        CACHE.invalidate();
+
+        assertThat(CACHE.find(String.class), is(Optional.empty()));
+        assertThat(CACHE.find(Void.TYPE), is(Optional.of(VoidType.VOID)));
+    }
+
     @ParameterizedTest(name = "Meta type ''{1}'' is inferred from ''{0}''")
     @MethodSource("inferredTypeProvider")
     public void testFind(Class<?> type, MetaType<?> expected) {
@@ -0,0 +1,99 @@
+package at.jku.ssw.java.bytecode.generator.utils;
+
+import at.jku.ssw.java.bytecode.generator.cli.ControlValueParser;
+import at.jku.ssw.java.bytecode.generator.cli.GenerationController;
+import at.jku.ssw.java.bytecode.generator.generators.RandomCodeGenerator;
+import javassist.ClassPool;
+import javassist.CtClass;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassPoolProviderTest {
+
+    private static final int GENERATIONS = 2000;
+    private static final int WARM_UP = 200;
+    private static final long MAX_HEAP_GROWTH = 16 * 1024 * 1024;
+
+    private static final Path OUTPUT_DIR = Paths.get(".tmp").resolve(ClassPoolProviderTest.class.getSimpleName());
+
+    private ClassPoolProvider provider;
+
+    @BeforeEach
+    public void setUp() {
+        provider = new ClassPoolProvider();
+    }
+
+    @Test
+    public void testPoolsAreIsolated() {
+        ClassPool a = provider.acquire();
+        ClassPool b = provider.acquire();
+
+        CtClass clazz = a.makeClass("AnIsolatedClass");
+
+        assertSame(clazz, a.getOrNull("AnIsolatedClass"));
+        assertNull(b.getOrNull("AnIsolatedClass"));
+        assertNull(ClassPool.getDefault().getOrNull("AnIsolatedClass"));
+    }
+
+    @Test
+    public void testReleasedPoolsAreReused() throws Exception {
+        ClassPool a = provider.acquire();
+        CtClass math = a.get("java.lang.Math");
+        a.makeClass("AReleasedClass");
+        provider.release(a);
+        provider.release(a);
+
+        assertThat(provider.idlePools(), is(1));
+
+        ClassPool b = provider.acquire();
+
+        assertThat(provider.idlePools(), is(0));
+        // library classes are shared, generated classes are not
+        assertSame(math, b.get("java.lang.Math"));
+        assertNull(b.getOrNull("AReleasedClass"));
+    }
+
+    @Test
+    public void testHeapRemainsFlat() throws Exception {
+        Files.createDirectories(OUTPUT_DIR);
+
+        long warmHeap = 0;
+        for (int i = 0; i < GENERATIONS; i++) {
+            if (i == WARM_UP)
+                warmHeap = usedHeap();
+
+            final String name = "AFlatHeapClass" + i;
+            GenerationController controller = new ControlValueParser(new String[]{
+                    "-filename", name,
+                    "-seed", String.valueOf(i),
+                    "-l", "2",
+                    "-p", "0"
+            }).parse();
+
+            RandomCodeGenerator generator = new RandomCodeGenerator(name, controller, provider);
+            generator.generate();
+            generator.writeFile(OUTPUT_DIR.toString());
+            generator.release();
+        }
+        final long finalHeap = usedHeap();
+
+        assertThat(provider.idlePools(), is(1));
+        assertThat(finalHeap - warmHeap, lessThan(MAX_HEAP_GROWTH));
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
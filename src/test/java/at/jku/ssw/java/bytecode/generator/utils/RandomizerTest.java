@@ -4,11 +4,9 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.RepeatedTest;
 
-import java.util.HashSet;
-import java.util.Optional;
-import java.util.Random;
-import java.util.Set;
+import java.util.*;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static java.util.Optional.empty;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -324,6 +322,72 @@ public class RandomizerTest {
         );
     }
 
+    @RepeatedTest(value = REPETITIONS)
+    public void testOneOfForEmptyIterator() {
+        assertThat(randomizer.oneOf(Collections.emptyIterator()), is(empty()));
+    }
+
+    @RepeatedTest(value = REPETITIONS)
+    @SuppressWarnings("unchecked")
+    public void testOneOfForIterator() {
+        assertThat(
+                randomizer.oneOf(Arrays.asList(0, 1, 2).iterator()),
+                isOneOf(opt(0), opt(1), opt(2))
+        );
+    }
+
+    @RepeatedTest(value = REPETITIONS)
+    public void testOneOfStreamSelectsAllElements() {
+        Set<Integer> selected = new HashSet<>();
+
+        for (int i = 0; i < 100; i++)
+            randomizer.oneOf(IntStream.range(0, 4).boxed()).ifPresent(selected::add);
+
+        assertThat(selected, containsInAnyOrder(0, 1, 2, 3));
+    }
+
+    @RepeatedTest(value = REPETITIONS)
+    @SuppressWarnings("unchecked")
+    public void testOneOfWithPredicate() {
+        List<Integer> values = Arrays.asList(0, 1, 2, 3, 4, 5);
+
+        assertThat(
+                randomizer.oneOf(values, v -> v % 2 == 0),
+                isOneOf(opt(0), opt(2), opt(4))
+        );
+        assertThat(
+                randomizer.oneOf(new LinkedList<>(values), v -> v > 3),
+                isOneOf(opt(4), opt(5))
+        );
+        assertThat(randomizer.oneOf(values, v -> v > 5), is(empty()));
+    }
+
+    @RepeatedTest(value = REPETITIONS)
+    public void testFirstMatch() {
+        assertThat(
+                randomizer.firstMatch(Arrays.asList(0, 1, 2, 3), v -> v == 2),
+                is(opt(2))
+        );
+        assertThat(
+                randomizer.firstMatch(Collections.<Integer>emptyList(), v -> true),
+                is(empty())
+        );
+    }
+
+    @RepeatedTest(value = REPETITIONS)
+    public void testFirstNotNullVisitsEachValueOnce() {
+        List<Integer> visited = new ArrayList<>();
+
+        assertThat(
+                randomizer.firstNotNull(Arrays.asList(0, 1, 2, 3, 4), v -> {
+                    visited.add(v);
+                    return null;
+                }),
+                is(empty())
+        );
+        assertThat(visited, containsInAnyOrder(0, 1, 2, 3, 4));
+    }
+
     @SuppressWarnings("unchecked")
     private Supplier<Object>[] getStatefulSuppliers(Set<Integer> mods) {
         return new Supplier[]{